@@ -0,0 +1,45 @@
+package com.ing.hubs.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ * Runs the benchmarks with the regular JMH command line and writes the results as JSON to jmh-result.json
+ * unless {@code -rf}/{@code -rff} say otherwise, so two runs can be compared with any JMH result viewer.
+ */
+public final class BenchmarkMain {
+    static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(final String[] args) throws CommandLineOptionException, RunnerException, IOException {
+        final CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp()) {
+            commandLine.showHelp();
+            return;
+        }
+        if (commandLine.shouldList() || commandLine.shouldListWithParams() || commandLine.shouldListProfilers()
+                || commandLine.shouldListResultFormats()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+
+        final ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+        if (commandLine.getResultFormat().hasValue() || commandLine.getResult().hasValue()) {
+            new Runner(options.build()).run();
+            return;
+        }
+        new Runner(options
+                .resultFormat(ResultFormatType.JSON)
+                .result(DEFAULT_RESULT_FILE)
+                .build()).run();
+    }
+}
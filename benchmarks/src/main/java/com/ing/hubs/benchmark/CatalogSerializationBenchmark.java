@@ -0,0 +1,86 @@
+package com.ing.hubs.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ing.hubs.configuration.JacksonConfiguration;
+import com.ing.hubs.dto.course.CourseResponseDto;
+import com.ing.hubs.dto.page.PageResponseDto;
+import com.ing.hubs.mapper.CourseMapper;
+import com.ing.hubs.mapper.ScheduleMapper;
+import com.ing.hubs.service.catalog.CatalogJson;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing a list of courses into a response buffer: Jackson serializing the DTOs on every request, against
+ * concatenating the JSON fragments kept by the course catalog cache. {@code assembledPage} builds the page from cached
+ * course fragments, as after a change to another course; {@code cachedPage} writes a page that is cached as a whole.
+ * 100 courses is the largest page the API serves, 5000 is a whole registration-week catalog.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CatalogSerializationBenchmark {
+    @Param({"100", "5000"})
+    private int courses;
+
+    private ObjectMapper objectMapper;
+    private PageResponseDto<CourseResponseDto> page;
+    private List<byte[]> fragments;
+    private byte[] nextCursor;
+    private CatalogJson cachedPage;
+    private ByteArrayOutputStream buffer;
+
+    @Setup
+    public void setup() throws IOException {
+        final Fixtures fixtures = new Fixtures(42);
+        final CourseMapper courseMapper = new CourseMapper(new ScheduleMapper());
+        this.objectMapper = new JacksonConfiguration().objectMapper();
+
+        final List<CourseResponseDto> items = new ArrayList<>(this.courses);
+        this.fragments = new ArrayList<>(this.courses);
+        for (int i = 0; i < this.courses; i++) {
+            final CourseResponseDto course = courseMapper.toResponse(fixtures.weekendCourse());
+            items.add(course);
+            this.fragments.add(this.objectMapper.writeValueAsBytes(course));
+        }
+        this.page = new PageResponseDto<>(items, "AY3Ks2Vqd1KrKxoF1vQ0_w");
+        this.nextCursor = this.objectMapper.writeValueAsBytes(this.page.getNextCursor());
+        this.cachedPage = CatalogJson.page(this.fragments, this.nextCursor);
+        this.buffer = new ByteArrayOutputStream((int) this.cachedPage.length());
+
+        this.cachedPage.writeTo(this.buffer);
+        if (!Arrays.equals(this.buffer.toByteArray(), this.objectMapper.writeValueAsBytes(this.page))) {
+            throw new IllegalStateException("Cached fragments do not match the serialized page");
+        }
+    }
+
+    @Benchmark
+    public int jackson() throws IOException {
+        this.buffer.reset();
+        this.objectMapper.writeValue(this.buffer, this.page);
+        return this.buffer.size();
+    }
+
+    @Benchmark
+    public int assembledPage() throws IOException {
+        this.buffer.reset();
+        CatalogJson.page(this.fragments, this.nextCursor).writeTo(this.buffer);
+        return this.buffer.size();
+    }
+
+    @Benchmark
+    public int cachedPage() throws IOException {
+        this.buffer.reset();
+        this.cachedPage.writeTo(this.buffer);
+        return this.buffer.size();
+    }
+}
@@ -0,0 +1,177 @@
+package com.ing.hubs.benchmark;
+
+import com.ing.hubs.dto.course.CourseDto;
+import com.ing.hubs.dto.schedule.ScheduleDto;
+import com.ing.hubs.model.entity.course.Course;
+import com.ing.hubs.model.entity.course.schedule.CourseType;
+import com.ing.hubs.model.entity.course.schedule.Schedule;
+import com.ing.hubs.model.entity.course.schedule.Weekday;
+import com.ing.hubs.model.entity.enrollment.Enrollment;
+import com.ing.hubs.model.entity.enrollment.EnrollmentStatus;
+import com.ing.hubs.model.entity.user.Gender;
+import com.ing.hubs.model.entity.user.Role;
+import com.ing.hubs.model.entity.user.User;
+import com.ing.hubs.security.JwtProvider;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Deterministic data shaped like a registration week: courses with a course, seminar and lab slot,
+ * students holding 5 to 10 active enrollments without overlaps, and tokens signed with the application secret.
+ */
+public final class Fixtures {
+    public static final String JWT_SECRET = "MKsSLgwpW/AtoZEeznJMrwAd+Jujrq4Tpjza+7kqBbI=";
+    public static final int MIN_ENROLLMENTS = 5;
+    public static final int MAX_ENROLLMENTS = 10;
+
+    private static final Weekday[] WORKING_DAYS = {
+            Weekday.MONDAY, Weekday.TUESDAY, Weekday.WEDNESDAY, Weekday.THURSDAY, Weekday.FRIDAY};
+    private static final int FIRST_HOUR = 8;
+    private static final int SLOT_HOURS = 2;
+    private static final int SLOTS_PER_DAY = 6;
+    private static final CourseType[] SCHEDULE_TYPES = {CourseType.COURSE, CourseType.SEMINAR, CourseType.LAB};
+
+    private final Random random;
+    private final User teacher;
+    private int sequence;
+
+    public Fixtures(final long seed) {
+        this.random = new Random(seed);
+        this.teacher = this.user(Role.TEACHER);
+    }
+
+    public static JwtProvider jwtProvider() {
+        final JwtProvider jwtProvider = new JwtProvider();
+        jwtProvider.setSecret(JWT_SECRET);
+        jwtProvider.setTtlInMinutes(60);
+        return jwtProvider;
+    }
+
+    /**
+     * A student with {@code enrollments} active courses. The courses use disjoint weekday slots,
+     * so at most 10 fit into a week and the weekend stays free for {@link #weekendCourse()}.
+     */
+    public User student(final int enrollments) {
+        if (enrollments > MAX_ENROLLMENTS) {
+            throw new IllegalArgumentException("At most " + MAX_ENROLLMENTS + " non-overlapping courses fit into a week");
+        }
+        final User student = this.user(Role.STUDENT);
+        final List<Integer> slots = new ArrayList<>();
+        for (int slot = 0; slot < WORKING_DAYS.length * SLOTS_PER_DAY; slot++) {
+            slots.add(slot);
+        }
+        Collections.shuffle(slots, this.random);
+
+        for (int i = 0; i < enrollments; i++) {
+            final List<Schedule> schedules = new ArrayList<>();
+            for (int type = 0; type < SCHEDULE_TYPES.length; type++) {
+                final int slot = slots.get(i * SCHEDULE_TYPES.length + type);
+                schedules.add(schedule(SCHEDULE_TYPES[type], WORKING_DAYS[slot / SLOTS_PER_DAY],
+                        FIRST_HOUR + (slot % SLOTS_PER_DAY) * SLOT_HOURS));
+            }
+            student.addEnrollment(Enrollment.builder()
+                    .id(UUID.randomUUID())
+                    .grade(i % 2 == 0 ? null : 5 + this.random.nextInt(6))
+                    .status(EnrollmentStatus.ACTIVE)
+                    .course(this.course(schedules))
+                    .build());
+        }
+        return student;
+    }
+
+    public List<User> students(final int count) {
+        final List<User> students = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            students.add(this.student(MIN_ENROLLMENTS + this.random.nextInt(MAX_ENROLLMENTS - MIN_ENROLLMENTS + 1)));
+        }
+        return students;
+    }
+
+    /**
+     * A course held on Saturday, which never overlaps the weekday timetables built by {@link #student(int)}.
+     */
+    public Course weekendCourse() {
+        return this.course(List.of(
+                schedule(CourseType.COURSE, Weekday.SATURDAY, 8),
+                schedule(CourseType.SEMINAR, Weekday.SATURDAY, 10),
+                schedule(CourseType.LAB, Weekday.SATURDAY, 12)));
+    }
+
+    public CourseDto courseDto() {
+        final Course course = this.weekendCourse();
+        final Set<ScheduleDto> schedules = new LinkedHashSet<>();
+        course.getSchedules().forEach(schedule -> schedules.add(new ScheduleDto(
+                schedule.getCourseType(), schedule.getStartTime(), schedule.getEndTime(), schedule.getWeekday())));
+        return new CourseDto(course.getCourseName(), course.getDescription(), course.getCapacity(), course.getCredits(),
+                course.getStartDate(), course.getEndDate(), schedules);
+    }
+
+    /**
+     * A course creation request as a client sends it, exercising the custom deserializers.
+     */
+    public String courseDtoJson() {
+        final int id = ++this.sequence;
+        return """
+                {
+                  "courseName": "Distributed Systems %d",
+                  "description": "Consensus, replication, failure detection and the limits of each",
+                  "capacity": 120,
+                  "credits": 6,
+                  "startDate": "2024-10-01",
+                  "endDate": "2025-01-31",
+                  "schedules": [
+                    {"courseType": "course", "startTime": "08:00", "endTime": "10:00", "weekday": "monday"},
+                    {"courseType": "seminar", "startTime": "12:00", "endTime": "14:00", "weekday": "wednesday"},
+                    {"courseType": "lab", "startTime": "16:00", "endTime": "18:00", "weekday": "friday"}
+                  ]
+                }
+                """.formatted(id);
+    }
+
+    private Course course(final List<Schedule> schedules) {
+        final int id = ++this.sequence;
+        final Course course = Course.builder()
+                .id(UUID.randomUUID())
+                .courseName("Course " + id)
+                .description("Lectures, seminars and laboratories for course " + id)
+                .capacity(60 + this.random.nextInt(240))
+                .seatsTaken(this.random.nextInt(60))
+                .credits(1 + this.random.nextInt(10))
+                .startDate(LocalDate.of(2024, 10, 1))
+                .endDate(LocalDate.of(2025, 1, 31))
+                .build();
+        course.addSchedules(new LinkedHashSet<>(schedules));
+        this.teacher.addCourse(course);
+        return course;
+    }
+
+    private User user(final Role role) {
+        final int id = ++this.sequence;
+        return User.builder()
+                .id(UUID.randomUUID())
+                .firstName("First" + id)
+                .lastName("Last" + id)
+                .gender(id % 2 == 0 ? Gender.FEMALE : Gender.MALE)
+                .dateOfBirth(LocalDate.of(1995 + id % 10, 1 + id % 12, 1 + id % 28))
+                .username("user" + id)
+                .password("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z2T0mU6E8k5xg1rYlM2p9Y5W")
+                .role(role)
+                .email("user" + id + (role == Role.STUDENT ? "@stud.poodle.com" : "@poodle.com"))
+                .phoneNumber(String.format("07%08d", id))
+                .build();
+    }
+
+    private static Schedule schedule(final CourseType courseType,
+                                     final Weekday weekday,
+                                     final int startHour) {
+        return Schedule.builder()
+                .id(UUID.randomUUID())
+                .courseType(courseType)
+                .weekday(weekday)
+                .startTime(LocalTime.of(startHour, 0))
+                .endTime(LocalTime.of(startHour + SLOT_HOURS, 0))
+                .build();
+    }
+}
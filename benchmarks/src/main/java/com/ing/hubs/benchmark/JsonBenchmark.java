@@ -0,0 +1,59 @@
+package com.ing.hubs.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ing.hubs.configuration.JacksonConfiguration;
+import com.ing.hubs.dto.course.CourseDto;
+import com.ing.hubs.dto.enrollment.EnrollmentResponseDto;
+import com.ing.hubs.mapper.CourseMapper;
+import com.ing.hubs.mapper.EnrollmentMapper;
+import com.ing.hubs.mapper.ScheduleMapper;
+import com.ing.hubs.mapper.UserMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON handling with the application's ObjectMapper: reading a course creation request through the custom
+ * deserializers in com.ing.hubs.deserielize, and writing a student's enrollments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+    private ObjectMapper objectMapper;
+    private String courseDtoJson;
+    private EnrollmentResponseDto enrollment;
+    private List<EnrollmentResponseDto> enrollments;
+
+    @Setup
+    public void setup() {
+        final Fixtures fixtures = new Fixtures(42);
+        final EnrollmentMapper enrollmentMapper = new EnrollmentMapper(new UserMapper(), new CourseMapper(new ScheduleMapper()));
+        this.objectMapper = new JacksonConfiguration().objectMapper();
+        this.courseDtoJson = fixtures.courseDtoJson();
+        this.enrollments = fixtures.student(Fixtures.MAX_ENROLLMENTS).getEnrollments().stream()
+                .map(enrollmentMapper::toResponse)
+                .toList();
+        this.enrollment = this.enrollments.get(0);
+    }
+
+    @Benchmark
+    public CourseDto readCourseDto() throws JsonProcessingException {
+        return this.objectMapper.readValue(this.courseDtoJson, CourseDto.class);
+    }
+
+    @Benchmark
+    public String writeEnrollmentResponse() throws JsonProcessingException {
+        return this.objectMapper.writeValueAsString(this.enrollment);
+    }
+
+    @Benchmark
+    public String writeStudentEnrollments() throws JsonProcessingException {
+        return this.objectMapper.writeValueAsString(this.enrollments);
+    }
+}
@@ -0,0 +1,74 @@
+package com.ing.hubs.benchmark;
+
+import com.ing.hubs.dto.course.CourseDto;
+import com.ing.hubs.dto.course.CourseResponseDto;
+import com.ing.hubs.dto.enrollment.EnrollmentResponseDto;
+import com.ing.hubs.mapper.CourseMapper;
+import com.ing.hubs.mapper.EnrollmentMapper;
+import com.ing.hubs.mapper.ScheduleMapper;
+import com.ing.hubs.mapper.UserMapper;
+import com.ing.hubs.model.entity.course.Course;
+import com.ing.hubs.model.entity.enrollment.Enrollment;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The hand-written mappers against the reflective ModelMapper they replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    private ModelMapper modelMapper;
+    private CourseMapper courseMapper;
+    private EnrollmentMapper enrollmentMapper;
+    private Enrollment enrollment;
+    private Course course;
+    private CourseDto courseDto;
+
+    @Setup
+    public void setup() {
+        final Fixtures fixtures = new Fixtures(42);
+        this.modelMapper = new ModelMapper();
+        this.courseMapper = new CourseMapper(new ScheduleMapper());
+        this.enrollmentMapper = new EnrollmentMapper(new UserMapper(), this.courseMapper);
+        this.enrollment = fixtures.student(Fixtures.MIN_ENROLLMENTS).getEnrollments().iterator().next();
+        this.course = fixtures.weekendCourse();
+        this.courseDto = fixtures.courseDto();
+    }
+
+    @Benchmark
+    public EnrollmentResponseDto enrollmentResponseModelMapper() {
+        return this.modelMapper.map(this.enrollment, EnrollmentResponseDto.class);
+    }
+
+    @Benchmark
+    public EnrollmentResponseDto enrollmentResponseMapper() {
+        return this.enrollmentMapper.toResponse(this.enrollment);
+    }
+
+    @Benchmark
+    public CourseResponseDto courseResponseModelMapper() {
+        return this.modelMapper.map(this.course, CourseResponseDto.class);
+    }
+
+    @Benchmark
+    public CourseResponseDto courseResponseMapper() {
+        return this.courseMapper.toResponse(this.course);
+    }
+
+    @Benchmark
+    public Course courseEntityModelMapper() {
+        return this.modelMapper.map(this.courseDto, Course.class);
+    }
+
+    @Benchmark
+    public Course courseEntityMapper() {
+        return this.courseMapper.toEntity(this.courseDto);
+    }
+}
@@ -0,0 +1,40 @@
+package com.ing.hubs.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The delegating encoder configured in SecurityBeans: hashing at registration and matching at login.
+ * BCrypt is slow on purpose, so this reports milliseconds and runs fewer iterations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class PasswordEncodingBenchmark {
+    private static final String PASSWORD = "Str0ng-Passw0rd!";
+
+    private PasswordEncoder passwordEncoder;
+    private String encoded;
+
+    @Setup
+    public void setup() {
+        this.passwordEncoder = PasswordEncoderFactories.createDelegatingPasswordEncoder();
+        this.encoded = this.passwordEncoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public String encode() {
+        return this.passwordEncoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return this.passwordEncoder.matches(PASSWORD, this.encoded);
+    }
+}
@@ -0,0 +1,48 @@
+package com.ing.hubs.benchmark;
+
+import com.ing.hubs.model.entity.course.Course;
+import com.ing.hubs.model.entity.user.User;
+import com.ing.hubs.service.ScheduleService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ScheduleService#validateScheduleOverlap} for a student with 5 or 10 active courses and a candidate that fits.
+ * {@code warm} hits the cached weekly slot masks, {@code cold} evicts them first, as after an enrollment change.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScheduleOverlapBenchmark {
+    @Param({"5", "10"})
+    private int enrollments;
+
+    private ScheduleService scheduleService;
+    private User student;
+    private Course candidate;
+
+    @Setup
+    public void setup() {
+        final Fixtures fixtures = new Fixtures(42);
+        this.scheduleService = new ScheduleService();
+        this.student = fixtures.student(this.enrollments);
+        this.candidate = fixtures.weekendCourse();
+    }
+
+    @Benchmark
+    public void warm() {
+        this.scheduleService.validateScheduleOverlap(this.candidate, this.student);
+    }
+
+    @Benchmark
+    public void cold() {
+        this.scheduleService.evictStudentSlots(this.student.getId());
+        this.student.getEnrollments().forEach(enrollment -> this.scheduleService.evictCourseSlots(enrollment.getCourse().getId()));
+        this.scheduleService.evictCourseSlots(this.candidate.getId());
+        this.scheduleService.validateScheduleOverlap(this.candidate, this.student);
+    }
+}
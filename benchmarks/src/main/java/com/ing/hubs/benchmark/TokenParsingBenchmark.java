@@ -0,0 +1,49 @@
+package com.ing.hubs.benchmark;
+
+import com.ing.hubs.model.entity.user.User;
+import com.ing.hubs.security.JwtPrincipal;
+import com.ing.hubs.security.JwtProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifying and reading the principal from a signed token, which every authenticated request pays for,
+ * and signing a token at login.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenParsingBenchmark {
+    private static final int TOKENS = 64;
+
+    private JwtProvider jwtProvider;
+    private User student;
+    private String[] tokens;
+    private int next;
+
+    @Setup
+    public void setup() {
+        this.jwtProvider = Fixtures.jwtProvider();
+        final List<User> students = new Fixtures(42).students(TOKENS);
+        this.student = students.get(0);
+        this.tokens = students.stream()
+                .map(this.jwtProvider::generateJwt)
+                .toArray(String[]::new);
+    }
+
+    @Benchmark
+    public JwtPrincipal parsePrincipal() {
+        this.next = (this.next + 1) % TOKENS;
+        return this.jwtProvider.parsePrincipal(this.tokens[this.next]);
+    }
+
+    @Benchmark
+    public String generateJwt() {
+        return this.jwtProvider.generateJwt(this.student);
+    }
+}
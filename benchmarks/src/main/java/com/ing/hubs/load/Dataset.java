@@ -0,0 +1,24 @@
+package com.ing.hubs.load;
+
+import com.ing.hubs.model.entity.user.Role;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Ids of the seeded rows. Usernames follow the index in the list, see {@link #username(Role, int)}.
+ * Course {@code i} is taught by teacher {@code i % teachers.size()}.
+ */
+public record Dataset(List<UUID> students,
+                      List<UUID> teachers,
+                      List<UUID> courses,
+                      List<PendingEnrollment> pendingEnrollments) {
+
+    public static String username(final Role role,
+                                  final int index) {
+        return (role == Role.STUDENT ? "student" : "teacher") + index;
+    }
+
+    public record PendingEnrollment(UUID id, int teacher) {
+    }
+}
@@ -0,0 +1,190 @@
+package com.ing.hubs.load;
+
+import com.ing.hubs.model.entity.course.schedule.CourseType;
+import com.ing.hubs.model.entity.course.schedule.Weekday;
+import com.ing.hubs.model.entity.enrollment.EnrollmentStatus;
+import com.ing.hubs.model.entity.user.Gender;
+import com.ing.hubs.model.entity.user.Role;
+import com.ing.hubs.model.id.UuidV7;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.ByteBuffer;
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Inserts a synthetic population with plain JDBC batches, bypassing the REST API and the persistence context.
+ * Every user shares {@link #PASSWORD}; the hash is computed once. Courses start a month from now, so enrollments
+ * are still open, and get a course, seminar and lab slot. Enrollments are spread round-robin over the students,
+ * approved while the course has free seats and otherwise left pending, and {@code seats_taken} matches the approvals.
+ */
+@Slf4j
+public class DatasetSeeder {
+    public static final String PASSWORD = "Passw0rd!";
+
+    private static final Weekday[] WORKING_DAYS = {
+            Weekday.MONDAY, Weekday.TUESDAY, Weekday.WEDNESDAY, Weekday.THURSDAY, Weekday.FRIDAY};
+    private static final CourseType[] SCHEDULE_TYPES = {CourseType.COURSE, CourseType.SEMINAR, CourseType.LAB};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String encodedPassword;
+    private final int batchSize;
+    private final Random random;
+
+    public DatasetSeeder(final JdbcTemplate jdbcTemplate,
+                         final String encodedPassword,
+                         final int batchSize,
+                         final long seed) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.encodedPassword = encodedPassword;
+        this.batchSize = batchSize;
+        this.random = new Random(seed);
+    }
+
+    public Dataset seed(final LoadTestOptions options) {
+        final long started = System.nanoTime();
+        final List<UUID> teachers = this.insertUsers(Role.TEACHER, options.teachers());
+        final List<UUID> students = this.insertUsers(Role.STUDENT, options.students());
+
+        final int[] capacities = new int[options.courses()];
+        for (int i = 0; i < capacities.length; i++) {
+            capacities[i] = 100 + this.random.nextInt(201);
+        }
+        final List<PlannedEnrollment> planned = this.planEnrollments(options, capacities);
+        final int[] seatsTaken = new int[options.courses()];
+        planned.stream()
+                .filter(enrollment -> enrollment.status() == EnrollmentStatus.APPROVED)
+                .forEach(enrollment -> seatsTaken[enrollment.course()]++);
+
+        final List<UUID> courses = this.insertCourses(teachers, capacities, seatsTaken);
+        this.insertSchedules(courses);
+        final List<Dataset.PendingEnrollment> pending = this.insertEnrollments(planned, students, courses, teachers.size());
+
+        log.info(String.format("Seeded %d teachers, %d students, %d courses and %d enrollments (%d pending) in %d ms",
+                teachers.size(), students.size(), courses.size(), planned.size(), pending.size(),
+                (System.nanoTime() - started) / 1_000_000));
+        return new Dataset(students, teachers, courses, pending);
+    }
+
+    private List<UUID> insertUsers(final Role role,
+                                   final int count) {
+        final String prefix = role == Role.STUDENT ? "student" : "teacher";
+        final String domain = role == Role.STUDENT ? "@stud.poodle.com" : "@poodle.com";
+        final String phonePrefix = role == Role.STUDENT ? "07" : "06";
+        final List<UUID> ids = new ArrayList<>(count);
+        final List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final UUID id = UuidV7.randomUuid();
+            ids.add(id);
+            rows.add(new Object[]{toBytes(id), "First" + i, "Last" + i, Gender.values()[i % 2].ordinal(),
+                    Date.valueOf(LocalDate.of(1980 + i % 25, 1 + i % 12, 1 + i % 28)), Dataset.username(role, i),
+                    this.encodedPassword, role.ordinal(), prefix + i + domain, phonePrefix + String.format("%08d", i)});
+        }
+        this.batchInsert("insert into user (id, first_name, last_name, gender, date_of_birth, username, password, role, email, phone_number) "
+                + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        return ids;
+    }
+
+    private List<PlannedEnrollment> planEnrollments(final LoadTestOptions options,
+                                                    final int[] capacities) {
+        final int courses = capacities.length;
+        final int perStudent = (options.enrollments() + options.students() - 1) / options.students();
+        if (perStudent > courses) {
+            throw new IllegalArgumentException("Not enough courses for the requested enrollments per student");
+        }
+
+        final int[] approvals = new int[courses];
+        final Set<Long> taken = new HashSet<>();
+        final List<PlannedEnrollment> planned = new ArrayList<>(options.enrollments());
+        for (int i = 0; i < options.enrollments(); i++) {
+            final int student = i % options.students();
+            int course = this.random.nextInt(courses);
+            while (!taken.add((long) student * courses + course)) {
+                course = this.random.nextInt(courses);
+            }
+
+            final int roll = this.random.nextInt(10);
+            EnrollmentStatus status = roll < 6 ? EnrollmentStatus.APPROVED : roll < 9 ? EnrollmentStatus.PENDING : EnrollmentStatus.DENIED;
+            if (status == EnrollmentStatus.APPROVED && approvals[course] >= capacities[course]) {
+                status = EnrollmentStatus.PENDING;
+            }
+            if (status == EnrollmentStatus.APPROVED) {
+                approvals[course]++;
+            }
+            planned.add(new PlannedEnrollment(student, course, status));
+        }
+        return planned;
+    }
+
+    private List<UUID> insertCourses(final List<UUID> teachers,
+                                     final int[] capacities,
+                                     final int[] seatsTaken) {
+        final LocalDate startDate = LocalDate.now().plusMonths(1);
+        final List<UUID> ids = new ArrayList<>(capacities.length);
+        final List<Object[]> rows = new ArrayList<>(capacities.length);
+        for (int i = 0; i < capacities.length; i++) {
+            final UUID id = UuidV7.randomUuid();
+            ids.add(id);
+            rows.add(new Object[]{toBytes(id), "Course " + i, "Lectures, seminars and laboratories for course " + i,
+                    capacities[i], seatsTaken[i], 1 + this.random.nextInt(10), Date.valueOf(startDate),
+                    Date.valueOf(startDate.plusWeeks(16)), toBytes(teachers.get(i % teachers.size()))});
+        }
+        this.batchInsert("insert into course (id, course_name, description, capacity, seats_taken, credits, start_date, end_date, user_id) "
+                + "values (?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        return ids;
+    }
+
+    private void insertSchedules(final List<UUID> courses) {
+        final List<Object[]> rows = new ArrayList<>(courses.size() * SCHEDULE_TYPES.length);
+        for (UUID course : courses) {
+            final List<Weekday> days = new ArrayList<>(List.of(WORKING_DAYS));
+            Collections.shuffle(days, this.random);
+            for (int type = 0; type < SCHEDULE_TYPES.length; type++) {
+                final LocalTime startTime = LocalTime.of(8 + 2 * this.random.nextInt(6), 0);
+                rows.add(new Object[]{toBytes(UuidV7.randomUuid()), SCHEDULE_TYPES[type].ordinal(),
+                        Time.valueOf(startTime), Time.valueOf(startTime.plusHours(2)), days.get(type).ordinal(), toBytes(course)});
+            }
+        }
+        this.batchInsert("insert into schedule (id, course_type, start_time, end_time, weekday, course_id) values (?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private List<Dataset.PendingEnrollment> insertEnrollments(final List<PlannedEnrollment> planned,
+                                                              final List<UUID> students,
+                                                              final List<UUID> courses,
+                                                              final int teachers) {
+        final List<Dataset.PendingEnrollment> pending = new ArrayList<>();
+        final List<Object[]> rows = new ArrayList<>(planned.size());
+        for (PlannedEnrollment enrollment : planned) {
+            final UUID id = UuidV7.randomUuid();
+            rows.add(new Object[]{toBytes(id), enrollment.status().ordinal(),
+                    toBytes(students.get(enrollment.student())), toBytes(courses.get(enrollment.course()))});
+            if (enrollment.status() == EnrollmentStatus.PENDING) {
+                pending.add(new Dataset.PendingEnrollment(id, enrollment.course() % teachers));
+            }
+        }
+        this.batchInsert("insert into enrollment (id, status, user_id, course_id) values (?, ?, ?, ?)", rows);
+        Collections.shuffle(pending, this.random);
+        return pending;
+    }
+
+    private void batchInsert(final String sql,
+                             final List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += this.batchSize) {
+            this.jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + this.batchSize, rows.size())));
+        }
+    }
+
+    private static byte[] toBytes(final UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    private record PlannedEnrollment(int student, int course, EnrollmentStatus status) {
+    }
+}
@@ -0,0 +1,32 @@
+package com.ing.hubs.load;
+
+import java.util.Arrays;
+
+public enum Endpoint {
+    LOGIN("login", "POST /users/sessions"),
+    COURSES("courses", "GET /courses"),
+    ENROLL("enroll", "POST /enrollments/{courseId}"),
+    DECIDE("decide", "PATCH /enrollments/{id}"),
+    SCHEDULES("schedules", "GET /users/me/schedules");
+
+    private final String optionName;
+    private final String route;
+
+    Endpoint(final String optionName,
+             final String route) {
+        this.optionName = optionName;
+        this.route = route;
+    }
+
+    public String getRoute() {
+        return this.route;
+    }
+
+    public static Endpoint byName(final String optionName) {
+        return Arrays.stream(values())
+                .filter(endpoint -> endpoint.optionName.equals(optionName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(String.format("Unknown endpoint \"%s\", expected one of %s",
+                        optionName, Arrays.stream(values()).map(endpoint -> endpoint.optionName).toList())));
+    }
+}
@@ -0,0 +1,102 @@
+package com.ing.hubs.load;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Latencies and outcomes per endpoint. Each client thread owns a recorder, so recording is not synchronized;
+ * the recorders are merged once the run ends.
+ */
+public class LatencyRecorder {
+    /**
+     * Status recorded when the request did not produce an HTTP response.
+     */
+    public static final int NO_RESPONSE = -1;
+
+    private final Map<Endpoint, Samples> samples = new EnumMap<>(Endpoint.class);
+
+    public void record(final Endpoint endpoint,
+                       final long latencyNanos,
+                       final int status) {
+        this.samples.computeIfAbsent(endpoint, key -> new Samples()).add(latencyNanos, status);
+    }
+
+    public void merge(final LatencyRecorder other) {
+        other.samples.forEach((endpoint, samples) -> this.samples.computeIfAbsent(endpoint, key -> new Samples()).addAll(samples));
+    }
+
+    public Map<Endpoint, EndpointStats> stats(final Duration elapsed) {
+        final Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+        this.samples.forEach((endpoint, samples) -> stats.put(endpoint, samples.stats(elapsed)));
+        return stats;
+    }
+
+    /**
+     * Summary of one endpoint. {@code rejected} counts 4xx answers, which are expected under a random mix
+     * (overlapping schedules, full courses); {@code failed} counts 5xx answers and requests without a response.
+     */
+    public record EndpointStats(long requests,
+                                long succeeded,
+                                long rejected,
+                                long failed,
+                                double throughput,
+                                Duration p50,
+                                Duration p95,
+                                Duration p99,
+                                Duration max) {
+    }
+
+    private static final class Samples {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long succeeded;
+        private long rejected;
+        private long failed;
+
+        void add(final long latencyNanos,
+                 final int status) {
+            if (this.count == this.latencies.length) {
+                this.latencies = Arrays.copyOf(this.latencies, this.latencies.length * 2);
+            }
+            this.latencies[this.count++] = latencyNanos;
+            if (status >= 200 && status < 300) {
+                this.succeeded++;
+            } else if (status >= 400 && status < 500) {
+                this.rejected++;
+            } else {
+                this.failed++;
+            }
+        }
+
+        void addAll(final Samples other) {
+            if (this.count + other.count > this.latencies.length) {
+                this.latencies = Arrays.copyOf(this.latencies, this.count + other.count);
+            }
+            System.arraycopy(other.latencies, 0, this.latencies, this.count, other.count);
+            this.count += other.count;
+            this.succeeded += other.succeeded;
+            this.rejected += other.rejected;
+            this.failed += other.failed;
+        }
+
+        EndpointStats stats(final Duration elapsed) {
+            final long[] sorted = Arrays.copyOf(this.latencies, this.count);
+            Arrays.sort(sorted);
+            return new EndpointStats(this.count, this.succeeded, this.rejected, this.failed,
+                    this.count / (elapsed.toNanos() / 1e9),
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                    percentile(sorted, 1.0));
+        }
+
+        private static Duration percentile(final long[] sorted,
+                                           final double quantile) {
+            if (sorted.length == 0) {
+                return Duration.ZERO;
+            }
+            final int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return Duration.ofNanos(sorted[Math.max(0, index)]);
+        }
+    }
+}
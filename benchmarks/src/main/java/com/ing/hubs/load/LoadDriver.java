@@ -0,0 +1,168 @@
+package com.ing.hubs.load;
+
+import com.ing.hubs.model.entity.user.Role;
+import com.ing.hubs.model.entity.user.User;
+import com.ing.hubs.security.JwtProvider;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Drives the REST API with a weighted mix of endpoints from a fixed number of clients.
+ * Each client runs on its own platform thread and issues blocking requests back to back, so the offered load
+ * follows the server's latency (closed model). Authenticated endpoints use tokens signed with the application key,
+ * keeping BCrypt out of everything but the login endpoint.
+ */
+@Slf4j
+public class LoadDriver {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final URI baseUri;
+    private final Dataset dataset;
+    private final JwtProvider jwtProvider;
+    private final LoadTestOptions options;
+    private final HttpClient httpClient;
+    private final Endpoint[] weightedEndpoints;
+    private final Queue<Dataset.PendingEnrollment> pendingEnrollments;
+    private final Map<String, String> tokens = new ConcurrentHashMap<>();
+
+    public LoadDriver(final URI baseUri,
+                      final Dataset dataset,
+                      final JwtProvider jwtProvider,
+                      final LoadTestOptions options) {
+        this.baseUri = baseUri;
+        this.dataset = dataset;
+        this.jwtProvider = jwtProvider;
+        this.options = options;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(REQUEST_TIMEOUT)
+                .build();
+        this.weightedEndpoints = options.mix().entrySet().stream()
+                .flatMap(entry -> Collections.nCopies(entry.getValue(), entry.getKey()).stream())
+                .toArray(Endpoint[]::new);
+        this.pendingEnrollments = new ConcurrentLinkedQueue<>(dataset.pendingEnrollments());
+    }
+
+    /**
+     * Runs all clients for {@code duration} and returns their merged measurements.
+     */
+    public LatencyRecorder run(final Duration duration) throws InterruptedException {
+        final ExecutorService executor = Executors.newFixedThreadPool(this.options.clients());
+        final long deadline = System.nanoTime() + duration.toNanos();
+        final List<Future<LatencyRecorder>> clients = new ArrayList<>();
+        for (int client = 0; client < this.options.clients(); client++) {
+            final Random random = new Random(this.options.seed() + client);
+            clients.add(executor.submit(() -> this.runClient(random, deadline)));
+        }
+
+        final LatencyRecorder merged = new LatencyRecorder();
+        try {
+            for (Future<LatencyRecorder> client : clients) {
+                merged.merge(client.get());
+            }
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Load client failed", ex.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return merged;
+    }
+
+    private LatencyRecorder runClient(final Random random,
+                                      final long deadline) {
+        final LatencyRecorder recorder = new LatencyRecorder();
+        while (System.nanoTime() < deadline) {
+            final Endpoint endpoint = this.weightedEndpoints[random.nextInt(this.weightedEndpoints.length)];
+            final Optional<HttpRequest> request = this.buildRequest(endpoint, random);
+            if (request.isEmpty()) {
+                continue;
+            }
+
+            final long started = System.nanoTime();
+            int status;
+            try {
+                status = this.httpClient.send(request.get(), HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException ex) {
+                status = LatencyRecorder.NO_RESPONSE;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            recorder.record(endpoint, System.nanoTime() - started, status);
+        }
+        return recorder;
+    }
+
+    private Optional<HttpRequest> buildRequest(final Endpoint endpoint,
+                                               final Random random) {
+        return switch (endpoint) {
+            case LOGIN -> {
+                final int student = random.nextInt(this.dataset.students().size());
+                yield Optional.of(this.request("/users/sessions")
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(String.format("{\"username\": \"%s\", \"password\": \"%s\"}",
+                                Dataset.username(Role.STUDENT, student), DatasetSeeder.PASSWORD)))
+                        .build());
+            }
+            case COURSES -> Optional.of(this.request("/courses").GET().build());
+            case ENROLL -> {
+                final int student = random.nextInt(this.dataset.students().size());
+                final UUID course = this.dataset.courses().get(random.nextInt(this.dataset.courses().size()));
+                yield Optional.of(this.request("/enrollments/" + course)
+                        .header("Authorization", "Bearer " + this.studentToken(student))
+                        .POST(HttpRequest.BodyPublishers.noBody())
+                        .build());
+            }
+            case DECIDE -> {
+                final Dataset.PendingEnrollment enrollment = this.pendingEnrollments.poll();
+                if (enrollment == null) {
+                    yield Optional.empty();
+                }
+                yield Optional.of(this.request("/enrollments/" + enrollment.id())
+                        .header("Authorization", "Bearer " + this.teacherToken(enrollment.teacher()))
+                        .header("Content-Type", "application/json")
+                        .method("PATCH", HttpRequest.BodyPublishers.ofString(String.format("{\"status\": \"%s\"}",
+                                random.nextInt(10) < 8 ? "APPROVED" : "DENIED")))
+                        .build());
+            }
+            case SCHEDULES -> {
+                final int student = random.nextInt(this.dataset.students().size());
+                yield Optional.of(this.request("/users/me/schedules")
+                        .header("Authorization", "Bearer " + this.studentToken(student))
+                        .GET()
+                        .build());
+            }
+        };
+    }
+
+    private HttpRequest.Builder request(final String path) {
+        return HttpRequest.newBuilder(this.baseUri.resolve(path)).timeout(REQUEST_TIMEOUT);
+    }
+
+    private String studentToken(final int student) {
+        return this.token(Role.STUDENT, student, this.dataset.students().get(student));
+    }
+
+    private String teacherToken(final int teacher) {
+        return this.token(Role.TEACHER, teacher, this.dataset.teachers().get(teacher));
+    }
+
+    private String token(final Role role,
+                         final int index,
+                         final UUID id) {
+        final String username = Dataset.username(role, index);
+        return this.tokens.computeIfAbsent(username, key -> this.jwtProvider.generateJwt(User.builder()
+                .id(id)
+                .username(username)
+                .role(role)
+                .build()));
+    }
+}
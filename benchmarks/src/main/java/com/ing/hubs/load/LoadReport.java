@@ -0,0 +1,37 @@
+package com.ing.hubs.load;
+
+import java.time.Duration;
+import java.util.Map;
+
+final class LoadReport {
+    private static final String ROW = "%-30s %9s %9s %9s %9s %10s %9s %9s %9s %9s%n";
+
+    private LoadReport() {
+    }
+
+    static String format(final Map<Endpoint, LatencyRecorder.EndpointStats> stats,
+                         final LoadTestOptions options) {
+        final StringBuilder report = new StringBuilder();
+        report.append(String.format("%d students, %d teachers, %d courses, %d enrollments; %d clients for %s%n",
+                options.students(), options.teachers(), options.courses(), options.enrollments(),
+                options.clients(), options.duration()));
+        report.append(String.format(ROW, "endpoint", "requests", "2xx", "4xx", "failed", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+
+        long requests = 0;
+        double throughput = 0;
+        for (Map.Entry<Endpoint, LatencyRecorder.EndpointStats> entry : stats.entrySet()) {
+            final LatencyRecorder.EndpointStats endpoint = entry.getValue();
+            report.append(String.format(ROW, entry.getKey().getRoute(), endpoint.requests(), endpoint.succeeded(),
+                    endpoint.rejected(), endpoint.failed(), String.format("%.1f", endpoint.throughput()),
+                    millis(endpoint.p50()), millis(endpoint.p95()), millis(endpoint.p99()), millis(endpoint.max())));
+            requests += endpoint.requests();
+            throughput += endpoint.throughput();
+        }
+        report.append(String.format(ROW, "total", requests, "", "", "", String.format("%.1f", throughput), "", "", "", ""));
+        return report.toString();
+    }
+
+    private static String millis(final Duration duration) {
+        return String.format("%.2f", duration.toNanos() / 1e6);
+    }
+}
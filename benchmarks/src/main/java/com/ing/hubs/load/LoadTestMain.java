@@ -0,0 +1,67 @@
+package com.ing.hubs.load;
+
+import com.ing.hubs.Main;
+import com.ing.hubs.security.JwtProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.URI;
+import java.util.Map;
+
+/**
+ * Reproduces registration-week load without touching a real database: boots the application on a random port
+ * against an in-memory H2 database, seeds it through JDBC batches, warms up, then drives the endpoint mix and
+ * prints latency percentiles and throughput per endpoint. See {@link LoadTestOptions} for the options.
+ * <p>
+ * Java 17 has no virtual threads, so every client is a platform thread; keep {@code --clients} in the hundreds.
+ */
+@Slf4j
+public final class LoadTestMain {
+    private static final Map<String, String> EMBEDDED_PROPERTIES = Map.of(
+            "spring.datasource.url", "jdbc:h2:mem:loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+            "spring.datasource.username", "sa",
+            "spring.datasource.password", "",
+            "spring.jpa.hibernate.ddl-auto", "create",
+            "server.port", "0",
+            "scheduling.enabled", "false",
+            "logging.level.org.hibernate.SQL", "WARN",
+            "logging.level.org.springframework.web", "WARN",
+            "logging.level.com.ing.hubs", "WARN",
+            "logging.level.com.ing.hubs.load", "INFO");
+
+    private LoadTestMain() {
+    }
+
+    public static void main(final String[] args) throws InterruptedException {
+        final LoadTestOptions options = LoadTestOptions.parse(args);
+
+        // passed as command line arguments so they win over the application.properties packaged with the application
+        final String[] applicationArgs = EMBEDDED_PROPERTIES.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Main.class).run(applicationArgs)) {
+            final PasswordEncoder passwordEncoder = context.getBean(PasswordEncoder.class);
+            final Dataset dataset = new DatasetSeeder(context.getBean(JdbcTemplate.class),
+                    passwordEncoder.encode(DatasetSeeder.PASSWORD), options.batchSize(), options.seed())
+                    .seed(options);
+
+            final int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            final LoadDriver driver = new LoadDriver(URI.create("http://localhost:" + port), dataset,
+                    context.getBean(JwtProvider.class), options);
+
+            if (!options.warmup().isZero()) {
+                log.info(String.format("Warming up for %s with %d clients", options.warmup(), options.clients()));
+                driver.run(options.warmup());
+            }
+            log.info(String.format("Measuring for %s with %d clients", options.duration(), options.clients()));
+            final LatencyRecorder recorder = driver.run(options.duration());
+
+            System.out.println(LoadReport.format(recorder.stats(options.duration()), options));
+        }
+    }
+}
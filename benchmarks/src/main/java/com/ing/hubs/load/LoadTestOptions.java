@@ -0,0 +1,79 @@
+package com.ing.hubs.load;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Command line options of {@link LoadTestMain}, given as {@code --name=value}. Defaults model registration week.
+ * <ul>
+ *     <li>{@code --students=50000 --teachers=2000 --courses=5000 --enrollments=300000} size of the seeded dataset</li>
+ *     <li>{@code --batch=1000} rows per JDBC batch while seeding</li>
+ *     <li>{@code --clients=64} concurrent clients, each on its own platform thread</li>
+ *     <li>{@code --warmup=PT15S --duration=PT60S} warm-up (not reported) and measured run</li>
+ *     <li>{@code --mix=login:5,courses:20,enroll:30,decide:15,schedules:30} relative endpoint weights</li>
+ *     <li>{@code --seed=42} random seed for the dataset and the request mix</li>
+ * </ul>
+ */
+public record LoadTestOptions(int students,
+                              int teachers,
+                              int courses,
+                              int enrollments,
+                              int batchSize,
+                              int clients,
+                              Duration warmup,
+                              Duration duration,
+                              Map<Endpoint, Integer> mix,
+                              long seed) {
+    private static final String DEFAULT_MIX = "login:5,courses:20,enroll:30,decide:15,schedules:30";
+
+    public LoadTestOptions {
+        if (students < 1 || teachers < 1 || courses < 1 || enrollments < 0 || batchSize < 1 || clients < 1) {
+            throw new IllegalArgumentException("Dataset sizes, batch size and clients must be positive");
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("The endpoint mix needs at least one positive weight");
+        }
+    }
+
+    public static LoadTestOptions parse(final String[] args) {
+        final Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException(String.format("Expected --name=value but got \"%s\"", arg));
+            }
+            values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+
+        final LoadTestOptions options = new LoadTestOptions(
+                Integer.parseInt(values.getOrDefault("students", "50000")),
+                Integer.parseInt(values.getOrDefault("teachers", "2000")),
+                Integer.parseInt(values.getOrDefault("courses", "5000")),
+                Integer.parseInt(values.getOrDefault("enrollments", "300000")),
+                Integer.parseInt(values.getOrDefault("batch", "1000")),
+                Integer.parseInt(values.getOrDefault("clients", "64")),
+                Duration.parse(values.getOrDefault("warmup", "PT15S")),
+                Duration.parse(values.getOrDefault("duration", "PT60S")),
+                parseMix(values.getOrDefault("mix", DEFAULT_MIX)),
+                Long.parseLong(values.getOrDefault("seed", "42")));
+
+        final Set<String> unknown = new TreeSet<>(values.keySet());
+        unknown.removeAll(Set.of("students", "teachers", "courses", "enrollments", "batch", "clients",
+                "warmup", "duration", "mix", "seed"));
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException(String.format("Unknown options %s", unknown));
+        }
+        return options;
+    }
+
+    private static Map<Endpoint, Integer> parseMix(final String mix) {
+        final Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        for (String entry : mix.split(",")) {
+            final String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException(String.format("Expected endpoint:weight but got \"%s\"", entry));
+            }
+            weights.put(Endpoint.byName(parts[0]), Integer.parseInt(parts[1]));
+        }
+        return weights;
+    }
+}
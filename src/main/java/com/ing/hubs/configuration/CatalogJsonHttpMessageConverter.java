@@ -0,0 +1,50 @@
+package com.ing.hubs.configuration;
+
+import com.ing.hubs.service.catalog.CatalogJson;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link CatalogJson} fragments straight into the response body. Registered as a bean, so Spring Boot places it
+ * ahead of the Jackson converter, which would otherwise serialize the fragments as an object.
+ */
+@Component
+public class CatalogJsonHttpMessageConverter extends AbstractHttpMessageConverter<CatalogJson> {
+    public CatalogJsonHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(final Class<?> clazz) {
+        return CatalogJson.class.equals(clazz);
+    }
+
+    @Override
+    protected boolean canRead(final MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected CatalogJson readInternal(final Class<? extends CatalogJson> clazz,
+                                       final HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Catalog JSON is write-only", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(final CatalogJson json,
+                                    final MediaType contentType) {
+        return json.length();
+    }
+
+    @Override
+    protected void writeInternal(final CatalogJson json,
+                                 final HttpOutputMessage outputMessage) throws IOException {
+        json.writeTo(outputMessage.getBody());
+    }
+}
@@ -1,13 +1,14 @@
 package com.ing.hubs.configuration;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Clock;
+
 @Configuration
-public class ModelMapperConfiguration {
+public class ClockConfiguration {
     @Bean
-    public ModelMapper modelMapper(){
-        return new ModelMapper();
+    public Clock clock() {
+        return Clock.systemDefaultZone();
     }
 }
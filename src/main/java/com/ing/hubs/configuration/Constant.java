@@ -5,4 +5,6 @@ public class Constant {
     public static final String DUPLICATE_EMAIL = "user.UK_ob8kqyqqgmefl0aco34akdtpe";
     public static final String DUPLICATE_PHONE_NUMBER = "user.UK_4bgmpi98dylab6qdvf9xyaxu4";
     public static final String DUPLICATE_COURSE_NAME = "course.UK_9dll001xc2cip6hug6axoab0p";
+    public static final int STREAM_FETCH_SIZE = 500;
+    public static final String STREAM_FETCH_SIZE_HINT = "" + STREAM_FETCH_SIZE;
 }
@@ -4,9 +4,13 @@ import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
 import com.ing.hubs.exception.ResponseException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
@@ -21,7 +25,9 @@ import java.util.HashMap;
 import java.util.Map;
 
 @RestControllerAdvice
+@AllArgsConstructor
 public class RestResponseExceptionHandler {
+    private MeterRegistry meterRegistry;
 
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -34,9 +40,23 @@ public class RestResponseExceptionHandler {
     }
 
     @ExceptionHandler(value = {ResponseException.class})
-    protected ResponseEntity<ExceptionBody> handleResponseException(final ResponseException exception) {
+    protected ResponseEntity<ExceptionBody> handleResponseException(final ResponseException exception,
+                                                                    final HttpServletResponse response) {
+        Counter.builder("response.exceptions")
+                .description("Requests answered with a ResponseException")
+                .tag("exception", exception.getClass().getSimpleName())
+                .tag("status", String.valueOf(exception.getHttpStatus().value()))
+                .register(this.meterRegistry)
+                .increment();
+        // a streamed body sets its content type, possibly NDJSON, before its producer can fail; the error body is
+        // always plain JSON
+        if (!response.isCommitted()) {
+            response.setContentType(null);
+        }
         final var body = new ExceptionBody(exception.getMessage());
-        return new ResponseEntity<>(body, exception.getHttpStatus());
+        return ResponseEntity.status(exception.getHttpStatus())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
     }
 
     @ExceptionHandler(UnrecognizedPropertyException.class)
@@ -3,15 +3,25 @@ package com.ing.hubs.controller;
 import com.ing.hubs.dto.course.CourseDto;
 import com.ing.hubs.dto.course.CoursePatchDto;
 import com.ing.hubs.dto.course.CourseResponseDto;
+import com.ing.hubs.dto.course.TimetablePlanDto;
+import com.ing.hubs.dto.course.TimetablePlanResponseDto;
+import com.ing.hubs.dto.page.PageResponseDto;
+import com.ing.hubs.security.JwtPrincipal;
 import com.ing.hubs.service.CourseService;
+import com.ing.hubs.service.catalog.CatalogEntry;
+import com.ing.hubs.service.catalog.CatalogJson;
+import com.ing.hubs.service.catalog.CourseCatalogService;
+import com.ing.hubs.service.timetable.TimetableOptimizerService;
 import jakarta.annotation.security.PermitAll;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.access.annotation.Secured;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -19,36 +29,64 @@ import java.util.UUID;
 @RequestMapping("/courses")
 public class CourseController {
     private CourseService courseService;
+    private CourseCatalogService courseCatalogService;
+    private TimetableOptimizerService timetableOptimizerService;
 
     @PostMapping
     @ResponseStatus(value = HttpStatus.CREATED)
     public CourseResponseDto create(@RequestBody @Valid final CourseDto dto,
-                                    @RequestHeader(name = "Authorization") final String jwtToken) {
-        return this.courseService.createCourse(dto,jwtToken);
+                                    @AuthenticationPrincipal final JwtPrincipal principal) {
+        return this.courseService.createCourse(dto,principal);
     }
 
     @GetMapping
-    public List<CourseResponseDto> getAll(@RequestParam(required = false, name = "teacherId") final UUID teacherId) {
-        return this.courseService.findAllCourses(teacherId);
+    public ResponseEntity<CatalogJson> getAll(@RequestParam(required = false, name = "teacherId") final UUID teacherId,
+                                              @RequestParam(required = false, name = "cursor") final String cursor,
+                                              @RequestParam(required = false, name = "size") final Integer size,
+                                              final WebRequest request) {
+        return this.conditional(this.courseCatalogService.findPage(teacherId, cursor, size), request);
+    }
+
+    @GetMapping("/fitting")
+    public PageResponseDto<CourseResponseDto> findFitting(@RequestParam(required = false, name = "cursor") final String cursor,
+                                                          @RequestParam(required = false, name = "size") final Integer size,
+                                                          @AuthenticationPrincipal final JwtPrincipal principal) {
+        return this.courseService.findFittingCourses(principal, cursor, size);
+    }
+
+    @PostMapping("/timetable-plan")
+    public TimetablePlanResponseDto planTimetable(@RequestBody @Valid final TimetablePlanDto dto,
+                                                  @AuthenticationPrincipal final JwtPrincipal principal) {
+        return this.timetableOptimizerService.plan(dto, principal);
     }
 
     @GetMapping("/{id}")
-    public CourseResponseDto findById(@PathVariable final UUID id) {
-        return this.courseService.findById(id);
+    public ResponseEntity<CatalogJson> findById(@PathVariable final UUID id,
+                                                final WebRequest request) {
+        return this.conditional(this.courseCatalogService.findCourse(id), request);
     }
 
 
     @DeleteMapping("/{id}")
     public void delete(@PathVariable final UUID id,
-                       @RequestHeader(name = "Authorization") final String jwtToken) {
-        this.courseService.deleteById(id, jwtToken);
+                       @AuthenticationPrincipal final JwtPrincipal principal) {
+        this.courseService.deleteById(id, principal);
     }
 
     @PatchMapping("/{id}")
     public CourseResponseDto update(@PathVariable final UUID id,
                                     @RequestBody @Valid final CoursePatchDto dto,
-                                    @RequestHeader(name = "Authorization") final String jwtToken) {
-        return this.courseService.updateCourse(id, dto, jwtToken);
+                                    @AuthenticationPrincipal final JwtPrincipal principal) {
+        return this.courseService.updateCourse(id, dto, principal);
+    }
+
+    private ResponseEntity<CatalogJson> conditional(final CatalogEntry<CatalogJson> entry,
+                                                    final WebRequest request) {
+        if (request.checkNotModified(entry.etag())) {
+            // the 304 status and the ETag header are already set on the response
+            return null;
+        }
+        return ResponseEntity.ok().eTag(entry.etag()).body(entry.value());
     }
 
 }
@@ -1,16 +1,33 @@
 package com.ing.hubs.controller;
 
+import com.ing.hubs.dto.enrollment.BulkDecisionDto;
+import com.ing.hubs.dto.enrollment.BulkDecisionResponseDto;
+import com.ing.hubs.dto.enrollment.BulkGradeResponseDto;
+import com.ing.hubs.dto.enrollment.CartDto;
+import com.ing.hubs.dto.enrollment.CartResponseDto;
+import com.ing.hubs.dto.enrollment.EligibilityCheckDto;
+import com.ing.hubs.dto.enrollment.EligibilityDto;
+import com.ing.hubs.dto.enrollment.GradeEntryDto;
 import com.ing.hubs.dto.enrollment.UpdateEnrollmentStatusDto;
 import com.ing.hubs.dto.enrollment.EnrollmentResponseDto;
 import com.ing.hubs.dto.enrollment.GradeEnrollmentDto;
 import com.ing.hubs.model.entity.enrollment.EnrollmentStatus;
+import com.ing.hubs.security.JwtPrincipal;
+import com.ing.hubs.service.enrollment.EnrollmentCartService;
+import com.ing.hubs.service.enrollment.EnrollmentDecisionService;
+import com.ing.hubs.service.enrollment.EnrollmentEligibilityService;
 import com.ing.hubs.service.enrollment.EnrollmentProcessingService;
 import com.ing.hubs.service.enrollment.EnrollmentService;
+import com.ing.hubs.service.enrollment.GradeCsv;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
-
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.UUID;
@@ -21,31 +38,69 @@ import java.util.UUID;
 public class EnrollmentController {
     private EnrollmentService enrollmentService;
     private EnrollmentProcessingService enrollmentProcessingService;
+    private EnrollmentDecisionService enrollmentDecisionService;
+    private EnrollmentCartService enrollmentCartService;
+    private EnrollmentEligibilityService enrollmentEligibilityService;
+    private JsonStreamResponses jsonStreamResponses;
 
     @PostMapping("/{courseId}")
     @ResponseStatus(value = HttpStatus.CREATED)
     public EnrollmentResponseDto create(@PathVariable @Valid final UUID courseId,
-                                        @RequestHeader(name = "Authorization") final String jwtToken){
-        return this.enrollmentService.createEnrollment(courseId, jwtToken);
+                                        @AuthenticationPrincipal final JwtPrincipal principal){
+        return this.enrollmentService.createEnrollment(courseId, principal);
+    }
+
+    @PostMapping("/cart")
+    public ResponseEntity<CartResponseDto> submitCart(@RequestBody @Valid final CartDto dto,
+                                                      @AuthenticationPrincipal final JwtPrincipal principal){
+        final CartResponseDto response = this.enrollmentCartService.submit(dto, principal);
+        return ResponseEntity.status(response.isSubmitted() ? HttpStatus.CREATED : HttpStatus.UNPROCESSABLE_ENTITY)
+                .body(response);
+    }
+
+    @PostMapping("/eligibility")
+    public List<EligibilityDto> checkEligibility(@RequestBody @Valid final EligibilityCheckDto dto,
+                                                 @AuthenticationPrincipal final JwtPrincipal principal){
+        return this.enrollmentEligibilityService.check(dto, principal);
+    }
+
+    @PatchMapping("/decisions")
+    public BulkDecisionResponseDto decideEnrollments(@RequestBody @Valid final BulkDecisionDto dto,
+                                                     @AuthenticationPrincipal final JwtPrincipal principal){
+        return this.enrollmentDecisionService.decide(dto, principal);
     }
 
     @PatchMapping("/{enrollmentId}")
     public EnrollmentResponseDto updateEnrollmentStatus(@PathVariable final UUID enrollmentId,
                                                         @RequestBody @Valid final UpdateEnrollmentStatusDto dto,
-                                                        @RequestHeader(name = "Authorization") final String jwtToken){
-        return this.enrollmentProcessingService.updateEnrollmentStatus(enrollmentId, dto, jwtToken);
+                                                        @AuthenticationPrincipal final JwtPrincipal principal){
+        return this.enrollmentProcessingService.updateEnrollmentStatus(enrollmentId, dto, principal);
     }
 
     @PatchMapping("/grades/{enrollmentId}")
     public EnrollmentResponseDto gradeEnrollment(@PathVariable final UUID enrollmentId,
                                                  @RequestBody @Valid final GradeEnrollmentDto dto,
-                                                 @RequestHeader(name = "Authorization") final String jwtToken){
-        return this.enrollmentProcessingService.gradeEnrollment(enrollmentId, dto, jwtToken);
+                                                 @AuthenticationPrincipal final JwtPrincipal principal){
+        return this.enrollmentProcessingService.gradeEnrollment(enrollmentId, dto, principal);
+    }
+
+    @PatchMapping(value = "/grades", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public BulkGradeResponseDto gradeEnrollments(@RequestBody final List<GradeEntryDto> grades,
+                                                 @AuthenticationPrincipal final JwtPrincipal principal){
+        return this.enrollmentProcessingService.gradeEnrollments(grades, principal);
+    }
+
+    @PatchMapping(value = "/grades", consumes = "text/csv")
+    public BulkGradeResponseDto gradeEnrollmentsFromCsv(@RequestBody final String csv,
+                                                        @AuthenticationPrincipal final JwtPrincipal principal){
+        return this.enrollmentProcessingService.gradeEnrollments(GradeCsv.parse(csv), principal);
     }
 
     @GetMapping("/courses/{courseId}")
-    public List<EnrollmentResponseDto> findAllEnrollmentsByCourseId(@PathVariable final UUID courseId,
-                                                                    @RequestHeader(name = "Authorization") final String jwtToken){
-        return this.enrollmentService.findAllEnrollmentsByCourse(courseId, jwtToken);
+    public ResponseEntity<StreamingResponseBody> findAllEnrollmentsByCourseId(@PathVariable final UUID courseId,
+                                                                              @RequestHeader(required = false, name = HttpHeaders.ACCEPT) final String accept,
+                                                                              @AuthenticationPrincipal final JwtPrincipal principal){
+        return this.jsonStreamResponses.<EnrollmentResponseDto>of(accept,
+                sink -> this.enrollmentService.streamAllEnrollmentsByCourse(courseId, principal, sink));
     }
 }
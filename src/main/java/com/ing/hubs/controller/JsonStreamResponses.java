@@ -0,0 +1,92 @@
+package com.ing.hubs.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Builds response bodies that serialize rows while the producer reads them, instead of collecting a list first.
+ * The producer receives a sink and runs on the async request thread once the handler returns; nothing reaches the
+ * client before the generator's buffer fills, so an exception thrown early, such as a failed access check, still
+ * becomes a regular error response.
+ */
+@Component
+@AllArgsConstructor
+public class JsonStreamResponses {
+    private ObjectMapper objectMapper;
+
+    /**
+     * Answers with {@link #ndjson} when the client lists {@code application/x-ndjson} in its {@code Accept} header and
+     * with {@link #array} otherwise.
+     */
+    public <T> ResponseEntity<StreamingResponseBody> of(final String accept,
+                                                        final Consumer<Consumer<T>> producer) {
+        final boolean ndjson = accept != null && MediaType.parseMediaTypes(accept).stream()
+                .anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+        return ndjson ? this.ndjson(producer) : this.array(producer);
+    }
+
+    /**
+     * A single JSON array, for clients that expect the shape the listing endpoints always had.
+     */
+    public <T> ResponseEntity<StreamingResponseBody> array(final Consumer<Consumer<T>> producer) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(outputStream -> {
+                    final JsonGenerator generator = this.generator(outputStream);
+                    generator.writeStartArray();
+                    producer.accept(row -> this.write(generator, row));
+                    generator.writeEndArray();
+                    generator.close();
+                });
+    }
+
+    /**
+     * One JSON document per line, so clients can process rows as they arrive.
+     */
+    public <T> ResponseEntity<StreamingResponseBody> ndjson(final Consumer<Consumer<T>> producer) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(outputStream -> {
+                    final JsonGenerator generator = this.generator(outputStream);
+                    generator.setRootValueSeparator(null);
+                    producer.accept(row -> {
+                        this.write(generator, row);
+                        this.newLine(generator);
+                    });
+                    generator.close();
+                });
+    }
+
+    private JsonGenerator generator(final OutputStream outputStream) throws IOException {
+        // the servlet container owns the response stream; closing the generator only flushes it. A generator is not
+        // closed when the producer fails, so rows still in its buffer are dropped instead of preceding the error body
+        return this.objectMapper.createGenerator(outputStream).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    private void write(final JsonGenerator generator,
+                       final Object row) {
+        try {
+            generator.writeObject(row);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void newLine(final JsonGenerator generator) {
+        try {
+            generator.writeRaw('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.ing.hubs.controller;
 
 import com.ing.hubs.dto.enrollment.EnrollmentResponseDto;
 import com.ing.hubs.dto.jwt.JwtDto;
+import com.ing.hubs.dto.page.PageResponseDto;
 import com.ing.hubs.dto.schedule.StudentsScheduleResponseDto;
 import com.ing.hubs.dto.user.UserDto;
 import com.ing.hubs.dto.user.UserPatchDto;
@@ -9,13 +10,18 @@ import com.ing.hubs.dto.user.UserResponseDto;
 import com.ing.hubs.dto.user.UserSessionDto;
 import com.ing.hubs.model.entity.enrollment.EnrollmentStatus;
 import com.ing.hubs.model.entity.user.Role;
+import com.ing.hubs.security.JwtPrincipal;
 import com.ing.hubs.service.enrollment.EnrollmentService;
 import com.ing.hubs.service.SecurityService;
 import com.ing.hubs.service.UserService;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -29,6 +35,7 @@ public class UserController {
     private UserService userService;
     private EnrollmentService enrollmentService;
     private SecurityService securityService;
+    private JsonStreamResponses jsonStreamResponses;
 
     @PostMapping("/sessions")
     public JwtDto createSession(@RequestBody @Valid final UserSessionDto dto) {
@@ -42,8 +49,16 @@ public class UserController {
     }
 
     @GetMapping
-    public List<UserResponseDto> findAll(@RequestParam(required = false, name = "type") final Role role) {
-        return this.userService.findAllUsers(role);
+    public PageResponseDto<UserResponseDto> findAll(@RequestParam(required = false, name = "type") final Role role,
+                                                    @RequestParam(required = false, name = "cursor") final String cursor,
+                                                    @RequestParam(required = false, name = "size") final Integer size) {
+        return this.userService.findAllUsers(role, cursor, size);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(required = false, name = "type") final Role role,
+                                                        @RequestHeader(required = false, name = HttpHeaders.ACCEPT) final String accept) {
+        return this.jsonStreamResponses.<UserResponseDto>of(accept, sink -> this.userService.exportUsers(role, sink));
     }
 
     @GetMapping("/{id}")
@@ -52,30 +67,32 @@ public class UserController {
     }
 
     @DeleteMapping("/me")
-    public void delete(@RequestHeader(name = "Authorization") final String jwtToken) {
-        this.userService.deleteById(jwtToken);
+    public void delete(@AuthenticationPrincipal final JwtPrincipal principal) {
+        this.userService.deleteById(principal);
     }
 
     @PatchMapping("/me")
     @ResponseStatus(value = HttpStatus.OK)
     public UserResponseDto update(@RequestBody @Valid final UserPatchDto dto,
-                                  @RequestHeader(name = "Authorization") final String jwtToken) {
-        return this.userService.updateUser(jwtToken, dto);
+                                  @AuthenticationPrincipal final JwtPrincipal principal) {
+        return this.userService.updateUser(principal, dto);
     }
 
     @GetMapping("/me/enrollments")
-    public List<EnrollmentResponseDto> getAll(@RequestParam(required = false, name = "status") final EnrollmentStatus enrollmentStatus,
-                                              @RequestHeader(name = "Authorization") final String jwtToken) {
-        return this.enrollmentService.findAll(enrollmentStatus, jwtToken);
+    public ResponseEntity<StreamingResponseBody> getAll(@RequestParam(required = false, name = "status") final EnrollmentStatus enrollmentStatus,
+                                                        @RequestHeader(required = false, name = HttpHeaders.ACCEPT) final String accept,
+                                                        @AuthenticationPrincipal final JwtPrincipal principal) {
+        return this.jsonStreamResponses.<EnrollmentResponseDto>of(accept,
+                sink -> this.enrollmentService.streamAll(enrollmentStatus, principal, sink));
     }
 
     @GetMapping("/me/grades")
-    public Map<String, Integer> viewGrades(@RequestHeader(name = "Authorization") final String jwtToken) {
-        return this.enrollmentService.viewGrades(jwtToken);
+    public Map<String, Integer> viewGrades(@AuthenticationPrincipal final JwtPrincipal principal) {
+        return this.enrollmentService.viewGrades(principal);
     }
 
     @GetMapping("/me/schedules")
-    public List<StudentsScheduleResponseDto> findAllStudentsSchedules(@RequestHeader(name = "Authorization") final String jwtToken){
-        return this.enrollmentService.findStudentsActiveSchedules(jwtToken);
+    public List<StudentsScheduleResponseDto> findAllStudentsSchedules(@AuthenticationPrincipal final JwtPrincipal principal){
+        return this.enrollmentService.findStudentsActiveSchedules(principal);
     }
 }
@@ -19,6 +19,7 @@ public class CourseResponseDto {
     private String courseName;
     private String description;
     private Integer capacity;
+    private Integer seatsTaken;
     private Integer credits;
     private LocalDate startDate;
     private LocalDate endDate;
@@ -0,0 +1,18 @@
+package com.ing.hubs.dto.course;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TimetablePlanDto {
+    @NotEmpty(message = "Wanted courses cannot be empty!")
+    private List<UUID> courseIds;
+    private List<UUID> requiredCourseIds;
+}
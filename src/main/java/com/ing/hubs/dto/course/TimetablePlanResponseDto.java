@@ -0,0 +1,16 @@
+package com.ing.hubs.dto.course;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TimetablePlanResponseDto {
+    private List<CourseResponseDto> courses;
+    private Integer credits;
+    private boolean optimal;
+}
@@ -0,0 +1,18 @@
+package com.ing.hubs.dto.enrollment;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkDecisionResponseDto {
+    private int applied;
+    private int rejected;
+    private List<DecisionResultDto> results;
+    private List<UUID> canceled;
+}
@@ -0,0 +1,16 @@
+package com.ing.hubs.dto.enrollment;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkGradeResponseDto {
+    private int graded;
+    private int rejected;
+    private List<GradeResultDto> results;
+}
@@ -0,0 +1,15 @@
+package com.ing.hubs.dto.enrollment;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CartFailureDto {
+    private UUID courseId;
+    private String message;
+}
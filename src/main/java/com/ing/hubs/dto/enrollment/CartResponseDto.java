@@ -0,0 +1,16 @@
+package com.ing.hubs.dto.enrollment;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CartResponseDto {
+    private boolean submitted;
+    private List<EnrollmentResponseDto> enrollments;
+    private List<CartFailureDto> failures;
+}
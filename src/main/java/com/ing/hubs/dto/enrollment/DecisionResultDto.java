@@ -0,0 +1,18 @@
+package com.ing.hubs.dto.enrollment;
+
+import com.ing.hubs.model.entity.enrollment.EnrollmentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DecisionResultDto {
+    private UUID enrollmentId;
+    private EnrollmentStatus status;
+    private boolean applied;
+    private String message;
+}
@@ -0,0 +1,17 @@
+package com.ing.hubs.dto.enrollment;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EligibilityCheckDto {
+    @NotEmpty(message = "Courses to check cannot be empty!")
+    private List<UUID> courseIds;
+}
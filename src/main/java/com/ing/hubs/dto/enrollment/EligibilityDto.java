@@ -0,0 +1,28 @@
+package com.ing.hubs.dto.enrollment;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EligibilityDto {
+    private UUID courseId;
+    private boolean eligible;
+    private EligibilityReason reason;
+    private String message;
+    private UUID conflictingCourseId;
+
+    public static EligibilityDto eligible(final UUID courseId) {
+        return new EligibilityDto(courseId, true, null, null, null);
+    }
+
+    public static EligibilityDto ineligible(final UUID courseId,
+                                            final EligibilityReason reason,
+                                            final String message) {
+        return new EligibilityDto(courseId, false, reason, message, null);
+    }
+}
@@ -0,0 +1,9 @@
+package com.ing.hubs.dto.enrollment;
+
+public enum EligibilityReason {
+    COURSE_NOT_FOUND,
+    ENROLLMENT_PERIOD_PASSED,
+    CAPACITY_REACHED,
+    ALREADY_ENROLLED,
+    SCHEDULE_OVERLAP
+}
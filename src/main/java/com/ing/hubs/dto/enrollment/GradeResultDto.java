@@ -0,0 +1,17 @@
+package com.ing.hubs.dto.enrollment;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GradeResultDto {
+    private UUID enrollmentId;
+    private Integer grade;
+    private boolean graded;
+    private String message;
+}
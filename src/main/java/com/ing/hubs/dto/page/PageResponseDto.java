@@ -0,0 +1,19 @@
+package com.ing.hubs.dto.page;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextCursor} is {@code null} on the last page; otherwise it is passed
+ * back unchanged as the {@code cursor} request parameter to fetch the following page.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PageResponseDto<T> {
+    private List<T> items;
+    private String nextCursor;
+}
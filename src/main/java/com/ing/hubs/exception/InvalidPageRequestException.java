@@ -0,0 +1,10 @@
+package com.ing.hubs.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class InvalidPageRequestException extends ResponseException {
+    public InvalidPageRequestException(String message) {
+        this.setHttpStatus(HttpStatus.BAD_REQUEST);
+        this.setMessage(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.ing.hubs.exception.course;
+
+import com.ing.hubs.exception.ResponseException;
+import org.springframework.http.HttpStatus;
+
+public class InvalidTimetablePlanException extends ResponseException {
+    public InvalidTimetablePlanException(final String message) {
+        super.setHttpStatus(HttpStatus.BAD_REQUEST);
+        super.setMessage(message);
+    }
+}
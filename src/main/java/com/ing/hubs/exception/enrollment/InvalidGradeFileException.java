@@ -0,0 +1,11 @@
+package com.ing.hubs.exception.enrollment;
+
+import com.ing.hubs.exception.ResponseException;
+import org.springframework.http.HttpStatus;
+
+public class InvalidGradeFileException extends ResponseException {
+    public InvalidGradeFileException(final String message) {
+        super.setHttpStatus(HttpStatus.BAD_REQUEST);
+        super.setMessage(message);
+    }
+}
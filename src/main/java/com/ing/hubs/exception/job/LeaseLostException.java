@@ -0,0 +1,11 @@
+package com.ing.hubs.exception.job;
+
+import com.ing.hubs.exception.ResponseException;
+import org.springframework.http.HttpStatus;
+
+public class LeaseLostException extends ResponseException {
+    public LeaseLostException(final String jobName, final long fencingToken) {
+        super.setHttpStatus(HttpStatus.CONFLICT);
+        super.setMessage(String.format("Lease for job \"%s\" with fencing token %d is no longer held", jobName, fencingToken));
+    }
+}
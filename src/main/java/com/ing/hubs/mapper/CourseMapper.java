@@ -0,0 +1,44 @@
+package com.ing.hubs.mapper;
+
+import com.ing.hubs.dto.course.CourseDto;
+import com.ing.hubs.dto.course.CourseResponseDto;
+import com.ing.hubs.model.entity.course.Course;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CourseMapper {
+    private final ScheduleMapper scheduleMapper;
+
+    @Autowired
+    public CourseMapper(final ScheduleMapper scheduleMapper) {
+        this.scheduleMapper = scheduleMapper;
+    }
+
+    /**
+     * Copies the course fields only: schedules are validated and attached by the caller.
+     */
+    public Course toEntity(final CourseDto dto) {
+        return Course.builder()
+                .courseName(dto.getCourseName())
+                .description(dto.getDescription())
+                .capacity(dto.getCapacity())
+                .credits(dto.getCredits())
+                .startDate(dto.getStartDate())
+                .endDate(dto.getEndDate())
+                .build();
+    }
+
+    public CourseResponseDto toResponse(final Course course) {
+        return new CourseResponseDto(
+                course.getId(),
+                course.getCourseName(),
+                course.getDescription(),
+                course.getCapacity(),
+                course.getSeatsTaken(),
+                course.getCredits(),
+                course.getStartDate(),
+                course.getEndDate(),
+                course.getSchedules() == null ? null : this.scheduleMapper.toResponses(course.getSchedules()));
+    }
+}
@@ -0,0 +1,42 @@
+package com.ing.hubs.mapper;
+
+import com.ing.hubs.dto.course.CourseResponseDto;
+import com.ing.hubs.dto.enrollment.EnrollmentResponseDto;
+import com.ing.hubs.model.entity.enrollment.Enrollment;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class EnrollmentMapper {
+    private final UserMapper userMapper;
+    private final CourseMapper courseMapper;
+
+    @Autowired
+    public EnrollmentMapper(final UserMapper userMapper,
+                            final CourseMapper courseMapper) {
+        this.userMapper = userMapper;
+        this.courseMapper = courseMapper;
+    }
+
+    public EnrollmentResponseDto toResponse(final Enrollment enrollment) {
+        return new EnrollmentResponseDto(
+                enrollment.getId(),
+                enrollment.getGrade(),
+                enrollment.getStatus(),
+                enrollment.getUser() == null ? null : this.userMapper.toResponse(enrollment.getUser()),
+                enrollment.getCourse() == null ? null : this.courseMapper.toResponse(enrollment.getCourse()));
+    }
+
+    /**
+     * Uses a course representation the caller already mapped, for listings where many enrollments share a course.
+     */
+    public EnrollmentResponseDto toResponse(final Enrollment enrollment,
+                                            final CourseResponseDto course) {
+        return new EnrollmentResponseDto(
+                enrollment.getId(),
+                enrollment.getGrade(),
+                enrollment.getStatus(),
+                enrollment.getUser() == null ? null : this.userMapper.toResponse(enrollment.getUser()),
+                course);
+    }
+}
@@ -0,0 +1,36 @@
+package com.ing.hubs.mapper;
+
+import com.ing.hubs.dto.schedule.ScheduleDto;
+import com.ing.hubs.dto.schedule.ScheduleResponseDto;
+import com.ing.hubs.model.entity.course.schedule.Schedule;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+@Component
+public class ScheduleMapper {
+    public Schedule toEntity(final ScheduleDto dto) {
+        return Schedule.builder()
+                .courseType(dto.getCourseType())
+                .startTime(dto.getStartTime())
+                .endTime(dto.getEndTime())
+                .weekday(dto.getWeekday())
+                .build();
+    }
+
+    public ScheduleResponseDto toResponse(final Schedule schedule) {
+        return new ScheduleResponseDto(
+                schedule.getCourseType(),
+                schedule.getStartTime(),
+                schedule.getEndTime(),
+                schedule.getWeekday());
+    }
+
+    public Set<ScheduleResponseDto> toResponses(final Collection<Schedule> schedules) {
+        final Set<ScheduleResponseDto> responses = new LinkedHashSet<>();
+        schedules.forEach(schedule -> responses.add(this.toResponse(schedule)));
+        return responses;
+    }
+}
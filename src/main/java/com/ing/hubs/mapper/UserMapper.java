@@ -0,0 +1,38 @@
+package com.ing.hubs.mapper;
+
+import com.ing.hubs.dto.user.UserDto;
+import com.ing.hubs.dto.user.UserResponseDto;
+import com.ing.hubs.model.entity.user.User;
+import org.springframework.stereotype.Component;
+
+@Component
+public class UserMapper {
+    /**
+     * Copies the registration fields; the role and the encoded password are set by the caller.
+     */
+    public User toEntity(final UserDto dto) {
+        return User.builder()
+                .firstName(dto.getFirstName())
+                .lastName(dto.getLastName())
+                .gender(dto.getGender())
+                .dateOfBirth(dto.getDateOfBirth())
+                .username(dto.getUsername())
+                .password(dto.getPassword())
+                .email(dto.getEmail())
+                .phoneNumber(dto.getPhoneNumber())
+                .build();
+    }
+
+    public UserResponseDto toResponse(final User user) {
+        return new UserResponseDto(
+                user.getId(),
+                user.getFirstName(),
+                user.getLastName(),
+                user.getGender(),
+                user.getDateOfBirth(),
+                user.getUsername(),
+                user.getRole(),
+                user.getEmail(),
+                user.getPhoneNumber());
+    }
+}
@@ -0,0 +1,49 @@
+package com.ing.hubs.metrics;
+
+import com.ing.hubs.model.entity.enrollment.EnrollmentStatus;
+import com.ing.hubs.repository.CourseRepository;
+import com.ing.hubs.repository.EnrollmentRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+
+/**
+ * Pending enrollments and free seats in courses that have not started yet.
+ * Both are read with an aggregate query on every scrape, backed by the status and start date indexes.
+ */
+@Component
+public class EnrollmentGauges implements MeterBinder {
+    static final String PENDING_ENROLLMENTS = "enrollment.pending";
+    static final String FREE_SEATS = "course.seats.free";
+
+    private final EnrollmentRepository enrollmentRepository;
+    private final CourseRepository courseRepository;
+    private final Clock clock;
+
+    @Autowired
+    public EnrollmentGauges(final EnrollmentRepository enrollmentRepository,
+                            final CourseRepository courseRepository,
+                            final Clock clock) {
+        this.enrollmentRepository = enrollmentRepository;
+        this.courseRepository = courseRepository;
+        this.clock = clock;
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        Gauge.builder(PENDING_ENROLLMENTS, this.enrollmentRepository,
+                        repository -> repository.countByStatus(EnrollmentStatus.PENDING))
+                .description("Enrollments waiting for a teacher's decision")
+                .register(registry);
+
+        Gauge.builder(FREE_SEATS, this.courseRepository,
+                        repository -> repository.countFreeSeatsOfCoursesStartingAfter(LocalDate.now(this.clock)))
+                .description("Free seats in courses still open for enrollment")
+                .register(registry);
+    }
+}
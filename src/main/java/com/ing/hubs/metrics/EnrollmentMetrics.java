@@ -0,0 +1,66 @@
+package com.ing.hubs.metrics;
+
+import com.ing.hubs.model.entity.enrollment.EnrollmentStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Counts enrollment status transitions, tagged with the previous and the new status.
+ * New enrollments are counted as a transition from {@code NONE}. Inside a transaction a transition is only counted
+ * once the transaction commits, so one that is rolled back is never counted.
+ */
+@Component
+public class EnrollmentMetrics {
+    static final String TRANSITIONS = "enrollment.status.transitions";
+    static final String NONE = "NONE";
+
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public EnrollmentMetrics(final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void recordCreated(final EnrollmentStatus status) {
+        this.afterCommit(() -> this.counter(NONE, status).increment());
+    }
+
+    public void recordTransition(final EnrollmentStatus from,
+                                 final EnrollmentStatus to) {
+        this.recordTransitions(from, to, 1);
+    }
+
+    public void recordTransitions(final EnrollmentStatus from,
+                                  final EnrollmentStatus to,
+                                  final int count) {
+        if (count > 0) {
+            this.afterCommit(() -> this.counter(from == null ? NONE : from.name(), to).increment(count));
+        }
+    }
+
+    private void afterCommit(final Runnable increment) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            increment.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                increment.run();
+            }
+        });
+    }
+
+    private Counter counter(final String from,
+                            final EnrollmentStatus to) {
+        return Counter.builder(TRANSITIONS)
+                .description("Enrollment status transitions")
+                .tag("from", from)
+                .tag("to", to.name())
+                .register(this.meterRegistry);
+    }
+}
@@ -0,0 +1,228 @@
+package com.ing.hubs.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.nio.ByteBuffer;
+import java.sql.*;
+import java.util.*;
+
+/**
+ * One-shot migration of the VARCHAR(36) UUID keys written before ids were stored as BINARY(16).
+ * Foreign keys and secondary indexes on the converted columns are dropped, every id and foreign key column
+ * is rewritten to the 16-byte big-endian form Hibernate uses, and the keys and indexes are recreated.
+ * Columns that are already binary are skipped, so running the tool twice is harmless.
+ * <p>
+ * Run with the application stopped: {@code java -cp <app classpath> com.ing.hubs.migration.UuidBinaryMigration <jdbc-url> <user> <password>}
+ */
+@Slf4j
+public class UuidBinaryMigration {
+    private static final int BATCH_SIZE = 500;
+    private static final Set<Integer> BINARY_TYPES = Set.of(Types.BINARY, Types.VARBINARY);
+    static final Map<String, List<String>> UUID_COLUMNS = new LinkedHashMap<>();
+
+    static {
+        UUID_COLUMNS.put("user", List.of("id"));
+        UUID_COLUMNS.put("course", List.of("id", "user_id"));
+        UUID_COLUMNS.put("schedule", List.of("id", "course_id"));
+        UUID_COLUMNS.put("enrollment", List.of("id", "user_id", "course_id"));
+        UUID_COLUMNS.put("job_run", List.of("id"));
+    }
+
+    private final DataSource dataSource;
+
+    public UuidBinaryMigration(final DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public static void main(final String[] args) throws SQLException {
+        if (args.length != 3) {
+            throw new IllegalArgumentException("Usage: UuidBinaryMigration <jdbc-url> <user> <password>");
+        }
+        new UuidBinaryMigration(new DriverManagerDataSource(args[0], args[1], args[2])).migrate();
+    }
+
+    public void migrate() throws SQLException {
+        try (Connection connection = this.dataSource.getConnection()) {
+            final Schema schema = new Schema(connection);
+            final Map<String, List<String>> pending = schema.pendingColumns();
+            if (pending.isEmpty()) {
+                log.info("UUID columns are already stored as binary(16), nothing to migrate");
+                return;
+            }
+
+            final List<ForeignKey> foreignKeys = schema.foreignKeys(pending);
+            for (ForeignKey foreignKey : foreignKeys) {
+                schema.execute(String.format("alter table %s drop constraint %s",
+                        schema.quote(foreignKey.table()), schema.quote(foreignKey.name())));
+            }
+
+            final List<Index> indexes = schema.indexes(pending);
+            for (Index index : indexes) {
+                schema.execute(String.format("drop index %s on %s", schema.quote(index.name()), schema.quote(index.table())));
+            }
+
+            for (Map.Entry<String, List<String>> table : pending.entrySet()) {
+                final boolean convertsPrimaryKey = table.getValue().contains("id");
+                if (convertsPrimaryKey) {
+                    schema.execute(String.format("alter table %s drop primary key", schema.quote(table.getKey())));
+                }
+                for (String column : table.getValue()) {
+                    this.convertColumn(schema, table.getKey(), column);
+                }
+                if (convertsPrimaryKey) {
+                    schema.execute(String.format("alter table %s add primary key (%s)", schema.quote(table.getKey()), schema.quote("id")));
+                }
+                log.info(String.format("Converted %s of table \"%s\" to binary(16)", table.getValue(), table.getKey()));
+            }
+
+            for (Index index : indexes) {
+                schema.execute(String.format("create %sindex %s on %s (%s)", index.unique() ? "unique " : "",
+                        schema.quote(index.name()), schema.quote(index.table()), schema.quoteAll(index.columns())));
+            }
+            for (ForeignKey foreignKey : foreignKeys) {
+                schema.execute(String.format("alter table %s add constraint %s foreign key (%s) references %s (%s)",
+                        schema.quote(foreignKey.table()), schema.quote(foreignKey.name()), schema.quote(foreignKey.column()),
+                        schema.quote(foreignKey.referencedTable()), schema.quote(foreignKey.referencedColumn())));
+            }
+        }
+    }
+
+    private void convertColumn(final Schema schema,
+                               final String table,
+                               final String column) throws SQLException {
+        final String binaryColumn = column + "_bin";
+        schema.execute(String.format("alter table %s add column %s binary(16)", schema.quote(table), schema.quote(binaryColumn)));
+
+        final List<String> values = new ArrayList<>();
+        try (Statement statement = schema.connection().createStatement();
+             ResultSet resultSet = statement.executeQuery(String.format("select distinct %s from %s where %s is not null",
+                     schema.quote(column), schema.quote(table), schema.quote(column)))) {
+            while (resultSet.next()) {
+                values.add(resultSet.getString(1));
+            }
+        }
+
+        try (PreparedStatement update = schema.connection().prepareStatement(String.format("update %s set %s = ? where %s = ?",
+                schema.quote(table), schema.quote(binaryColumn), schema.quote(column)))) {
+            for (int i = 0; i < values.size(); i++) {
+                update.setBytes(1, toBytes(UUID.fromString(values.get(i))));
+                update.setString(2, values.get(i));
+                update.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0 || i == values.size() - 1) {
+                    update.executeBatch();
+                }
+            }
+        }
+
+        schema.execute(String.format("alter table %s drop column %s", schema.quote(table), schema.quote(column)));
+        schema.execute(String.format("alter table %s rename column %s to %s", schema.quote(table), schema.quote(binaryColumn), schema.quote(column)));
+        schema.execute(String.format("alter table %s modify column %s binary(16) not null", schema.quote(table), schema.quote(column)));
+    }
+
+    static byte[] toBytes(final UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    private record ForeignKey(String name, String table, String column, String referencedTable, String referencedColumn) {
+    }
+
+    private record Index(String name, String table, boolean unique, List<String> columns) {
+    }
+
+    private record Schema(Connection connection, DatabaseMetaData metaData, String catalog, String schema, String quote) {
+        Schema(final Connection connection) throws SQLException {
+            this(connection, connection.getMetaData(), connection.getCatalog(), connection.getSchema(),
+                    connection.getMetaData().getIdentifierQuoteString().trim());
+        }
+
+        String quote(final String identifier) {
+            return this.quote + identifier + this.quote;
+        }
+
+        String quoteAll(final List<String> identifiers) {
+            return String.join(", ", identifiers.stream().map(this::quote).toList());
+        }
+
+        void execute(final String sql) throws SQLException {
+            try (Statement statement = this.connection.createStatement()) {
+                statement.execute(sql);
+            }
+        }
+
+        /**
+         * The UUID columns of existing tables that are not binary yet, keyed by table.
+         */
+        Map<String, List<String>> pendingColumns() throws SQLException {
+            final Map<String, List<String>> pending = new LinkedHashMap<>();
+            for (Map.Entry<String, List<String>> table : UUID_COLUMNS.entrySet()) {
+                for (String column : table.getValue()) {
+                    try (ResultSet columns = this.metaData.getColumns(this.catalog, this.schema, table.getKey(), column)) {
+                        if (columns.next() && !BINARY_TYPES.contains(columns.getInt("DATA_TYPE"))) {
+                            pending.computeIfAbsent(table.getKey(), key -> new ArrayList<>()).add(column);
+                        }
+                    }
+                }
+            }
+            return pending;
+        }
+
+        List<ForeignKey> foreignKeys(final Map<String, List<String>> pending) throws SQLException {
+            final List<ForeignKey> foreignKeys = new ArrayList<>();
+            for (Map.Entry<String, List<String>> table : pending.entrySet()) {
+                try (ResultSet keys = this.metaData.getImportedKeys(this.catalog, this.schema, table.getKey())) {
+                    while (keys.next()) {
+                        if (table.getValue().contains(keys.getString("FKCOLUMN_NAME"))) {
+                            foreignKeys.add(new ForeignKey(keys.getString("FK_NAME"), table.getKey(), keys.getString("FKCOLUMN_NAME"),
+                                    keys.getString("PKTABLE_NAME"), keys.getString("PKCOLUMN_NAME")));
+                        }
+                    }
+                }
+            }
+            return foreignKeys;
+        }
+
+        /**
+         * Secondary indexes covering a pending column. Read after the foreign keys are dropped,
+         * so the indexes a database creates for its foreign keys are not recreated twice.
+         */
+        List<Index> indexes(final Map<String, List<String>> pending) throws SQLException {
+            final List<Index> indexes = new ArrayList<>();
+            for (Map.Entry<String, List<String>> table : pending.entrySet()) {
+                final List<String> primaryKey = this.primaryKeyColumns(table.getKey());
+                final Map<String, Index> byName = new LinkedHashMap<>();
+                try (ResultSet info = this.metaData.getIndexInfo(this.catalog, this.schema, table.getKey(), false, false)) {
+                    while (info.next()) {
+                        final String name = info.getString("INDEX_NAME");
+                        final String column = info.getString("COLUMN_NAME");
+                        if (name == null || column == null) {
+                            continue;
+                        }
+                        final boolean unique = !info.getBoolean("NON_UNIQUE");
+                        byName.computeIfAbsent(name, key -> new Index(key, table.getKey(), unique, new ArrayList<>()))
+                                .columns().add(column);
+                    }
+                }
+                byName.values().stream()
+                        .filter(index -> !index.columns().equals(primaryKey))
+                        .filter(index -> index.columns().stream().anyMatch(table.getValue()::contains))
+                        .forEach(indexes::add);
+            }
+            return indexes;
+        }
+
+        private List<String> primaryKeyColumns(final String table) throws SQLException {
+            final SortedMap<Short, String> columns = new TreeMap<>();
+            try (ResultSet primaryKeys = this.metaData.getPrimaryKeys(this.catalog, this.schema, table)) {
+                while (primaryKeys.next()) {
+                    columns.put(primaryKeys.getShort("KEY_SEQ"), primaryKeys.getString("COLUMN_NAME"));
+                }
+            }
+            return new ArrayList<>(columns.values());
+        }
+    }
+}
@@ -4,10 +4,10 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.ing.hubs.model.entity.course.schedule.Schedule;
 import com.ing.hubs.model.entity.enrollment.Enrollment;
 import com.ing.hubs.model.entity.user.User;
+import com.ing.hubs.model.id.UuidV7Id;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.extern.slf4j.Slf4j;
-import org.hibernate.annotations.JdbcTypeCode;
 
 import java.time.LocalDate;
 import java.util.LinkedHashSet;
@@ -20,12 +20,18 @@ import java.util.UUID;
 @Slf4j
 @Entity
 @Builder
-@Table(name = "course")
+@Table(name = "course", indexes = {
+        @Index(name = "idx_course_start_date", columnList = "start_date"),
+        @Index(name = "idx_course_end_date", columnList = "end_date"),
+        @Index(name = "idx_course_user_id", columnList = "user_id, id")
+})
+@NamedEntityGraph(name = Course.WITH_SCHEDULES, attributeNodes = @NamedAttributeNode("schedules"))
 public class Course {
+    public static final String WITH_SCHEDULES = "Course.withSchedules";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7Id
     @Column(name = "id", nullable = false)
-    @JdbcTypeCode(java.sql.Types.VARCHAR)
     private UUID id;
 
     @Column(name = "course_name", nullable = false, unique = true)
@@ -37,6 +43,10 @@ public class Course {
     @Column(name = "capacity", nullable = false)
     private Integer capacity;
 
+    @Builder.Default
+    @Column(name = "seats_taken", nullable = false, updatable = false)
+    private Integer seatsTaken = 0;
+
     @Column(name = "credits", nullable = false)
     private Integer credits;
 
@@ -51,7 +61,7 @@ public class Course {
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
     @JsonIgnore
-    @ManyToOne(cascade = {CascadeType.PERSIST, CascadeType.MERGE}, optional = false)
+    @ManyToOne(cascade = {CascadeType.PERSIST, CascadeType.MERGE}, optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
@@ -59,14 +69,14 @@ public class Course {
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
     @JsonIgnore
-    @OneToMany(mappedBy = "course", cascade = CascadeType.REMOVE, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "course", cascade = CascadeType.REMOVE)
     private Set<Enrollment> enrollments = new LinkedHashSet<>();
 
     @Builder.Default
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
     @JsonIgnore
-    @OneToMany(mappedBy = "course", cascade = {CascadeType.REMOVE, CascadeType.MERGE}, fetch = FetchType.EAGER, orphanRemoval = true)
+    @OneToMany(mappedBy = "course", cascade = {CascadeType.PERSIST, CascadeType.REMOVE, CascadeType.MERGE}, orphanRemoval = true)
     private Set<Schedule> schedules = new LinkedHashSet<>();
 
     public void addSchedules(final Set<Schedule> schedules){
@@ -74,4 +84,8 @@ public class Course {
         schedules.forEach(schedule -> schedule.addCourse(this));
     }
 
+    public boolean hasAvailableSeats(){
+        return this.seatsTaken == null || this.seatsTaken < this.capacity;
+    }
+
 }
\ No newline at end of file
@@ -2,10 +2,10 @@ package com.ing.hubs.model.entity.course.schedule;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.ing.hubs.model.entity.course.Course;
+import com.ing.hubs.model.id.UuidV7Id;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.extern.slf4j.Slf4j;
-import org.hibernate.annotations.JdbcTypeCode;
 
 import java.time.LocalTime;
 import java.util.UUID;
@@ -19,9 +19,8 @@ import java.util.UUID;
 @Table(name = "schedule")
 public class Schedule {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7Id
     @Column(name = "id", nullable = false)
-    @JdbcTypeCode(java.sql.Types.VARCHAR)
     private UUID id;
 
     @Column(name = "course_type", nullable = false)
@@ -39,7 +38,7 @@ public class Schedule {
 
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JsonIgnore
     @JoinColumn(name = "course_id", nullable = false)
     private Course course;
@@ -0,0 +1,87 @@
+package com.ing.hubs.model.entity.course.schedule;
+
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Immutable occupancy bitmap of a week split into half-hour slots (7 days x 48 slots).
+ * A schedule occupies the slots in [startTime, endTime), so back-to-back schedules do not collide.
+ */
+public final class WeeklySlots {
+    public static final int SLOT_MINUTES = 30;
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    public static final int SLOTS_PER_WEEK = SLOTS_PER_DAY * Weekday.values().length;
+    public static final WeeklySlots EMPTY = new WeeklySlots(new long[(SLOTS_PER_WEEK + Long.SIZE - 1) / Long.SIZE]);
+
+    private final long[] words;
+
+    private WeeklySlots(final long[] words) {
+        this.words = words;
+    }
+
+    /**
+     * Builds the bitmap of the given schedules, or returns an empty optional when any of them
+     * does not start and end on a half-hour boundary.
+     */
+    public static Optional<WeeklySlots> of(final Collection<Schedule> schedules) {
+        final long[] words = new long[EMPTY.words.length];
+        for (Schedule schedule : schedules) {
+            if (!isOnGrid(schedule.getStartTime()) || !isOnGrid(schedule.getEndTime())) {
+                return Optional.empty();
+            }
+            final int dayOffset = schedule.getWeekday().ordinal() * SLOTS_PER_DAY;
+            final int first = dayOffset + slotOfDay(schedule.getStartTime());
+            final int last = dayOffset + slotOfDay(schedule.getEndTime());
+            for (int slot = first; slot < last; slot++) {
+                words[slot >>> 6] |= 1L << slot;
+            }
+        }
+        return Optional.of(new WeeklySlots(words));
+    }
+
+    public boolean intersects(final WeeklySlots other) {
+        for (int i = 0; i < this.words.length; i++) {
+            if ((this.words[i] & other.words[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public WeeklySlots or(final WeeklySlots other) {
+        final long[] merged = new long[this.words.length];
+        for (int i = 0; i < merged.length; i++) {
+            merged[i] = this.words[i] | other.words[i];
+        }
+        return new WeeklySlots(merged);
+    }
+
+    public boolean isOccupied(final Weekday weekday, final LocalTime time) {
+        final int slot = weekday.ordinal() * SLOTS_PER_DAY + slotOfDay(time);
+        return (this.words[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    public boolean isEmpty() {
+        return Arrays.stream(this.words).allMatch(word -> word == 0);
+    }
+
+    private static boolean isOnGrid(final LocalTime time) {
+        return time.getMinute() % SLOT_MINUTES == 0 && time.getSecond() == 0 && time.getNano() == 0;
+    }
+
+    private static int slotOfDay(final LocalTime time) {
+        return (time.getHour() * 60 + time.getMinute()) / SLOT_MINUTES;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        return this == o || (o instanceof WeeklySlots other && Arrays.equals(this.words, other.words));
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(this.words);
+    }
+}
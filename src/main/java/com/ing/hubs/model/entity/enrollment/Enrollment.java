@@ -2,12 +2,12 @@ package com.ing.hubs.model.entity.enrollment;
 
 import com.ing.hubs.model.entity.course.Course;
 import com.ing.hubs.model.entity.user.User;
+import com.ing.hubs.model.id.UuidV7Id;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import lombok.*;
 import lombok.extern.slf4j.Slf4j;
-import org.hibernate.annotations.JdbcTypeCode;
 
 import java.util.UUID;
 
@@ -18,12 +18,26 @@ import java.util.UUID;
 @Slf4j
 @Entity
 @Builder
-@Table(name = "enrollment")
+@Table(name = "enrollment", indexes = {
+        @Index(name = "idx_enrollment_user_status", columnList = "user_id, status"),
+        @Index(name = "idx_enrollment_course_status", columnList = "course_id, status"),
+        @Index(name = "idx_enrollment_status", columnList = "status")
+})
+@NamedEntityGraph(name = Enrollment.WITH_DETAILS,
+        attributeNodes = {
+                @NamedAttributeNode("user"),
+                @NamedAttributeNode(value = "course", subgraph = "course")
+        },
+        subgraphs = @NamedSubgraph(name = "course", attributeNodes = {
+                @NamedAttributeNode("user"),
+                @NamedAttributeNode("schedules")
+        }))
 public class Enrollment {
+    public static final String WITH_DETAILS = "Enrollment.withDetails";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7Id
     @Column(name = "id", nullable = false)
-    @JdbcTypeCode(java.sql.Types.VARCHAR)
     private UUID id;
 
     @Column(name = "grade")
@@ -37,13 +51,13 @@ public class Enrollment {
 
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
-    @ManyToOne(cascade = {CascadeType.PERSIST, CascadeType.MERGE}, optional = false)
+    @ManyToOne(cascade = {CascadeType.PERSIST, CascadeType.MERGE}, optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
-    @ManyToOne(cascade = {CascadeType.PERSIST, CascadeType.MERGE}, optional = false)
+    @ManyToOne(cascade = {CascadeType.PERSIST, CascadeType.MERGE}, optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "course_id", nullable = false)
     private Course course;
 
@@ -0,0 +1,36 @@
+package com.ing.hubs.model.entity.enrollment;
+
+import com.ing.hubs.model.id.UuidV7Id;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A seat of a course kept for a pending enrollment until {@code expiresAt}. The seat is counted in the course's
+ * {@code seatsTaken} for as long as the row exists: approving the enrollment deletes the row and keeps the seat, while
+ * denying, canceling or expiring it deletes the row and gives the seat back. The ids are plain columns rather than
+ * associations, so that deleting a course or an enrollment is not held up by its holds; such a hold simply expires.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Builder
+@Table(name = "seat_hold", indexes = @Index(name = "idx_seat_hold_expires_at", columnList = "expires_at"))
+public class SeatHold {
+    @Id
+    @UuidV7Id
+    @Column(name = "id", nullable = false)
+    private UUID id;
+
+    @Column(name = "enrollment_id", nullable = false, unique = true)
+    private UUID enrollmentId;
+
+    @Column(name = "course_id", nullable = false)
+    private UUID courseId;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
@@ -0,0 +1,35 @@
+package com.ing.hubs.model.entity.job;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * One row per scheduled job. The node named in {@code holder} owns the job until {@code leaseUntil};
+ * every takeover increments {@code fencingToken}, so writes made under an older token can be rejected.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Builder
+@Table(name = "job_lease")
+public class JobLease {
+    @Id
+    @Column(name = "job_name", nullable = false, length = 100)
+    private String jobName;
+
+    @Column(name = "holder")
+    private String holder;
+
+    @Builder.Default
+    @Column(name = "fencing_token", nullable = false)
+    private Long fencingToken = 0L;
+
+    @Column(name = "lease_until", nullable = false)
+    private Instant leaseUntil;
+}
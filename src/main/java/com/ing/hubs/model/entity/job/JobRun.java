@@ -0,0 +1,44 @@
+package com.ing.hubs.model.entity.job;
+
+import com.ing.hubs.model.id.UuidV7Id;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Builder
+@Table(name = "job_run", indexes = {
+        @Index(name = "idx_job_run_job_started", columnList = "job_name, started_at")
+})
+public class JobRun {
+    @Id
+    @UuidV7Id
+    @Column(name = "id", nullable = false)
+    private UUID id;
+
+    @Column(name = "job_name", nullable = false, length = 100)
+    private String jobName;
+
+    @Column(name = "holder", nullable = false)
+    private String holder;
+
+    @Column(name = "fencing_token", nullable = false)
+    private Long fencingToken;
+
+    @Column(name = "started_at", nullable = false)
+    private Instant startedAt;
+
+    @Column(name = "duration_millis", nullable = false)
+    private Long durationMillis;
+
+    @Column(name = "rows_touched", nullable = false)
+    private Integer rowsTouched;
+
+    @Column(name = "succeeded", nullable = false)
+    private Boolean succeeded;
+}
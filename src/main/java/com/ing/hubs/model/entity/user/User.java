@@ -2,10 +2,10 @@ package com.ing.hubs.model.entity.user;
 
 import com.ing.hubs.model.entity.course.Course;
 import com.ing.hubs.model.entity.enrollment.Enrollment;
+import com.ing.hubs.model.id.UuidV7Id;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.extern.slf4j.Slf4j;
-import org.hibernate.annotations.JdbcTypeCode;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
@@ -18,12 +18,23 @@ import java.util.*;
 @Slf4j
 @Entity
 @Builder
-@Table(name = "user")
+@Table(name = "user", indexes = @Index(name = "idx_user_role", columnList = "role, id"))
+@NamedEntityGraph(name = User.WITH_TIMETABLE,
+        attributeNodes = @NamedAttributeNode(value = "enrollments", subgraph = "enrollments"),
+        subgraphs = {
+                @NamedSubgraph(name = "enrollments", attributeNodes = @NamedAttributeNode(value = "course", subgraph = "course")),
+                @NamedSubgraph(name = "course", attributeNodes = @NamedAttributeNode("schedules"))
+        })
+@NamedEntityGraph(name = User.WITH_COURSE_ENROLLMENTS,
+        attributeNodes = @NamedAttributeNode(value = "courses", subgraph = "courses"),
+        subgraphs = @NamedSubgraph(name = "courses", attributeNodes = @NamedAttributeNode("enrollments")))
 public class User implements CustomUserDetails {
+    public static final String WITH_TIMETABLE = "User.withTimetable";
+    public static final String WITH_COURSE_ENROLLMENTS = "User.withCourseEnrollments";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7Id
     @Column(name = "id", nullable = false)
-    @JdbcTypeCode(java.sql.Types.VARCHAR)
     private UUID id;
 
     @Column(name = "first_name", nullable = false)
@@ -56,13 +67,13 @@ public class User implements CustomUserDetails {
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
     @Builder.Default
-    @OneToMany(mappedBy = "user", cascade = {CascadeType.MERGE, CascadeType.REMOVE}, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "user", cascade = {CascadeType.MERGE, CascadeType.REMOVE})
     private Set<Enrollment> enrollments = new LinkedHashSet<>();
 
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
     @Builder.Default
-    @OneToMany(mappedBy = "user", cascade = {CascadeType.MERGE,CascadeType.REMOVE}, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "user", cascade = {CascadeType.MERGE,CascadeType.REMOVE})
     private Set<Course> courses = new LinkedHashSet<>();
 
 
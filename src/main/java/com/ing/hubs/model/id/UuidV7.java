@@ -0,0 +1,41 @@
+package com.ing.hubs.model.id;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered UUID version 7 (RFC 9562): 48 bits of Unix milliseconds, a 12-bit counter and 62 random bits.
+ * The counter keeps ids generated in the same millisecond monotonic; when it overflows the timestamp is borrowed
+ * from the next millisecond, so ids from one JVM always increase.
+ */
+public final class UuidV7 {
+    private static final int COUNTER_BITS = 12;
+    private static final long VERSION = 0x7L << 12;
+    private static final long VARIANT = 0x2L << 62;
+    private static final long RANDOM_MASK = (1L << 62) - 1;
+    private static final AtomicLong STATE = new AtomicLong();
+    private static final ThreadLocal<SecureRandom> RANDOM = ThreadLocal.withInitial(SecureRandom::new);
+
+    private UuidV7() {
+    }
+
+    public static UUID randomUuid() {
+        return next(Clock.systemUTC().millis());
+    }
+
+    static UUID next(final long currentMillis) {
+        final long state = STATE.updateAndGet(last -> Math.max(currentMillis << COUNTER_BITS, last + 1));
+        final long millis = state >>> COUNTER_BITS;
+        final long counter = state & ((1L << COUNTER_BITS) - 1);
+
+        final long mostSignificantBits = (millis << 16) | VERSION | counter;
+        final long leastSignificantBits = VARIANT | (RANDOM.get().nextLong() & RANDOM_MASK);
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+    public static long timestampMillis(final UUID uuid) {
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+}
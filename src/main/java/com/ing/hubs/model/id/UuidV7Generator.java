@@ -0,0 +1,20 @@
+package com.ing.hubs.model.id;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+
+public class UuidV7Generator implements IdentifierGenerator {
+    public UuidV7Generator(final UuidV7Id config,
+                           final Member idMember,
+                           final CustomIdGeneratorCreationContext creationContext) {
+    }
+
+    @Override
+    public Object generate(final SharedSessionContractImplementor session,
+                           final Object object) {
+        return UuidV7.randomUuid();
+    }
+}
@@ -2,13 +2,74 @@ package com.ing.hubs.repository;
 
 import com.ing.hubs.model.entity.course.Course;
 import com.ing.hubs.model.entity.user.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface CourseRepository extends JpaRepository<Course, UUID> {
+    @Override
+    @EntityGraph(Course.WITH_SCHEDULES)
+    Optional<Course> findById(final UUID id);
+
+    @Override
+    @EntityGraph(Course.WITH_SCHEDULES)
+    List<Course> findAll();
+
+    @Query("select c from Course c where c.id > :after order by c.id")
+    List<Course> findPageAfter(@Param("after") final UUID after, final Pageable pageable);
+
+    @Query("select c from Course c where c.user.id = :teacherId and c.id > :after order by c.id")
+    List<Course> findPageByTeacherAfter(@Param("teacherId") final UUID teacherId,
+                                        @Param("after") final UUID after,
+                                        final Pageable pageable);
+
+    @EntityGraph(Course.WITH_SCHEDULES)
+    List<Course> findAllByIdIn(final Collection<UUID> ids);
+
+    @EntityGraph(Course.WITH_SCHEDULES)
+    @Query("select c from Course c where c.user.id = :teacherId")
+    List<Course> findAllByTeacherId(@Param("teacherId") final UUID teacherId);
+
+    @EntityGraph(Course.WITH_SCHEDULES)
+    @Query("select c from Course c where c.id in (select e.course.id from Enrollment e where e.user.id = :studentId)")
+    List<Course> findAllByStudentId(@Param("studentId") final UUID studentId);
+
     Optional<Course> findByUser(final User user);
     boolean existsByCourseName(final String courseName);
     Optional<Course> findByCourseName(final String courseName);
+
+    @Query("select c.id from Course c where c.startDate > :date")
+    List<UUID> findIdsStartingAfter(@Param("date") final LocalDate date);
+
+    @Query("select distinct c.startDate from Course c where c.startDate > :date")
+    List<LocalDate> findDistinctStartDatesAfter(@Param("date") final LocalDate date);
+
+    @Query("select distinct c.endDate from Course c where c.endDate >= :date")
+    List<LocalDate> findDistinctEndDatesOnOrAfter(@Param("date") final LocalDate date);
+
+    @Query("select coalesce(sum(c.capacity - c.seatsTaken), 0) from Course c where c.startDate > :date")
+    long countFreeSeatsOfCoursesStartingAfter(@Param("date") final LocalDate date);
+
+    @Modifying
+    @Query("update Course c set c.seatsTaken = c.seatsTaken + 1 where c.id = :id and c.seatsTaken < c.capacity")
+    int reserveSeat(@Param("id") final UUID id);
+
+    @Modifying
+    @Query("update Course c set c.seatsTaken = c.seatsTaken + :seats where c.id = :id and c.seatsTaken + :seats <= c.capacity")
+    int reserveSeats(@Param("id") final UUID id,
+                     @Param("seats") final int seats);
+
+    @Modifying
+    @Query("update Course c set c.seatsTaken = c.seatsTaken - :seats where c.id = :id and c.seatsTaken >= :seats")
+    int releaseSeats(@Param("id") final UUID id,
+                     @Param("seats") final int seats);
 }
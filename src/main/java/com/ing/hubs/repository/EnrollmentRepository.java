@@ -1,17 +1,104 @@
 package com.ing.hubs.repository;
 
+import com.ing.hubs.configuration.Constant;
 import com.ing.hubs.model.entity.course.Course;
 import com.ing.hubs.model.entity.enrollment.Enrollment;
 import com.ing.hubs.model.entity.enrollment.EnrollmentStatus;
 import com.ing.hubs.model.entity.user.User;
+import com.ing.hubs.repository.projection.EnrollmentGradeRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface EnrollmentRepository extends JpaRepository<Enrollment, UUID> {
+    @Override
+    @EntityGraph(Enrollment.WITH_DETAILS)
+    Optional<Enrollment> findById(final UUID id);
 
     Optional<Enrollment> findEnrollmentByUserAndCourse(final User user, final Course course);
+
+    @EntityGraph(Enrollment.WITH_DETAILS)
+    List<Enrollment> findAllByUserId(final UUID userId);
+
+    @EntityGraph(Enrollment.WITH_DETAILS)
+    List<Enrollment> findAllByUserIdAndStatus(final UUID userId, final EnrollmentStatus status);
+
+    @EntityGraph(Enrollment.WITH_DETAILS)
+    List<Enrollment> findAllByUserIdAndStatusIn(final UUID userId, final Collection<EnrollmentStatus> statuses);
+
+    @EntityGraph(Enrollment.WITH_DETAILS)
+    List<Enrollment> findAllByCourseId(final UUID courseId);
+
+    @EntityGraph(Enrollment.WITH_DETAILS)
+    List<Enrollment> findAllByStatus(final EnrollmentStatus status);
+
+    @EntityGraph(Enrollment.WITH_DETAILS)
+    List<Enrollment> findAllByIdIn(final Collection<UUID> ids);
+
+    @EntityGraph(Enrollment.WITH_DETAILS)
+    List<Enrollment> findAllByCourseIdAndStatus(final UUID courseId, final EnrollmentStatus status);
+
+    @EntityGraph(Enrollment.WITH_DETAILS)
+    List<Enrollment> findAllByUserIdInAndStatusIn(final Collection<UUID> userIds, final Collection<EnrollmentStatus> statuses);
+
+    long countByStatus(final EnrollmentStatus status);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = Constant.STREAM_FETCH_SIZE_HINT))
+    @Query("select e from Enrollment e join fetch e.user where e.user.id = :userId")
+    Stream<Enrollment> streamAllByUserId(@Param("userId") final UUID userId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = Constant.STREAM_FETCH_SIZE_HINT))
+    @Query("select e from Enrollment e join fetch e.user where e.user.id = :userId and e.status = :status")
+    Stream<Enrollment> streamAllByUserIdAndStatus(@Param("userId") final UUID userId,
+                                                  @Param("status") final EnrollmentStatus status);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = Constant.STREAM_FETCH_SIZE_HINT))
+    @Query("select e from Enrollment e join fetch e.user where e.course.user.id = :teacherId")
+    Stream<Enrollment> streamAllByTeacherId(@Param("teacherId") final UUID teacherId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = Constant.STREAM_FETCH_SIZE_HINT))
+    @Query("select e from Enrollment e join fetch e.user where e.course.user.id = :teacherId and e.status = :status")
+    Stream<Enrollment> streamAllByTeacherIdAndStatus(@Param("teacherId") final UUID teacherId,
+                                                     @Param("status") final EnrollmentStatus status);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = Constant.STREAM_FETCH_SIZE_HINT))
+    @Query("select e from Enrollment e join fetch e.user where e.course.id = :courseId")
+    Stream<Enrollment> streamAllByCourseId(@Param("courseId") final UUID courseId);
+
+    @Query("select new com.ing.hubs.repository.projection.EnrollmentGradeRow(e.id, e.status, e.grade, c.user.id, c.id, c.startDate, c.endDate) "
+            + "from Enrollment e join e.course c where e.id in :ids")
+    List<EnrollmentGradeRow> findGradeRowsByIdIn(@Param("ids") final Collection<UUID> ids);
+
+    @Query("select e.id from Enrollment e where e.status = :status and e.grade is not null and e.course.endDate < :date order by e.id")
+    List<UUID> findGradedIdsByStatusAndCourseEndedBefore(@Param("status") final EnrollmentStatus status,
+                                                         @Param("date") final LocalDate date,
+                                                         final Pageable pageable);
+
+    @Query("select e.id from Enrollment e where e.status = :status and e.course.startDate <= :date order by e.id")
+    List<UUID> findIdsByStatusAndCourseStartedOnOrBefore(@Param("status") final EnrollmentStatus status,
+                                                         @Param("date") final LocalDate date,
+                                                         final Pageable pageable);
+
+    @Query("select e.id from Enrollment e where e.id in :ids and e.status = :status")
+    List<UUID> findIdsByIdInAndStatus(@Param("ids") final Collection<UUID> ids,
+                                      @Param("status") final EnrollmentStatus status);
+
+    @Modifying
+    @Query("update Enrollment e set e.status = :newStatus where e.id in :ids and e.status = :currentStatus")
+    int updateStatusByIds(@Param("ids") final Collection<UUID> ids,
+                          @Param("currentStatus") final EnrollmentStatus currentStatus,
+                          @Param("newStatus") final EnrollmentStatus newStatus);
 }
@@ -0,0 +1,44 @@
+package com.ing.hubs.repository;
+
+import com.ing.hubs.model.entity.job.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+    /**
+     * Plain insert rather than {@code save}: a merge would overwrite a lease another node created concurrently.
+     */
+    @Modifying
+    @Query("insert into JobLease (jobName, fencingToken, leaseUntil) values (:jobName, 0L, :leaseUntil)")
+    int create(@Param("jobName") String jobName,
+               @Param("leaseUntil") Instant leaseUntil);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update JobLease l set l.holder = :holder, l.fencingToken = l.fencingToken + 1, l.leaseUntil = :until " +
+            "where l.jobName = :jobName and (l.holder is null or l.leaseUntil <= :now)")
+    int acquire(@Param("jobName") String jobName,
+                @Param("holder") String holder,
+                @Param("now") Instant now,
+                @Param("until") Instant until);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update JobLease l set l.leaseUntil = :until " +
+            "where l.jobName = :jobName and l.holder = :holder and l.fencingToken = :token and l.leaseUntil > :now")
+    int renew(@Param("jobName") String jobName,
+              @Param("holder") String holder,
+              @Param("token") long token,
+              @Param("now") Instant now,
+              @Param("until") Instant until);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update JobLease l set l.holder = null where l.jobName = :jobName and l.holder = :holder and l.fencingToken = :token")
+    int release(@Param("jobName") String jobName,
+                @Param("holder") String holder,
+                @Param("token") long token);
+}
@@ -0,0 +1,13 @@
+package com.ing.hubs.repository;
+
+import com.ing.hubs.model.entity.job.JobRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface JobRunRepository extends JpaRepository<JobRun, UUID> {
+    List<JobRun> findAllByJobNameOrderByStartedAt(String jobName);
+}
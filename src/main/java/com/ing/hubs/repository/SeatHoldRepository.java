@@ -0,0 +1,37 @@
+package com.ing.hubs.repository;
+
+import com.ing.hubs.model.entity.enrollment.SeatHold;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface SeatHoldRepository extends JpaRepository<SeatHold, UUID> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select h from SeatHold h where h.enrollmentId in :enrollmentIds")
+    List<SeatHold> lockAllByEnrollmentIdIn(@Param("enrollmentIds") final Collection<UUID> enrollmentIds);
+
+    @Query("select h from SeatHold h where h.expiresAt <= :now order by h.expiresAt")
+    List<SeatHold> findExpired(@Param("now") final Instant now, final Pageable pageable);
+
+    @Modifying
+    @Query("delete from SeatHold h where h.enrollmentId = :enrollmentId")
+    int deleteByEnrollmentId(@Param("enrollmentId") final UUID enrollmentId);
+
+    @Modifying
+    @Query("delete from SeatHold h where h.enrollmentId = :enrollmentId and h.expiresAt <= :now")
+    int deleteExpiredByEnrollmentId(@Param("enrollmentId") final UUID enrollmentId,
+                                    @Param("now") final Instant now);
+
+    @Modifying
+    @Query("delete from SeatHold h where h.enrollmentId in :enrollmentIds")
+    int deleteAllByEnrollmentIdIn(@Param("enrollmentIds") final Collection<UUID> enrollmentIds);
+}
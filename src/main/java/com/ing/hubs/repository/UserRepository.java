@@ -1,10 +1,21 @@
 package com.ing.hubs.repository;
 
+import com.ing.hubs.configuration.Constant;
+import com.ing.hubs.model.entity.user.Role;
 import com.ing.hubs.model.entity.user.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByUsername(final String username);
@@ -12,4 +23,25 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     boolean existsByEmail(final String email);
     boolean existsByPhoneNumber(final String phoneNumber);
 
+    @Query("select u from User u where u.id > :after order by u.id")
+    List<User> findPageAfter(@Param("after") final UUID after, final Pageable pageable);
+
+    @Query("select u from User u where u.role = :role and u.id > :after order by u.id")
+    List<User> findPageByRoleAfter(@Param("role") final Role role,
+                                   @Param("after") final UUID after,
+                                   final Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = Constant.STREAM_FETCH_SIZE_HINT))
+    @Query("select u from User u")
+    Stream<User> streamAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = Constant.STREAM_FETCH_SIZE_HINT))
+    @Query("select u from User u where u.role = :role")
+    Stream<User> streamAllByRole(@Param("role") final Role role);
+
+    @EntityGraph(User.WITH_TIMETABLE)
+    Optional<User> findWithTimetableById(final UUID id);
+
+    @EntityGraph(User.WITH_COURSE_ENROLLMENTS)
+    Optional<User> findWithCourseEnrollmentsById(final UUID id);
 }
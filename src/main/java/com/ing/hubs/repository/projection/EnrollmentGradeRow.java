@@ -0,0 +1,18 @@
+package com.ing.hubs.repository.projection;
+
+import com.ing.hubs.model.entity.enrollment.EnrollmentStatus;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * What bulk grading needs to know about an enrollment, read without loading the enrollment graph.
+ */
+public record EnrollmentGradeRow(UUID id,
+                                 EnrollmentStatus status,
+                                 Integer grade,
+                                 UUID teacherId,
+                                 UUID courseId,
+                                 LocalDate courseStartDate,
+                                 LocalDate courseEndDate) {
+}
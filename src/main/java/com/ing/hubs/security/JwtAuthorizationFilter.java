@@ -9,8 +9,6 @@ import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.servlet.HandlerExceptionResolver;
@@ -23,7 +21,6 @@ import java.io.IOException;
 public class JwtAuthorizationFilter extends OncePerRequestFilter {
     private final HandlerExceptionResolver handlerExceptionResolver;
     private final JwtProvider jwtProvider;
-    private final UserDetailsService userDetailsService;
 
     @Override
     protected void doFilterInternal(
@@ -44,18 +41,15 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
 
         try {
             String jwt = authHeader.substring(7);
-            String username = this.jwtProvider.extractUsername(jwt);
+            JwtPrincipal principal = this.jwtProvider.parsePrincipal(jwt);
 
-            if (username != null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities()
-                );
+            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                    principal,
+                    null,
+                    principal.getAuthorities()
+            );
 
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
+            SecurityContextHolder.getContext().setAuthentication(authToken);
 
             filterChain.doFilter(request, response);
         } catch (Exception exception) {
@@ -64,7 +58,7 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
     }
 
     private boolean shouldSkipAuthentication(HttpServletRequest request) {
-        String path = request.getServletPath();
-        return path.contains("/users") || path.contains("/courses");
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.contains("/users") || path.contains("/courses") || path.equals("/actuator/health");
     }
 }
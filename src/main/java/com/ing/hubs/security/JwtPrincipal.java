@@ -0,0 +1,20 @@
+package com.ing.hubs.security;
+
+import com.ing.hubs.model.entity.user.Role;
+import lombok.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.UUID;
+
+@Value
+public class JwtPrincipal {
+    UUID id;
+    String username;
+    Role role;
+
+    public List<GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority(this.role.name()));
+    }
+}
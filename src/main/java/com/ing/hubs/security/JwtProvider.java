@@ -3,10 +3,13 @@ package com.ing.hubs.security;
 import com.ing.hubs.model.entity.user.CustomUserDetails;
 import com.ing.hubs.model.entity.user.Role;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Setter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 
@@ -15,7 +18,9 @@ import org.springframework.stereotype.Component;
 import javax.crypto.SecretKey;
 import java.time.ZonedDateTime;
 import java.util.Date;
+import java.util.List;
 import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Component
@@ -31,6 +36,12 @@ public class JwtProvider {
     private static final String ID = "id";
     private static final String ROLES = "roles";
 
+    @Setter(AccessLevel.NONE)
+    private volatile SecretKey jwtKey;
+
+    @Setter(AccessLevel.NONE)
+    private volatile JwtParser jwtParser;
+
 
     public String generateJwt(final CustomUserDetails userDetails) {
         final Date expirationDateTime = Date.from(ZonedDateTime.now().plusMinutes(ttlInMinutes).toInstant());
@@ -50,18 +61,30 @@ public class JwtProvider {
 
 
     public SecretKey getJwtKey() {
-        final byte[] keyBytes = Decoders.BASE64.decode(this.secret);
-        return Keys.hmacShaKeyFor(keyBytes);
+        if (this.jwtKey == null) {
+            final byte[] keyBytes = Decoders.BASE64.decode(this.secret);
+            this.jwtKey = Keys.hmacShaKeyFor(keyBytes);
+        }
+        return this.jwtKey;
     }
 
+    public JwtParser getJwtParser() {
+        if (this.jwtParser == null) {
+            this.jwtParser = Jwts.parser()
+                    .verifyWith(this.getJwtKey())
+                    .build();
+        }
+        return this.jwtParser;
+    }
 
-    public String extractUsername(final String token) {
-        final Claims claims = Jwts.parser()
-                .verifyWith(this.getJwtKey())
-                .build()
+    public JwtPrincipal parsePrincipal(final String token) {
+        final Claims claims = this.getJwtParser()
                 .parseSignedClaims(token)
                 .getPayload();
 
-        return claims.getSubject();
+        return new JwtPrincipal(
+                UUID.fromString(claims.get(ID, String.class)),
+                claims.getSubject(),
+                Role.valueOf(claims.get(ROLES, List.class).get(0).toString()));
     }
 }
@@ -1,5 +1,7 @@
 package com.ing.hubs.security;
 
+import com.ing.hubs.model.entity.user.Role;
+import jakarta.servlet.DispatcherType;
 import lombok.AllArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -26,6 +28,12 @@ public class SecurityConfig {
         httpSecurity
                 .authorizeHttpRequests(authorize ->
                         authorize
+                                // a streamed body resumes on an async dispatch of a request that was already authorized, and the
+                                // JWT filter does not run again for it
+                                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                                // the export carries every user's contact details, so it must not fall under the permitAll below;
+                                // authorities carry the bare role name, hence hasAuthority rather than hasRole
+                                .requestMatchers(HttpMethod.GET, "/users/export").hasAuthority(Role.TEACHER.name())
                                 .requestMatchers("/users/**").permitAll()
                                 .requestMatchers(HttpMethod.GET, "/users/me/grades").hasRole("STUDENT")
                                 .requestMatchers(HttpMethod.GET, "/users/me/schedules").hasRole("STUDENT")
@@ -35,10 +43,11 @@ public class SecurityConfig {
                                 .requestMatchers(HttpMethod.PATCH, "/courses/*").hasRole("TEACHER")
                                 .requestMatchers("/enrollments/**").permitAll()
                                 .requestMatchers(HttpMethod.POST, "/enrollments/*").hasRole("STUDENT")
-                                .requestMatchers(HttpMethod.PATCH, "/enrollments/grades/*").hasRole("TEACHER")
+                                .requestMatchers(HttpMethod.PATCH, "/enrollments/grades", "/enrollments/grades/*").hasRole("TEACHER")
                                 .requestMatchers(HttpMethod.PATCH, "/enrollments/*").hasRole("TEACHER")
                                 .requestMatchers(HttpMethod.GET, "/enrollments/courses/*").hasRole("TEACHER")
                                 .requestMatchers("/schedules/**").permitAll()
+                                .requestMatchers(HttpMethod.GET, "/actuator/health").permitAll()
                                 .anyRequest().authenticated()
                 )
                 .sessionManagement(httpSecuritySessionManagementConfigurer
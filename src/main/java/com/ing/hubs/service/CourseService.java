@@ -3,63 +3,80 @@ package com.ing.hubs.service;
 import com.ing.hubs.dto.course.CourseDto;
 import com.ing.hubs.dto.course.CoursePatchDto;
 import com.ing.hubs.dto.course.CourseResponseDto;
-import com.ing.hubs.dto.schedule.ScheduleResponseDto;
+import com.ing.hubs.dto.page.PageResponseDto;
 import com.ing.hubs.exception.CouldNotDeleteEntityException;
-import com.ing.hubs.exception.EntityCouldNotSavedException;
 import com.ing.hubs.exception.security.UnauthorizedAccessException;
 import com.ing.hubs.exception.course.CouldNotCreateCourseException;
 import com.ing.hubs.exception.DuplicateDataException;
 import com.ing.hubs.exception.EntityNotFoundException;
+import com.ing.hubs.mapper.CourseMapper;
 import com.ing.hubs.model.entity.course.Course;
 import com.ing.hubs.model.entity.course.schedule.Schedule;
+import com.ing.hubs.model.entity.enrollment.Enrollment;
 import com.ing.hubs.model.entity.enrollment.EnrollmentStatus;
 import com.ing.hubs.model.entity.user.Role;
 import com.ing.hubs.model.entity.user.User;
 import com.ing.hubs.repository.CourseRepository;
+import com.ing.hubs.security.JwtPrincipal;
+import com.ing.hubs.service.catalog.CourseCatalogChangedEvent;
+import com.ing.hubs.service.conflict.CourseConflictGraph;
+import com.ing.hubs.service.conflict.CourseScheduleChangedEvent;
+import com.ing.hubs.service.cron.CourseLifecycleEvent;
+import com.ing.hubs.service.pagination.KeysetPage;
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.stream.Collectors;
 
+@Timed("service.method")
 @Service
 @Slf4j
 public class CourseService {
     private final CourseRepository courseRepository;
     private final UserService userService;
-    private final ModelMapper modelMapper;
+    private final CourseMapper courseMapper;
     private final ScheduleService scheduleService;
     private final SecurityService securityService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CourseConflictGraph conflictGraph;
     private final Integer minimumCapacity = 10;
 
     @Autowired
     public CourseService(final CourseRepository courseRepository,
                          final UserService userService,
-                         final ModelMapper modelMapper,
+                         final CourseMapper courseMapper,
                          final ScheduleService scheduleService,
-                         final SecurityService securityService) {
+                         final SecurityService securityService,
+                         final ApplicationEventPublisher eventPublisher,
+                         final CourseConflictGraph conflictGraph) {
         this.courseRepository = courseRepository;
         this.userService = userService;
-        this.modelMapper = modelMapper;
+        this.courseMapper = courseMapper;
         this.scheduleService = scheduleService;
         this.securityService = securityService;
+        this.eventPublisher = eventPublisher;
+        this.conflictGraph = conflictGraph;
     }
 
+    @Transactional
     public CourseResponseDto createCourse(final CourseDto dto,
-                                          final String jwtToken) {
+                                          final JwtPrincipal principal) {
         this.validateUniqueData(dto.getCourseName());
 //      For Postman collection to work comment this
         this.validateStartAndEndDate(dto.getStartDate(), dto.getEndDate());
 //
         this.validateMinimumCapacity(dto.getCapacity());
 
-        final Course course = modelMapper.map(dto, Course.class);
-        final User user = this.userService.findUserById(this.securityService.extractUserIdFromToken(jwtToken));
+        final Course course = this.courseMapper.toEntity(dto);
+        final User user = this.userService.findUserById(this.securityService.extractUserId(principal));
 
         if (!user.getRole().equals(Role.TEACHER)) {
             throw new UnauthorizedAccessException();
@@ -69,55 +86,105 @@ public class CourseService {
         this.scheduleService.validateSchedules(schedules);
 
         course.addSchedules(schedules);
-        user.addCourse(course);
-
-        this.userService.saveUser(user);
+        course.setUser(user);
 
-        final Course savedCourse = this.courseRepository.findByCourseName(course.getCourseName())
-                .orElseThrow(() -> new EntityCouldNotSavedException("Course"));
-        log.info(String.format("Course with id \"%s\" has been created", savedCourse.getId()));
+        this.saveCourse(course);
+        this.eventPublisher.publishEvent(CourseLifecycleEvent.of(course));
+        this.eventPublisher.publishEvent(CourseScheduleChangedEvent.of(course));
+        this.eventPublisher.publishEvent(new CourseCatalogChangedEvent(course.getId()));
+        log.info(String.format("Course with id \"%s\" has been created", course.getId()));
 
         return this.createCourseResponse(course);
     }
 
     public CourseResponseDto createCourseResponse(final Course course) {
-        Set<Schedule> scheduleResponse = this.scheduleService.findSchedulesByCourse(course);
-
-        var response = this.modelMapper.map(
-                course,
-                CourseResponseDto.class);
-
-        final Set<ScheduleResponseDto> scheduleResponseDtos = new HashSet<>();
-        scheduleResponse
-                .stream()
-                .map((element) -> modelMapper.map(element, ScheduleResponseDto.class))
-                .forEach(scheduleResponseDtos::add);
-        response.setSchedules(scheduleResponseDtos);
+        return this.courseMapper.toResponse(course);
+    }
 
-        return response;
+    @Transactional
+    public PageResponseDto<CourseResponseDto> findAllCourses(final UUID teacherId,
+                                                             final String cursor,
+                                                             final Integer size) {
+        final KeysetPage page = KeysetPage.of(cursor, size);
+        final List<Course> courses = teacherId == null
+                ? this.courseRepository.findPageAfter(page.after(), page.pageable())
+                : this.courseRepository.findPageByTeacherAfter(teacherId, page.after(), page.pageable());
+        return page.toResponse(courses, Course::getId, this.courseMapper::toResponse);
     }
 
-    public List<CourseResponseDto> findAllCourses(final UUID teacherId) {
-        return courseRepository.findAll().stream()
-                .filter(course -> teacherId == null || course.getUser().getId().equals(teacherId))
-                .map(course -> modelMapper.map(course, CourseResponseDto.class))
+    /**
+     * The courses a student could enroll in right now without a conflict: their enrollment period has not passed, they
+     * have free seats, the student is not enrolled in them yet and their schedules overlap none of the student's
+     * approved or active enrollments. The candidates come from {@link CourseConflictGraph#findFitting}, which reads
+     * their ids and checks them for conflicts in memory; only the courses of the requested page are read, to check
+     * their seats.
+     */
+    @Transactional
+    public PageResponseDto<CourseResponseDto> findFittingCourses(final JwtPrincipal principal,
+                                                                 final String cursor,
+                                                                 final Integer size) {
+        final KeysetPage page = KeysetPage.of(cursor, size);
+        final User student = this.userService.findStudentWithTimetable(this.securityService.extractUserId(principal));
+        if (!student.getRole().equals(Role.STUDENT)) {
+            throw new UnauthorizedAccessException();
+        }
+
+        final List<Course> occupied = student.getEnrollments().stream()
+                .filter(enrollment -> enrollment.getStatus().equals(EnrollmentStatus.APPROVED) ||
+                        enrollment.getStatus().equals(EnrollmentStatus.ACTIVE))
+                .map(Enrollment::getCourse)
+                .toList();
+        final Set<UUID> enrolled = student.getEnrollments().stream()
+                .map(enrollment -> enrollment.getCourse().getId())
+                .collect(Collectors.toSet());
+        final List<UUID> candidates = this.conflictGraph.findFitting(occupied, enrolled, LocalDate.now()).stream()
+                .filter(id -> KeysetPage.ORDER.compare(id, page.after()) > 0)
                 .toList();
+
+        // seats change with every approval, so they are checked on the rows read for the page; the next chunk is
+        // twice as large whenever full courses leave the page short
+        final List<Course> rows = new ArrayList<>();
+        int from = 0;
+        int chunk = page.size() + 1;
+        while (rows.size() <= page.size() && from < candidates.size()) {
+            final List<UUID> ids = candidates.subList(from, Math.min(from + chunk, candidates.size()));
+            this.courseRepository.findAllByIdIn(ids).stream()
+                    .filter(Course::hasAvailableSeats)
+                    .sorted(Comparator.comparing(Course::getId, KeysetPage.ORDER))
+                    .forEach(rows::add);
+            from += ids.size();
+            chunk *= 2;
+        }
+        return page.toResponse(rows.subList(0, Math.min(rows.size(), page.size() + 1)), Course::getId, this.courseMapper::toResponse);
     }
 
     public Course findCourseById(final UUID id) {
         return this.courseRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Course"));
     }
 
+    public List<Course> findCoursesByIds(final Collection<UUID> ids) {
+        return this.courseRepository.findAllByIdIn(ids);
+    }
+
+    public List<Course> findCoursesTaughtBy(final UUID teacherId) {
+        return this.courseRepository.findAllByTeacherId(teacherId);
+    }
+
+    public List<Course> findCoursesAttendedBy(final UUID studentId) {
+        return this.courseRepository.findAllByStudentId(studentId);
+    }
+
+    @Transactional
     public CourseResponseDto findById(final UUID id) {
-        return this.modelMapper.map(
-                this.courseRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Course")), CourseResponseDto.class);
+        return this.courseMapper.toResponse(
+                this.courseRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Course")));
     }
 
     @Transactional
     public void deleteById(final UUID id,
-                           final String jwtToken) {
+                           final JwtPrincipal principal) {
         final Course course = this.findCourseById(id);
-        final UUID teacherId = this.securityService.extractUserIdFromToken(jwtToken);
+        final UUID teacherId = this.securityService.extractUserId(principal);
 
         final User user = userService.findUserById(teacherId);
 
@@ -133,18 +200,22 @@ public class CourseService {
         }
 
         courseRepository.deleteById(id);
+        this.scheduleService.evictCourseSlots(id);
+        this.eventPublisher.publishEvent(CourseScheduleChangedEvent.removed(id));
+        this.eventPublisher.publishEvent(new CourseCatalogChangedEvent(id));
         log.info(String.format("Course with id \"%s\" has been deleted", course.getId()));
     }
 
+    @Transactional
     public CourseResponseDto updateCourse(final UUID courseId,
                                           final CoursePatchDto coursePatchDto,
-                                          final String jwtToken) {
+                                          final JwtPrincipal principal) {
         if (coursePatchDto.getCourseName() != null) {
             this.validateUniqueData(coursePatchDto.getCourseName());
         }
 
         final Course course = this.findCourseById(courseId);
-        final User user = this.userService.findUserById(this.securityService.extractUserIdFromToken(jwtToken));
+        final User user = this.userService.findUserById(this.securityService.extractUserId(principal));
 
         if (course.getUser().getId() != user.getId()) {
             throw new UnauthorizedAccessException();
@@ -160,11 +231,58 @@ public class CourseService {
         Optional.ofNullable(coursePatchDto.getCredits()).ifPresent(course::setCredits);
 
         this.saveCourse(course);
+        this.eventPublisher.publishEvent(new CourseCatalogChangedEvent(course.getId()));
         log.info(String.format("Course with id \"%s\" has been updated", course.getId()));
 
-        return this.modelMapper.map(course, CourseResponseDto.class);
+        return this.courseMapper.toResponse(course);
+    }
+
+    @Transactional
+    public boolean reserveSeat(final Course course) {
+        if (this.courseRepository.reserveSeat(course.getId()) == 0) {
+            return false;
+        }
+        course.setSeatsTaken(course.getSeatsTaken() + 1);
+        this.eventPublisher.publishEvent(new CourseCatalogChangedEvent(course.getId()));
+        return true;
+    }
+
+    /**
+     * Takes {@code seats} seats at once, or none when fewer are free.
+     */
+    @Transactional
+    public boolean reserveSeats(final Course course,
+                                final int seats) {
+        if (this.courseRepository.reserveSeats(course.getId(), seats) == 0) {
+            return false;
+        }
+        course.setSeatsTaken(course.getSeatsTaken() + seats);
+        this.eventPublisher.publishEvent(new CourseCatalogChangedEvent(course.getId()));
+        return true;
     }
 
+    /**
+     * Gives back {@code seats} seats taken by seat holds.
+     */
+    @Transactional
+    public void releaseSeats(final Course course,
+                             final int seats) {
+        if (this.courseRepository.releaseSeats(course.getId(), seats) > 0) {
+            course.setSeatsTaken(course.getSeatsTaken() - seats);
+            this.eventPublisher.publishEvent(new CourseCatalogChangedEvent(course.getId()));
+        }
+    }
+
+    /**
+     * Gives back {@code seats} seats taken by seat holds, on a course that is not loaded.
+     */
+    @Transactional
+    public void releaseSeats(final UUID courseId,
+                             final int seats) {
+        if (this.courseRepository.releaseSeats(courseId, seats) > 0) {
+            this.eventPublisher.publishEvent(new CourseCatalogChangedEvent(courseId));
+        }
+    }
 
     public void saveCourse(final Course course) {
         try {
@@ -3,38 +3,44 @@ package com.ing.hubs.service;
 import com.ing.hubs.dto.course.CourseDto;
 import com.ing.hubs.exception.course.CouldNotCreateCourseException;
 import com.ing.hubs.exception.course.InvalidScheduleException;
+import com.ing.hubs.mapper.ScheduleMapper;
 import com.ing.hubs.model.entity.course.Course;
 import com.ing.hubs.model.entity.course.schedule.CourseType;
 import com.ing.hubs.model.entity.course.schedule.Schedule;
 import com.ing.hubs.model.entity.course.schedule.Weekday;
+import com.ing.hubs.model.entity.course.schedule.WeeklySlots;
 import com.ing.hubs.model.entity.enrollment.Enrollment;
 import com.ing.hubs.model.entity.enrollment.EnrollmentStatus;
 import com.ing.hubs.model.entity.user.User;
 import com.ing.hubs.repository.ScheduleRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.time.LocalTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Slf4j
+@Timed("service.method")
 @Service
 public class ScheduleService {
     private ScheduleRepository scheduleRepository;
-    private ModelMapper modelMapper;
+    private ScheduleMapper scheduleMapper;
+    private final Map<UUID, Optional<WeeklySlots>> courseSlots = new ConcurrentHashMap<>();
+    private final Map<UUID, StudentSlots> studentSlots = new ConcurrentHashMap<>();
 
     public ScheduleService() {
     }
 
     @Autowired
-    public ScheduleService(ScheduleRepository scheduleRepository, ModelMapper modelMapper) {
+    public ScheduleService(ScheduleRepository scheduleRepository, ScheduleMapper scheduleMapper) {
         this.scheduleRepository = scheduleRepository;
-        this.modelMapper = modelMapper;
+        this.scheduleMapper = scheduleMapper;
     }
 
     public Set<Schedule> findSchedulesByCourse(final Course course) {
@@ -44,8 +50,7 @@ public class ScheduleService {
     public Set<Schedule> mapDtoToSchedules(final CourseDto dto) {
         return dto.getSchedules()
                 .stream()
-                .map(schedule ->
-                        this.modelMapper.map(schedule, Schedule.class))
+                .map(this.scheduleMapper::toEntity)
                 .collect(Collectors.toSet());
     }
 
@@ -56,9 +61,17 @@ public class ScheduleService {
 
     public void validateScheduleOverlap(final Course course,
                                         final User student) {
-        final List<Schedule> studentsSchedules = student.getEnrollments()
-                .stream()
-                .filter(enrollment -> (enrollment.getStatus().equals(EnrollmentStatus.APPROVED)) || enrollment.getStatus().equals(EnrollmentStatus.ACTIVE))
+        final Optional<WeeklySlots> courseSlots = this.findCourseSlots(course);
+        final Optional<WeeklySlots> studentSlots = this.findStudentSlots(student);
+
+        if (courseSlots.isPresent() && studentSlots.isPresent()) {
+            if (courseSlots.get().intersects(studentSlots.get())) {
+                throw new InvalidScheduleException("Schedules overlap!");
+            }
+            return;
+        }
+
+        final List<Schedule> studentsSchedules = this.findOccupyingEnrollments(student)
                 .map(Enrollment::getCourse)
                 .flatMap(course1 -> course1.getSchedules().stream())
                 .toList();
@@ -68,6 +81,60 @@ public class ScheduleService {
         this.checkOverlap(coursesSchedules, studentsSchedules);
     }
 
+    public void evictStudentSlots(final UUID studentId) {
+        if (studentId != null) {
+            this.studentSlots.remove(studentId);
+        }
+    }
+
+    public void evictCourseSlots(final UUID courseId) {
+        if (courseId != null) {
+            this.courseSlots.remove(courseId);
+        }
+    }
+
+    Optional<WeeklySlots> findCourseSlots(final Course course) {
+        if (course.getId() == null) {
+            return WeeklySlots.of(course.getSchedules());
+        }
+        return this.courseSlots.computeIfAbsent(course.getId(), id -> WeeklySlots.of(course.getSchedules()));
+    }
+
+    Optional<WeeklySlots> findStudentSlots(final User student) {
+        final List<Enrollment> occupying = this.findOccupyingEnrollments(student).toList();
+        final Set<UUID> enrollmentIds = occupying.stream()
+                .map(Enrollment::getId)
+                .collect(Collectors.toSet());
+
+        final StudentSlots cached = student.getId() == null ? null : this.studentSlots.get(student.getId());
+        if (cached != null && cached.enrollmentIds().equals(enrollmentIds)) {
+            return cached.slots();
+        }
+
+        Optional<WeeklySlots> slots = Optional.of(WeeklySlots.EMPTY);
+        for (Enrollment enrollment : occupying) {
+            final Optional<WeeklySlots> enrollmentSlots = this.findCourseSlots(enrollment.getCourse());
+            if (enrollmentSlots.isEmpty()) {
+                slots = Optional.empty();
+                break;
+            }
+            slots = Optional.of(slots.get().or(enrollmentSlots.get()));
+        }
+
+        if (student.getId() != null && !enrollmentIds.contains(null)) {
+            this.studentSlots.put(student.getId(), new StudentSlots(enrollmentIds, slots));
+        }
+        return slots;
+    }
+
+    private Stream<Enrollment> findOccupyingEnrollments(final User student) {
+        return student.getEnrollments()
+                .stream()
+                .filter(enrollment -> (enrollment.getStatus().equals(EnrollmentStatus.APPROVED)) || enrollment.getStatus().equals(EnrollmentStatus.ACTIVE));
+    }
+
+    private record StudentSlots(Set<UUID> enrollmentIds, Optional<WeeklySlots> slots) {
+    }
 
     private void checkOverlap(final List<Schedule> coursesSchedules,
                               final List<Schedule> studentsSchedules) {
@@ -7,18 +7,18 @@ import com.ing.hubs.exception.security.NoTokenFoundException;
 import com.ing.hubs.model.entity.user.Role;
 import com.ing.hubs.model.entity.user.User;
 import com.ing.hubs.repository.UserRepository;
+import com.ing.hubs.security.JwtPrincipal;
 import com.ing.hubs.security.JwtProvider;
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
 import java.util.UUID;
 
+@Timed("service.method")
 @Service
 @AllArgsConstructor
 @Slf4j
@@ -39,36 +39,18 @@ public class SecurityService {
     }
 
 
-    public UUID extractUserIdFromToken(final String jwtToken) {
-        this.checkIfTokenIsEmpty(jwtToken);
-
-        final String tokenWithoutBearer = jwtToken.replace("Bearer ", "").trim();
-
-        final Claims claims = Jwts.parser()
-                .verifyWith(this.jwtProvider.getJwtKey())
-                .build()
-                .parseSignedClaims(tokenWithoutBearer)
-                .getPayload();
-
-        return UUID.fromString(claims.get("id", String.class));
+    public UUID extractUserId(final JwtPrincipal principal) {
+        this.checkIfPrincipalIsPresent(principal);
+        return principal.getId();
     }
 
-    public Role extractRoleFromToken(final String jwtToken) {
-        this.checkIfTokenIsEmpty(jwtToken);
-
-        final String tokenWithoutBearer = jwtToken.replace("Bearer ", "").trim();
-
-        final Claims claims = Jwts.parser()
-                .verifyWith(this.jwtProvider.getJwtKey())
-                .build()
-                .parseSignedClaims(tokenWithoutBearer)
-                .getPayload();
-
-        return Role.valueOf(claims.get("roles", ArrayList.class).get(0).toString());
+    public Role extractRole(final JwtPrincipal principal) {
+        this.checkIfPrincipalIsPresent(principal);
+        return principal.getRole();
     }
 
-    public void checkIfTokenIsEmpty(String jwtToken){
-        if (jwtToken == null || jwtToken.isBlank()) {
+    public void checkIfPrincipalIsPresent(final JwtPrincipal principal){
+        if (principal == null) {
             throw new NoTokenFoundException();
         }
     }
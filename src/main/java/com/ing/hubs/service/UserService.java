@@ -1,6 +1,7 @@
 package com.ing.hubs.service;
 
 import com.ing.hubs.configuration.Constant;
+import com.ing.hubs.dto.page.PageResponseDto;
 import com.ing.hubs.dto.user.UserDto;
 import com.ing.hubs.dto.user.UserPatchDto;
 import com.ing.hubs.dto.user.UserResponseDto;
@@ -10,14 +11,22 @@ import com.ing.hubs.exception.EntityNotFoundException;
 import com.ing.hubs.exception.user.InvalidEmailException;
 import com.ing.hubs.exception.CouldNotDeleteEntityException;
 import com.ing.hubs.exception.user.InvalidDateOfBirthException;
+import com.ing.hubs.mapper.UserMapper;
 import com.ing.hubs.model.entity.enrollment.Enrollment;
 import com.ing.hubs.model.entity.enrollment.EnrollmentStatus;
 import com.ing.hubs.model.entity.user.Role;
 import com.ing.hubs.model.entity.user.User;
 import com.ing.hubs.repository.UserRepository;
+import com.ing.hubs.security.JwtPrincipal;
+import com.ing.hubs.service.catalog.CourseCatalogChangedEvent;
+import com.ing.hubs.service.conflict.CourseScheduleChangedEvent;
+import com.ing.hubs.service.pagination.KeysetPage;
+import com.ing.hubs.service.stream.CursorReader;
+import io.micrometer.core.annotation.Timed;
+import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -25,15 +34,20 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Consumer;
 
+@Timed("service.method")
 @Service
 @AllArgsConstructor
 @Slf4j
 public class UserService {
     private UserRepository userRepository;
-    private ModelMapper modelMapper;
+    private UserMapper userMapper;
     private SecurityService securityService;
     private PasswordEncoder passwordEncoder;
+    private ApplicationEventPublisher eventPublisher;
+    private CursorReader cursorReader;
+    private ScheduleService scheduleService;
 
     public UserResponseDto createUser(final UserDto dto) {
         dto.setPhoneNumber(dto.getPhoneNumber().replaceAll("\\s", ""));
@@ -43,7 +57,7 @@ public class UserService {
         this.validateDateOfBirth(dto.getDateOfBirth());
 
 
-        final User user = modelMapper.map(dto, User.class);
+        final User user = this.userMapper.toEntity(dto);
 
         this.setUserType(user);
         user.setPassword(passwordEncoder.encode(dto.getPassword()));
@@ -51,7 +65,7 @@ public class UserService {
         final User savedUser = this.saveUser(user);
         log.info(String.format("User with id \"%s\" has been created", savedUser.getId()));
 
-        return this.modelMapper.map(savedUser, UserResponseDto.class);
+        return this.userMapper.toResponse(savedUser);
     }
 
     public User saveUser(final User user) {
@@ -63,7 +77,7 @@ public class UserService {
     }
 
     public UserResponseDto findById(final UUID id) {
-        return this.modelMapper.map(this.findUserById(id), UserResponseDto.class);
+        return this.userMapper.toResponse(this.findUserById(id));
     }
 
     public User findUserById(final UUID id) {
@@ -71,17 +85,37 @@ public class UserService {
                 .orElseThrow(() -> new EntityNotFoundException("User"));
     }
 
-    public List<UserResponseDto> findAllUsers(final Role role) {
-        return this.userRepository.findAll()
-                .stream()
-                .filter(user -> role == null || user.getRole().equals(role))
-                .map(user -> this.modelMapper.map(user, UserResponseDto.class))
-                .toList();
+    public User findStudentWithTimetable(final UUID id) {
+        return this.userRepository.findWithTimetableById(id)
+                .orElseThrow(() -> new EntityNotFoundException("User"));
     }
 
-    public void deleteById(final String jwtToken) {
-        final UUID id = this.securityService.extractUserIdFromToken(jwtToken);
-        final User user = this.findUserById(id);
+    public PageResponseDto<UserResponseDto> findAllUsers(final Role role,
+                                                         final String cursor,
+                                                         final Integer size) {
+        final KeysetPage page = KeysetPage.of(cursor, size);
+        final List<User> users = role == null
+                ? this.userRepository.findPageAfter(page.after(), page.pageable())
+                : this.userRepository.findPageByRoleAfter(role, page.after(), page.pageable());
+        return page.toResponse(users, User::getId, this.userMapper::toResponse);
+    }
+
+    /**
+     * Hands every user, or every user with {@code role}, to {@code sink} one at a time while they are read from the
+     * database cursor.
+     */
+    @Transactional
+    public void exportUsers(final Role role,
+                            final Consumer<UserResponseDto> sink) {
+        this.cursorReader.forEach(role == null ? this.userRepository.streamAll() : this.userRepository.streamAllByRole(role),
+                user -> sink.accept(this.userMapper.toResponse(user)));
+    }
+
+    @Transactional
+    public void deleteById(final JwtPrincipal principal) {
+        final UUID id = this.securityService.extractUserId(principal);
+        final User user = this.userRepository.findWithCourseEnrollmentsById(id)
+                .orElseThrow(() -> new EntityNotFoundException("User"));
 
         final List<Enrollment> teachersEnrollments = user.getCourses()
                 .stream()
@@ -96,12 +130,19 @@ public class UserService {
         }
 
         userRepository.deleteById(id);
+        // the teacher's courses are removed with them, so they leave the caches the way a deleted course does
+        user.getCourses().forEach(course -> {
+            this.scheduleService.evictCourseSlots(course.getId());
+            this.eventPublisher.publishEvent(CourseScheduleChangedEvent.removed(course.getId()));
+            this.eventPublisher.publishEvent(new CourseCatalogChangedEvent(course.getId()));
+        });
         log.info(String.format("User with id \"%s\" has been deleted", user.getId()));
     }
 
-    public UserResponseDto updateUser(final String jwtToken,
+    @Transactional
+    public UserResponseDto updateUser(final JwtPrincipal principal,
                                       final UserPatchDto userPatchDto) {
-        final User user = this.findUserById(this.securityService.extractUserIdFromToken(jwtToken));
+        final User user = this.findUserById(this.securityService.extractUserId(principal));
 
         this.validateUniqueData(null, null, userPatchDto.getPhoneNumber());
 
@@ -115,7 +156,7 @@ public class UserService {
         this.saveUser(user);
         log.info(String.format("User with id \"%s\" has been updated", user.getId()));
 
-        return this.modelMapper.map(user, UserResponseDto.class);
+        return this.userMapper.toResponse(user);
     }
 
     private void validateEmail(final String email) {
@@ -137,13 +178,13 @@ public class UserService {
     private void validateUniqueData(final String username,
                                     final String email,
                                     final String phoneNumber) {
-        if (this.userRepository.existsByUsername(username)) {
+        if (username != null && this.userRepository.existsByUsername(username)) {
             throw new DuplicateDataException(new DataIntegrityViolationException(Constant.DUPLICATE_USERNAME));
         }
-        if (this.userRepository.existsByEmail(email)) {
+        if (email != null && this.userRepository.existsByEmail(email)) {
             throw new DuplicateDataException(new DataIntegrityViolationException(Constant.DUPLICATE_EMAIL));
         }
-        if (this.userRepository.existsByPhoneNumber(phoneNumber)) {
+        if (phoneNumber != null && this.userRepository.existsByPhoneNumber(phoneNumber)) {
             throw new DuplicateDataException(new DataIntegrityViolationException(Constant.DUPLICATE_PHONE_NUMBER));
         }
     }
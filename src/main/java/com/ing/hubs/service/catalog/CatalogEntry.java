@@ -0,0 +1,7 @@
+package com.ing.hubs.service.catalog;
+
+/**
+ * A cached catalog representation together with the strong entity tag it is served with.
+ */
+public record CatalogEntry<T>(T value, String etag) {
+}
@@ -0,0 +1,62 @@
+package com.ing.hubs.service.catalog;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A JSON document assembled from pre-serialized fragments. The fragments are shared with the catalog cache and written
+ * one after the other, so serving a page copies each course's bytes once instead of running it through Jackson.
+ * <p>
+ * {@link #page(List, byte[])} lays the fragments out like a serialized {@link com.ing.hubs.dto.page.PageResponseDto}.
+ */
+public final class CatalogJson {
+    private static final byte[] PAGE_START = "{\"items\":[".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SEPARATOR = ",".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NEXT_CURSOR = "],\"nextCursor\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] PAGE_END = "}".getBytes(StandardCharsets.UTF_8);
+
+    private final List<byte[]> fragments;
+    private final long length;
+
+    private CatalogJson(final List<byte[]> fragments) {
+        this.fragments = fragments;
+        this.length = fragments.stream().mapToLong(fragment -> fragment.length).sum();
+    }
+
+    public static CatalogJson of(final byte[] document) {
+        return new CatalogJson(List.of(document));
+    }
+
+    /**
+     * @param items      the serialized items, in page order
+     * @param nextCursor the serialized cursor, a JSON string or {@code null}
+     */
+    public static CatalogJson page(final List<byte[]> items,
+                                   final byte[] nextCursor) {
+        final List<byte[]> fragments = new ArrayList<>(2 * items.size() + 3);
+        fragments.add(PAGE_START);
+        for (int i = 0; i < items.size(); i++) {
+            if (i > 0) {
+                fragments.add(SEPARATOR);
+            }
+            fragments.add(items.get(i));
+        }
+        fragments.add(NEXT_CURSOR);
+        fragments.add(nextCursor);
+        fragments.add(PAGE_END);
+        return new CatalogJson(fragments);
+    }
+
+    public long length() {
+        return this.length;
+    }
+
+    public void writeTo(final OutputStream outputStream) throws IOException {
+        for (byte[] fragment : this.fragments) {
+            outputStream.write(fragment);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.ing.hubs.service.catalog;
+
+import java.util.UUID;
+
+/**
+ * Published whenever a change to a course shows up in its catalog representation: the course was created, updated
+ * or deleted, or one of its seats was taken.
+ */
+public record CourseCatalogChangedEvent(UUID courseId) {
+}
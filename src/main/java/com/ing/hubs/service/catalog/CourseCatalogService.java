@@ -0,0 +1,184 @@
+package com.ing.hubs.service.catalog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ing.hubs.dto.course.CourseResponseDto;
+import com.ing.hubs.dto.page.PageResponseDto;
+import com.ing.hubs.service.CourseService;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of the course catalog in front of {@link CourseService}, so that repeated reads of an unchanged
+ * course or catalog page are answered from memory and revalidated with their entity tag, without touching the database.
+ * <p>
+ * Courses are cached as their serialized JSON, and pages as the list of those fragments, so a hit is written to the
+ * response without running Jackson. Rebuilding a page reuses the fragments of the courses that did not change.
+ * <p>
+ * Every {@link CourseCatalogChangedEvent} evicts the course and drops every cached page once its transaction commits.
+ * Those events only reach the node that made the change, and seats are taken on every node, so entries also expire
+ * {@code catalog.cache.ttl} after they were loaded; other nodes serve a change at most that late.
+ * <p>
+ * An entry is tagged with a digest of its JSON, so every node tags the same content alike, across restarts too, and a
+ * tag changes exactly when the content does.
+ */
+@Timed("service.method")
+@Service
+@Slf4j
+public class CourseCatalogService {
+    static final int MAX_CACHED_PAGES = 1_000;
+    private static final int ETAG_BYTES = 16;
+
+    private final CourseService courseService;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final Duration ttl;
+    private final AtomicLong version = new AtomicLong();
+    private final Map<UUID, Cached<byte[]>> courses = new ConcurrentHashMap<>();
+    private final Map<PageKey, Cached<CatalogJson>> pages = new ConcurrentHashMap<>();
+
+    @Autowired
+    public CourseCatalogService(final CourseService courseService,
+                                final ObjectMapper objectMapper,
+                                final Clock clock,
+                                @Value("${catalog.cache.ttl:PT5S}") final Duration ttl) {
+        this.courseService = courseService;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.ttl = ttl;
+    }
+
+    public CatalogEntry<CatalogJson> findCourse(final UUID id) {
+        final CatalogEntry<byte[]> entry = this.readThrough(this.courses, id,
+                () -> this.courseEntry(this.serialize(this.courseService.findById(id))));
+        return new CatalogEntry<>(CatalogJson.of(entry.value()), entry.etag());
+    }
+
+    public CatalogEntry<CatalogJson> findPage(final UUID teacherId,
+                                              final String cursor,
+                                              final Integer size) {
+        final PageKey key = new PageKey(teacherId, cursor, size);
+        if (this.pages.size() >= MAX_CACHED_PAGES && !this.pages.containsKey(key)) {
+            // cursors are unbounded, so past the limit only the pages already cached are served from memory
+            return this.pageEntry(this.loadPage(key));
+        }
+        return this.readThrough(this.pages, key, () -> this.pageEntry(this.loadPage(key)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseCatalogChanged(final CourseCatalogChangedEvent event) {
+        // bump before evicting, so a load that raced with the change sees it and does not keep its stale entry
+        this.version.incrementAndGet();
+        this.courses.remove(event.courseId());
+        this.pages.clear();
+    }
+
+    private CatalogJson loadPage(final PageKey key) {
+        final long loadedAt = this.version.get();
+        final Instant now = this.clock.instant();
+        final PageResponseDto<CourseResponseDto> page = this.courseService.findAllCourses(key.teacherId(), key.cursor(), key.size());
+
+        final List<byte[]> items = new ArrayList<>(page.getItems().size());
+        for (CourseResponseDto course : page.getItems()) {
+            final Cached<byte[]> cached = this.courses.get(course.getId());
+            if (cached != null && cached.isFresh(now)) {
+                items.add(cached.entry().value());
+            } else {
+                final CatalogEntry<byte[]> loaded = this.courseEntry(this.serialize(course));
+                this.keep(this.courses, course.getId(), new Cached<>(loaded, now.plus(this.ttl)), loadedAt);
+                items.add(loaded.value());
+            }
+        }
+        return CatalogJson.page(items, this.serialize(page.getNextCursor()));
+    }
+
+    private <K, T> CatalogEntry<T> readThrough(final Map<K, Cached<T>> cache,
+                                               final K key,
+                                               final Supplier<CatalogEntry<T>> loader) {
+        final Instant now = this.clock.instant();
+        final Cached<T> cached = cache.get(key);
+        if (cached != null && cached.isFresh(now)) {
+            return cached.entry();
+        }
+
+        final long loadedAt = this.version.get();
+        final CatalogEntry<T> loaded = loader.get();
+        this.keep(cache, key, new Cached<>(loaded, now.plus(this.ttl)), loadedAt);
+        return loaded;
+    }
+
+    private <K, T> void keep(final Map<K, Cached<T>> cache,
+                             final K key,
+                             final Cached<T> entry,
+                             final long loadedAt) {
+        // replaces an expired entry as well; of two loads racing for the same key either one may win
+        cache.put(key, entry);
+        if (this.version.get() != loadedAt) {
+            cache.remove(key, entry);
+        }
+    }
+
+    private CatalogEntry<byte[]> courseEntry(final byte[] json) {
+        return new CatalogEntry<>(json, this.etag(CatalogJson.of(json)));
+    }
+
+    private CatalogEntry<CatalogJson> pageEntry(final CatalogJson json) {
+        return new CatalogEntry<>(json, this.etag(json));
+    }
+
+    private byte[] serialize(final Object value) {
+        try {
+            return this.objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize the course catalog", ex);
+        }
+    }
+
+    private String etag(final CatalogJson json) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+        try (OutputStream outputStream = new DigestOutputStream(OutputStream.nullOutputStream(), digest)) {
+            json.writeTo(outputStream);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        final byte[] hash = Arrays.copyOf(digest.digest(), ETAG_BYTES);
+        return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash) + "\"";
+    }
+
+    private record PageKey(UUID teacherId, String cursor, Integer size) {
+    }
+
+    private record Cached<T>(CatalogEntry<T> entry, Instant expiresAt) {
+        boolean isFresh(final Instant now) {
+            return now.isBefore(this.expiresAt);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.ing.hubs.service.conflict;
+
+import com.ing.hubs.model.entity.course.Course;
+import com.ing.hubs.repository.CourseRepository;
+import com.ing.hubs.service.pagination.KeysetPage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Which courses overlap which, so that schedule conflicts between courses are looked up instead of recomputed by
+ * comparing schedules. Every course gets a dense index, and its conflicts are kept as a {@link BitSet} of the indices
+ * of the courses it overlaps; the indices of deleted courses are reused.
+ * <p>
+ * The graph is built from the database once the application is ready and then follows every
+ * {@link CourseScheduleChangedEvent} once its transaction commits. Schedules are set when a course is created and
+ * cannot be patched, so creating and deleting a course are the only changes. A course the graph does not know yet,
+ * such as one created on another node, is added the first time it is looked up.
+ */
+@Service
+@Slf4j
+public class CourseConflictGraph {
+    static final int PARALLEL_SCAN_THRESHOLD = 4_096;
+
+    private final CourseRepository courseRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, Integer> indices = new HashMap<>();
+    private final List<UUID> ids = new ArrayList<>();
+    private final List<CourseTimes> times = new ArrayList<>();
+    private final List<BitSet> conflicts = new ArrayList<>();
+    private final Deque<Integer> freeIndices = new ArrayDeque<>();
+
+    @Autowired
+    public CourseConflictGraph(final CourseRepository courseRepository) {
+        this.courseRepository = courseRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        final List<Course> courses = this.courseRepository.findAll();
+
+        this.lock.writeLock().lock();
+        try {
+            this.indices.clear();
+            this.ids.clear();
+            this.times.clear();
+            this.conflicts.clear();
+            this.freeIndices.clear();
+            courses.forEach(course -> this.put(course.getId(), CourseTimes.of(course.getSchedules())));
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+        log.info(String.format("Course conflict graph rebuilt with %d courses", courses.size()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseScheduleChanged(final CourseScheduleChangedEvent event) {
+        this.lock.writeLock().lock();
+        try {
+            if (event.times() == null) {
+                this.remove(event.courseId());
+            } else {
+                this.put(event.courseId(), event.times());
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The ids of the courses whose schedules overlap {@code course}, among the courses the graph knows. Callers that
+     * hold the other course should ask {@link #conflicts} instead, which adds it first if needed.
+     */
+    public Set<UUID> conflictsOf(final Course course) {
+        this.ensure(course);
+        this.lock.readLock().lock();
+        try {
+            final Integer index = this.indices.get(course.getId());
+            if (index == null) {
+                return Set.of();
+            }
+            final BitSet neighbours = this.conflicts.get(index);
+            final Set<UUID> result = new HashSet<>(neighbours.cardinality() * 2);
+            neighbours.stream().forEach(neighbour -> result.add(this.ids.get(neighbour)));
+            return result;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    public boolean conflicts(final Course course,
+                             final Course other) {
+        return this.conflictsWithAny(course, List.of(other));
+    }
+
+    /**
+     * Whether the schedules of {@code course} overlap those of any of the {@code others}.
+     */
+    public boolean conflictsWithAny(final Course course,
+                                    final Collection<Course> others) {
+        if (others.isEmpty()) {
+            return false;
+        }
+        if (course.getId() == null || others.stream().anyMatch(other -> other.getId() == null)) {
+            // not persisted yet, so not in the graph
+            final CourseTimes courseTimes = CourseTimes.of(course.getSchedules());
+            return others.stream().anyMatch(other -> courseTimes.overlaps(CourseTimes.of(other.getSchedules())));
+        }
+
+        this.ensure(course);
+        others.forEach(this::ensure);
+        this.lock.readLock().lock();
+        try {
+            final Integer index = this.indices.get(course.getId());
+            if (index == null) {
+                return false;
+            }
+            final BitSet neighbours = this.conflicts.get(index);
+            return others.stream()
+                    .map(other -> this.indices.get(other.getId()))
+                    .anyMatch(other -> other != null && neighbours.get(other));
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The ids of the courses that start after {@code today} and conflict with none of the {@code occupied} courses,
+     * in {@link KeysetPage#ORDER}, leaving out the {@code excluded} ones. The candidates are read from the database, so
+     * that courses created or deleted on other nodes are not missed; those the graph does not know yet are added. The
+     * conflicts of the occupied courses are merged into one mask, which every candidate is then checked against, in
+     * parallel for large catalogs.
+     */
+    public List<UUID> findFitting(final Collection<Course> occupied,
+                                  final Set<UUID> excluded,
+                                  final LocalDate today) {
+        final List<UUID> candidates = this.courseRepository.findIdsStartingAfter(today);
+        this.ensureAll(candidates);
+        occupied.forEach(this::ensure);
+        this.lock.readLock().lock();
+        try {
+            final BitSet blocked = new BitSet(this.ids.size());
+            for (Course course : occupied) {
+                final Integer index = this.indices.get(course.getId());
+                if (index != null) {
+                    blocked.set(index);
+                    blocked.or(this.conflicts.get(index));
+                }
+            }
+
+            final Stream<UUID> scan = candidates.size() >= PARALLEL_SCAN_THRESHOLD
+                    ? candidates.parallelStream()
+                    : candidates.stream();
+            return scan
+                    .filter(id -> !excluded.contains(id))
+                    .filter(id -> {
+                        final Integer index = this.indices.get(id);
+                        return index != null && !blocked.get(index);
+                    })
+                    .sorted(KeysetPage.ORDER)
+                    .toList();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the courses among {@code courseIds} that the graph does not know yet, reading them in one query.
+     */
+    private void ensureAll(final Collection<UUID> courseIds) {
+        final List<UUID> unknown;
+        this.lock.readLock().lock();
+        try {
+            unknown = courseIds.stream().filter(id -> !this.indices.containsKey(id)).toList();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+        if (unknown.isEmpty()) {
+            return;
+        }
+
+        final List<Course> courses = this.courseRepository.findAllByIdIn(unknown);
+        this.lock.writeLock().lock();
+        try {
+            courses.stream()
+                    .filter(course -> !this.indices.containsKey(course.getId()))
+                    .forEach(course -> this.put(course.getId(), CourseTimes.of(course.getSchedules())));
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    private void ensure(final Course course) {
+        this.lock.readLock().lock();
+        try {
+            if (this.indices.containsKey(course.getId())) {
+                return;
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+
+        final CourseTimes courseTimes = CourseTimes.of(course.getSchedules());
+        this.lock.writeLock().lock();
+        try {
+            if (!this.indices.containsKey(course.getId())) {
+                this.put(course.getId(), courseTimes);
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    private void put(final UUID courseId,
+                     final CourseTimes courseTimes) {
+        this.remove(courseId);
+
+        final int index;
+        if (this.freeIndices.isEmpty()) {
+            index = this.ids.size();
+            this.ids.add(courseId);
+            this.times.add(courseTimes);
+            this.conflicts.add(new BitSet());
+        } else {
+            index = this.freeIndices.pop();
+            this.ids.set(index, courseId);
+            this.times.set(index, courseTimes);
+        }
+        this.indices.put(courseId, index);
+
+        final BitSet neighbours = this.conflicts.get(index);
+        for (int other = 0; other < this.times.size(); other++) {
+            final CourseTimes otherTimes = this.times.get(other);
+            if (other != index && otherTimes != null && courseTimes.overlaps(otherTimes)) {
+                neighbours.set(other);
+                this.conflicts.get(other).set(index);
+            }
+        }
+    }
+
+    private void remove(final UUID courseId) {
+        final Integer index = this.indices.remove(courseId);
+        if (index == null) {
+            return;
+        }
+
+        final BitSet neighbours = this.conflicts.get(index);
+        neighbours.stream().forEach(neighbour -> this.conflicts.get(neighbour).clear(index));
+        neighbours.clear();
+        this.ids.set(index, null);
+        this.times.set(index, null);
+        this.freeIndices.push(index);
+    }
+}
@@ -0,0 +1,19 @@
+package com.ing.hubs.service.conflict;
+
+import com.ing.hubs.model.entity.course.Course;
+
+import java.util.UUID;
+
+/**
+ * Published whenever the weekly times of a course change: the course was created with its schedules, or deleted,
+ * in which case {@code times} is null.
+ */
+public record CourseScheduleChangedEvent(UUID courseId, CourseTimes times) {
+    public static CourseScheduleChangedEvent of(final Course course) {
+        return new CourseScheduleChangedEvent(course.getId(), CourseTimes.of(course.getSchedules()));
+    }
+
+    public static CourseScheduleChangedEvent removed(final UUID courseId) {
+        return new CourseScheduleChangedEvent(courseId, null);
+    }
+}
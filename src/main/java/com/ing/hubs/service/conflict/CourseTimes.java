@@ -0,0 +1,78 @@
+package com.ing.hubs.service.conflict;
+
+import com.ing.hubs.model.entity.course.schedule.Schedule;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * The weekly time ranges a course occupies, as [start, end) seconds of the week. It is a plain value detached from the
+ * course entity, so it can travel in a {@link CourseScheduleChangedEvent} and stay in the conflict graph, and two
+ * courses with the same schedules have equal times whatever order their schedules come in.
+ */
+public final class CourseTimes {
+    private static final int SECONDS_PER_DAY = 24 * 60 * 60;
+
+    private final int days;
+    private final int[] starts;
+    private final int[] ends;
+
+    private CourseTimes(final int days,
+                        final int[] starts,
+                        final int[] ends) {
+        this.days = days;
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    public static CourseTimes of(final Collection<Schedule> schedules) {
+        int days = 0;
+        // packed as start << 32 | end and sorted, so equal schedules give equal times whatever their order
+        final long[] ranges = new long[schedules.size()];
+        int i = 0;
+        for (Schedule schedule : schedules) {
+            final long dayOffset = (long) schedule.getWeekday().ordinal() * SECONDS_PER_DAY;
+            days |= 1 << schedule.getWeekday().ordinal();
+            ranges[i++] = (dayOffset + schedule.getStartTime().toSecondOfDay()) << 32
+                    | (dayOffset + schedule.getEndTime().toSecondOfDay());
+        }
+        Arrays.sort(ranges);
+
+        final int[] starts = new int[ranges.length];
+        final int[] ends = new int[ranges.length];
+        for (int range = 0; range < ranges.length; range++) {
+            starts[range] = (int) (ranges[range] >>> 32);
+            ends[range] = (int) ranges[range];
+        }
+        return new CourseTimes(days, starts, ends);
+    }
+
+    /**
+     * Whether any range of this course intersects a range of {@code other}; back-to-back ranges do not.
+     */
+    public boolean overlaps(final CourseTimes other) {
+        if ((this.days & other.days) == 0) {
+            return false;
+        }
+        // a course has a handful of ranges, so every pair is compared instead of merging the two sorted lists
+        for (int i = 0; i < this.starts.length; i++) {
+            for (int j = 0; j < other.starts.length; j++) {
+                if (Math.max(this.starts[i], other.starts[j]) < Math.min(this.ends[i], other.ends[j])) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        return this == o || (o instanceof CourseTimes other
+                && Arrays.equals(this.starts, other.starts) && Arrays.equals(this.ends, other.ends));
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(this.starts) + Arrays.hashCode(this.ends);
+    }
+}
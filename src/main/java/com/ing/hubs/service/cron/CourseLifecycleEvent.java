@@ -0,0 +1,16 @@
+package com.ing.hubs.service.cron;
+
+import com.ing.hubs.model.entity.course.Course;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Published whenever a course's start/end boundaries become relevant to the enrollment lifecycle:
+ * the course was created, or an enrollment became eligible for a boundary that already passed.
+ */
+public record CourseLifecycleEvent(UUID courseId, LocalDate startDate, LocalDate endDate) {
+    public static CourseLifecycleEvent of(final Course course) {
+        return new CourseLifecycleEvent(course.getId(), course.getStartDate(), course.getEndDate());
+    }
+}
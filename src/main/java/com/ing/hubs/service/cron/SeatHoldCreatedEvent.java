@@ -0,0 +1,15 @@
+package com.ing.hubs.service.cron;
+
+import com.ing.hubs.model.entity.enrollment.SeatHold;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Published whenever a seat is held for a pending enrollment, so that the hold is given back once it expires.
+ */
+public record SeatHoldCreatedEvent(UUID enrollmentId, UUID courseId, Instant expiresAt) {
+    public static SeatHoldCreatedEvent of(final SeatHold hold) {
+        return new SeatHoldCreatedEvent(hold.getEnrollmentId(), hold.getCourseId(), hold.getExpiresAt());
+    }
+}
@@ -0,0 +1,141 @@
+package com.ing.hubs.service.cron.job;
+
+import com.ing.hubs.repository.CourseRepository;
+import com.ing.hubs.service.cron.CourseLifecycleEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Runs the enrollment lifecycle transitions only when a course start or end boundary is due.
+ * Boundaries are kept in a priority queue and a single wake-up is armed for the earliest one.
+ * Activation is due at the start of a course's first day, completion at the start of the day after it ends.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class EnrollmentLifecycleScheduler {
+    static final Duration RETRY_DELAY = Duration.ofMinutes(1);
+
+    private final EnrollmentStatusJob enrollmentStatusJob;
+    private final CourseRepository courseRepository;
+    private final TaskScheduler taskScheduler;
+    private final Clock clock;
+    private final PriorityQueue<Instant> boundaries = new PriorityQueue<>();
+    private ScheduledFuture<?> wakeUp;
+    private Instant wakeUpAt;
+
+    @Autowired
+    public EnrollmentLifecycleScheduler(final EnrollmentStatusJob enrollmentStatusJob,
+                                        final CourseRepository courseRepository,
+                                        final TaskScheduler taskScheduler,
+                                        final Clock clock) {
+        this.enrollmentStatusJob = enrollmentStatusJob;
+        this.courseRepository = courseRepository;
+        this.taskScheduler = taskScheduler;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        final LocalDate today = LocalDate.now(this.clock);
+        final var startDates = this.courseRepository.findDistinctStartDatesAfter(today);
+        final var endDates = this.courseRepository.findDistinctEndDatesOnOrAfter(today);
+
+        synchronized (this) {
+            this.boundaries.clear();
+            startDates.forEach(date -> this.enqueue(this.activationDue(date)));
+            endDates.forEach(date -> this.enqueue(this.completionDue(date)));
+            // catch-up pass for boundaries that passed while the service was down
+            this.enqueue(this.clock.instant());
+            this.rearm();
+        }
+        log.info(String.format("Enrollment lifecycle scheduler rebuilt with %d course boundaries", this.boundaries.size()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseLifecycleEvent(final CourseLifecycleEvent event) {
+        synchronized (this) {
+            this.enqueue(this.activationDue(event.startDate()));
+            this.enqueue(this.completionDue(event.endDate()));
+            this.rearm();
+        }
+    }
+
+    void runDueTransitions() {
+        synchronized (this) {
+            final Instant now = this.clock.instant();
+            while (!this.boundaries.isEmpty() && !this.boundaries.peek().isAfter(now)) {
+                this.boundaries.poll();
+            }
+            this.wakeUp = null;
+            this.wakeUpAt = null;
+        }
+
+        try {
+            if (!this.enrollmentStatusJob.runLifecycleTransitions()) {
+                // another node is running the pass; check back in case it dies before finishing
+                synchronized (this) {
+                    this.enqueue(this.clock.instant().plus(RETRY_DELAY));
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.error(String.format("Enrollment lifecycle transitions failed, retrying in %s", RETRY_DELAY), ex);
+            synchronized (this) {
+                this.enqueue(this.clock.instant().plus(RETRY_DELAY));
+            }
+        } finally {
+            synchronized (this) {
+                this.rearm();
+            }
+        }
+    }
+
+    synchronized Optional<Instant> nextWakeUp() {
+        return Optional.ofNullable(this.wakeUpAt);
+    }
+
+    synchronized int pendingBoundaries() {
+        return this.boundaries.size();
+    }
+
+    private void enqueue(final Instant due) {
+        if (!this.boundaries.contains(due)) {
+            this.boundaries.add(due);
+        }
+    }
+
+    private void rearm() {
+        final Instant next = this.boundaries.peek();
+        if (next == null || (this.wakeUpAt != null && !next.isBefore(this.wakeUpAt))) {
+            return;
+        }
+
+        if (this.wakeUp != null) {
+            this.wakeUp.cancel(false);
+        }
+        this.wakeUpAt = next;
+        this.wakeUp = this.taskScheduler.schedule(this::runDueTransitions, next);
+    }
+
+    private Instant activationDue(final LocalDate startDate) {
+        return startDate.atStartOfDay(this.clock.getZone()).toInstant();
+    }
+
+    private Instant completionDue(final LocalDate endDate) {
+        return endDate.plusDays(1).atStartOfDay(this.clock.getZone()).toInstant();
+    }
+}
@@ -3,14 +3,16 @@ package com.ing.hubs.service.cron.job;
 import com.ing.hubs.model.entity.course.Course;
 import com.ing.hubs.model.entity.enrollment.Enrollment;
 import com.ing.hubs.model.entity.enrollment.EnrollmentStatus;
+import com.ing.hubs.service.cron.lease.JobLeaseService;
 import com.ing.hubs.service.enrollment.EnrollmentProcessingService;
 import com.ing.hubs.service.enrollment.EnrollmentService;
+import com.ing.hubs.service.enrollment.EnrollmentTransitionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.scheduling.annotation.EnableScheduling;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Clock;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Stream;
@@ -20,37 +22,47 @@ import java.util.stream.Stream;
 @Component
 @ConditionalOnProperty(name = "scheduling.enabled", havingValue = "true", matchIfMissing = true)
 public class EnrollmentStatusJob {
+    static final String ACTIVATION_JOB = "enrollment-activation";
+    static final String COMPLETION_JOB = "enrollment-completion";
+
     private final EnrollmentService enrollmentService;
     private final EnrollmentProcessingService enrollmentProcessingService;
+    private final EnrollmentTransitionService enrollmentTransitionService;
+    private final JobLeaseService jobLeaseService;
+    private final Clock clock;
 
     @Autowired
     public EnrollmentStatusJob(final EnrollmentService enrollmentService,
-                               final EnrollmentProcessingService enrollmentProcessingService) {
+                               final EnrollmentProcessingService enrollmentProcessingService,
+                               final EnrollmentTransitionService enrollmentTransitionService,
+                               final JobLeaseService jobLeaseService,
+                               final Clock clock) {
         this.enrollmentService = enrollmentService;
         this.enrollmentProcessingService = enrollmentProcessingService;
+        this.enrollmentTransitionService = enrollmentTransitionService;
+        this.jobLeaseService = jobLeaseService;
+        this.clock = clock;
     }
 
-//    @Scheduled(cron = "0 0 * * *")
-    @Scheduled(fixedRate = 10000L)
-    void disableCompletedEnrollments(){
-        this.enrollmentService.findEnrollmentsByStatus(EnrollmentStatus.ACTIVE).forEach(enrollment -> {
-            if (enrollment.getGrade() != null &&
-                enrollment.getCourse().getEndDate().isBefore(LocalDate.now())){
-                this.enrollmentProcessingService.changeEnrollmentStatus(enrollment, EnrollmentStatus.COMPLETED);
-            }
-        });
+    /**
+     * Returns false when another node held one of the leases, so the caller can check back once it expires.
+     */
+    boolean runLifecycleTransitions(){
+        final boolean activated = this.activateEnrollments();
+        final boolean completed = this.disableCompletedEnrollments();
+        return activated && completed;
     }
 
-//    @Scheduled(cron = "0 0 * * *")
-    @Scheduled(fixedRate = 10000L)
-    void activateEnrollments(){
-        final List<Enrollment> enrollments = this.enrollmentService.findEnrollmentsByStatus(EnrollmentStatus.APPROVED);
-        enrollments.forEach(enrollment -> {
-            if (enrollment.getCourse().getStartDate().isEqual(LocalDate.now()) ||
-                enrollment.getCourse().getStartDate().isBefore(LocalDate.now())){
-                this.enrollmentProcessingService.changeEnrollmentStatus(enrollment, EnrollmentStatus.ACTIVE);
-            }
-        });
+    boolean disableCompletedEnrollments(){
+        return this.jobLeaseService.runExclusively(COMPLETION_JOB, lease ->
+                this.enrollmentTransitionService.completeGradedEnrollments(LocalDate.now(this.clock),
+                        () -> this.jobLeaseService.fence(lease)).size()).isPresent();
+    }
+
+    boolean activateEnrollments(){
+        return this.jobLeaseService.runExclusively(ACTIVATION_JOB, lease ->
+                this.enrollmentTransitionService.activateApprovedEnrollments(LocalDate.now(this.clock),
+                        () -> this.jobLeaseService.fence(lease)).size()).isPresent();
     }
 //    Commented for presentation purposes
 //    @Scheduled(cron = "0 0 * * *")
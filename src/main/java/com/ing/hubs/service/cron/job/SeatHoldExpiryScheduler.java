@@ -0,0 +1,155 @@
+package com.ing.hubs.service.cron.job;
+
+import com.ing.hubs.model.entity.enrollment.SeatHold;
+import com.ing.hubs.repository.SeatHoldRepository;
+import com.ing.hubs.service.cron.SeatHoldCreatedEvent;
+import com.ing.hubs.service.cron.lease.JobLeaseService;
+import com.ing.hubs.service.enrollment.SeatHoldService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Gives back held seats when their holds expire. Every hold waits in a {@link TimingWheel} that is moved forward once a
+ * tick, so the database is only touched for holds that are due, never polled for them. The wheel is filled from the
+ * database when the application is ready and then from every {@link SeatHoldCreatedEvent} once its transaction
+ * commits. A hold that was approved, denied or canceled in the meantime is left in the wheel and finds nothing to give
+ * back when it comes up.
+ * <p>
+ * A wheel only knows the holds of its own node, so those of a node that crashed or was scaled in would never expire.
+ * Every {@link #SWEEP_INTERVAL} one node, holding the {@link #SWEEP_JOB} lease, also gives back every hold that has run
+ * out according to the database. Expiring a hold is a conditional delete, so a hold reached by both the sweep and a
+ * wheel is given back once.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SeatHoldExpiryScheduler {
+    static final Duration TICK = Duration.ofSeconds(1);
+    static final int WHEEL_SIZE = 64;
+    static final Duration RETRY_DELAY = Duration.ofMinutes(1);
+    static final String SWEEP_JOB = "seat-hold-expiry";
+    static final Duration SWEEP_INTERVAL = Duration.ofMinutes(5);
+    static final int SWEEP_BATCH_SIZE = 500;
+
+    private final SeatHoldService seatHoldService;
+    private final SeatHoldRepository seatHoldRepository;
+    private final TaskScheduler taskScheduler;
+    private final JobLeaseService jobLeaseService;
+    private final Clock clock;
+    private final TimingWheel<SeatHoldCreatedEvent> wheel;
+    private final List<SeatHoldCreatedEvent> due = new ArrayList<>();
+    private ScheduledFuture<?> ticker;
+    private ScheduledFuture<?> sweeper;
+
+    @Autowired
+    public SeatHoldExpiryScheduler(final SeatHoldService seatHoldService,
+                                   final SeatHoldRepository seatHoldRepository,
+                                   final TaskScheduler taskScheduler,
+                                   final JobLeaseService jobLeaseService,
+                                   final Clock clock) {
+        this.seatHoldService = seatHoldService;
+        this.seatHoldRepository = seatHoldRepository;
+        this.taskScheduler = taskScheduler;
+        this.jobLeaseService = jobLeaseService;
+        this.clock = clock;
+        this.wheel = new TimingWheel<>(TICK.toMillis(), WHEEL_SIZE, clock.millis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        final List<SeatHold> holds = this.seatHoldRepository.findAll();
+
+        synchronized (this) {
+            // added to what is already waiting rather than replacing it, as a hold created while the rows were read
+            // may be missing from them; one waiting twice finds nothing to give back the second time
+            holds.forEach(hold -> this.enqueue(SeatHoldCreatedEvent.of(hold)));
+            if (this.ticker == null) {
+                this.ticker = this.taskScheduler.scheduleAtFixedRate(this::expireDue, TICK);
+            }
+            if (this.sweeper == null) {
+                // the holds just read are already waiting, so the first sweep can wait a full interval
+                this.sweeper = this.taskScheduler.scheduleWithFixedDelay(this::sweepExpired,
+                        this.clock.instant().plus(SWEEP_INTERVAL), SWEEP_INTERVAL);
+            }
+        }
+        log.info(String.format("Seat hold expiry scheduler rebuilt with %d holds", holds.size()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatHoldCreated(final SeatHoldCreatedEvent event) {
+        synchronized (this) {
+            this.enqueue(event);
+        }
+    }
+
+    void expireDue() {
+        final List<SeatHoldCreatedEvent> expired;
+        synchronized (this) {
+            this.wheel.advance(this.clock.millis(), this.due::add);
+            expired = new ArrayList<>(this.due);
+            this.due.clear();
+        }
+
+        for (SeatHoldCreatedEvent event : expired) {
+            try {
+                this.seatHoldService.expire(event.enrollmentId(), event.courseId());
+            } catch (RuntimeException ex) {
+                log.error(String.format("Expiring the seat hold of enrollment with id \"%s\" failed, retrying in %s",
+                        event.enrollmentId(), RETRY_DELAY), ex);
+                synchronized (this) {
+                    this.enqueue(new SeatHoldCreatedEvent(event.enrollmentId(), event.courseId(), this.clock.instant().plus(RETRY_DELAY)));
+                }
+            }
+        }
+    }
+
+    void sweepExpired() {
+        try {
+            this.jobLeaseService.runExclusively(SWEEP_JOB, lease -> this.expireAllExpired());
+        } catch (RuntimeException ex) {
+            log.error(String.format("Sweeping expired seat holds failed, retrying in %s", SWEEP_INTERVAL), ex);
+        }
+    }
+
+    synchronized int waitingHolds() {
+        return this.wheel.size() + this.due.size();
+    }
+
+    private int expireAllExpired() {
+        int expired = 0;
+        List<SeatHold> batch;
+        int expiredInBatch;
+        do {
+            batch = this.seatHoldRepository.findExpired(this.clock.instant(), PageRequest.of(0, SWEEP_BATCH_SIZE));
+            expiredInBatch = 0;
+            for (SeatHold hold : batch) {
+                if (this.seatHoldService.expire(hold.getEnrollmentId(), hold.getCourseId())) {
+                    expiredInBatch++;
+                }
+            }
+            expired += expiredInBatch;
+            // expired holds are deleted, so the next batch starts over at the first page; one that gave nothing back
+            // would read the same rows again
+        } while (batch.size() == SWEEP_BATCH_SIZE && expiredInBatch > 0);
+        return expired;
+    }
+
+    private void enqueue(final SeatHoldCreatedEvent event) {
+        if (!this.wheel.add(event, event.expiresAt().toEpochMilli())) {
+            this.due.add(event);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.ing.hubs.service.cron.job;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A hierarchical timing wheel: {@code wheelSize} buckets of one tick each, and for deadlines beyond the wheel an
+ * overflow wheel whose tick is the whole span of this one, created when first needed. Adding an item and expiring it
+ * cost the same however many items are waiting, and advancing only looks at the buckets whose time has come; an item
+ * in an overflow wheel drops to a finer wheel once its bucket comes up, until it expires from the finest one.
+ * <p>
+ * Deadlines are rounded up to a whole tick, so an item never expires early, and at most one tick late plus however
+ * late {@link #advance} is called. Not thread-safe.
+ */
+class TimingWheel<T> {
+    private final Level root;
+    private int size;
+
+    TimingWheel(final long tickMillis,
+                final int wheelSize,
+                final long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("A timing wheel needs a positive tick and at least two buckets");
+        }
+        this.root = new Level(tickMillis, wheelSize, startMillis);
+    }
+
+    /**
+     * Adds {@code item} to expire at {@code dueMillis}. Returns false, without adding it, when it is already due.
+     */
+    boolean add(final T item,
+                final long dueMillis) {
+        final long tick = this.root.tick;
+        final long due = Math.floorDiv(dueMillis, tick) * tick + (Math.floorMod(dueMillis, tick) == 0 ? 0 : tick);
+        if (!this.root.add(new Entry<>(item, due))) {
+            return false;
+        }
+        this.size++;
+        return true;
+    }
+
+    /**
+     * Moves the wheel to {@code nowMillis}, handing every item that expired to {@code expired}.
+     */
+    void advance(final long nowMillis,
+                 final Consumer<T> expired) {
+        final List<Entry<T>> flushed = new ArrayList<>();
+        for (Level level = this.root; level != null; level = level.overflow) {
+            level.advance(nowMillis, flushed);
+        }
+        // a flushed item either drops to a finer wheel or, when its tick has come, expires
+        for (Entry<T> entry : flushed) {
+            if (!this.root.add(entry)) {
+                this.size--;
+                expired.accept(entry.item());
+            }
+        }
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    private record Entry<T>(T item, long due) {
+    }
+
+    private final class Level {
+        private final long tick;
+        private final int wheelSize;
+        private final List<List<Entry<T>>> buckets;
+        private long currentTime;
+        private Level overflow;
+
+        private Level(final long tick,
+                      final int wheelSize,
+                      final long startMillis) {
+            this.tick = tick;
+            this.wheelSize = wheelSize;
+            this.buckets = new ArrayList<>(wheelSize);
+            for (int i = 0; i < wheelSize; i++) {
+                this.buckets.add(new ArrayList<>());
+            }
+            this.currentTime = Math.floorDiv(startMillis, tick) * tick;
+        }
+
+        private boolean add(final Entry<T> entry) {
+            if (entry.due() < this.currentTime + this.tick) {
+                return false;
+            }
+            if (entry.due() < this.currentTime + this.tick * this.wheelSize) {
+                this.buckets.get(this.index(entry.due())).add(entry);
+                return true;
+            }
+            if (this.overflow == null) {
+                this.overflow = new Level(this.tick * this.wheelSize, this.wheelSize, this.currentTime);
+            }
+            return this.overflow.add(entry);
+        }
+
+        private void advance(final long nowMillis,
+                             final List<Entry<T>> flushed) {
+            while (nowMillis >= this.currentTime + this.tick) {
+                this.currentTime += this.tick;
+                final List<Entry<T>> bucket = this.buckets.get(this.index(this.currentTime));
+                flushed.addAll(bucket);
+                bucket.clear();
+            }
+        }
+
+        private int index(final long time) {
+            return (int) Math.floorMod(Math.floorDiv(time, this.tick), (long) this.wheelSize);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.ing.hubs.service.cron.lease;
+
+import com.ing.hubs.exception.job.LeaseLostException;
+import com.ing.hubs.model.entity.job.JobRun;
+import com.ing.hubs.repository.JobLeaseRepository;
+import com.ing.hubs.repository.JobRunRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.ToIntFunction;
+
+/**
+ * Database-backed leases that let a single node at a time run a scheduled job.
+ * A lease is taken over once it expires, which bumps its fencing token; {@link #fence(LeaseGrant)} renews the lease
+ * inside the caller's transaction and fails it when the token is stale, so a paused holder cannot commit after a takeover.
+ * Lease expiry is compared against each node's clock, so clock skew between nodes must stay well below the lease duration.
+ * Every run is timed as {@code job.runs} and its row count recorded as {@code job.rows}; runs skipped because another
+ * node held the lease are counted as {@code job.skipped}.
+ */
+@Slf4j
+@Service
+public class JobLeaseService {
+    private final JobLeaseRepository jobLeaseRepository;
+    private final JobRunRepository jobRunRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final MeterRegistry meterRegistry;
+    @Getter
+    private final String holder;
+    private final Duration leaseDuration;
+
+    @Autowired
+    public JobLeaseService(final JobLeaseRepository jobLeaseRepository,
+                           final JobRunRepository jobRunRepository,
+                           final TransactionTemplate transactionTemplate,
+                           final Clock clock,
+                           final MeterRegistry meterRegistry,
+                           @Value("${job.lease.holder:}") final String holder,
+                           @Value("${job.lease.duration:PT5M}") final Duration leaseDuration) {
+        this.jobLeaseRepository = jobLeaseRepository;
+        this.jobRunRepository = jobRunRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+        this.meterRegistry = meterRegistry;
+        this.holder = holder.isBlank() ? defaultHolder() : holder;
+        this.leaseDuration = leaseDuration;
+    }
+
+    /**
+     * Runs {@code job} only if this node acquires the lease, records a {@link JobRun} and releases the lease afterwards.
+     * The job returns the number of rows it touched. An empty result means another node holds the lease.
+     */
+    public Optional<JobRun> runExclusively(final String jobName,
+                                           final ToIntFunction<LeaseGrant> job) {
+        final Optional<LeaseGrant> lease = this.tryAcquire(jobName);
+        if (lease.isEmpty()) {
+            log.info(String.format("Skipping job \"%s\", lease is held by another node", jobName));
+            Counter.builder("job.skipped")
+                    .description("Job runs skipped because another node held the lease")
+                    .tag("job", jobName)
+                    .register(this.meterRegistry)
+                    .increment();
+            return Optional.empty();
+        }
+
+        final LeaseGrant grant = lease.get();
+        final Instant startedAt = this.clock.instant();
+        try {
+            final int rowsTouched = job.applyAsInt(grant);
+            return Optional.of(this.finishRun(grant, startedAt, rowsTouched, true));
+        } catch (RuntimeException ex) {
+            this.finishRun(grant, startedAt, 0, false);
+            throw ex;
+        }
+    }
+
+    public Optional<LeaseGrant> tryAcquire(final String jobName) {
+        this.createLeaseIfMissing(jobName);
+
+        return this.transactionTemplate.execute(status -> {
+            final Instant now = this.clock.instant();
+            if (this.jobLeaseRepository.acquire(jobName, this.holder, now, now.plus(this.leaseDuration)) == 0) {
+                return Optional.empty();
+            }
+            final long token = this.jobLeaseRepository.findById(jobName).orElseThrow().getFencingToken();
+            return Optional.of(new LeaseGrant(jobName, this.holder, token));
+        });
+    }
+
+    /**
+     * Renews the lease and fails with {@link LeaseLostException} when it has been taken over or has expired.
+     * Must run inside the transaction whose writes it guards: the renewal locks the lease row until that transaction ends.
+     */
+    public void fence(final LeaseGrant grant) {
+        final Instant now = this.clock.instant();
+        if (this.jobLeaseRepository.renew(grant.jobName(), grant.holder(), grant.fencingToken(), now, now.plus(this.leaseDuration)) == 0) {
+            throw new LeaseLostException(grant.jobName(), grant.fencingToken());
+        }
+    }
+
+    public void release(final LeaseGrant grant) {
+        this.transactionTemplate.executeWithoutResult(status ->
+                this.jobLeaseRepository.release(grant.jobName(), grant.holder(), grant.fencingToken()));
+    }
+
+    private JobRun finishRun(final LeaseGrant grant,
+                             final Instant startedAt,
+                             final int rowsTouched,
+                             final boolean succeeded) {
+        this.release(grant);
+        final JobRun run = this.jobRunRepository.save(JobRun.builder()
+                .jobName(grant.jobName())
+                .holder(grant.holder())
+                .fencingToken(grant.fencingToken())
+                .startedAt(startedAt)
+                .durationMillis(Duration.between(startedAt, this.clock.instant()).toMillis())
+                .rowsTouched(rowsTouched)
+                .succeeded(succeeded)
+                .build());
+        Timer.builder("job.runs")
+                .description("Job run duration")
+                .tag("job", run.getJobName())
+                .tag("outcome", succeeded ? "success" : "failure")
+                .register(this.meterRegistry)
+                .record(Duration.ofMillis(run.getDurationMillis()));
+        DistributionSummary.builder("job.rows")
+                .description("Rows touched per job run")
+                .baseUnit("rows")
+                .tag("job", run.getJobName())
+                .register(this.meterRegistry)
+                .record(rowsTouched);
+        log.info(String.format("Job \"%s\" %s on \"%s\" with fencing token %d, %d rows touched in %d ms",
+                run.getJobName(), succeeded ? "completed" : "failed", run.getHolder(), run.getFencingToken(),
+                run.getRowsTouched(), run.getDurationMillis()));
+        return run;
+    }
+
+    private void createLeaseIfMissing(final String jobName) {
+        if (this.jobLeaseRepository.existsById(jobName)) {
+            return;
+        }
+        try {
+            this.transactionTemplate.executeWithoutResult(status -> this.jobLeaseRepository.create(jobName, Instant.EPOCH));
+        } catch (DataIntegrityViolationException ex) {
+            // another node created the row first
+        }
+    }
+
+    private static String defaultHolder() {
+        return ManagementFactory.getRuntimeMXBean().getName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,4 @@
+package com.ing.hubs.service.cron.lease;
+
+public record LeaseGrant(String jobName, String holder, long fencingToken) {
+}
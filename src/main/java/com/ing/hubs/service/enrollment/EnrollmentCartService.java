@@ -0,0 +1,138 @@
+package com.ing.hubs.service.enrollment;
+
+import com.ing.hubs.dto.enrollment.CartDto;
+import com.ing.hubs.dto.enrollment.CartFailureDto;
+import com.ing.hubs.dto.enrollment.CartResponseDto;
+import com.ing.hubs.dto.enrollment.EnrollmentResponseDto;
+import com.ing.hubs.exception.EntityNotFoundException;
+import com.ing.hubs.exception.ResponseException;
+import com.ing.hubs.exception.course.InvalidScheduleException;
+import com.ing.hubs.exception.enrollment.EnrollmentProcessingException;
+import com.ing.hubs.exception.security.UnauthorizedAccessException;
+import com.ing.hubs.mapper.EnrollmentMapper;
+import com.ing.hubs.metrics.EnrollmentMetrics;
+import com.ing.hubs.model.entity.course.Course;
+import com.ing.hubs.model.entity.enrollment.Enrollment;
+import com.ing.hubs.model.entity.user.Role;
+import com.ing.hubs.model.entity.user.User;
+import com.ing.hubs.repository.EnrollmentRepository;
+import com.ing.hubs.security.JwtPrincipal;
+import com.ing.hubs.service.CourseService;
+import com.ing.hubs.service.ScheduleService;
+import com.ing.hubs.service.SecurityService;
+import com.ing.hubs.service.UserService;
+import com.ing.hubs.service.conflict.CourseConflictGraph;
+import io.micrometer.core.annotation.Timed;
+import jakarta.transaction.Transactional;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Enrolls a student in several courses at once. Every course in the cart gets the checks of
+ * {@link EnrollmentService#createEnrollment}, and is also checked against the courses listed before it, in one pass
+ * over the student's timetable and the courses read together. The cart is all or nothing: if any course fails, no
+ * enrollment is created and every failure is reported; otherwise all enrollments are inserted in one batch.
+ */
+@Slf4j
+@Timed("service.method")
+@Service
+@AllArgsConstructor
+public class EnrollmentCartService {
+    public static final int MAX_CART_SIZE = 50;
+
+    private SecurityService securityService;
+    private UserService userService;
+    private CourseService courseService;
+    private ScheduleService scheduleService;
+    private EnrollmentRepository enrollmentRepository;
+    private EnrollmentMapper enrollmentMapper;
+    private EnrollmentValidationService validationService;
+    private EnrollmentMetrics enrollmentMetrics;
+    private CourseConflictGraph conflictGraph;
+    private SeatHoldService seatHoldService;
+
+    @Transactional
+    public CartResponseDto submit(final CartDto dto,
+                                  final JwtPrincipal principal) {
+        final User student = this.userService.findStudentWithTimetable(this.securityService.extractUserId(principal));
+        if (student.getRole() != Role.STUDENT) {
+            throw new UnauthorizedAccessException();
+        }
+
+        final List<UUID> courseIds = dto.getCourseIds().stream().filter(Objects::nonNull).distinct().toList();
+        if (courseIds.isEmpty()) {
+            throw new EnrollmentProcessingException("Cart cannot be empty!");
+        }
+        if (courseIds.size() > MAX_CART_SIZE) {
+            throw new EnrollmentProcessingException(String.format("At most %d courses can be submitted at once!", MAX_CART_SIZE));
+        }
+
+        final Map<UUID, Course> courses = this.courseService.findCoursesByIds(courseIds).stream()
+                .collect(Collectors.toMap(Course::getId, Function.identity()));
+        final Set<UUID> enrolledCourseIds = student.getEnrollments().stream()
+                .map(enrollment -> enrollment.getCourse().getId())
+                .collect(Collectors.toSet());
+
+        final List<Course> accepted = new ArrayList<>();
+        final List<CartFailureDto> failures = new ArrayList<>();
+        for (UUID courseId : courseIds) {
+            try {
+                accepted.add(this.validate(courses.get(courseId), student, enrolledCourseIds, accepted));
+            } catch (ResponseException ex) {
+                failures.add(new CartFailureDto(courseId, ex.getMessage()));
+            }
+        }
+
+        if (!failures.isEmpty()) {
+            log.info(String.format("Cart of student with id \"%s\" has been rejected, %d of %d courses failed validation",
+                    student.getId(), failures.size(), courseIds.size()));
+            return new CartResponseDto(false, List.of(), failures);
+        }
+
+        final List<Enrollment> enrollments = accepted.stream()
+                .map(course -> Enrollment.builder()
+                        .user(student)
+                        .course(course)
+                        .build())
+                .toList();
+        final List<Enrollment> savedEnrollments = this.enrollmentRepository.saveAll(enrollments);
+        this.seatHoldService.hold(savedEnrollments);
+        // linked once ids are assigned, as unsaved enrollments are equal to each other; the courses' side is left
+        // alone, adding to their enrollments would load them for nothing
+        student.getEnrollments().addAll(savedEnrollments);
+        savedEnrollments.forEach(enrollment -> this.enrollmentMetrics.recordCreated(enrollment.getStatus()));
+        log.info(String.format("Cart of student with id \"%s\" has been submitted, enrollments created: %s",
+                student.getId(), savedEnrollments.stream().map(Enrollment::getId).toList()));
+
+        final List<EnrollmentResponseDto> responses = savedEnrollments.stream()
+                .map(this.enrollmentMapper::toResponse)
+                .toList();
+        return new CartResponseDto(true, responses, List.of());
+    }
+
+    private Course validate(final Course course,
+                            final User student,
+                            final Set<UUID> enrolledCourseIds,
+                            final List<Course> accepted) {
+        if (course == null) {
+            throw new EntityNotFoundException("Course");
+        }
+        this.validationService.validateEnrollmentPeriod(course);
+        this.validationService.validateCapacity(course);
+        this.validationService.validateIfAlreadyEnrolled(course, enrolledCourseIds);
+        this.scheduleService.validateScheduleOverlap(course, student);
+
+        final Optional<Course> conflict = accepted.stream()
+                .filter(other -> this.conflictGraph.conflicts(course, other))
+                .findFirst();
+        if (conflict.isPresent()) {
+            throw new InvalidScheduleException(String.format("Schedules overlap with course \"%s\"!", conflict.get().getCourseName()));
+        }
+        return course;
+    }
+}
@@ -0,0 +1,263 @@
+package com.ing.hubs.service.enrollment;
+
+import com.ing.hubs.dto.enrollment.BulkDecisionDto;
+import com.ing.hubs.dto.enrollment.BulkDecisionResponseDto;
+import com.ing.hubs.dto.enrollment.DecisionResultDto;
+import com.ing.hubs.exception.EntityNotFoundException;
+import com.ing.hubs.exception.ResponseException;
+import com.ing.hubs.exception.course.CourseCapacityReachedException;
+import com.ing.hubs.exception.enrollment.EnrollmentProcessingException;
+import com.ing.hubs.metrics.EnrollmentMetrics;
+import com.ing.hubs.model.entity.course.Course;
+import com.ing.hubs.model.entity.enrollment.Enrollment;
+import com.ing.hubs.model.entity.enrollment.EnrollmentStatus;
+import com.ing.hubs.repository.EnrollmentRepository;
+import com.ing.hubs.security.JwtPrincipal;
+import com.ing.hubs.service.CourseService;
+import com.ing.hubs.service.ScheduleService;
+import com.ing.hubs.service.SecurityService;
+import com.ing.hubs.service.conflict.CourseConflictGraph;
+import com.ing.hubs.service.cron.CourseLifecycleEvent;
+import io.micrometer.core.annotation.Timed;
+import jakarta.transaction.Transactional;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Approves or denies many enrollments in one transaction. Where {@link EnrollmentProcessingService#updateEnrollmentStatus}
+ * reloads a student's pending enrollments after every approval, this reads the targets and the pending enrollments of
+ * the affected students once, decides everything in memory, and writes one UPDATE per status change and one seat
+ * reservation per course.
+ * <p>
+ * Approvals are applied in enrollment id order, which is the order students enrolled in, while the course has
+ * free seats. Every approval cancels the student's pending enrollments in courses that the {@link CourseConflictGraph}
+ * links to the approved one; a target canceled that way by an earlier approval is reported as already
+ * processed, as it would be one request at a time.
+ * <p>
+ * An approved enrollment that holds a seat keeps that seat instead of taking another; the seats held by denied and
+ * canceled enrollments are given back.
+ */
+@Slf4j
+@Timed("service.method")
+@Service
+@AllArgsConstructor
+public class EnrollmentDecisionService {
+    public static final int MAX_BULK_DECISIONS = 1000;
+
+    private SecurityService securityService;
+    private CourseService courseService;
+    private ScheduleService scheduleService;
+    private EnrollmentRepository enrollmentRepository;
+    private EnrollmentValidationService validationService;
+    private ApplicationEventPublisher eventPublisher;
+    private EnrollmentMetrics enrollmentMetrics;
+    private CourseConflictGraph conflictGraph;
+    private SeatHoldService seatHoldService;
+
+    @Transactional
+    public BulkDecisionResponseDto decide(final BulkDecisionDto dto,
+                                          final JwtPrincipal principal) {
+        final UUID teacherId = this.securityService.extractUserId(principal);
+        final EnrollmentStatus decision = dto.getStatus();
+        if (decision != EnrollmentStatus.APPROVED && decision != EnrollmentStatus.DENIED) {
+            throw new EnrollmentProcessingException("Invalid new status");
+        }
+
+        final List<UUID> requested = this.requestedIds(dto, teacherId);
+        final Map<UUID, Enrollment> enrollments = (requested.isEmpty() ? List.<Enrollment>of() : this.enrollmentRepository.findAllByIdIn(requested)).stream()
+                .collect(Collectors.toMap(Enrollment::getId, Function.identity()));
+
+        final Decisions decisions = new Decisions();
+        final List<Enrollment> accepted = new ArrayList<>();
+        for (UUID id : requested) {
+            final Enrollment enrollment = enrollments.get(id);
+            try {
+                if (enrollment == null) {
+                    throw new EntityNotFoundException("Enrollment");
+                }
+                this.validationService.validateTeacherPermissions(enrollment, teacherId);
+                this.validationService.validateIfEnrollmentStatusTransitionIsValid(enrollment.getStatus(), decision);
+                accepted.add(enrollment);
+            } catch (ResponseException ex) {
+                decisions.reject(id, enrollment == null ? null : enrollment.getStatus(), ex.getMessage());
+            }
+        }
+
+        if (decision == EnrollmentStatus.APPROVED) {
+            this.approve(accepted, decisions);
+        } else {
+            accepted.forEach(enrollment -> decisions.apply(enrollment, EnrollmentStatus.DENIED));
+        }
+        this.persist(decisions);
+
+        final List<DecisionResultDto> results = requested.stream().map(decisions.results::get).toList();
+        final int applied = (int) results.stream().filter(DecisionResultDto::isApplied).count();
+        log.info(String.format("Teacher with id \"%s\" set %d of %d enrollments to \"%s\", %d overlapping enrollments have been canceled",
+                teacherId, applied, requested.size(), decision, decisions.canceled.size()));
+        return new BulkDecisionResponseDto(applied, results.size() - applied, results,
+                List.copyOf(decisions.canceled.keySet()));
+    }
+
+    private List<UUID> requestedIds(final BulkDecisionDto dto,
+                                    final UUID teacherId) {
+        if ((dto.getCourseId() == null) == (dto.getEnrollmentIds() == null)) {
+            throw new EnrollmentProcessingException("Either a course or a list of enrollments is required!");
+        }
+
+        final List<UUID> ids;
+        if (dto.getCourseId() != null) {
+            final Course course = this.courseService.findCourseById(dto.getCourseId());
+            this.validationService.validateTeacherPermissions(course.getUser().getId(), teacherId);
+            ids = this.enrollmentRepository.findAllByCourseIdAndStatus(course.getId(), EnrollmentStatus.PENDING).stream()
+                    .map(Enrollment::getId)
+                    .toList();
+        } else {
+            ids = dto.getEnrollmentIds().stream().filter(Objects::nonNull).distinct().toList();
+        }
+
+        if (ids.size() > MAX_BULK_DECISIONS) {
+            throw new EnrollmentProcessingException(String.format("At most %d enrollments can be processed at once!", MAX_BULK_DECISIONS));
+        }
+        return ids.stream().sorted().toList();
+    }
+
+    private void approve(final List<Enrollment> accepted,
+                         final Decisions decisions) {
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        // the pending enrollments of every affected student, which an approval may cancel
+        final Map<UUID, List<Enrollment>> pendingByStudent = this.enrollmentRepository.findAllByUserIdInAndStatusIn(
+                        accepted.stream().map(enrollment -> enrollment.getUser().getId()).collect(Collectors.toSet()),
+                        List.of(EnrollmentStatus.PENDING)).stream()
+                .collect(Collectors.groupingBy(enrollment -> enrollment.getUser().getId()));
+
+        // an enrollment holding a seat is approved into it, without taking another
+        decisions.held.addAll(this.seatHoldService.lockHeld(accepted.stream().map(Enrollment::getId).toList()));
+        final Map<UUID, Integer> freeSeats = new HashMap<>();
+        for (Enrollment enrollment : accepted) {
+            final Course course = enrollment.getCourse();
+            if (decisions.isCanceled(enrollment)) {
+                decisions.reject(enrollment.getId(), EnrollmentStatus.CANCELED, "Enrollment already processed");
+                continue;
+            }
+            if (!decisions.isHeld(enrollment)) {
+                final int free = freeSeats.computeIfAbsent(course.getId(), id -> course.getCapacity() - course.getSeatsTaken());
+                if (free <= 0) {
+                    decisions.reject(enrollment.getId(), enrollment.getStatus(), new CourseCapacityReachedException().getMessage());
+                    continue;
+                }
+                freeSeats.put(course.getId(), free - 1);
+            }
+
+            decisions.apply(enrollment, EnrollmentStatus.APPROVED);
+            pendingByStudent.getOrDefault(enrollment.getUser().getId(), List.of()).stream()
+                    .filter(pending -> !decisions.isDecided(pending))
+                    .filter(pending -> this.conflictGraph.conflicts(course, pending.getCourse()))
+                    .forEach(decisions::cancel);
+        }
+    }
+
+    private void persist(final Decisions decisions) {
+        final Map<UUID, Course> approvedCourses = new LinkedHashMap<>();
+        final Map<UUID, Integer> approvedSeats = new HashMap<>();
+        decisions.applied.stream()
+                .filter(change -> change.to() == EnrollmentStatus.APPROVED && !decisions.isHeld(change.enrollment()))
+                .map(change -> change.enrollment().getCourse())
+                .forEach(course -> {
+                    approvedCourses.putIfAbsent(course.getId(), course);
+                    approvedSeats.merge(course.getId(), 1, Integer::sum);
+                });
+        approvedCourses.forEach((id, course) -> {
+            if (!this.courseService.reserveSeats(course, approvedSeats.get(id))) {
+                // seats were taken by a concurrent request since the course was read; roll the whole batch back
+                throw new CourseCapacityReachedException();
+            }
+        });
+
+        final Map<Transition, List<UUID>> transitions = new LinkedHashMap<>();
+        final List<Change> changes = new ArrayList<>(decisions.applied);
+        decisions.canceled.values().forEach(enrollment -> changes.add(new Change(enrollment, EnrollmentStatus.PENDING, EnrollmentStatus.CANCELED)));
+        changes.forEach(change -> transitions.computeIfAbsent(new Transition(change.from(), change.to()), key -> new ArrayList<>())
+                .add(change.enrollment().getId()));
+
+        transitions.forEach((transition, ids) -> {
+            if (this.enrollmentRepository.updateStatusByIds(ids, transition.from(), transition.to()) != ids.size()) {
+                throw new EnrollmentProcessingException("Enrollments changed while being processed, please retry");
+            }
+            log.info(String.format("For %d enrollments, status has been set from \"%s\" to \"%s\": %s",
+                    ids.size(), transition.from(), transition.to(), ids));
+            this.enrollmentMetrics.recordTransitions(transition.from(), transition.to(), ids.size());
+        });
+
+        this.seatHoldService.convertAll(decisions.applied.stream()
+                .filter(change -> change.to() == EnrollmentStatus.APPROVED && decisions.isHeld(change.enrollment()))
+                .map(Change::enrollment)
+                .toList());
+        this.seatHoldService.releaseAll(changes.stream()
+                .filter(change -> change.to() != EnrollmentStatus.APPROVED)
+                .map(Change::enrollment)
+                .toList());
+
+        changes.stream()
+                .map(change -> change.enrollment().getUser().getId())
+                .distinct()
+                .forEach(this.scheduleService::evictStudentSlots);
+        approvedCourses.values().stream()
+                .filter(course -> !course.getStartDate().isAfter(LocalDate.now()))
+                // the course already started, so the activation boundary has passed
+                .forEach(course -> this.eventPublisher.publishEvent(CourseLifecycleEvent.of(course)));
+    }
+
+    private record Change(Enrollment enrollment, EnrollmentStatus from, EnrollmentStatus to) {
+    }
+
+    private record Transition(EnrollmentStatus from, EnrollmentStatus to) {
+    }
+
+    private static final class Decisions {
+        private final Map<UUID, DecisionResultDto> results = new HashMap<>();
+        private final List<Change> applied = new ArrayList<>();
+        private final Map<UUID, Enrollment> canceled = new LinkedHashMap<>();
+        private final Set<UUID> decided = new HashSet<>();
+        private final Set<UUID> held = new HashSet<>();
+
+        void apply(final Enrollment enrollment,
+                   final EnrollmentStatus status) {
+            this.applied.add(new Change(enrollment, enrollment.getStatus(), status));
+            this.decided.add(enrollment.getId());
+            this.results.put(enrollment.getId(), new DecisionResultDto(enrollment.getId(), status, true, null));
+        }
+
+        void reject(final UUID enrollmentId,
+                    final EnrollmentStatus status,
+                    final String message) {
+            this.results.put(enrollmentId, new DecisionResultDto(enrollmentId, status, false, message));
+        }
+
+        void cancel(final Enrollment enrollment) {
+            this.canceled.put(enrollment.getId(), enrollment);
+            this.decided.add(enrollment.getId());
+        }
+
+        boolean isCanceled(final Enrollment enrollment) {
+            return this.canceled.containsKey(enrollment.getId());
+        }
+
+        boolean isDecided(final Enrollment enrollment) {
+            return this.decided.contains(enrollment.getId());
+        }
+
+        boolean isHeld(final Enrollment enrollment) {
+            return this.held.contains(enrollment.getId());
+        }
+    }
+}
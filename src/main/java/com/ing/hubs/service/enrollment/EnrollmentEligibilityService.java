@@ -0,0 +1,118 @@
+package com.ing.hubs.service.enrollment;
+
+import com.ing.hubs.dto.enrollment.EligibilityCheckDto;
+import com.ing.hubs.dto.enrollment.EligibilityDto;
+import com.ing.hubs.dto.enrollment.EligibilityReason;
+import com.ing.hubs.exception.EntityNotFoundException;
+import com.ing.hubs.exception.course.CourseCapacityReachedException;
+import com.ing.hubs.exception.course.InvalidScheduleException;
+import com.ing.hubs.exception.enrollment.EnrollmentProcessingException;
+import com.ing.hubs.exception.enrollment.PassedEnrollmentPeriodException;
+import com.ing.hubs.exception.enrollment.StudentAlreadyEnrolledException;
+import com.ing.hubs.exception.security.UnauthorizedAccessException;
+import com.ing.hubs.model.entity.course.Course;
+import com.ing.hubs.model.entity.enrollment.Enrollment;
+import com.ing.hubs.model.entity.enrollment.EnrollmentStatus;
+import com.ing.hubs.model.entity.user.Role;
+import com.ing.hubs.model.entity.user.User;
+import com.ing.hubs.security.JwtPrincipal;
+import com.ing.hubs.service.CourseService;
+import com.ing.hubs.service.ScheduleService;
+import com.ing.hubs.service.SecurityService;
+import com.ing.hubs.service.UserService;
+import com.ing.hubs.service.conflict.CourseConflictGraph;
+import io.micrometer.core.annotation.Timed;
+import jakarta.transaction.Transactional;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Tells a student, for many courses at once, whether they could enroll in each and if not why. The student's
+ * timetable and the courses are read in one query each, and every course then gets the checks of
+ * {@link EnrollmentService#createEnrollment} in memory, in the same order, so the first failing check is the reason
+ * reported. Nothing is reserved: a course eligible now can still be full by the time the student enrolls.
+ */
+@Slf4j
+@Timed("service.method")
+@Service
+@AllArgsConstructor
+public class EnrollmentEligibilityService {
+    public static final int MAX_CHECKED_COURSES = 500;
+
+    private SecurityService securityService;
+    private UserService userService;
+    private CourseService courseService;
+    private ScheduleService scheduleService;
+    private EnrollmentValidationService validationService;
+    private CourseConflictGraph conflictGraph;
+
+    @Transactional
+    public List<EligibilityDto> check(final EligibilityCheckDto dto,
+                                      final JwtPrincipal principal) {
+        final User student = this.userService.findStudentWithTimetable(this.securityService.extractUserId(principal));
+        if (student.getRole() != Role.STUDENT) {
+            throw new UnauthorizedAccessException();
+        }
+
+        final List<UUID> courseIds = dto.getCourseIds().stream().filter(Objects::nonNull).distinct().toList();
+        if (courseIds.size() > MAX_CHECKED_COURSES) {
+            throw new EnrollmentProcessingException(String.format("At most %d courses can be checked at once!", MAX_CHECKED_COURSES));
+        }
+
+        final Map<UUID, Course> courses = courseIds.isEmpty() ? Map.of() : this.courseService.findCoursesByIds(courseIds).stream()
+                .collect(Collectors.toMap(Course::getId, Function.identity()));
+        final Set<UUID> enrolledCourseIds = student.getEnrollments().stream()
+                .map(enrollment -> enrollment.getCourse().getId())
+                .collect(Collectors.toSet());
+        final List<Course> occupied = student.getEnrollments().stream()
+                .filter(enrollment -> enrollment.getStatus().equals(EnrollmentStatus.APPROVED) ||
+                        enrollment.getStatus().equals(EnrollmentStatus.ACTIVE))
+                .map(Enrollment::getCourse)
+                .toList();
+
+        final List<EligibilityDto> eligibilities = courseIds.stream()
+                .map(courseId -> this.check(courseId, courses.get(courseId), student, enrolledCourseIds, occupied))
+                .toList();
+        log.info(String.format("Eligibility of student with id \"%s\" checked for %d courses, %d eligible",
+                student.getId(), eligibilities.size(), eligibilities.stream().filter(EligibilityDto::isEligible).count()));
+        return eligibilities;
+    }
+
+    private EligibilityDto check(final UUID courseId,
+                                 final Course course,
+                                 final User student,
+                                 final Set<UUID> enrolledCourseIds,
+                                 final List<Course> occupied) {
+        if (course == null) {
+            return EligibilityDto.ineligible(courseId, EligibilityReason.COURSE_NOT_FOUND, new EntityNotFoundException("Course").getMessage());
+        }
+        try {
+            this.validationService.validateEnrollmentPeriod(course);
+            this.validationService.validateCapacity(course);
+            this.validationService.validateIfAlreadyEnrolled(course, enrolledCourseIds);
+            this.scheduleService.validateScheduleOverlap(course, student);
+            return EligibilityDto.eligible(courseId);
+        } catch (PassedEnrollmentPeriodException ex) {
+            return EligibilityDto.ineligible(courseId, EligibilityReason.ENROLLMENT_PERIOD_PASSED, ex.getMessage());
+        } catch (CourseCapacityReachedException ex) {
+            return EligibilityDto.ineligible(courseId, EligibilityReason.CAPACITY_REACHED, ex.getMessage());
+        } catch (StudentAlreadyEnrolledException ex) {
+            return EligibilityDto.ineligible(courseId, EligibilityReason.ALREADY_ENROLLED, ex.getMessage());
+        } catch (InvalidScheduleException ex) {
+            final EligibilityDto eligibility = EligibilityDto.ineligible(courseId, EligibilityReason.SCHEDULE_OVERLAP, ex.getMessage());
+            occupied.stream()
+                    .filter(other -> this.conflictGraph.conflicts(course, other))
+                    .findFirst()
+                    .ifPresent(conflict -> {
+                        eligibility.setMessage(String.format("Schedules overlap with course \"%s\"!", conflict.getCourseName()));
+                        eligibility.setConflictingCourseId(conflict.getId());
+                    });
+            return eligibility;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.ing.hubs.service.enrollment;
+
+import com.ing.hubs.dto.enrollment.GradeEntryDto;
+import com.ing.hubs.model.entity.enrollment.EnrollmentStatus;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes grades with one JDBC batch instead of one entity update per row. Runs on the caller's connection, so the
+ * batch commits or rolls back with the surrounding transaction. Only active, ungraded enrollments are updated: the
+ * condition repeats the validation in the statement, so a row graded concurrently reports zero updated rows.
+ */
+@Component
+@AllArgsConstructor
+public class EnrollmentGradeWriter {
+    private static final String UPDATE_GRADE = "update enrollment set grade = ? where id = ? and status = ? and grade is null";
+
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Returns, for every entry in order, whether its row was updated.
+     */
+    public boolean[] writeGrades(final List<GradeEntryDto> grades) {
+        final int[][] counts = this.jdbcTemplate.batchUpdate(UPDATE_GRADE, grades, grades.size(), (statement, entry) -> {
+            statement.setInt(1, entry.getGrade());
+            statement.setBytes(2, toBytes(entry.getEnrollmentId()));
+            statement.setInt(3, EnrollmentStatus.ACTIVE.ordinal());
+        });
+
+        final boolean[] updated = new boolean[grades.size()];
+        int row = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // drivers may answer SUCCESS_NO_INFO (-2) for batched statements
+                updated[row++] = count != 0;
+            }
+        }
+        return updated;
+    }
+
+    private static byte[] toBytes(final UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+}
@@ -1,97 +1,123 @@
 package com.ing.hubs.service.enrollment;
 
+import com.ing.hubs.dto.enrollment.BulkGradeResponseDto;
+import com.ing.hubs.dto.enrollment.GradeEntryDto;
+import com.ing.hubs.dto.enrollment.GradeResultDto;
 import com.ing.hubs.dto.enrollment.UpdateEnrollmentStatusDto;
 import com.ing.hubs.dto.enrollment.EnrollmentResponseDto;
 import com.ing.hubs.dto.enrollment.GradeEnrollmentDto;
-import com.ing.hubs.exception.course.InvalidScheduleException;
+import com.ing.hubs.exception.EntityNotFoundException;
+import com.ing.hubs.exception.ResponseException;
+import com.ing.hubs.exception.course.CourseCapacityReachedException;
+import com.ing.hubs.exception.enrollment.EnrollmentProcessingException;
+import com.ing.hubs.mapper.EnrollmentMapper;
+import com.ing.hubs.metrics.EnrollmentMetrics;
 import com.ing.hubs.model.entity.course.Course;
 import com.ing.hubs.model.entity.enrollment.Enrollment;
 import com.ing.hubs.model.entity.enrollment.EnrollmentStatus;
 import com.ing.hubs.model.entity.user.Role;
 import com.ing.hubs.model.entity.user.User;
 import com.ing.hubs.repository.EnrollmentRepository;
+import com.ing.hubs.repository.projection.EnrollmentGradeRow;
+import com.ing.hubs.security.JwtPrincipal;
 import com.ing.hubs.service.CourseService;
 import com.ing.hubs.service.ScheduleService;
 import com.ing.hubs.service.SecurityService;
+import com.ing.hubs.service.conflict.CourseConflictGraph;
+import com.ing.hubs.service.cron.CourseLifecycleEvent;
+import io.micrometer.core.annotation.Timed;
+import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-import java.util.UUID;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Slf4j
+@Timed("service.method")
 @Service
 @AllArgsConstructor
 public class EnrollmentProcessingService {
+    public static final int MAX_BULK_GRADES = 1000;
+
     private SecurityService securityService;
     private EnrollmentService enrollmentService;
     private CourseService courseService;
     private ScheduleService scheduleService;
-    private ModelMapper modelMapper;
+    private EnrollmentMapper enrollmentMapper;
     private EnrollmentRepository enrollmentRepository;
     private EnrollmentValidationService validationService;
+    private ApplicationEventPublisher eventPublisher;
+    private EnrollmentMetrics enrollmentMetrics;
+    private EnrollmentGradeWriter enrollmentGradeWriter;
+    private CourseConflictGraph conflictGraph;
+    private SeatHoldService seatHoldService;
 
+    @Transactional
     public EnrollmentResponseDto updateEnrollmentStatus(final UUID enrollmentId,
                                                         final UpdateEnrollmentStatusDto dto,
-                                                        final String jwtToken){
-        final Role role = this.securityService.extractRoleFromToken(jwtToken);
-        final UUID teacherId = this.securityService.extractUserIdFromToken(jwtToken);
+                                                        final JwtPrincipal principal){
+        final Role role = this.securityService.extractRole(principal);
+        final UUID teacherId = this.securityService.extractUserId(principal);
         final Enrollment enrollment = this.enrollmentService.findEnrollmentById(enrollmentId);
         final Course course = this.courseService.findCourseById(enrollment.getCourse().getId());
 
         switch (role){
             case TEACHER -> {
                 this.validationService.validateTeacherPermissions(enrollment, teacherId);
-                this.validationService.validateCapacity(course);
                 this.validationService.validateIfEnrollmentStatusTransitionIsValid(enrollment.getStatus(), dto.getStatus());
 
+                final boolean approved = dto.getStatus().equals(EnrollmentStatus.APPROVED);
+                // a held seat is already taken: approving keeps it, anything else gives it back
+                final boolean seatHeld = approved
+                        ? this.seatHoldService.convert(enrollment)
+                        : this.seatHoldService.release(enrollment);
+                // only an approval needs a free seat, so a full course never blocks a denial
+                if (approved && !seatHeld) {
+                    this.validationService.validateCapacity(course);
+                    if (!this.courseService.reserveSeat(course)) {
+                        throw new CourseCapacityReachedException();
+                    }
+                }
                 this.changeEnrollmentStatus(enrollment, dto.getStatus());
 
                 if (enrollment.getStatus().equals(EnrollmentStatus.APPROVED)) {
-                    this.handleEnrollmentIfApproved(enrollment);
+                    this.handleEnrollmentIfApproved(enrollment, course);
+                    if (!course.getStartDate().isAfter(LocalDate.now())) {
+                        // the course already started, so the activation boundary has passed
+                        this.eventPublisher.publishEvent(CourseLifecycleEvent.of(course));
+                    }
                 }
             }
             case STUDENT -> {
                 this.validationService.validateEnrollmentCancellation(enrollment.getStatus(), dto.getStatus());
+                this.seatHoldService.release(enrollment);
                 this.changeEnrollmentStatus(enrollment, dto.getStatus());
             }
         }
 
-        this.courseService.saveCourse(course);
-        return this.modelMapper.map(enrollment, EnrollmentResponseDto.class);
-    }
-
-    private void handleEnrollmentIfApproved(final Enrollment enrollment) {
-        final Course course = enrollment.getCourse();
-        course.setCapacity(course.getCapacity() - 1);
-
-        final User student = enrollment.getUser();
-        final List<Course> coursesAwaitingApproval = this.getCoursesAwaitingApproval(student);
-
-        coursesAwaitingApproval.forEach(c -> {
-            try {
-                this.scheduleService.validateScheduleOverlap(c, student);
-            } catch (InvalidScheduleException ex){
-                c.getEnrollments()
-                        .stream()
-                        .filter(e -> e.getUser().equals(student))
-                        .forEach(e -> this.changeEnrollmentStatus(e, EnrollmentStatus.CANCELED));}
-        });
+        return this.enrollmentMapper.toResponse(enrollment);
     }
 
-    private List<Course> getCoursesAwaitingApproval(final User student) {
-        return this.enrollmentService.findAllEnrollmentsByUser(student.getId())
-                .stream()
-                .filter(e -> e.getStatus().equals(EnrollmentStatus.PENDING))
-                .map(Enrollment::getCourse)
-                .toList();
+    private void handleEnrollmentIfApproved(final Enrollment enrollment,
+                                            final Course course) {
+        this.enrollmentService.findEnrollmentsByUserAndStatus(enrollment.getUser().getId(), EnrollmentStatus.PENDING).stream()
+                .filter(pending -> this.conflictGraph.conflicts(course, pending.getCourse()))
+                .forEach(pending -> {
+                    this.seatHoldService.release(pending);
+                    this.changeEnrollmentStatus(pending, EnrollmentStatus.CANCELED);
+                });
     }
 
+    @Transactional
     public EnrollmentResponseDto gradeEnrollment(final UUID enrollmentId,
                                                  final GradeEnrollmentDto dto,
-                                                 final String jwtToken) {
-        final UUID teacherId = this.securityService.extractUserIdFromToken(jwtToken);
+                                                 final JwtPrincipal principal) {
+        final UUID teacherId = this.securityService.extractUserId(principal);
         var enrollment = this.enrollmentService.findEnrollmentById(enrollmentId);
 
         this.validationService.validateTeacherPermissions(enrollment, teacherId);
@@ -99,14 +125,100 @@ public class EnrollmentProcessingService {
         this.validationService.validateGrade(dto.getGrade());
 
         enrollment.setGrade(dto.getGrade());
+        if (enrollment.getCourse().getEndDate().isBefore(LocalDate.now())) {
+            // graded after the course ended, so the completion boundary has passed
+            this.eventPublisher.publishEvent(CourseLifecycleEvent.of(enrollment.getCourse()));
+        }
         log.info(String.format("For enrollment with id \"%s\", grade has been set to \"%s\"", enrollment.getId().toString(), enrollment.getGrade()));
-        return this.modelMapper.map(this.enrollmentRepository.save(enrollment), EnrollmentResponseDto.class);
+        return this.enrollmentMapper.toResponse(this.enrollmentRepository.save(enrollment));
+    }
+
+    /**
+     * Grades many enrollments in one transaction. The rows are read with a single query and checked against the same
+     * rules as {@link #gradeEnrollment}; rows that break a rule are reported back and skipped, the rest are written
+     * with one JDBC batch. The results follow the order of {@code grades}.
+     */
+    @Transactional
+    public BulkGradeResponseDto gradeEnrollments(final List<GradeEntryDto> grades,
+                                                 final JwtPrincipal principal) {
+        if (grades.size() > MAX_BULK_GRADES) {
+            throw new EnrollmentProcessingException(String.format("At most %d grades can be sent at once!", MAX_BULK_GRADES));
+        }
+        final UUID teacherId = this.securityService.extractUserId(principal);
+
+        final Set<UUID> ids = grades.stream()
+                .filter(Objects::nonNull)
+                .map(GradeEntryDto::getEnrollmentId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        final Map<UUID, EnrollmentGradeRow> rows = ids.isEmpty() ? Map.of() : this.enrollmentRepository.findGradeRowsByIdIn(ids).stream()
+                .collect(Collectors.toMap(EnrollmentGradeRow::id, Function.identity()));
+
+        final GradeResultDto[] results = new GradeResultDto[grades.size()];
+        final List<Integer> accepted = new ArrayList<>();
+        final Set<UUID> seen = new HashSet<>();
+        for (int i = 0; i < grades.size(); i++) {
+            final GradeEntryDto entry = grades.get(i);
+            try {
+                this.validateGradeEntry(entry, rows, teacherId, seen);
+                accepted.add(i);
+            } catch (ResponseException ex) {
+                results[i] = entry == null
+                        ? new GradeResultDto(null, null, false, ex.getMessage())
+                        : new GradeResultDto(entry.getEnrollmentId(), entry.getGrade(), false, ex.getMessage());
+            }
+        }
+
+        final List<GradeEntryDto> writes = accepted.stream().map(grades::get).toList();
+        final boolean[] updated = writes.isEmpty() ? new boolean[0] : this.enrollmentGradeWriter.writeGrades(writes);
+        final Set<UUID> endedCourses = new HashSet<>();
+        for (int i = 0; i < accepted.size(); i++) {
+            final GradeEntryDto entry = writes.get(i);
+            // a row can only miss the update if it was graded or closed after it was read
+            results[accepted.get(i)] = updated[i]
+                    ? new GradeResultDto(entry.getEnrollmentId(), entry.getGrade(), true, null)
+                    : new GradeResultDto(entry.getEnrollmentId(), entry.getGrade(), false, "Enrollment already graded!");
+
+            final EnrollmentGradeRow row = rows.get(entry.getEnrollmentId());
+            if (updated[i] && row.courseEndDate().isBefore(LocalDate.now()) && endedCourses.add(row.courseId())) {
+                // graded after the course ended, so the completion boundary has passed
+                this.eventPublisher.publishEvent(new CourseLifecycleEvent(row.courseId(), row.courseStartDate(), row.courseEndDate()));
+            }
+        }
+
+        final int graded = (int) Arrays.stream(results).filter(GradeResultDto::isGraded).count();
+        log.info(String.format("Teacher with id \"%s\" graded %d of %d enrollments", teacherId, graded, grades.size()));
+        return new BulkGradeResponseDto(graded, grades.size() - graded, List.of(results));
+    }
+
+    private void validateGradeEntry(final GradeEntryDto entry,
+                                    final Map<UUID, EnrollmentGradeRow> rows,
+                                    final UUID teacherId,
+                                    final Set<UUID> seen) {
+        if (entry == null || entry.getEnrollmentId() == null || entry.getGrade() == null) {
+            throw new EnrollmentProcessingException("Enrollment id and grade are required!");
+        }
+        final EnrollmentGradeRow row = rows.get(entry.getEnrollmentId());
+        if (row == null) {
+            throw new EntityNotFoundException("Enrollment");
+        }
+        if (!seen.add(entry.getEnrollmentId())) {
+            throw new EnrollmentProcessingException("Enrollment appears more than once!");
+        }
+        this.validationService.validateTeacherPermissions(row.teacherId(), teacherId);
+        this.validationService.validateExistingEnrollment(row.status(), row.grade());
+        this.validationService.validateGrade(entry.getGrade());
     }
 
     public void changeEnrollmentStatus(final Enrollment enrollment,
                                        final EnrollmentStatus status){
+        final EnrollmentStatus previousStatus = enrollment.getStatus();
         enrollment.setStatus(status);
+        if (enrollment.getUser() != null) {
+            this.scheduleService.evictStudentSlots(enrollment.getUser().getId());
+        }
         log.info(String.format("For enrollment with id \"%s\", status has been set to \"%s\"", enrollment.getId().toString(), status.toString()));
         this.enrollmentRepository.save(enrollment);
+        this.enrollmentMetrics.recordTransition(previousStatus, status);
     }
 }
@@ -4,30 +4,37 @@ import com.ing.hubs.dto.course.CourseResponseDto;
 import com.ing.hubs.dto.enrollment.EnrollmentResponseDto;
 import com.ing.hubs.dto.schedule.ScheduleResponseDto;
 import com.ing.hubs.dto.schedule.StudentsScheduleResponseDto;
-import com.ing.hubs.dto.user.UserResponseDto;
-import com.ing.hubs.exception.EntityCouldNotSavedException;
 import com.ing.hubs.exception.user.InvalidIdentifierException;
 import com.ing.hubs.exception.security.UnauthorizedAccessException;
 import com.ing.hubs.exception.EntityNotFoundException;
+import com.ing.hubs.mapper.CourseMapper;
+import com.ing.hubs.mapper.EnrollmentMapper;
+import com.ing.hubs.mapper.ScheduleMapper;
+import com.ing.hubs.metrics.EnrollmentMetrics;
 import com.ing.hubs.model.entity.course.Course;
 import com.ing.hubs.model.entity.enrollment.Enrollment;
 import com.ing.hubs.model.entity.enrollment.EnrollmentStatus;
 import com.ing.hubs.model.entity.user.Role;
 import com.ing.hubs.model.entity.user.User;
 import com.ing.hubs.repository.EnrollmentRepository;
+import com.ing.hubs.security.JwtPrincipal;
 import com.ing.hubs.service.CourseService;
 import com.ing.hubs.service.ScheduleService;
 import com.ing.hubs.service.SecurityService;
 import com.ing.hubs.service.UserService;
+import com.ing.hubs.service.stream.CursorReader;
+import io.micrometer.core.annotation.Timed;
+import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+@Timed("service.method")
 @Service
 @AllArgsConstructor
 @Slf4j
@@ -35,15 +42,21 @@ public class EnrollmentService {
     private UserService userService;
     private CourseService courseService;
     private EnrollmentRepository enrollmentRepository;
-    private ModelMapper modelMapper;
+    private EnrollmentMapper enrollmentMapper;
+    private ScheduleMapper scheduleMapper;
     private SecurityService securityService;
     private ScheduleService scheduleService;
     private EnrollmentValidationService validationService;
+    private EnrollmentMetrics enrollmentMetrics;
+    private CourseMapper courseMapper;
+    private CursorReader cursorReader;
+    private SeatHoldService seatHoldService;
 
 
+    @Transactional
     public EnrollmentResponseDto createEnrollment(final UUID courseId,
-                                                  final String jwtToken) {
-        final User student = this.userService.findUserById(this.securityService.extractUserIdFromToken(jwtToken));
+                                                  final JwtPrincipal principal) {
+        final User student = this.userService.findStudentWithTimetable(this.securityService.extractUserId(principal));
 
         if (student.getRole() != Role.STUDENT) {
             throw new UnauthorizedAccessException();
@@ -64,109 +77,118 @@ public class EnrollmentService {
 
         student.addEnrollment(enrollment);
 
-        this.userService.saveUser(student);
-        this.courseService.saveCourse(course);
-
-        final Enrollment savedEnrollment = this.enrollmentRepository.findEnrollmentByUserAndCourse(student, course)
-                .orElseThrow(() -> new EntityCouldNotSavedException("Enrollment"));
+        final Enrollment savedEnrollment = this.enrollmentRepository.save(enrollment);
+        this.seatHoldService.hold(List.of(savedEnrollment));
+        this.enrollmentMetrics.recordCreated(savedEnrollment.getStatus());
         log.info(String.format("Enrollment with id \"%s\" has been created", savedEnrollment.getId()));
 
-        final EnrollmentResponseDto response = this.modelMapper.map(savedEnrollment, EnrollmentResponseDto.class);
-        response.setCourse(this.modelMapper.map(course, CourseResponseDto.class));
-        response.setUser(this.modelMapper.map(student, UserResponseDto.class));
-
-        return response;
+        return this.enrollmentMapper.toResponse(savedEnrollment);
     }
 
-    public List<EnrollmentResponseDto> findAll(final EnrollmentStatus enrollmentStatusFilter,
-                                               final String jwtToken) {
-        final UUID userId = securityService.extractUserIdFromToken(jwtToken);
+    /**
+     * Hands the caller's enrollments to {@code sink} one at a time while they are read from the database cursor.
+     */
+    @Transactional
+    public void streamAll(final EnrollmentStatus enrollmentStatusFilter,
+                          final JwtPrincipal principal,
+                          final Consumer<EnrollmentResponseDto> sink) {
+        final UUID userId = securityService.extractUserId(principal);
         final User user = userService.findUserById(userId);
 
-        final Stream<Enrollment> enrollments = this.findAllEnrollments()
-                .stream()
-                .filter(enr -> enrollmentStatusFilter == null || enr.getStatus().equals(enrollmentStatusFilter));
-
-        Stream<Enrollment> filteredEnrollments = Stream.empty();
+        Stream<Enrollment> enrollments = Stream.empty();
+        List<Course> courses = List.of();
 
         switch (user.getRole()){
-            case TEACHER -> filteredEnrollments = enrollments
-                    .filter(enr -> enr.getCourse().getUser().getId().equals(user.getId()));
-            case STUDENT -> filteredEnrollments = enrollments
-                    .filter(enrollment -> enrollment.getUser().getId().equals(userId));
+            case TEACHER -> {
+                courses = this.courseService.findCoursesTaughtBy(userId);
+                enrollments = enrollmentStatusFilter == null
+                        ? this.enrollmentRepository.streamAllByTeacherId(userId)
+                        : this.enrollmentRepository.streamAllByTeacherIdAndStatus(userId, enrollmentStatusFilter);
+            }
+            case STUDENT -> {
+                courses = this.courseService.findCoursesAttendedBy(userId);
+                enrollments = enrollmentStatusFilter == null
+                        ? this.enrollmentRepository.streamAllByUserId(userId)
+                        : this.enrollmentRepository.streamAllByUserIdAndStatus(userId, enrollmentStatusFilter);
+            }
         }
 
-        return filteredEnrollments
-                .map(enr -> this.modelMapper.map(enr, EnrollmentResponseDto.class))
-                .toList();
+        // a listing spans few courses, so they are mapped up front and the cursor only reads enrollments and students
+        final Map<UUID, CourseResponseDto> courseResponses = new HashMap<>();
+        courses.forEach(course -> courseResponses.put(course.getId(), this.courseMapper.toResponse(course)));
+        this.cursorReader.forEach(enrollments, enrollment -> sink.accept(
+                this.enrollmentMapper.toResponse(enrollment, courseResponses.get(enrollment.getCourse().getId()))));
     }
 
-    private List<Enrollment> findAllEnrollments() {
-        return this.enrollmentRepository.findAll()
-                .stream()
-                .toList();
-    }
-
-    public Map<String, Integer> viewGrades(final String jwtToken) {
-        if(!this.securityService.extractRoleFromToken(jwtToken).equals(Role.STUDENT)){
+    @Transactional
+    public Map<String, Integer> viewGrades(final JwtPrincipal principal) {
+        if(!this.securityService.extractRole(principal).equals(Role.STUDENT)){
             throw new UnauthorizedAccessException();
         }
 
+        final UUID studentId = this.securityService.extractUserId(principal);
         final Map<String, Integer> grades = new HashMap<>();
-        this.findAllEnrollmentsByUser(jwtToken).stream()
-                .filter(enrollment ->
-                        enrollment.getStatus().equals(EnrollmentStatus.APPROVED) ||
-                        enrollment.getStatus().equals(EnrollmentStatus.ACTIVE) ||
-                        enrollment.getStatus().equals(EnrollmentStatus.COMPLETED))
+        this.enrollmentRepository.findAllByUserIdAndStatusIn(studentId, List.of(
+                        EnrollmentStatus.APPROVED,
+                        EnrollmentStatus.ACTIVE,
+                        EnrollmentStatus.COMPLETED))
                 .forEach(enrollment ->
                         grades.put(enrollment.getCourse().getCourseName(), enrollment.getGrade()));
         return grades;
     }
 
-    public List<EnrollmentResponseDto> findAllEnrollmentsByCourse(final UUID courseId,
-                                                                 final String jwtToken) {
-        final UUID userId = securityService.extractUserIdFromToken(jwtToken);
-        final Role role = this.securityService.extractRoleFromToken(jwtToken);
+    /**
+     * Hands the enrollments of a course taught by the caller to {@code sink} one at a time while they are read from
+     * the database cursor.
+     */
+    @Transactional
+    public void streamAllEnrollmentsByCourse(final UUID courseId,
+                                             final JwtPrincipal principal,
+                                             final Consumer<EnrollmentResponseDto> sink) {
+        final UUID userId = securityService.extractUserId(principal);
+        final Role role = this.securityService.extractRole(principal);
 
         if(!role.equals(Role.TEACHER)){
             throw new UnauthorizedAccessException();
         }
 
-        if(!courseService.findCourseById(courseId).getUser().getId().equals(userId)){
+        final Course course = courseService.findCourseById(courseId);
+        if(!course.getUser().getId().equals(userId)){
             throw new UnauthorizedAccessException();
         }
 
-        return this.findAllEnrollments().stream()
-                .filter(enrollment -> enrollment.getCourse().getId().equals(courseId))
-                .map(enrollment ->
-                        this.modelMapper.map(enrollment, EnrollmentResponseDto.class))
-                .toList();
+        final CourseResponseDto courseResponse = this.courseMapper.toResponse(course);
+        this.cursorReader.forEach(this.enrollmentRepository.streamAllByCourseId(courseId),
+                enrollment -> sink.accept(this.enrollmentMapper.toResponse(enrollment, courseResponse)));
     }
 
     List<Enrollment> findAllEnrollmentsByUser(final Object identifier) {
-        if (identifier instanceof UUID){
-            return this.findAllEnrollments().stream().filter(enrollment -> enrollment.getUser().getId().equals(identifier))
-                    .collect(Collectors.toList());
+        if (identifier instanceof UUID id){
+            return this.enrollmentRepository.findAllByUserId(id);
         }
-        if (identifier instanceof String) {
-            final UUID id = this.securityService.extractUserIdFromToken(identifier.toString());
-            return this.findAllEnrollments().stream().filter(enrollment -> enrollment.getUser().getId().equals(id))
-                    .collect(Collectors.toList());
+        if (identifier instanceof JwtPrincipal principal) {
+            return this.enrollmentRepository.findAllByUserId(this.securityService.extractUserId(principal));
         }
         throw new InvalidIdentifierException();
     }
 
+    List<Enrollment> findEnrollmentsByUserAndStatus(final UUID userId,
+                                                    final EnrollmentStatus enrollmentStatus) {
+        return this.enrollmentRepository.findAllByUserIdAndStatus(userId, enrollmentStatus);
+    }
+
     public Enrollment findEnrollmentById(final UUID enrollmentId) {
         return this.enrollmentRepository.findById(enrollmentId).orElseThrow(() -> new EntityNotFoundException("Enrollment"));
     }
 
-    public List<StudentsScheduleResponseDto> findStudentsActiveSchedules(final String jwtToken) {
-        return this.findAllEnrollmentsByUser(jwtToken).stream()
-                .filter(enrollment -> enrollment.getStatus().equals(EnrollmentStatus.ACTIVE))
+    @Transactional
+    public List<StudentsScheduleResponseDto> findStudentsActiveSchedules(final JwtPrincipal principal) {
+        final UUID studentId = this.securityService.extractUserId(principal);
+        return this.enrollmentRepository.findAllByUserIdAndStatus(studentId, EnrollmentStatus.ACTIVE).stream()
                 .map(enrollment -> {
                     final List<ScheduleResponseDto> coursesSchedules = scheduleService.getSchedulesFromEnrollment(enrollment)
                             .stream()
-                            .map(schedule -> modelMapper.map(schedule, ScheduleResponseDto.class))
+                            .map(this.scheduleMapper::toResponse)
                             .toList();
                     final String courseName = enrollment.getCourse().getCourseName();
                     return new StudentsScheduleResponseDto(courseName, coursesSchedules);
@@ -175,13 +197,10 @@ public class EnrollmentService {
     }
 
     public List<Enrollment> findEnrollmentsByStatus(final EnrollmentStatus enrollmentStatus) {
-        final List<Enrollment> enrollments = this.enrollmentRepository.findAll();
         if (enrollmentStatus != null) {
-            return enrollments.stream()
-                    .filter(enrollment -> enrollment.getStatus().equals(enrollmentStatus))
-                    .toList();
+            return this.enrollmentRepository.findAllByStatus(enrollmentStatus);
         }
 
-        return enrollments;
+        return this.enrollmentRepository.findAll();
     }
 }
@@ -0,0 +1,100 @@
+package com.ing.hubs.service.enrollment;
+
+import com.ing.hubs.metrics.EnrollmentMetrics;
+import com.ing.hubs.model.entity.enrollment.EnrollmentStatus;
+import com.ing.hubs.repository.EnrollmentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Set-based status transitions for enrollments whose course dates have passed.
+ * Each chunk selects up to {@code chunkSize} matching ids and moves them with a single UPDATE in its own transaction.
+ * The optional {@code fence} runs first in every chunk transaction; throwing from it rolls that chunk back and stops the pass.
+ */
+@Slf4j
+@Service
+public class EnrollmentTransitionService {
+    private final EnrollmentRepository enrollmentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EnrollmentMetrics enrollmentMetrics;
+    private final int chunkSize;
+
+    @Autowired
+    public EnrollmentTransitionService(final EnrollmentRepository enrollmentRepository,
+                                       final TransactionTemplate transactionTemplate,
+                                       final EnrollmentMetrics enrollmentMetrics,
+                                       @Value("${enrollment.transition.chunkSize:1000}") final int chunkSize) {
+        this.enrollmentRepository = enrollmentRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.enrollmentMetrics = enrollmentMetrics;
+        this.chunkSize = chunkSize;
+    }
+
+    public List<UUID> completeGradedEnrollments(final LocalDate today) {
+        return this.completeGradedEnrollments(today, () -> {});
+    }
+
+    public List<UUID> completeGradedEnrollments(final LocalDate today,
+                                                final Runnable fence) {
+        return this.transition(EnrollmentStatus.ACTIVE, EnrollmentStatus.COMPLETED, fence, pageable ->
+                this.enrollmentRepository.findGradedIdsByStatusAndCourseEndedBefore(EnrollmentStatus.ACTIVE, today, pageable));
+    }
+
+    public List<UUID> activateApprovedEnrollments(final LocalDate today) {
+        return this.activateApprovedEnrollments(today, () -> {});
+    }
+
+    public List<UUID> activateApprovedEnrollments(final LocalDate today,
+                                                  final Runnable fence) {
+        return this.transition(EnrollmentStatus.APPROVED, EnrollmentStatus.ACTIVE, fence, pageable ->
+                this.enrollmentRepository.findIdsByStatusAndCourseStartedOnOrBefore(EnrollmentStatus.APPROVED, today, pageable));
+    }
+
+    private List<UUID> transition(final EnrollmentStatus currentStatus,
+                                  final EnrollmentStatus newStatus,
+                                  final Runnable fence,
+                                  final Function<Pageable, List<UUID>> candidates) {
+        final Pageable firstChunk = PageRequest.ofSize(this.chunkSize);
+        final List<UUID> transitioned = new ArrayList<>();
+
+        while (true) {
+            final Chunk chunk = this.transactionTemplate.execute(status -> {
+                fence.run();
+                final List<UUID> ids = candidates.apply(firstChunk);
+                if (ids.isEmpty()) {
+                    return new Chunk(0, ids);
+                }
+
+                final int updated = this.enrollmentRepository.updateStatusByIds(ids, currentStatus, newStatus);
+                return new Chunk(ids.size(), updated == ids.size()
+                        ? ids
+                        : this.enrollmentRepository.findIdsByIdInAndStatus(ids, newStatus));
+            });
+
+            if (chunk == null || chunk.selected() == 0) {
+                break;
+            }
+
+            log.info(String.format("For %d enrollments, status has been set from \"%s\" to \"%s\": %s",
+                    chunk.transitioned().size(), currentStatus, newStatus, chunk.transitioned()));
+            this.enrollmentMetrics.recordTransitions(currentStatus, newStatus, chunk.transitioned().size());
+            transitioned.addAll(chunk.transitioned());
+        }
+
+        return transitioned;
+    }
+
+    private record Chunk(int selected, List<UUID> transitioned) {
+    }
+}
@@ -13,6 +13,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 @Slf4j
@@ -22,29 +24,46 @@ public class EnrollmentValidationService {
     void validateIfAlreadyEnrolled(final Course course,
                                    final User student){
         if(course.getEnrollments().stream()
-                .anyMatch(enrollment -> enrollment.getUser().equals(student))){
+                .anyMatch(enrollment -> Objects.equals(enrollment.getUser().getId(), student.getId()))){
+            throw new StudentAlreadyEnrolledException();
+        }
+    }
+
+    void validateIfAlreadyEnrolled(final Course course,
+                                   final Set<UUID> enrolledCourseIds){
+        if (enrolledCourseIds.contains(course.getId())){
             throw new StudentAlreadyEnrolledException();
         }
     }
 
     void validateCapacity(final Course course){
-        if (course.getCapacity() <= 0){
+        if (!course.hasAvailableSeats()){
             throw new CourseCapacityReachedException();
         }
     }
 
     void validateExistingEnrollment(final Enrollment enrollment){
-        if (!enrollment.getStatus().equals(EnrollmentStatus.ACTIVE)){
+        this.validateExistingEnrollment(enrollment.getStatus(), enrollment.getGrade());
+    }
+
+    void validateExistingEnrollment(final EnrollmentStatus status,
+                                    final Integer grade){
+        if (!status.equals(EnrollmentStatus.ACTIVE)){
             throw new EnrollmentProcessingException("Enrollment is not active!");
         }
-        if (enrollment.getGrade() != null){
+        if (grade != null){
             throw new EnrollmentProcessingException("Enrollment already graded!");
         }
     }
 
     void validateTeacherPermissions(final Enrollment enrollment,
                                     final UUID teacherId){
-        if (!enrollment.getCourse().getUser().getId().equals(teacherId)){
+        this.validateTeacherPermissions(enrollment.getCourse().getUser().getId(), teacherId);
+    }
+
+    void validateTeacherPermissions(final UUID courseTeacherId,
+                                    final UUID teacherId){
+        if (!courseTeacherId.equals(teacherId)){
             throw new UnauthorizedAccessException();
         }
     }
@@ -0,0 +1,42 @@
+package com.ing.hubs.service.enrollment;
+
+import com.ing.hubs.dto.enrollment.GradeEntryDto;
+import com.ing.hubs.exception.enrollment.InvalidGradeFileException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reads the CSV form of a bulk grading request: one {@code enrollmentId,grade} pair per line, with an optional
+ * header line. Blank lines are skipped. A line that cannot be read rejects the whole file, the same way malformed
+ * JSON rejects the request body; rules about the enrollments themselves are checked per row by the service.
+ */
+public final class GradeCsv {
+    private static final String HEADER = "enrollmentId,grade";
+
+    private GradeCsv() {
+    }
+
+    public static List<GradeEntryDto> parse(final String csv) {
+        final List<GradeEntryDto> grades = new ArrayList<>();
+        final String[] lines = csv == null ? new String[0] : csv.split("\\R");
+        for (int i = 0; i < lines.length; i++) {
+            final String line = lines[i].strip();
+            if (line.isEmpty() || (grades.isEmpty() && line.replace(" ", "").equalsIgnoreCase(HEADER))) {
+                continue;
+            }
+
+            final String[] fields = line.split(",", -1);
+            if (fields.length != 2) {
+                throw new InvalidGradeFileException(String.format("Line %d: expected \"%s\"", i + 1, HEADER));
+            }
+            try {
+                grades.add(new GradeEntryDto(UUID.fromString(fields[0].strip()), Integer.valueOf(fields[1].strip())));
+            } catch (IllegalArgumentException ex) {
+                throw new InvalidGradeFileException(String.format("Line %d: invalid enrollment id or grade", i + 1));
+            }
+        }
+        return grades;
+    }
+}
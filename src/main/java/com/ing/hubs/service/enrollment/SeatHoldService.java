@@ -0,0 +1,172 @@
+package com.ing.hubs.service.enrollment;
+
+import com.ing.hubs.exception.course.CourseCapacityReachedException;
+import com.ing.hubs.model.entity.course.Course;
+import com.ing.hubs.model.entity.enrollment.Enrollment;
+import com.ing.hubs.model.entity.enrollment.SeatHold;
+import com.ing.hubs.repository.SeatHoldRepository;
+import com.ing.hubs.service.CourseService;
+import com.ing.hubs.service.cron.SeatHoldCreatedEvent;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps a seat for a new pending enrollment for {@code enrollment.seatHold.duration}. A held seat counts as taken
+ * until the enrollment is approved, which keeps it, or denied or canceled, which gives it back; otherwise it is given
+ * back when the hold expires, which the expiry scheduler learns about from the {@link SeatHoldCreatedEvent}.
+ * <p>
+ * A zero duration turns holds off: no seat is held and no hold is looked up. Holds made before that still run out
+ * through the scheduler, which keeps the seat counts right in the end.
+ */
+@Slf4j
+@Service
+public class SeatHoldService {
+    private final SeatHoldRepository seatHoldRepository;
+    private final CourseService courseService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
+    private final Duration duration;
+
+    @Autowired
+    public SeatHoldService(final SeatHoldRepository seatHoldRepository,
+                           final CourseService courseService,
+                           final ApplicationEventPublisher eventPublisher,
+                           final Clock clock,
+                           @Value("${enrollment.seatHold.duration:PT0S}") final Duration duration) {
+        this.seatHoldRepository = seatHoldRepository;
+        this.courseService = courseService;
+        this.eventPublisher = eventPublisher;
+        this.clock = clock;
+        this.duration = duration;
+    }
+
+    public boolean isEnabled() {
+        return !this.duration.isZero() && !this.duration.isNegative();
+    }
+
+    /**
+     * Holds a seat for every enrollment, or none of them: throws when one of their courses has no seat left.
+     */
+    @Transactional
+    public void hold(final Collection<Enrollment> enrollments) {
+        if (!this.isEnabled() || enrollments.isEmpty()) {
+            return;
+        }
+
+        final Map<UUID, List<Enrollment>> byCourse = enrollments.stream()
+                .collect(Collectors.groupingBy(enrollment -> enrollment.getCourse().getId(), LinkedHashMap::new, Collectors.toList()));
+        byCourse.values().forEach(courseEnrollments -> {
+            if (!this.courseService.reserveSeats(courseEnrollments.get(0).getCourse(), courseEnrollments.size())) {
+                throw new CourseCapacityReachedException();
+            }
+        });
+
+        final Instant expiresAt = this.clock.instant().plus(this.duration).truncatedTo(ChronoUnit.MILLIS);
+        final List<SeatHold> holds = this.seatHoldRepository.saveAll(enrollments.stream()
+                .map(enrollment -> SeatHold.builder()
+                        .enrollmentId(enrollment.getId())
+                        .courseId(enrollment.getCourse().getId())
+                        .expiresAt(expiresAt)
+                        .build())
+                .toList());
+        holds.forEach(hold -> this.eventPublisher.publishEvent(SeatHoldCreatedEvent.of(hold)));
+        log.info(String.format("Seats have been held until %s for enrollments: %s",
+                expiresAt, holds.stream().map(SeatHold::getEnrollmentId).toList()));
+    }
+
+    /**
+     * Drops the hold of {@code enrollment} and keeps its seat taken; returns whether there was one.
+     */
+    @Transactional
+    public boolean convert(final Enrollment enrollment) {
+        return this.isEnabled() && this.seatHoldRepository.deleteByEnrollmentId(enrollment.getId()) > 0;
+    }
+
+    /**
+     * Drops the hold of {@code enrollment} and gives its seat back; returns whether there was one.
+     */
+    @Transactional
+    public boolean release(final Enrollment enrollment) {
+        if (!this.isEnabled() || this.seatHoldRepository.deleteByEnrollmentId(enrollment.getId()) == 0) {
+            return false;
+        }
+        this.courseService.releaseSeats(enrollment.getCourse(), 1);
+        log.info(String.format("Seat held for enrollment with id \"%s\" has been given back", enrollment.getId()));
+        return true;
+    }
+
+    /**
+     * The ids of the enrollments among {@code enrollmentIds} that hold a seat. Their holds stay locked until the
+     * transaction ends, so none of them can expire while the caller relies on it.
+     */
+    @Transactional
+    public Set<UUID> lockHeld(final Collection<UUID> enrollmentIds) {
+        if (!this.isEnabled() || enrollmentIds.isEmpty()) {
+            return Set.of();
+        }
+        return this.seatHoldRepository.lockAllByEnrollmentIdIn(enrollmentIds).stream()
+                .map(SeatHold::getEnrollmentId)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Drops the holds of {@code enrollments}, keeping their seats taken.
+     */
+    @Transactional
+    public void convertAll(final Collection<Enrollment> enrollments) {
+        if (!this.isEnabled() || enrollments.isEmpty()) {
+            return;
+        }
+        this.seatHoldRepository.deleteAllByEnrollmentIdIn(enrollments.stream().map(Enrollment::getId).toList());
+    }
+
+    /**
+     * Drops the holds of {@code enrollments} and gives their seats back, with one update per course.
+     */
+    @Transactional
+    public void releaseAll(final Collection<Enrollment> enrollments) {
+        final Set<UUID> held = this.lockHeld(enrollments.stream().map(Enrollment::getId).toList());
+        if (held.isEmpty()) {
+            return;
+        }
+        this.seatHoldRepository.deleteAllByEnrollmentIdIn(held);
+
+        final Map<UUID, Course> courses = new LinkedHashMap<>();
+        final Map<UUID, Integer> seats = new HashMap<>();
+        enrollments.stream()
+                .filter(enrollment -> held.contains(enrollment.getId()))
+                .map(Enrollment::getCourse)
+                .forEach(course -> {
+                    courses.putIfAbsent(course.getId(), course);
+                    seats.merge(course.getId(), 1, Integer::sum);
+                });
+        courses.forEach((id, course) -> this.courseService.releaseSeats(course, seats.get(id)));
+        log.info(String.format("Seats held for %d enrollments have been given back: %s", held.size(), held));
+    }
+
+    /**
+     * Gives back the seat of a hold that ran out; returns false when the hold was dropped before, or has not run out
+     * yet.
+     */
+    @Transactional
+    public boolean expire(final UUID enrollmentId,
+                          final UUID courseId) {
+        if (this.seatHoldRepository.deleteExpiredByEnrollmentId(enrollmentId, this.clock.instant()) == 0) {
+            return false;
+        }
+        this.courseService.releaseSeats(courseId, 1);
+        log.info(String.format("Seat held for enrollment with id \"%s\" has expired and been given back", enrollmentId));
+        return true;
+    }
+}
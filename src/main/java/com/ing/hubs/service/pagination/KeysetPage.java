@@ -0,0 +1,81 @@
+package com.ing.hubs.service.pagination;
+
+import com.ing.hubs.dto.page.PageResponseDto;
+import com.ing.hubs.exception.InvalidPageRequestException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * A keyset page request: the rows sorted by id that come strictly after {@code after}, at most {@code size} of them.
+ * Ids are UUIDv7, so the order is stable and roughly follows insertion, and the database seeks straight to the cursor
+ * through the primary key (or a {@code (filter, id)} index) instead of skipping over the previous pages.
+ * <p>
+ * The cursor handed to clients is the last id of the page, base64url-encoded; clients must treat it as opaque.
+ */
+public record KeysetPage(UUID after, int size) {
+    public static final int DEFAULT_SIZE = 50;
+    public static final int MAX_SIZE = 100;
+
+    /**
+     * The order of ids in the database, which compares their 16 bytes unsigned; {@link UUID#compareTo} is signed.
+     */
+    public static final Comparator<UUID> ORDER = Comparator
+            .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+    private static final UUID FIRST = new UUID(0, 0);
+
+    public static KeysetPage of(final String cursor,
+                                final Integer size) {
+        final int pageSize = size == null ? DEFAULT_SIZE : size;
+        if (pageSize < 1 || pageSize > MAX_SIZE) {
+            throw new InvalidPageRequestException(String.format("Page size must be between 1 and %d!", MAX_SIZE));
+        }
+        return new KeysetPage(cursor == null || cursor.isEmpty() ? FIRST : decode(cursor), pageSize);
+    }
+
+    /**
+     * Asks for one row more than the page size, so the caller knows whether another page follows without counting.
+     */
+    public Pageable pageable() {
+        return PageRequest.of(0, this.size + 1);
+    }
+
+    public <E, T> PageResponseDto<T> toResponse(final List<E> rows,
+                                                final Function<E, UUID> id,
+                                                final Function<E, T> mapper) {
+        final boolean hasNext = rows.size() > this.size;
+        final List<E> page = hasNext ? rows.subList(0, this.size) : rows;
+        return new PageResponseDto<>(
+                page.stream().map(mapper).toList(),
+                hasNext ? encode(id.apply(page.get(page.size() - 1))) : null);
+    }
+
+    static String encode(final UUID id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array());
+    }
+
+    static UUID decode(final String cursor) {
+        final byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidPageRequestException("Invalid page cursor!");
+        }
+        if (bytes.length != 16) {
+            throw new InvalidPageRequestException("Invalid page cursor!");
+        }
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
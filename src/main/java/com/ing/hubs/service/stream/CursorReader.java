@@ -0,0 +1,35 @@
+package com.ing.hubs.service.stream;
+
+import com.ing.hubs.configuration.Constant;
+import jakarta.persistence.EntityManager;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Consumes a repository {@link Stream} backed by a forward-only JDBC cursor. Every entity read stays in the persistence
+ * context until it is cleared, so the context is cleared after each fetch of {@link Constant#STREAM_FETCH_SIZE} rows;
+ * together with writing each row out as it is mapped, this keeps memory flat however many rows the query returns.
+ * <p>
+ * Must be called inside the transaction that opened the stream; rows handed to {@code action} are detached afterwards.
+ */
+@Component
+@AllArgsConstructor
+public class CursorReader {
+    private EntityManager entityManager;
+
+    public <E> void forEach(final Stream<E> rows,
+                            final Consumer<E> action) {
+        try (rows) {
+            final int[] read = {0};
+            rows.forEach(row -> {
+                action.accept(row);
+                if (++read[0] % Constant.STREAM_FETCH_SIZE == 0) {
+                    this.entityManager.clear();
+                }
+            });
+        }
+    }
+}
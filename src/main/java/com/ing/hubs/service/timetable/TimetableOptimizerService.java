@@ -0,0 +1,177 @@
+package com.ing.hubs.service.timetable;
+
+import com.ing.hubs.dto.course.CourseResponseDto;
+import com.ing.hubs.dto.course.TimetablePlanDto;
+import com.ing.hubs.dto.course.TimetablePlanResponseDto;
+import com.ing.hubs.exception.EntityNotFoundException;
+import com.ing.hubs.exception.course.InvalidScheduleException;
+import com.ing.hubs.exception.course.InvalidTimetablePlanException;
+import com.ing.hubs.exception.security.UnauthorizedAccessException;
+import com.ing.hubs.mapper.CourseMapper;
+import com.ing.hubs.model.entity.course.Course;
+import com.ing.hubs.model.entity.enrollment.Enrollment;
+import com.ing.hubs.model.entity.enrollment.EnrollmentStatus;
+import com.ing.hubs.model.entity.user.Role;
+import com.ing.hubs.model.entity.user.User;
+import com.ing.hubs.security.JwtPrincipal;
+import com.ing.hubs.service.CourseService;
+import com.ing.hubs.service.SecurityService;
+import com.ing.hubs.service.UserService;
+import com.ing.hubs.service.conflict.CourseConflictGraph;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Suggests the conflict-free subset of the courses a student wants with the most credits, always including the
+ * courses they require. Courses overlapping the student's approved or active ones are left out, then
+ * {@link TimetableSearch} runs on a pool of its own for at most the configured budget; when the budget runs out the
+ * best plan found so far is returned, marked as not proven optimal. The search runs after the transaction that read
+ * the courses has ended, so a plan does not keep a database connection while it computes.
+ */
+@Slf4j
+@Timed("service.method")
+@Service
+public class TimetableOptimizerService {
+    private final SecurityService securityService;
+    private final UserService userService;
+    private final CourseService courseService;
+    private final CourseMapper courseMapper;
+    private final CourseConflictGraph conflictGraph;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration budget;
+    private final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    @Autowired
+    public TimetableOptimizerService(final SecurityService securityService,
+                                     final UserService userService,
+                                     final CourseService courseService,
+                                     final CourseMapper courseMapper,
+                                     final CourseConflictGraph conflictGraph,
+                                     final TransactionTemplate transactionTemplate,
+                                     @Value("${timetable.optimizer.budget:PT0.5S}") final Duration budget) {
+        this.securityService = securityService;
+        this.userService = userService;
+        this.courseService = courseService;
+        this.courseMapper = courseMapper;
+        this.conflictGraph = conflictGraph;
+        this.transactionTemplate = transactionTemplate;
+        this.budget = budget;
+    }
+
+    public TimetablePlanResponseDto plan(final TimetablePlanDto dto,
+                                         final JwtPrincipal principal) {
+        // the search only needs what load() returns, so it runs after the transaction has given its connection back
+        final Plan plan = this.transactionTemplate.execute(status -> this.load(dto, principal));
+        final TimetableSearch.Result result = new TimetableSearch(plan.credits(), plan.conflicts(),
+                System.nanoTime() + this.budget.toNanos()).run(this.pool, plan.required());
+
+        final List<CourseResponseDto> courses = new ArrayList<>();
+        for (long rest = result.chosen(); rest != 0; rest &= rest - 1) {
+            courses.add(plan.candidates().get(Long.numberOfTrailingZeros(rest)));
+        }
+        log.info(String.format("Timetable planned for student with id \"%s\": %d of %d courses, %d credits, %s",
+                plan.studentId(), courses.size(), plan.wanted(), result.credits(), result.complete() ? "optimal" : "budget exhausted"));
+        return new TimetablePlanResponseDto(courses, result.credits(), result.complete());
+    }
+
+    private Plan load(final TimetablePlanDto dto,
+                      final JwtPrincipal principal) {
+        final User student = this.userService.findStudentWithTimetable(this.securityService.extractUserId(principal));
+        if (!student.getRole().equals(Role.STUDENT)) {
+            throw new UnauthorizedAccessException();
+        }
+
+        final Set<UUID> requiredIds = Optional.ofNullable(dto.getRequiredCourseIds()).orElse(List.of()).stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        final Set<UUID> wantedIds = new LinkedHashSet<>(requiredIds);
+        dto.getCourseIds().stream().filter(Objects::nonNull).forEach(wantedIds::add);
+        if (wantedIds.size() > TimetableSearch.MAX_COURSES) {
+            throw new InvalidTimetablePlanException(String.format("At most %d courses can be planned at once!", TimetableSearch.MAX_COURSES));
+        }
+
+        final List<Course> wanted = this.courseService.findCoursesByIds(wantedIds);
+        if (wanted.size() != wantedIds.size()) {
+            throw new EntityNotFoundException("Course");
+        }
+
+        final List<Course> occupied = student.getEnrollments().stream()
+                .filter(enrollment -> enrollment.getStatus().equals(EnrollmentStatus.APPROVED) ||
+                        enrollment.getStatus().equals(EnrollmentStatus.ACTIVE))
+                .map(Enrollment::getCourse)
+                .toList();
+        final Set<UUID> occupiedIds = occupied.stream().map(Course::getId).collect(Collectors.toSet());
+        final List<Course> candidates = new ArrayList<>();
+        for (Course course : wanted) {
+            final boolean fits = !occupiedIds.contains(course.getId()) && !this.conflictGraph.conflictsWithAny(course, occupied);
+            if (fits) {
+                candidates.add(course);
+            } else if (requiredIds.contains(course.getId()) && !occupiedIds.contains(course.getId())) {
+                throw new InvalidScheduleException(String.format("Required course \"%s\" overlaps your timetable!", course.getCourseName()));
+            }
+        }
+        // most credits first, which makes the greedy seed and the bound of the search better
+        candidates.sort(Comparator.comparing(Course::getCredits).reversed());
+
+        final Map<UUID, Integer> indices = new HashMap<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            indices.put(candidates.get(i).getId(), i);
+        }
+
+        final int[] credits = new int[candidates.size()];
+        final long[] conflicts = new long[candidates.size()];
+        long required = 0;
+        for (int i = 0; i < candidates.size(); i++) {
+            final Course course = candidates.get(i);
+            credits[i] = course.getCredits();
+            for (UUID other : this.conflictGraph.conflictsOf(course)) {
+                final Integer j = indices.get(other);
+                if (j != null) {
+                    conflicts[i] |= 1L << j;
+                }
+            }
+            if (requiredIds.contains(course.getId())) {
+                required |= 1L << i;
+            }
+        }
+
+        for (long rest = required; rest != 0; rest &= rest - 1) {
+            final int course = Long.numberOfTrailingZeros(rest);
+            final long clash = conflicts[course] & required;
+            if (clash != 0) {
+                throw new InvalidScheduleException(String.format("Required courses \"%s\" and \"%s\" overlap!",
+                        candidates.get(course).getCourseName(), candidates.get(Long.numberOfTrailingZeros(clash)).getCourseName()));
+            }
+        }
+
+        return new Plan(student.getId(), wantedIds.size(), candidates.stream().map(this.courseMapper::toResponse).toList(),
+                credits, conflicts, required);
+    }
+
+    /**
+     * What the search needs, read in the transaction: candidate {@code i} is bit {@code i} of {@code conflicts} and
+     * {@code required}.
+     */
+    private record Plan(UUID studentId,
+                        int wanted,
+                        List<CourseResponseDto> candidates,
+                        int[] credits,
+                        long[] conflicts,
+                        long required) {
+    }
+
+    @PreDestroy
+    void shutdown() {
+        this.pool.shutdownNow();
+    }
+}
@@ -0,0 +1,165 @@
+package com.ing.hubs.service.timetable;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Branch and bound over at most {@link #MAX_COURSES} courses for the conflict-free set with the most credits. A set of
+ * courses is a {@code long} with one bit per course, so extending a set and dropping the courses it conflicts with
+ * are a couple of mask operations. A branch is cut when its credits plus those of every course still open to it
+ * cannot beat the best set found so far, which the branches share.
+ * <p>
+ * The upper levels of the tree are forked on the pool and the rest is walked sequentially. Once the deadline passes
+ * every branch returns, and the best set found so far is the result; it is seeded greedily, so even a search cut
+ * short right away has a reasonable answer.
+ */
+public final class TimetableSearch {
+    public static final int MAX_COURSES = Long.SIZE;
+
+    static final int FORK_DEPTH = 8;
+    private static final int NODES_BETWEEN_DEADLINE_CHECKS = 1_024;
+
+    private final int[] credits;
+    private final long[] conflicts;
+    private final long deadline;
+    private final Best best = new Best();
+    private volatile boolean expired;
+
+    /**
+     * @param credits   the credits of every course, best given in decreasing order, which tightens the bound early
+     * @param conflicts for every course, the mask of the courses it overlaps
+     * @param deadline  the {@link System#nanoTime()} at which the search gives up
+     */
+    public TimetableSearch(final int[] credits,
+                           final long[] conflicts,
+                           final long deadline) {
+        if (credits.length > MAX_COURSES || conflicts.length != credits.length) {
+            throw new IllegalArgumentException(String.format("At most %d courses, each with its conflicts", MAX_COURSES));
+        }
+        this.credits = credits;
+        this.conflicts = conflicts;
+        this.deadline = deadline;
+    }
+
+    /**
+     * The best set containing all of {@code required}, which must not conflict with each other.
+     */
+    public Result run(final ForkJoinPool pool,
+                      final long required) {
+        long open = this.all() & ~required;
+        for (long rest = required; rest != 0; rest &= rest - 1) {
+            open &= ~this.conflicts[Long.numberOfTrailingZeros(rest)];
+        }
+        final int requiredCredits = this.sum(required);
+
+        this.seed(required, requiredCredits, open);
+        pool.invoke(new Branch(required, requiredCredits, open, 0));
+        return new Result(this.best.chosen, this.best.credits, !this.expired);
+    }
+
+    private void seed(long chosen,
+                      int chosenCredits,
+                      long open) {
+        while (open != 0) {
+            final int course = Long.numberOfTrailingZeros(open);
+            chosen |= 1L << course;
+            chosenCredits += this.credits[course];
+            open &= ~(1L << course) & ~this.conflicts[course];
+        }
+        this.best.offer(chosen, chosenCredits);
+    }
+
+    private void walk(final long chosen,
+                      final int chosenCredits,
+                      final long open,
+                      final int[] nodes) {
+        if (this.expired || this.cut(chosenCredits, open)) {
+            return;
+        }
+        if (++nodes[0] % NODES_BETWEEN_DEADLINE_CHECKS == 0 && System.nanoTime() - this.deadline > 0) {
+            this.expired = true;
+            return;
+        }
+        if (open == 0) {
+            this.best.offer(chosen, chosenCredits);
+            return;
+        }
+
+        final int course = Long.numberOfTrailingZeros(open);
+        final long bit = 1L << course;
+        this.walk(chosen | bit, chosenCredits + this.credits[course], open & ~bit & ~this.conflicts[course], nodes);
+        this.walk(chosen, chosenCredits, open & ~bit, nodes);
+    }
+
+    private boolean cut(final int chosenCredits,
+                        final long open) {
+        return chosenCredits + this.sum(open) <= this.best.credits;
+    }
+
+    private int sum(final long courses) {
+        int sum = 0;
+        for (long rest = courses; rest != 0; rest &= rest - 1) {
+            sum += this.credits[Long.numberOfTrailingZeros(rest)];
+        }
+        return sum;
+    }
+
+    private long all() {
+        return this.credits.length == MAX_COURSES ? -1L : (1L << this.credits.length) - 1;
+    }
+
+    public record Result(long chosen, int credits, boolean complete) {
+    }
+
+    private static final class Best {
+        private volatile int credits = -1;
+        private long chosen;
+
+        synchronized void offer(final long chosen,
+                                final int credits) {
+            if (credits > this.credits) {
+                this.chosen = chosen;
+                this.credits = credits;
+            }
+        }
+    }
+
+    private final class Branch extends RecursiveAction {
+        private final long chosen;
+        private final int chosenCredits;
+        private final long open;
+        private final int depth;
+
+        private Branch(final long chosen,
+                       final int chosenCredits,
+                       final long open,
+                       final int depth) {
+            this.chosen = chosen;
+            this.chosenCredits = chosenCredits;
+            this.open = open;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.depth >= FORK_DEPTH || this.open == 0) {
+                TimetableSearch.this.walk(this.chosen, this.chosenCredits, this.open, new int[1]);
+                return;
+            }
+            if (TimetableSearch.this.expired || TimetableSearch.this.cut(this.chosenCredits, this.open)) {
+                return;
+            }
+            if (System.nanoTime() - TimetableSearch.this.deadline > 0) {
+                TimetableSearch.this.expired = true;
+                return;
+            }
+
+            final int course = Long.numberOfTrailingZeros(this.open);
+            final long bit = 1L << course;
+            invokeAll(
+                    new Branch(this.chosen | bit, this.chosenCredits + TimetableSearch.this.credits[course],
+                            this.open & ~bit & ~TimetableSearch.this.conflicts[course], this.depth + 1),
+                    new Branch(this.chosen, this.chosenCredits, this.open & ~bit, this.depth + 1));
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.ing.hubs.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ing.hubs.fixture.Fixtures;
+import com.ing.hubs.model.entity.course.Course;
+import com.ing.hubs.model.entity.course.schedule.Weekday;
+import com.ing.hubs.model.entity.user.Role;
+import com.ing.hubs.model.entity.user.User;
+import com.ing.hubs.repository.CourseRepository;
+import com.ing.hubs.repository.UserRepository;
+import com.ing.hubs.security.JwtProvider;
+import com.ing.hubs.service.enrollment.EnrollmentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class JsonStreamResponsesTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private JwtProvider jwtProvider;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    private User teacher;
+    private Course course;
+    private List<String> enrollmentIds;
+
+    @BeforeEach
+    void setup() {
+        this.teacher = Fixtures.saveUser(this.userRepository, Role.TEACHER, "@poodle.com");
+        final Course course = Fixtures.course(Weekday.MONDAY, 10);
+        course.setId(null);
+        this.course = this.transactionTemplate.execute(status -> {
+            course.setUser(this.userRepository.getReferenceById(this.teacher.getId()));
+            return this.courseRepository.save(course);
+        });
+
+        this.enrollmentIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            final User student = Fixtures.saveUser(this.userRepository, Role.STUDENT, "@stud.poodle.com");
+            this.enrollmentIds.add(this.enrollmentService.createEnrollment(this.course.getId(),
+                    this.jwtProvider.parsePrincipal(this.jwtProvider.generateJwt(student))).getId().toString());
+        }
+    }
+
+    @Test
+    void shouldStreamAJsonArrayUnlessNdjsonIsAccepted() throws Exception {
+        for (String accept : new String[]{null, MediaType.APPLICATION_JSON_VALUE, MediaType.ALL_VALUE}) {
+            final MockHttpServletRequestBuilder builder = this.enrollmentsOf(this.course.getId(), this.teacher);
+            if (accept != null) {
+                builder.header(HttpHeaders.ACCEPT, accept);
+            }
+
+            this.stream(builder)
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$[*].id", containsInAnyOrder(this.enrollmentIds.toArray())));
+        }
+    }
+
+    @Test
+    void shouldStreamOneDocumentPerLineWhenNdjsonIsAccepted() throws Exception {
+        final String body = this.stream(this.enrollmentsOf(this.course.getId(), this.teacher)
+                        .header(HttpHeaders.ACCEPT, "application/json;q=0.5, application/x-ndjson"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        final String[] lines = body.split("\n");
+        final Set<String> ids = new HashSet<>();
+        for (String line : lines) {
+            final JsonNode enrollment = this.objectMapper.readTree(line);
+            assertEquals(this.course.getId().toString(), enrollment.get("course").get("id").asText());
+            ids.add(enrollment.get("id").asText());
+        }
+        assertEquals(this.enrollmentIds.size(), lines.length);
+        assertEquals(new HashSet<>(this.enrollmentIds), ids);
+    }
+
+    @Test
+    void shouldAnswerAFailedAccessCheckWithTheUsualErrorBody() throws Exception {
+        final User otherTeacher = Fixtures.saveUser(this.userRepository, Role.TEACHER, "@poodle.com");
+
+        for (String accept : new String[]{MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE}) {
+            this.stream(this.enrollmentsOf(this.course.getId(), otherTeacher).header(HttpHeaders.ACCEPT, accept))
+                    .andExpect(status().isForbidden())
+                    .andExpect(jsonPath("$.message").value("This user is not authorized to access the requested resource!"));
+            this.stream(this.enrollmentsOf(UUID.randomUUID(), this.teacher).header(HttpHeaders.ACCEPT, accept))
+                    .andExpect(status().isNotFound())
+                    .andExpect(jsonPath("$.message").value("Course not found!"));
+        }
+    }
+
+    private MockHttpServletRequestBuilder enrollmentsOf(final UUID courseId,
+                                                        final User user) {
+        return get("/enrollments/courses/{courseId}", courseId)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + this.jwtProvider.generateJwt(user));
+    }
+
+    private ResultActions stream(final MockHttpServletRequestBuilder builder) throws Exception {
+        final MvcResult result = this.mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return this.mockMvc.perform(asyncDispatch(result));
+    }
+}
@@ -0,0 +1,60 @@
+package com.ing.hubs.controller;
+
+import com.ing.hubs.fixture.Fixtures;
+import com.ing.hubs.model.entity.user.Role;
+import com.ing.hubs.model.entity.user.User;
+import com.ing.hubs.repository.UserRepository;
+import com.ing.hubs.security.JwtProvider;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JwtProvider jwtProvider;
+
+    @Test
+    void shouldRefuseTheUserExportToAnonymousCallersAndStudents() throws Exception {
+        final User student = Fixtures.saveUser(this.userRepository, Role.STUDENT, "@stud.poodle.com");
+
+        this.mockMvc.perform(get("/users/export"))
+                .andExpect(status().isForbidden())
+                .andExpect(request().asyncNotStarted());
+        this.mockMvc.perform(get("/users/export").header(HttpHeaders.AUTHORIZATION, this.bearer(student)))
+                .andExpect(status().isForbidden())
+                .andExpect(request().asyncNotStarted());
+    }
+
+    @Test
+    void shouldExportTheUsersToTeachers() throws Exception {
+        final User teacher = Fixtures.saveUser(this.userRepository, Role.TEACHER, "@poodle.com");
+
+        final MvcResult result = this.mockMvc.perform(get("/users/export").param("type", "TEACHER")
+                        .header(HttpHeaders.AUTHORIZATION, this.bearer(teacher)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        this.mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.username == '%s')]", teacher.getUsername()).exists());
+    }
+
+    private String bearer(final User user) {
+        return "Bearer " + this.jwtProvider.generateJwt(user);
+    }
+}
@@ -0,0 +1,80 @@
+package com.ing.hubs.fixture;
+
+import com.ing.hubs.model.entity.course.Course;
+import com.ing.hubs.model.entity.course.schedule.CourseType;
+import com.ing.hubs.model.entity.course.schedule.Schedule;
+import com.ing.hubs.model.entity.course.schedule.Weekday;
+import com.ing.hubs.model.entity.user.Gender;
+import com.ing.hubs.model.entity.user.Role;
+import com.ing.hubs.model.entity.user.User;
+import com.ing.hubs.repository.UserRepository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class Fixtures {
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private Fixtures() {
+    }
+
+    /**
+     * An unsaved course of ten seats starting in five days, with one class on {@code weekday} from {@code startHour}
+     * to {@code endHour}.
+     */
+    public static Course course(final Weekday weekday,
+                                final int startHour,
+                                final int endHour,
+                                final int credits,
+                                final int freeSeats) {
+        final Course course = Course.builder()
+                .id(UUID.randomUUID())
+                .courseName("Course " + weekday + " " + SEQUENCE.incrementAndGet())
+                .description("description")
+                .user(User.builder().id(UUID.randomUUID()).role(Role.TEACHER).build())
+                .capacity(10)
+                .seatsTaken(10 - freeSeats)
+                .credits(credits)
+                .startDate(LocalDate.now().plusDays(5))
+                .endDate(LocalDate.now().plusDays(65))
+                .build();
+        final Set<Schedule> schedules = new HashSet<>();
+        schedules.add(Schedule.builder()
+                .courseType(CourseType.COURSE)
+                .weekday(weekday)
+                .startTime(LocalTime.of(startHour, 0))
+                .endTime(LocalTime.of(endHour, 0))
+                .build());
+        course.addSchedules(schedules);
+        return course;
+    }
+
+    public static Course course(final Weekday weekday,
+                                final int freeSeats) {
+        return course(weekday, 10, 12, 5, freeSeats);
+    }
+
+    /**
+     * Saves a user with a username, email and phone number no other fixture user has.
+     */
+    public static User saveUser(final UserRepository userRepository,
+                                final Role role,
+                                final String domain) {
+        final int suffix = SEQUENCE.incrementAndGet();
+        return userRepository.save(User.builder()
+                .firstName("Fixture")
+                .lastName("Test")
+                .gender(Gender.FEMALE)
+                .dateOfBirth(LocalDate.now().minusYears(22))
+                .username("fixture" + suffix)
+                .password("not-used")
+                .role(role)
+                .email("fixture" + suffix + domain)
+                .phoneNumber("05" + String.format("%08d", suffix))
+                .build());
+    }
+}
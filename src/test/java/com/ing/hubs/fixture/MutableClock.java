@@ -0,0 +1,41 @@
+package com.ing.hubs.fixture;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * A clock that stands still until a test moves it.
+ */
+public final class MutableClock extends Clock {
+    private volatile Instant instant;
+
+    public MutableClock(final Instant instant) {
+        this.instant = instant;
+    }
+
+    public void set(final Instant instant) {
+        this.instant = instant;
+    }
+
+    public void advance(final Duration duration) {
+        this.instant = this.instant.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(final ZoneId zone) {
+        return this;
+    }
+
+    @Override
+    public Instant instant() {
+        return this.instant;
+    }
+}
@@ -0,0 +1,66 @@
+package com.ing.hubs.mapper;
+
+import com.ing.hubs.dto.course.CourseDto;
+import com.ing.hubs.dto.course.CourseResponseDto;
+import com.ing.hubs.dto.enrollment.EnrollmentResponseDto;
+import com.ing.hubs.model.entity.course.Course;
+import com.ing.hubs.model.entity.enrollment.Enrollment;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The hand-written mappers must produce the same responses the reflective ModelMapper did.
+ */
+class EnrollmentMapperTest {
+    private final ModelMapper modelMapper = new ModelMapper();
+    private final CourseMapper courseMapper = new CourseMapper(new ScheduleMapper());
+    private final EnrollmentMapper enrollmentMapper = new EnrollmentMapper(new UserMapper(), this.courseMapper);
+
+    @Test
+    void shouldMapEnrollmentLikeModelMapper() {
+        final Enrollment enrollment = MapperFixtures.enrollment();
+
+        final EnrollmentResponseDto expected = this.modelMapper.map(enrollment, EnrollmentResponseDto.class);
+
+        assertEquals(expected, this.enrollmentMapper.toResponse(enrollment));
+    }
+
+    @Test
+    void shouldMapCourseLikeModelMapper() {
+        final Course course = MapperFixtures.course();
+
+        final CourseResponseDto expected = this.modelMapper.map(course, CourseResponseDto.class);
+
+        assertEquals(expected, this.courseMapper.toResponse(course));
+        assertEquals(3, this.courseMapper.toResponse(course).getSchedules().size());
+    }
+
+    @Test
+    void shouldCopyCourseFieldsWithoutSchedules() {
+        final CourseDto dto = MapperFixtures.courseDto();
+
+        final Course course = this.courseMapper.toEntity(dto);
+
+        assertNull(course.getId());
+        assertEquals(dto.getCourseName(), course.getCourseName());
+        assertEquals(dto.getDescription(), course.getDescription());
+        assertEquals(dto.getCapacity(), course.getCapacity());
+        assertEquals(dto.getCredits(), course.getCredits());
+        assertEquals(dto.getStartDate(), course.getStartDate());
+        assertEquals(dto.getEndDate(), course.getEndDate());
+        assertEquals(0, course.getSeatsTaken());
+        assertTrue(course.getSchedules().isEmpty());
+    }
+
+    @Test
+    void shouldLeaveMissingAssociationsNull() {
+        final Enrollment enrollment = Enrollment.builder().build();
+
+        final EnrollmentResponseDto response = this.enrollmentMapper.toResponse(enrollment);
+
+        assertNull(response.getUser());
+        assertNull(response.getCourse());
+    }
+}
@@ -0,0 +1,89 @@
+package com.ing.hubs.mapper;
+
+import com.ing.hubs.dto.course.CourseDto;
+import com.ing.hubs.dto.schedule.ScheduleDto;
+import com.ing.hubs.model.entity.course.Course;
+import com.ing.hubs.model.entity.course.schedule.CourseType;
+import com.ing.hubs.model.entity.course.schedule.Schedule;
+import com.ing.hubs.model.entity.course.schedule.Weekday;
+import com.ing.hubs.model.entity.enrollment.Enrollment;
+import com.ing.hubs.model.entity.enrollment.EnrollmentStatus;
+import com.ing.hubs.model.entity.user.Gender;
+import com.ing.hubs.model.entity.user.Role;
+import com.ing.hubs.model.entity.user.User;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+
+final class MapperFixtures {
+    private MapperFixtures() {
+    }
+
+    static User user(final Role role) {
+        return User.builder()
+                .id(UUID.randomUUID())
+                .firstName("Ana")
+                .lastName("Popescu")
+                .gender(Gender.FEMALE)
+                .dateOfBirth(LocalDate.of(2001, 5, 14))
+                .username("ana.popescu")
+                .password("$2a$10$encoded")
+                .role(role)
+                .email("ana.popescu@stud.poodle.com")
+                .phoneNumber("0712345678")
+                .build();
+    }
+
+    static Course course() {
+        final Course course = Course.builder()
+                .id(UUID.randomUUID())
+                .courseName("Distributed Systems")
+                .description("Consensus, replication and failure detection")
+                .capacity(120)
+                .seatsTaken(87)
+                .credits(6)
+                .startDate(LocalDate.of(2024, 10, 1))
+                .endDate(LocalDate.of(2025, 1, 31))
+                .user(user(Role.TEACHER))
+                .build();
+        course.addSchedules(Set.of(
+                schedule(CourseType.COURSE, Weekday.MONDAY, 8),
+                schedule(CourseType.SEMINAR, Weekday.WEDNESDAY, 12),
+                schedule(CourseType.LAB, Weekday.FRIDAY, 16)));
+        return course;
+    }
+
+    static Enrollment enrollment() {
+        return Enrollment.builder()
+                .id(UUID.randomUUID())
+                .grade(9)
+                .status(EnrollmentStatus.ACTIVE)
+                .user(user(Role.STUDENT))
+                .course(course())
+                .build();
+    }
+
+    static CourseDto courseDto() {
+        final Set<ScheduleDto> schedules = new LinkedHashSet<>();
+        schedules.add(new ScheduleDto(CourseType.COURSE, LocalTime.of(8, 0), LocalTime.of(10, 0), Weekday.MONDAY));
+        schedules.add(new ScheduleDto(CourseType.SEMINAR, LocalTime.of(12, 0), LocalTime.of(14, 0), Weekday.WEDNESDAY));
+        schedules.add(new ScheduleDto(CourseType.LAB, LocalTime.of(16, 0), LocalTime.of(18, 0), Weekday.FRIDAY));
+        return new CourseDto("Distributed Systems", "Consensus, replication and failure detection",
+                120, 6, LocalDate.of(2024, 10, 1), LocalDate.of(2025, 1, 31), schedules);
+    }
+
+    private static Schedule schedule(final CourseType courseType,
+                                     final Weekday weekday,
+                                     final int startHour) {
+        return Schedule.builder()
+                .id(UUID.randomUUID())
+                .courseType(courseType)
+                .weekday(weekday)
+                .startTime(LocalTime.of(startHour, 0))
+                .endTime(LocalTime.of(startHour + 2, 0))
+                .build();
+    }
+}
@@ -0,0 +1,69 @@
+package com.ing.hubs.metrics;
+
+import com.ing.hubs.model.entity.enrollment.EnrollmentStatus;
+import com.ing.hubs.repository.CourseRepository;
+import com.ing.hubs.repository.EnrollmentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EnrollmentGaugesTest {
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 10);
+
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+    @Mock
+    private CourseRepository courseRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setup() {
+        this.meterRegistry = new SimpleMeterRegistry();
+        final Clock clock = Clock.fixed(TODAY.atStartOfDay(ZoneOffset.UTC).toInstant(), ZoneOffset.UTC);
+        new EnrollmentGauges(this.enrollmentRepository, this.courseRepository, clock).bindTo(this.meterRegistry);
+    }
+
+    @Test
+    void shouldReadPendingEnrollmentsOnEveryScrape() {
+        when(this.enrollmentRepository.countByStatus(EnrollmentStatus.PENDING)).thenReturn(7L, 4L);
+
+        assertEquals(7.0, this.meterRegistry.get(EnrollmentGauges.PENDING_ENROLLMENTS).gauge().value());
+        assertEquals(4.0, this.meterRegistry.get(EnrollmentGauges.PENDING_ENROLLMENTS).gauge().value());
+    }
+
+    @Test
+    void shouldReadFreeSeatsOfCoursesThatHaveNotStarted() {
+        when(this.courseRepository.countFreeSeatsOfCoursesStartingAfter(TODAY)).thenReturn(120L);
+
+        assertEquals(120.0, this.meterRegistry.get(EnrollmentGauges.FREE_SEATS).gauge().value());
+    }
+
+    @Test
+    void shouldCountTransitionsByStatusPair() {
+        final EnrollmentMetrics metrics = new EnrollmentMetrics(this.meterRegistry);
+
+        metrics.recordCreated(EnrollmentStatus.PENDING);
+        metrics.recordTransition(EnrollmentStatus.PENDING, EnrollmentStatus.APPROVED);
+        metrics.recordTransitions(EnrollmentStatus.APPROVED, EnrollmentStatus.ACTIVE, 3);
+        metrics.recordTransitions(EnrollmentStatus.APPROVED, EnrollmentStatus.ACTIVE, 0);
+
+        assertEquals(1.0, this.meterRegistry.get(EnrollmentMetrics.TRANSITIONS)
+                .tag("from", EnrollmentMetrics.NONE).tag("to", "PENDING").counter().count());
+        assertEquals(1.0, this.meterRegistry.get(EnrollmentMetrics.TRANSITIONS)
+                .tag("from", "PENDING").tag("to", "APPROVED").counter().count());
+        assertEquals(3.0, this.meterRegistry.get(EnrollmentMetrics.TRANSITIONS)
+                .tag("from", "APPROVED").tag("to", "ACTIVE").counter().count());
+    }
+}
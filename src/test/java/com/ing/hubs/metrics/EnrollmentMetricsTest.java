@@ -0,0 +1,74 @@
+package com.ing.hubs.metrics;
+
+import com.ing.hubs.model.entity.enrollment.EnrollmentStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class EnrollmentMetricsTest {
+    private SimpleMeterRegistry meterRegistry;
+    private EnrollmentMetrics enrollmentMetrics;
+
+    @BeforeEach
+    void setup() {
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.enrollmentMetrics = new EnrollmentMetrics(this.meterRegistry);
+    }
+
+    @AfterEach
+    void teardown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldCountRightAwayOutsideATransaction() {
+        this.enrollmentMetrics.recordCreated(EnrollmentStatus.PENDING);
+        this.enrollmentMetrics.recordTransitions(EnrollmentStatus.APPROVED, EnrollmentStatus.ACTIVE, 3);
+
+        assertEquals(1, this.count(EnrollmentMetrics.NONE, EnrollmentStatus.PENDING));
+        assertEquals(3, this.count(EnrollmentStatus.APPROVED.name(), EnrollmentStatus.ACTIVE));
+    }
+
+    @Test
+    void shouldCountTransitionsOnlyOnceTheirTransactionCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+        this.enrollmentMetrics.recordCreated(EnrollmentStatus.PENDING);
+        this.enrollmentMetrics.recordTransition(EnrollmentStatus.PENDING, EnrollmentStatus.APPROVED);
+
+        assertNull(this.meterRegistry.find(EnrollmentMetrics.TRANSITIONS).counter());
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        assertEquals(1, this.count(EnrollmentMetrics.NONE, EnrollmentStatus.PENDING));
+        assertEquals(1, this.count(EnrollmentStatus.PENDING.name(), EnrollmentStatus.APPROVED));
+    }
+
+    @Test
+    void shouldNotCountTransitionsOfARolledBackTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        this.enrollmentMetrics.recordTransitions(EnrollmentStatus.PENDING, EnrollmentStatus.DENIED, 5);
+
+        TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertNull(this.meterRegistry.find(EnrollmentMetrics.TRANSITIONS).counter());
+    }
+
+    private double count(final String from,
+                         final EnrollmentStatus to) {
+        final Counter counter = this.meterRegistry.find(EnrollmentMetrics.TRANSITIONS)
+                .tag("from", from)
+                .tag("to", to.name())
+                .counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
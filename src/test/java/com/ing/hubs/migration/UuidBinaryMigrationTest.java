@@ -0,0 +1,89 @@
+package com.ing.hubs.migration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidBinaryMigrationTest {
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private final UUID userId = UUID.randomUUID();
+    private final UUID courseId = UUID.randomUUID();
+    private final UUID scheduleId = UUID.randomUUID();
+    private final UUID enrollmentId = UUID.randomUUID();
+
+    @BeforeEach
+    void setup() {
+        this.dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:uuid-migration-" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+                "sa", "");
+        this.jdbcTemplate = new JdbcTemplate(this.dataSource);
+
+        this.jdbcTemplate.execute("create table user (id varchar(255) not null, username varchar(255) not null unique, primary key (id))");
+        this.jdbcTemplate.execute("create table course (id varchar(255) not null, course_name varchar(255) not null, user_id varchar(255) not null, primary key (id))");
+        this.jdbcTemplate.execute("create table schedule (id varchar(255) not null, course_id varchar(255) not null, primary key (id))");
+        this.jdbcTemplate.execute("create table enrollment (id varchar(255) not null, status tinyint not null, user_id varchar(255) not null, course_id varchar(255) not null, primary key (id))");
+        this.jdbcTemplate.execute("create index idx_enrollment_user_status on enrollment (user_id, status)");
+        this.jdbcTemplate.execute("create index idx_enrollment_status on enrollment (status)");
+        this.jdbcTemplate.execute("alter table course add constraint fk_course_user foreign key (user_id) references user (id)");
+        this.jdbcTemplate.execute("alter table schedule add constraint fk_schedule_course foreign key (course_id) references course (id)");
+        this.jdbcTemplate.execute("alter table enrollment add constraint fk_enrollment_user foreign key (user_id) references user (id)");
+        this.jdbcTemplate.execute("alter table enrollment add constraint fk_enrollment_course foreign key (course_id) references course (id)");
+
+        this.jdbcTemplate.update("insert into user (id, username) values (?, ?)", this.userId.toString(), "student");
+        this.jdbcTemplate.update("insert into course (id, course_name, user_id) values (?, ?, ?)", this.courseId.toString(), "Math", this.userId.toString());
+        this.jdbcTemplate.update("insert into schedule (id, course_id) values (?, ?)", this.scheduleId.toString(), this.courseId.toString());
+        this.jdbcTemplate.update("insert into enrollment (id, status, user_id, course_id) values (?, ?, ?, ?)",
+                this.enrollmentId.toString(), 1, this.userId.toString(), this.courseId.toString());
+    }
+
+    @Test
+    void shouldConvertIdsAndForeignKeysToBinary() throws SQLException {
+        new UuidBinaryMigration(this.dataSource).migrate();
+
+        final Map<String, Object> row = this.jdbcTemplate.queryForMap(
+                "select e.id, u.username, c.course_name from enrollment e " +
+                "join user u on u.id = e.user_id join course c on c.id = e.course_id");
+        assertArrayEquals(UuidBinaryMigration.toBytes(this.enrollmentId), (byte[]) row.get("id"));
+        assertEquals("student", row.get("username"));
+        assertEquals("Math", row.get("course_name"));
+        assertEquals(1, this.jdbcTemplate.queryForObject(
+                "select count(*) from schedule where course_id = ?", Integer.class, (Object) UuidBinaryMigration.toBytes(this.courseId)));
+    }
+
+    @Test
+    void shouldRecreateForeignKeysAndIndexes() throws SQLException {
+        new UuidBinaryMigration(this.dataSource).migrate();
+
+        assertThrows(DataIntegrityViolationException.class, () -> this.jdbcTemplate.update(
+                "insert into enrollment (id, status, user_id, course_id) values (?, ?, ?, ?)",
+                UuidBinaryMigration.toBytes(UUID.randomUUID()), 0,
+                UuidBinaryMigration.toBytes(UUID.randomUUID()), UuidBinaryMigration.toBytes(this.courseId)));
+        assertThrows(DataIntegrityViolationException.class, () -> this.jdbcTemplate.update(
+                "insert into user (id, username) values (?, ?)", UuidBinaryMigration.toBytes(this.userId), "duplicate"));
+
+        final List<String> indexColumns = this.jdbcTemplate.queryForList(
+                "select column_name from information_schema.index_columns where index_name = 'idx_enrollment_user_status' order by ordinal_position",
+                String.class);
+        assertEquals(List.of("user_id", "status"), indexColumns);
+    }
+
+    @Test
+    void shouldSkipColumnsThatAreAlreadyBinary() throws SQLException {
+        final UuidBinaryMigration migration = new UuidBinaryMigration(this.dataSource);
+        migration.migrate();
+        migration.migrate();
+
+        assertEquals("student", this.jdbcTemplate.queryForObject(
+                "select username from user where id = ?", String.class, (Object) UuidBinaryMigration.toBytes(this.userId)));
+    }
+}
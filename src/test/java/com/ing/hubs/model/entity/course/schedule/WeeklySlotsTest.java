@@ -0,0 +1,84 @@
+package com.ing.hubs.model.entity.course.schedule;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WeeklySlotsTest {
+
+    @Test
+    void shouldMarkHalfHourSlotsBetweenStartAndEnd() {
+        final WeeklySlots slots = WeeklySlots.of(Set.of(schedule(Weekday.TUESDAY, 10, 30, 12, 0))).orElseThrow();
+
+        assertFalse(slots.isOccupied(Weekday.TUESDAY, LocalTime.of(10, 0)));
+        assertTrue(slots.isOccupied(Weekday.TUESDAY, LocalTime.of(10, 30)));
+        assertTrue(slots.isOccupied(Weekday.TUESDAY, LocalTime.of(11, 30)));
+        assertFalse(slots.isOccupied(Weekday.TUESDAY, LocalTime.of(12, 0)));
+        assertFalse(slots.isOccupied(Weekday.MONDAY, LocalTime.of(10, 30)));
+    }
+
+    @Test
+    void shouldDetectOverlapOnlyOnTheSameWeekday() {
+        final WeeklySlots monday = WeeklySlots.of(Set.of(schedule(Weekday.MONDAY, 10, 0, 12, 0))).orElseThrow();
+        final WeeklySlots overlapping = WeeklySlots.of(Set.of(schedule(Weekday.MONDAY, 11, 30, 13, 0))).orElseThrow();
+        final WeeklySlots otherDay = WeeklySlots.of(Set.of(schedule(Weekday.FRIDAY, 10, 0, 12, 0))).orElseThrow();
+
+        assertTrue(monday.intersects(overlapping));
+        assertFalse(monday.intersects(otherDay));
+    }
+
+    @Test
+    void shouldNotTreatBackToBackSchedulesAsOverlapping() {
+        final WeeklySlots first = WeeklySlots.of(Set.of(schedule(Weekday.WEDNESDAY, 8, 0, 10, 0))).orElseThrow();
+        final WeeklySlots second = WeeklySlots.of(Set.of(schedule(Weekday.WEDNESDAY, 10, 0, 11, 30))).orElseThrow();
+
+        assertFalse(first.intersects(second));
+    }
+
+    @Test
+    void shouldCoverTheLastSlotsOfTheWeek() {
+        final WeeklySlots sunday = WeeklySlots.of(Set.of(schedule(Weekday.SUNDAY, 20, 30, 23, 30))).orElseThrow();
+        final WeeklySlots lateSunday = WeeklySlots.of(Set.of(schedule(Weekday.SUNDAY, 23, 0, 23, 30))).orElseThrow();
+
+        assertTrue(sunday.isOccupied(Weekday.SUNDAY, LocalTime.of(23, 0)));
+        assertTrue(sunday.intersects(lateSunday));
+    }
+
+    @Test
+    void shouldMergeSlotsWithOr() {
+        final WeeklySlots monday = WeeklySlots.of(Set.of(schedule(Weekday.MONDAY, 10, 0, 11, 0))).orElseThrow();
+        final WeeklySlots thursday = WeeklySlots.of(Set.of(schedule(Weekday.THURSDAY, 14, 0, 15, 0))).orElseThrow();
+
+        final WeeklySlots merged = WeeklySlots.EMPTY.or(monday).or(thursday);
+
+        assertTrue(merged.isOccupied(Weekday.MONDAY, LocalTime.of(10, 30)));
+        assertTrue(merged.isOccupied(Weekday.THURSDAY, LocalTime.of(14, 30)));
+        assertTrue(WeeklySlots.EMPTY.isEmpty());
+        assertEquals(merged, WeeklySlots.of(List.of(
+                schedule(Weekday.MONDAY, 10, 0, 11, 0),
+                schedule(Weekday.THURSDAY, 14, 0, 15, 0))).orElseThrow());
+    }
+
+    @Test
+    void shouldReturnEmptyOptionalForSchedulesOffTheGrid() {
+        assertTrue(WeeklySlots.of(Set.of(schedule(Weekday.MONDAY, 10, 15, 11, 0))).isEmpty());
+        assertTrue(WeeklySlots.of(Set.of(schedule(Weekday.MONDAY, 10, 0, 11, 45))).isEmpty());
+    }
+
+    private static Schedule schedule(final Weekday weekday,
+                                     final int startHour,
+                                     final int startMinute,
+                                     final int endHour,
+                                     final int endMinute) {
+        return Schedule.builder()
+                .courseType(CourseType.COURSE)
+                .weekday(weekday)
+                .startTime(LocalTime.of(startHour, startMinute))
+                .endTime(LocalTime.of(endHour, endMinute))
+                .build();
+    }
+}
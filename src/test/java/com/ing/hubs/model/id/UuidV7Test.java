@@ -0,0 +1,52 @@
+package com.ing.hubs.model.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7Test {
+
+    @Test
+    void shouldSetVersionAndVariant() {
+        final UUID uuid = UuidV7.randomUuid();
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+    }
+
+    @Test
+    void shouldEncodeTheCreationTimestamp() {
+        final long before = System.currentTimeMillis();
+        final UUID uuid = UuidV7.randomUuid();
+        final long after = System.currentTimeMillis();
+
+        assertTrue(UuidV7.timestampMillis(uuid) >= before);
+        assertTrue(UuidV7.timestampMillis(uuid) <= after + 1);
+    }
+
+    @Test
+    void shouldBeMonotonicWithinTheSameMillisecond() {
+        final long millis = System.currentTimeMillis() + 60_000;
+        final List<UUID> uuids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            uuids.add(UuidV7.next(millis));
+        }
+
+        for (int i = 1; i < uuids.size(); i++) {
+            assertTrue(compareUnsigned(uuids.get(i - 1), uuids.get(i)) < 0);
+        }
+        assertEquals(uuids.size(), new HashSet<>(uuids).size());
+    }
+
+    private static int compareUnsigned(final UUID first, final UUID second) {
+        final int mostSignificant = Long.compareUnsigned(first.getMostSignificantBits(), second.getMostSignificantBits());
+        return mostSignificant != 0
+                ? mostSignificant
+                : Long.compareUnsigned(first.getLeastSignificantBits(), second.getLeastSignificantBits());
+    }
+}
@@ -0,0 +1,46 @@
+package com.ing.hubs.security;
+
+import com.ing.hubs.fixture.Fixtures;
+import com.ing.hubs.model.entity.user.Role;
+import com.ing.hubs.model.entity.user.User;
+import com.ing.hubs.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class ActuatorSecurityTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JwtProvider jwtProvider;
+
+    @Test
+    void shouldKeepMetricsFromAnonymousCallers() throws Exception {
+        this.mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+        this.mockMvc.perform(get("/actuator/metrics")).andExpect(status().isUnauthorized());
+        this.mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldServeMetricsToAuthenticatedCallers() throws Exception {
+        final User teacher = Fixtures.saveUser(this.userRepository, Role.TEACHER, "@poodle.com");
+
+        this.mockMvc.perform(get("/actuator/prometheus")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + this.jwtProvider.generateJwt(teacher)))
+                .andExpect(status().isOk());
+    }
+}
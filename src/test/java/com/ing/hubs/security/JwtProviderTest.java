@@ -0,0 +1,71 @@
+package com.ing.hubs.security;
+
+import com.ing.hubs.model.entity.user.Role;
+import com.ing.hubs.model.entity.user.User;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvFileSource;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtProviderTest {
+    private final JwtProvider jwtProvider = new JwtProvider();
+
+    @BeforeEach
+    void setup() {
+        this.jwtProvider.setSecret("MKsSLgwpW/AtoZEeznJMrwAd+Jujrq4Tpjza+7kqBbI=");
+        this.jwtProvider.setTtlInMinutes(10);
+    }
+
+    @ParameterizedTest
+    @CsvFileSource(resources = "/ExtractIdFromTokenData.csv")
+    void shouldExtractUserIdFromJwt(final String jwt,
+                                    final String id){
+        assertEquals(UUID.fromString(id), this.jwtProvider.parsePrincipal(jwt).getId());
+    }
+
+    @ParameterizedTest
+    @CsvFileSource(resources = "/ExtractRoleFromTokenData.csv")
+    void shouldExtractUserRoleFromJwt(final String jwt,
+                                      final String role){
+        assertEquals(Role.valueOf(role), this.jwtProvider.parsePrincipal(jwt).getRole());
+    }
+
+    @Test
+    void shouldRoundTripGeneratedJwtIntoPrincipal(){
+        final User user = User.builder()
+                .id(UUID.randomUUID())
+                .username("username")
+                .role(Role.TEACHER)
+                .build();
+
+        final JwtPrincipal principal = this.jwtProvider.parsePrincipal(this.jwtProvider.generateJwt(user));
+
+        assertEquals(new JwtPrincipal(user.getId(), "username", Role.TEACHER), principal);
+        assertEquals("TEACHER", principal.getAuthorities().get(0).getAuthority());
+    }
+
+    @Test
+    void shouldReuseDecodedKeyAndParser(){
+        assertSame(this.jwtProvider.getJwtKey(), this.jwtProvider.getJwtKey());
+        assertSame(this.jwtProvider.getJwtParser(), this.jwtProvider.getJwtParser());
+    }
+
+    @Test
+    void shouldRejectTokenSignedWithAnotherKey(){
+        final JwtProvider otherProvider = new JwtProvider();
+        otherProvider.setSecret("YW5vdGhlci1zaWduaW5nLWtleS1mb3ItdGhlLXRlc3QhIQ==");
+        otherProvider.setTtlInMinutes(10);
+        final String foreignJwt = otherProvider.generateJwt(User.builder()
+                .id(UUID.randomUUID())
+                .username("username")
+                .role(Role.STUDENT)
+                .build());
+
+        assertThrows(SignatureException.class, () -> this.jwtProvider.parsePrincipal(foreignJwt));
+    }
+}
@@ -3,10 +3,13 @@ package com.ing.hubs.service;
 import com.ing.hubs.dto.course.CourseDto;
 import com.ing.hubs.dto.course.CoursePatchDto;
 import com.ing.hubs.dto.course.CourseResponseDto;
+import com.ing.hubs.dto.page.PageResponseDto;
 import com.ing.hubs.exception.CouldNotDeleteEntityException;
 import com.ing.hubs.exception.course.CouldNotCreateCourseException;
 import com.ing.hubs.exception.DuplicateDataException;
+import com.ing.hubs.exception.InvalidPageRequestException;
 import com.ing.hubs.exception.security.UnauthorizedAccessException;
+import com.ing.hubs.mapper.CourseMapper;
 import com.ing.hubs.model.entity.course.Course;
 import com.ing.hubs.model.entity.course.schedule.Schedule;
 import com.ing.hubs.model.entity.enrollment.Enrollment;
@@ -14,6 +17,11 @@ import com.ing.hubs.model.entity.enrollment.EnrollmentStatus;
 import com.ing.hubs.model.entity.user.Role;
 import com.ing.hubs.model.entity.user.User;
 import com.ing.hubs.repository.CourseRepository;
+import com.ing.hubs.security.JwtPrincipal;
+import com.ing.hubs.service.catalog.CourseCatalogChangedEvent;
+import com.ing.hubs.service.conflict.CourseConflictGraph;
+import com.ing.hubs.service.conflict.CourseScheduleChangedEvent;
+import com.ing.hubs.service.pagination.KeysetPage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -21,7 +29,7 @@ import org.junit.jupiter.api.Nested;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 
 import java.time.LocalDate;
@@ -41,18 +49,24 @@ class CourseServiceTest {
     @Mock
     private UserService userService;
     @Mock
-    private ModelMapper modelMapper;
+    private CourseMapper courseMapper;
     @Mock
     private ScheduleService scheduleService;
     @Mock
     private SecurityService securityService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private CourseConflictGraph conflictGraph;
     @InjectMocks
     private CourseService courseService;
 
+    private final JwtPrincipal principal = new JwtPrincipal(UUID.randomUUID(), "username", Role.TEACHER);
+
     @Nested
     class CouldNotCreateCourseCourseValidationTests {
         private final CourseDto courseDto = new CourseDto();
-        private final String jwtToken = "validToken";
+        private final JwtPrincipal principal = new JwtPrincipal(UUID.randomUUID(), "validUser", Role.TEACHER);
 
         @Test
         void shouldThrowExceptionWhenInvalidCapacity() {
@@ -63,7 +77,7 @@ class CourseServiceTest {
             courseDto.setStartDate(LocalDate.now().plusDays(1));
             courseDto.setEndDate(LocalDate.now().plusDays(10));
 
-            CouldNotCreateCourseException exception = assertThrows(CouldNotCreateCourseException.class, () -> courseService.createCourse(courseDto, jwtToken));
+            CouldNotCreateCourseException exception = assertThrows(CouldNotCreateCourseException.class, () -> courseService.createCourse(courseDto, principal));
             assertThat(exception.getMessage(), containsString("Minimum capacity is 10 students!"));
         }
 
@@ -76,7 +90,7 @@ class CourseServiceTest {
             courseDto.setStartDate(startDate);
 
             CouldNotCreateCourseException exception = assertThrows(CouldNotCreateCourseException.class,
-                    () -> courseService.createCourse(courseDto, jwtToken));
+                    () -> courseService.createCourse(courseDto, principal));
             assertThat(exception.getMessage(), containsString("Start date cannot be after end date!"));
         }
 
@@ -89,7 +103,7 @@ class CourseServiceTest {
             courseDto.setStartDate(startDate);
 
             CouldNotCreateCourseException exception = assertThrows(CouldNotCreateCourseException.class,
-                    () -> courseService.createCourse(courseDto, jwtToken));
+                    () -> courseService.createCourse(courseDto, principal));
             assertThat(exception.getMessage(), containsString("Start date cannot be before current date!"));
         }
 
@@ -102,7 +116,7 @@ class CourseServiceTest {
             courseDto.setStartDate(startDate);
 
             CouldNotCreateCourseException exception = assertThrows(CouldNotCreateCourseException.class,
-                    () -> courseService.createCourse(courseDto, jwtToken));
+                    () -> courseService.createCourse(courseDto, principal));
             assertThat(exception.getMessage(), containsString("Course can not be created more than 2 years the future!"));
         }
     }
@@ -111,7 +125,7 @@ class CourseServiceTest {
     class CourseDeletionTests {
         private final UUID courseId = UUID.randomUUID();
         private final UUID userId = UUID.randomUUID();
-        private final String jwtToken = "validToken";
+        private final JwtPrincipal principal = new JwtPrincipal(UUID.randomUUID(), "validUser", Role.TEACHER);
         private final Course course = new Course();
         private final User user = new User();
 
@@ -121,11 +135,13 @@ class CourseServiceTest {
             course.setUser(user);
 
             when(courseRepository.findById(courseId)).thenReturn(Optional.of(course));
-            when(securityService.extractUserIdFromToken(jwtToken)).thenReturn(userId);
+            when(securityService.extractUserId(principal)).thenReturn(userId);
             when(userService.findUserById(userId)).thenReturn(user);
 
-            courseService.deleteById(courseId, jwtToken);
+            courseService.deleteById(courseId, principal);
             verify(courseRepository, times(1)).deleteById(courseId);
+            verify(eventPublisher).publishEvent(CourseScheduleChangedEvent.removed(courseId));
+            verify(eventPublisher).publishEvent(new CourseCatalogChangedEvent(courseId));
         }
 
         @Test
@@ -134,10 +150,10 @@ class CourseServiceTest {
             course.setUser(user);
 
             when(courseRepository.findById(courseId)).thenReturn(Optional.of(course));
-            when(securityService.extractUserIdFromToken(jwtToken)).thenReturn(UUID.randomUUID());
+            when(securityService.extractUserId(principal)).thenReturn(UUID.randomUUID());
             when(userService.findUserById(any(UUID.class))).thenReturn(new User());
 
-            assertThrows(UnauthorizedAccessException.class, () -> courseService.deleteById(courseId, jwtToken));
+            assertThrows(UnauthorizedAccessException.class, () -> courseService.deleteById(courseId, principal));
         }
 
         @Test
@@ -151,11 +167,11 @@ class CourseServiceTest {
             this.course.setUser(this.user);
 
             when(courseRepository.findById(any(UUID.class))).thenReturn(Optional.of(this.course));
-            when(securityService.extractUserIdFromToken(jwtToken)).thenReturn(userId);
+            when(securityService.extractUserId(principal)).thenReturn(userId);
             when(userService.findUserById(userId)).thenReturn(user);
 
 
-            var ex = assertThrows(CouldNotDeleteEntityException.class, () -> courseService.deleteById(courseId, jwtToken));
+            var ex = assertThrows(CouldNotDeleteEntityException.class, () -> courseService.deleteById(courseId, principal));
             assertEquals("Students are enrolled in this course", ex.getMessage());
         }
     }
@@ -163,7 +179,7 @@ class CourseServiceTest {
     @Nested
     class CourseCreationTests {
         private final CourseDto courseDto = new CourseDto();
-        private final String jwtToken = "validToken";
+        private final JwtPrincipal principal = new JwtPrincipal(UUID.randomUUID(), "validUser", Role.TEACHER);
         private final UUID userId = UUID.randomUUID();
 
         @BeforeEach
@@ -171,7 +187,7 @@ class CourseServiceTest {
             courseDto.setStartDate(LocalDate.now().plusDays(1));
             courseDto.setEndDate(LocalDate.now().plusDays(10));
             courseDto.setCapacity(20);
-            when(securityService.extractUserIdFromToken(jwtToken)).thenReturn(userId);
+            when(securityService.extractUserId(principal)).thenReturn(userId);
         }
 
         @Test
@@ -186,19 +202,20 @@ class CourseServiceTest {
                     .id(UUID.randomUUID())
                     .build();
 
-            when(modelMapper.map(courseDto, Course.class)).thenReturn(course);
+            when(courseMapper.toEntity(courseDto)).thenReturn(course);
 
             final Set<Schedule> schedules = new HashSet<>();
 
             when(scheduleService.mapDtoToSchedules(courseDto)).thenReturn(schedules);
 
-            when(modelMapper.map(course, CourseResponseDto.class)).thenReturn(new CourseResponseDto());
-            when(courseRepository.findByCourseName(course.getCourseName())).thenReturn(Optional.of(course));
+            when(courseMapper.toResponse(course)).thenReturn(new CourseResponseDto());
 
-            final CourseResponseDto result = courseService.createCourse(courseDto, jwtToken);
+            final CourseResponseDto result = courseService.createCourse(courseDto, principal);
 
             assertNotNull(result);
-            verify(userService, times(1)).saveUser(teacher);
+            assertEquals(teacher, course.getUser());
+            verify(courseRepository, times(1)).save(course);
+            verify(userService, never()).saveUser(any());
         }
 
         @Test
@@ -209,8 +226,8 @@ class CourseServiceTest {
 
             when(userService.findUserById(userId)).thenReturn(student);
 
-            assertThrows(UnauthorizedAccessException.class, () -> courseService.createCourse(courseDto, jwtToken));
-            verify(userService, never()).saveUser(any());
+            assertThrows(UnauthorizedAccessException.class, () -> courseService.createCourse(courseDto, principal));
+            verify(courseRepository, never()).save(any());
         }
     }
 
@@ -223,7 +240,7 @@ class CourseServiceTest {
 
         when(courseRepository.existsByCourseName(courseDto.getCourseName())).thenReturn(false);
 
-        var ex = assertThrows(CouldNotCreateCourseException.class, () -> courseService.createCourse(courseDto, "token"));
+        var ex = assertThrows(CouldNotCreateCourseException.class, () -> courseService.createCourse(courseDto, principal));
         assertEquals("Course duration can not be more than 1 year!", ex.getMessage());
         verify(userService, never()).saveUser(any());
     }
@@ -236,7 +253,7 @@ class CourseServiceTest {
         courseDto.setCourseName("courseName");
 
         when(courseRepository.existsByCourseName(courseDto.getCourseName())).thenReturn(false);
-        var ex = assertThrows(CouldNotCreateCourseException.class, () -> courseService.createCourse(courseDto, "token"));
+        var ex = assertThrows(CouldNotCreateCourseException.class, () -> courseService.createCourse(courseDto, principal));
         assertEquals("Invalid course duration. The course must be at least one day long!", ex.getMessage());
         verify(userService, never()).saveUser(any());
     }
@@ -246,7 +263,7 @@ class CourseServiceTest {
         private final CoursePatchDto coursePatchDto = new CoursePatchDto();
         private final UUID courseId = UUID.randomUUID();
         private final UUID userId = UUID.randomUUID();
-        private final String jwtToken = "validToken";
+        private final JwtPrincipal principal = new JwtPrincipal(UUID.randomUUID(), "validUser", Role.TEACHER);
         private final User user = new User();
         private final Course course = new Course();
 
@@ -259,12 +276,12 @@ class CourseServiceTest {
         @Test
         void shouldUpdateCourseWhenValidArguments() {
             when(courseRepository.findById(courseId)).thenReturn(Optional.of(course));
-            when(securityService.extractUserIdFromToken(jwtToken)).thenReturn(userId);
+            when(securityService.extractUserId(principal)).thenReturn(userId);
             when(userService.findUserById(userId)).thenReturn(user);
-            when(modelMapper.map(any(Course.class), eq(CourseResponseDto.class)))
+            when(courseMapper.toResponse(any(Course.class)))
                     .thenReturn(new CourseResponseDto());
 
-            final CourseResponseDto result = courseService.updateCourse(courseId, coursePatchDto, jwtToken);
+            final CourseResponseDto result = courseService.updateCourse(courseId, coursePatchDto, principal);
 
             assertNotNull(result);
             verify(courseRepository, times(1)).findById(courseId);
@@ -276,7 +293,7 @@ class CourseServiceTest {
             coursePatchDto.setCourseName("newCourseName");
 
             when(courseRepository.existsByCourseName(coursePatchDto.getCourseName())).thenReturn(true);
-            assertThrows(DuplicateDataException.class, () -> courseService.updateCourse(courseId, coursePatchDto, jwtToken));
+            assertThrows(DuplicateDataException.class, () -> courseService.updateCourse(courseId, coursePatchDto, principal));
             verify(courseRepository, never()).save(any());
         }
 
@@ -286,9 +303,9 @@ class CourseServiceTest {
             user.setRole(Role.STUDENT);
 
             when(courseRepository.findById(courseId)).thenReturn(Optional.of(course));
-            when(securityService.extractUserIdFromToken(jwtToken)).thenReturn(UUID.randomUUID());
+            when(securityService.extractUserId(principal)).thenReturn(UUID.randomUUID());
             when(userService.findUserById(any(UUID.class))).thenReturn(new User());
-            assertThrows(UnauthorizedAccessException.class, () -> courseService.updateCourse(courseId, coursePatchDto, jwtToken));
+            assertThrows(UnauthorizedAccessException.class, () -> courseService.updateCourse(courseId, coursePatchDto, principal));
         }
 
         @Test
@@ -301,10 +318,10 @@ class CourseServiceTest {
             coursePatchDto.setCapacity(course.getCapacity() - 1);
 
             when(courseRepository.findById(courseId)).thenReturn(Optional.of(course));
-            when(securityService.extractUserIdFromToken(jwtToken)).thenReturn(userId);
+            when(securityService.extractUserId(principal)).thenReturn(userId);
             when(userService.findUserById(userId)).thenReturn(user);
 
-            CouldNotCreateCourseException exception = assertThrows(CouldNotCreateCourseException.class, () -> courseService.updateCourse(courseId, coursePatchDto, jwtToken));
+            CouldNotCreateCourseException exception = assertThrows(CouldNotCreateCourseException.class, () -> courseService.updateCourse(courseId, coursePatchDto, principal));
             assertThat(exception.getMessage(), containsString("Course capacity cannot be reduced!"));
         }
     }
@@ -313,7 +330,7 @@ class CourseServiceTest {
     void shouldCallCourseRepositoryWhenFindingById() {
         final UUID id = UUID.randomUUID();
 
-        when(modelMapper.map(any(Course.class), eq(CourseResponseDto.class)))
+        when(courseMapper.toResponse(any(Course.class)))
                 .thenReturn(new CourseResponseDto());
         when(courseRepository.findById(id)).thenReturn(Optional.of(new Course()));
 
@@ -324,41 +341,51 @@ class CourseServiceTest {
     }
 
     @Test
-    void shouldReturnAllCoursesWhenArgumentIsNull() {
-        when(courseRepository.findAll()).thenReturn(List.of(new Course(), new Course()));
-        when(modelMapper.map(any(Course.class), eq(CourseResponseDto.class))).thenReturn(new CourseResponseDto());
+    void shouldReturnFirstPageOfCoursesWhenArgumentIsNull() {
+        when(courseRepository.findPageAfter(eq(new UUID(0, 0)), any())).thenReturn(List.of(new Course(), new Course()));
+        when(courseMapper.toResponse(any(Course.class))).thenReturn(new CourseResponseDto());
 
-        final List<CourseResponseDto> courseResponseDtos = courseService.findAllCourses(null);
+        final PageResponseDto<CourseResponseDto> courseResponseDtos = courseService.findAllCourses(null, null, null);
 
-        verify(courseRepository, times(1)).findAll();
-        assertEquals(2, courseResponseDtos.size());
+        verify(courseRepository, never()).findAll();
+        assertEquals(2, courseResponseDtos.getItems().size());
+        assertNull(courseResponseDtos.getNextCursor());
     }
 
     @Test
-    void shouldFilterCoursesWhenArgumentIsNotNull() {
+    void shouldFilterCoursesByTeacherInTheQuery() {
         final UUID teacherId = UUID.randomUUID();
 
         final Course course1 = Course.builder()
+                .id(UUID.randomUUID())
                 .courseName("Java")
-                .user(User.builder().id(teacherId).build())
                 .build();
 
         final Course course2 = Course.builder()
+                .id(UUID.randomUUID())
                 .courseName("C#")
-                .user(User.builder().id(UUID.randomUUID()).build())
                 .build();
 
-        final CourseResponseDto responseDto1 = new CourseResponseDto();
-        final CourseResponseDto responseDto2 = new CourseResponseDto();
+        when(courseRepository.findPageByTeacherAfter(eq(teacherId), eq(new UUID(0, 0)), any())).thenReturn(List.of(course1, course2));
+        when(courseRepository.findPageByTeacherAfter(eq(teacherId), eq(course1.getId()), any())).thenReturn(List.of(course2));
+        when(courseMapper.toResponse(any(Course.class))).thenReturn(new CourseResponseDto());
 
-        when(courseRepository.findAll()).thenReturn(List.of(course1, course2));
-        when(modelMapper.map(any(Course.class), eq(CourseResponseDto.class)))
-                .thenReturn(responseDto1)
-                .thenReturn(responseDto2);
+        final PageResponseDto<CourseResponseDto> firstPage = courseService.findAllCourses(teacherId, null, 1);
+        final PageResponseDto<CourseResponseDto> lastPage = courseService.findAllCourses(teacherId, firstPage.getNextCursor(), 1);
 
-        final List<CourseResponseDto> result = courseService.findAllCourses(teacherId);
+        verify(courseRepository, never()).findPageAfter(any(), any());
+        assertEquals(1, firstPage.getItems().size());
+        assertNotNull(firstPage.getNextCursor());
+        assertEquals(1, lastPage.getItems().size());
+        assertNull(lastPage.getNextCursor());
+    }
 
-        assertEquals(1, result.size());
+    @Test
+    void shouldRejectInvalidPageRequests() {
+        assertThrows(InvalidPageRequestException.class, () -> courseService.findAllCourses(null, null, 0));
+        assertThrows(InvalidPageRequestException.class, () -> courseService.findAllCourses(null, null, KeysetPage.MAX_SIZE + 1));
+        assertThrows(InvalidPageRequestException.class, () -> courseService.findAllCourses(null, "not a cursor", null));
+        verifyNoInteractions(courseRepository);
     }
 
     @Test
@@ -366,10 +393,10 @@ class CourseServiceTest {
         final CourseDto courseDto = new CourseDto();
         courseDto.setCourseName("notUniqueName");
 
-        final String jwtToken = "validToken";
+        final JwtPrincipal principal = new JwtPrincipal(UUID.randomUUID(), "validUser", Role.TEACHER);
 
         when(courseRepository.existsByCourseName(courseDto.getCourseName())).thenReturn(true);
-        assertThrows(DuplicateDataException.class, () -> courseService.createCourse(courseDto, jwtToken));
+        assertThrows(DuplicateDataException.class, () -> courseService.createCourse(courseDto, principal));
         verify(courseRepository, never()).save(any());
     }
 
@@ -400,18 +427,44 @@ class CourseServiceTest {
     @Test
     void shouldCreateCourseResponseDtoWhenValidCourseProvided() {
         final Course course = new Course();
-        final Set<Schedule> schedules = new HashSet<>();
-
-        when(scheduleService.findSchedulesByCourse(course)).thenReturn(schedules);
-
         final CourseResponseDto mappedResponse = new CourseResponseDto();
 
-        when(modelMapper.map(course, CourseResponseDto.class)).thenReturn(mappedResponse);
+        when(courseMapper.toResponse(course)).thenReturn(mappedResponse);
 
         final CourseResponseDto result = courseService.createCourseResponse(course);
 
         assertNotNull(result);
         assertEquals(mappedResponse, result);
-        assertEquals(schedules, result.getSchedules());
+        verifyNoInteractions(scheduleService);
+    }
+
+    @Test
+    void shouldTakeSeatWhenReservationSucceeds() {
+        final Course course = Course.builder()
+                .id(UUID.randomUUID())
+                .capacity(10)
+                .seatsTaken(3)
+                .build();
+
+        when(courseRepository.reserveSeat(course.getId())).thenReturn(1);
+
+        assertTrue(this.courseService.reserveSeat(course));
+        assertEquals(4, course.getSeatsTaken());
+        verify(eventPublisher).publishEvent(new CourseCatalogChangedEvent(course.getId()));
+    }
+
+    @Test
+    void shouldNotTakeSeatWhenCourseIsFull() {
+        final Course course = Course.builder()
+                .id(UUID.randomUUID())
+                .capacity(10)
+                .seatsTaken(10)
+                .build();
+
+        when(courseRepository.reserveSeat(course.getId())).thenReturn(0);
+
+        assertFalse(this.courseService.reserveSeat(course));
+        assertEquals(10, course.getSeatsTaken());
+        verifyNoInteractions(eventPublisher);
     }
-}
\ No newline at end of file
+}
@@ -4,6 +4,7 @@ import com.ing.hubs.dto.course.CourseDto;
 import com.ing.hubs.dto.schedule.ScheduleDto;
 import com.ing.hubs.exception.course.CouldNotCreateCourseException;
 import com.ing.hubs.exception.course.InvalidScheduleException;
+import com.ing.hubs.mapper.ScheduleMapper;
 import com.ing.hubs.model.entity.course.Course;
 import com.ing.hubs.model.entity.course.schedule.CourseType;
 import com.ing.hubs.model.entity.course.schedule.Schedule;
@@ -18,9 +19,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -39,8 +38,8 @@ import static org.mockito.Mockito.*;
 class ScheduleServiceTest {
     @Mock
     private ScheduleRepository scheduleRepository;
-    @Spy
-    private ModelMapper modelMapper;
+    @Mock
+    private ScheduleMapper scheduleMapper;
     @InjectMocks
     private ScheduleService scheduleService;
 
@@ -231,13 +230,13 @@ class ScheduleServiceTest {
                 .weekday(Weekday.SATURDAY)
                 .build();
 
-        when(this.modelMapper.map(scheduleDto1, Schedule.class)).thenReturn(schedule1);
-        when(this.modelMapper.map(scheduleDto2, Schedule.class)).thenReturn(schedule2);
+        when(this.scheduleMapper.toEntity(scheduleDto1)).thenReturn(schedule1);
+        when(this.scheduleMapper.toEntity(scheduleDto2)).thenReturn(schedule2);
 
         final Set<Schedule> resultSchedules = this.scheduleService.mapDtoToSchedules(courseDto);
 
-        verify(this.modelMapper, times(1)).map(scheduleDto1, Schedule.class);
-        verify(this.modelMapper, times(1)).map(scheduleDto2, Schedule.class);
+        verify(this.scheduleMapper, times(1)).toEntity(scheduleDto1);
+        verify(this.scheduleMapper, times(1)).toEntity(scheduleDto2);
 
         final Set<Schedule> expectedSchedules = Set.of(schedule1, schedule2);
         assertEquals(expectedSchedules, resultSchedules);
@@ -316,4 +315,76 @@ class ScheduleServiceTest {
 
         assertThrows(InvalidScheduleException.class, () -> this.scheduleService.validateScheduleOverlap(course2, student));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldFallBackToTimeComparisonForSchedulesOffTheGrid(){
+        final User student = new User();
+        final Course course1 = this.courseWithSchedule(Weekday.TUESDAY, LocalTime.of(10, 15), LocalTime.of(11, 45));
+        final Course course2 = this.courseWithSchedule(Weekday.TUESDAY, LocalTime.of(11, 40), LocalTime.of(12, 30));
+        final Course course3 = this.courseWithSchedule(Weekday.TUESDAY, LocalTime.of(11, 45), LocalTime.of(12, 30));
+
+        student.setEnrollments(Set.of(this.enrollment(student, course1, EnrollmentStatus.ACTIVE)));
+
+        assertThrows(InvalidScheduleException.class, () -> this.scheduleService.validateScheduleOverlap(course2, student));
+        assertDoesNotThrow(() -> this.scheduleService.validateScheduleOverlap(course3, student));
+    }
+
+    @Test
+    void shouldRebuildCachedStudentSlotsWhenOccupyingEnrollmentsChange(){
+        final User student = User.builder().id(UUID.randomUUID()).build();
+        final Course enrolled = this.courseWithSchedule(Weekday.MONDAY, LocalTime.of(8, 0), LocalTime.of(10, 0));
+        final Course candidate = this.courseWithSchedule(Weekday.MONDAY, LocalTime.of(10, 0), LocalTime.of(12, 0));
+        final Course overlapping = this.courseWithSchedule(Weekday.MONDAY, LocalTime.of(11, 0), LocalTime.of(12, 0));
+
+        final Set<Enrollment> enrollments = new HashSet<>();
+        enrollments.add(this.enrollment(student, enrolled, EnrollmentStatus.ACTIVE));
+        student.setEnrollments(enrollments);
+
+        assertDoesNotThrow(() -> this.scheduleService.validateScheduleOverlap(candidate, student));
+        assertDoesNotThrow(() -> this.scheduleService.validateScheduleOverlap(overlapping, student));
+
+        enrollments.add(this.enrollment(student, candidate, EnrollmentStatus.APPROVED));
+
+        assertThrows(InvalidScheduleException.class, () -> this.scheduleService.validateScheduleOverlap(overlapping, student));
+    }
+
+    @Test
+    void shouldIgnoreEnrollmentsThatDoNotOccupyTheTimetable(){
+        final User student = User.builder().id(UUID.randomUUID()).build();
+        final Course pending = this.courseWithSchedule(Weekday.FRIDAY, LocalTime.of(9, 0), LocalTime.of(11, 0));
+        final Course candidate = this.courseWithSchedule(Weekday.FRIDAY, LocalTime.of(10, 0), LocalTime.of(11, 0));
+
+        student.setEnrollments(Set.of(
+                this.enrollment(student, pending, EnrollmentStatus.PENDING),
+                this.enrollment(student, this.courseWithSchedule(Weekday.FRIDAY, LocalTime.of(10, 0), LocalTime.of(12, 0)), EnrollmentStatus.COMPLETED)));
+
+        assertDoesNotThrow(() -> this.scheduleService.validateScheduleOverlap(candidate, student));
+    }
+
+    private Course courseWithSchedule(final Weekday weekday,
+                                      final LocalTime startTime,
+                                      final LocalTime endTime) {
+        final Schedule schedule = Schedule.builder()
+                .id(UUID.randomUUID())
+                .courseType(CourseType.COURSE)
+                .startTime(startTime)
+                .endTime(endTime)
+                .weekday(weekday)
+                .build();
+        return Course.builder()
+                .id(UUID.randomUUID())
+                .schedules(Set.of(schedule))
+                .build();
+    }
+
+    private Enrollment enrollment(final User student,
+                                  final Course course,
+                                  final EnrollmentStatus status) {
+        return Enrollment.builder()
+                .id(UUID.randomUUID())
+                .status(status)
+                .course(course)
+                .user(student)
+                .build();
+    }
+}
@@ -6,20 +6,16 @@ import com.ing.hubs.exception.security.NoTokenFoundException;
 import com.ing.hubs.model.entity.user.Role;
 import com.ing.hubs.model.entity.user.User;
 import com.ing.hubs.repository.UserRepository;
+import com.ing.hubs.security.JwtPrincipal;
 import com.ing.hubs.security.JwtProvider;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.junit.jupiter.params.ParameterizedTest;
-import org.junit.jupiter.params.provider.CsvFileSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 
-import javax.crypto.SecretKey;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -38,14 +34,6 @@ class SecurityServiceTest {
     @InjectMocks
     private SecurityService securityService;
 
-    private final String secret = "MKsSLgwpW/AtoZEeznJMrwAd+Jujrq4Tpjza+7kqBbI=";
-    private final SecretKey secretKey = this.createMockedSecretKey();
-
-    private SecretKey createMockedSecretKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(this.secret);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-
     @Test
     void shouldCallMethodsAndReturnJwtDtoWhenCreatingSession() {
         User user = User.builder()
@@ -66,26 +54,20 @@ class SecurityServiceTest {
         assertEquals(JwtDto.class, jwt.getClass());
     }
 
-    @ParameterizedTest
-    @CsvFileSource(resources = "/ExtractIdFromTokenData.csv")
-    void shouldExtractUserIdFromJwt(final String jwt,
-                                    final String id){
-        when(jwtProvider.getJwtKey()).thenReturn(secretKey);
-        assertEquals(UUID.fromString(id), this.securityService.extractUserIdFromToken(jwt));
-    }
+    @Test
+    void shouldExtractUserIdAndRoleFromPrincipal(){
+        final UUID id = UUID.randomUUID();
+        final JwtPrincipal principal = new JwtPrincipal(id, "username", Role.STUDENT);
 
-    @ParameterizedTest
-    @CsvFileSource(resources = "/ExtractRoleFromTokenData.csv")
-    void shouldExtractUserRoleFromJwt(final String jwt,
-                                      final String role){
-        when(jwtProvider.getJwtKey()).thenReturn(secretKey);
-        assertEquals(Role.valueOf(role), this.securityService.extractRoleFromToken(jwt));
+        assertEquals(id, this.securityService.extractUserId(principal));
+        assertEquals(Role.STUDENT, this.securityService.extractRole(principal));
+        verifyNoInteractions(jwtProvider);
     }
 
     @Test
-    void shouldThrowNoTokenFoundExWhenTokenIsEmptyOrNull(){
-        assertThrows(NoTokenFoundException.class, () -> this.securityService.checkIfTokenIsEmpty(null));
-        assertThrows(NoTokenFoundException.class, () -> this.securityService.checkIfTokenIsEmpty(""));
-        assertDoesNotThrow(() -> this.securityService.checkIfTokenIsEmpty("token"));
+    void shouldThrowNoTokenFoundExWhenPrincipalIsMissing(){
+        assertThrows(NoTokenFoundException.class, () -> this.securityService.extractUserId(null));
+        assertThrows(NoTokenFoundException.class, () -> this.securityService.extractRole(null));
+        assertDoesNotThrow(() -> this.securityService.checkIfPrincipalIsPresent(new JwtPrincipal(UUID.randomUUID(), "username", Role.TEACHER)));
     }
-}
\ No newline at end of file
+}
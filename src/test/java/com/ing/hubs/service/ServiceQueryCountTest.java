@@ -0,0 +1,425 @@
+package com.ing.hubs.service;
+
+import com.ing.hubs.dto.course.CourseDto;
+import com.ing.hubs.dto.course.CoursePatchDto;
+import com.ing.hubs.dto.course.CourseResponseDto;
+import com.ing.hubs.dto.enrollment.BulkGradeResponseDto;
+import com.ing.hubs.dto.enrollment.CartDto;
+import com.ing.hubs.dto.enrollment.CartFailureDto;
+import com.ing.hubs.dto.enrollment.CartResponseDto;
+import com.ing.hubs.dto.enrollment.EligibilityCheckDto;
+import com.ing.hubs.dto.enrollment.EligibilityDto;
+import com.ing.hubs.dto.enrollment.EligibilityReason;
+import com.ing.hubs.dto.enrollment.GradeEnrollmentDto;
+import com.ing.hubs.dto.enrollment.GradeEntryDto;
+import com.ing.hubs.dto.enrollment.UpdateEnrollmentStatusDto;
+import com.ing.hubs.dto.page.PageResponseDto;
+import com.ing.hubs.dto.schedule.ScheduleDto;
+import com.ing.hubs.dto.user.UserDto;
+import com.ing.hubs.dto.user.UserPatchDto;
+import com.ing.hubs.dto.user.UserSessionDto;
+import com.ing.hubs.model.entity.course.Course;
+import com.ing.hubs.model.entity.course.schedule.CourseType;
+import com.ing.hubs.model.entity.course.schedule.Schedule;
+import com.ing.hubs.model.entity.course.schedule.Weekday;
+import com.ing.hubs.model.entity.enrollment.Enrollment;
+import com.ing.hubs.model.entity.enrollment.EnrollmentStatus;
+import com.ing.hubs.model.entity.user.Gender;
+import com.ing.hubs.model.entity.user.Role;
+import com.ing.hubs.model.entity.user.User;
+import com.ing.hubs.repository.CourseRepository;
+import com.ing.hubs.repository.EnrollmentRepository;
+import com.ing.hubs.repository.UserRepository;
+import com.ing.hubs.security.JwtPrincipal;
+import com.ing.hubs.security.JwtProvider;
+import com.ing.hubs.service.catalog.CatalogEntry;
+import com.ing.hubs.service.catalog.CatalogJson;
+import com.ing.hubs.service.catalog.CourseCatalogService;
+import com.ing.hubs.service.conflict.CourseConflictGraph;
+import com.ing.hubs.service.enrollment.EnrollmentCartService;
+import com.ing.hubs.service.enrollment.EnrollmentEligibilityService;
+import com.ing.hubs.service.enrollment.EnrollmentProcessingService;
+import com.ing.hubs.service.enrollment.EnrollmentService;
+import com.ing.hubs.service.pagination.KeysetPage;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ServiceQueryCountTest {
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private JwtProvider jwtProvider;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private CourseService courseService;
+    @Autowired
+    private SecurityService securityService;
+    @Autowired
+    private EnrollmentService enrollmentService;
+    @Autowired
+    private EnrollmentProcessingService enrollmentProcessingService;
+    @Autowired
+    private CourseCatalogService courseCatalogService;
+    @Autowired
+    private EnrollmentCartService enrollmentCartService;
+    @Autowired
+    private CourseConflictGraph conflictGraph;
+    @Autowired
+    private EnrollmentEligibilityService enrollmentEligibilityService;
+
+    private Statistics statistics;
+    private User teacher;
+    private User student;
+    private JwtPrincipal teacherPrincipal;
+    private JwtPrincipal studentPrincipal;
+    private List<Course> courses;
+
+    @BeforeEach
+    void setup() {
+        this.statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        this.teacher = this.saveUser("teacher", "@poodle.com", Role.TEACHER);
+        this.student = this.saveUser("student", "@stud.poodle.com", Role.STUDENT);
+        this.teacherPrincipal = this.principalOf(this.teacher);
+        this.studentPrincipal = this.principalOf(this.student);
+
+        this.courses = List.of(
+                this.saveCourse(Weekday.MONDAY, LocalDate.now().plusDays(5)),
+                this.saveCourse(Weekday.TUESDAY, LocalDate.now().plusDays(5)),
+                this.saveCourse(Weekday.WEDNESDAY, LocalDate.now().plusDays(5)),
+                this.saveCourse(Weekday.THURSDAY, LocalDate.now().plusDays(5)));
+
+        this.saveEnrollment(this.courses.get(0), this.student, EnrollmentStatus.ACTIVE);
+        this.saveEnrollment(this.courses.get(1), this.student, EnrollmentStatus.APPROVED);
+        this.saveEnrollment(this.courses.get(2), this.student, EnrollmentStatus.PENDING);
+        for (int i = 0; i < 5; i++) {
+            final User otherStudent = this.saveUser("other", "@stud.poodle.com", Role.STUDENT);
+            this.saveEnrollment(this.courses.get(0), otherStudent, EnrollmentStatus.ACTIVE);
+            this.saveEnrollment(this.courses.get(2), otherStudent, EnrollmentStatus.PENDING);
+        }
+    }
+
+    @Test
+    void userServiceReadsUseOneQueryPerCall() {
+        assertQueries(1, () -> this.userService.findById(this.student.getId()));
+        assertQueries(1, () -> this.userService.findUserById(this.student.getId()));
+        assertQueries(1, () -> this.userService.findStudentWithTimetable(this.student.getId()));
+        assertQueries(1, () -> this.userService.findAllUsers(Role.TEACHER, null, null));
+    }
+
+    @Test
+    void userServiceWritesAreBounded() {
+        final int suffix = SEQUENCE.incrementAndGet();
+        final UserDto dto = new UserDto("Johnny", "Walker", Gender.MALE, LocalDate.now().minusYears(20),
+                "johnny" + suffix, "password123", "johnny.walker" + suffix + "@stud.poodle.com", "0712" + String.format("%06d", suffix));
+        assertQueries(4, () -> this.userService.createUser(dto));
+
+        final UserPatchDto patchDto = new UserPatchDto("Johnathan", null, null, null);
+        assertQueries(2, () -> this.userService.updateUser(this.studentPrincipal, patchDto));
+
+        final User teacherWithoutStudents = this.saveUser("lonely", "@poodle.com", Role.TEACHER);
+        this.saveCourse(Weekday.FRIDAY, LocalDate.now().plusDays(5), teacherWithoutStudents);
+        assertQueries(6, () -> this.userService.deleteById(this.principalOf(teacherWithoutStudents)));
+    }
+
+    @Test
+    void securityServiceCreateSessionUsesTwoQueries() {
+        final UserSessionDto dto = new UserSessionDto(this.student.getUsername(), "password123");
+        assertQueries(2, () -> this.securityService.createSession(dto));
+    }
+
+    @Test
+    void courseServiceReadsFetchSchedulesWithTheCourse() {
+        // a page of courses and one batch fetch of their schedules
+        assertQueries(2, () -> this.courseService.findAllCourses(null, null, null));
+        assertQueries(2, () -> this.courseService.findAllCourses(this.teacher.getId(), null, null));
+        assertQueries(1, () -> this.courseService.findById(this.courses.get(0).getId()));
+        assertQueries(1, () -> this.courseService.findCourseById(this.courses.get(0).getId()));
+    }
+
+    @Test
+    void courseServicePagesCostTheSameAtAnyDepth() {
+        final List<UUID> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            final String current = cursor;
+            this.statistics.clear();
+            final PageResponseDto<CourseResponseDto> page = this.courseService.findAllCourses(this.teacher.getId(), current, 1);
+            assertTrue(this.statistics.getPrepareStatementCount() <= 2);
+            page.getItems().forEach(course -> paged.add(course.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(this.courses.stream().map(Course::getId).toList(), paged);
+    }
+
+    @Test
+    void courseCatalogHitsDoNotTouchTheDatabase() {
+        final Course course = this.courses.get(3);
+        final String etag = this.courseCatalogService.findCourse(course.getId()).etag();
+        this.courseCatalogService.findPage(this.teacher.getId(), null, null);
+
+        assertQueries(0, () -> this.courseCatalogService.findCourse(course.getId()));
+        assertQueries(0, () -> this.courseCatalogService.findPage(this.teacher.getId(), null, null));
+
+        this.courseService.updateCourse(course.getId(), new CoursePatchDto(null, "changed", null, null), this.teacherPrincipal);
+
+        final CatalogEntry<CatalogJson> reloaded = this.courseCatalogService.findCourse(course.getId());
+        assertNotEquals(etag, reloaded.etag());
+        assertTrue(this.json(reloaded.value()).contains("\"description\":\"changed\""));
+        assertTrue(this.json(this.courseCatalogService.findPage(this.teacher.getId(), null, null).value())
+                .contains("\"description\":\"changed\""));
+    }
+
+    @Test
+    void courseServiceWritesAreBounded() {
+        final int suffix = SEQUENCE.incrementAndGet();
+        final CourseDto dto = new CourseDto("Course " + suffix, "description", 20, 5,
+                LocalDate.now().plusDays(2), LocalDate.now().plusDays(40),
+                Set.of(new ScheduleDto(CourseType.COURSE, LocalTime.of(10, 0), LocalTime.of(12, 0), Weekday.MONDAY),
+                        new ScheduleDto(CourseType.LAB, LocalTime.of(12, 0), LocalTime.of(14, 0), Weekday.MONDAY)));
+        assertQueries(6, () -> this.courseService.createCourse(dto, this.teacherPrincipal));
+
+        final CoursePatchDto patchDto = new CoursePatchDto(null, "new description", null, null);
+        assertQueries(3, () -> this.courseService.updateCourse(this.courses.get(3).getId(), patchDto, this.teacherPrincipal));
+
+        assertQueries(6, () -> this.courseService.deleteById(this.courses.get(3).getId(), this.teacherPrincipal));
+    }
+
+    @Test
+    void enrollmentServiceReadsDoNotDependOnEnrollmentCount() {
+        assertQueries(3, () -> this.enrollmentService.streamAll(null, this.studentPrincipal, dto -> {}));
+        assertQueries(3, () -> this.enrollmentService.streamAll(EnrollmentStatus.ACTIVE, this.studentPrincipal, dto -> {}));
+        assertQueries(3, () -> this.enrollmentService.streamAll(null, this.teacherPrincipal, dto -> {}));
+        assertQueries(3, () -> this.enrollmentService.streamAll(EnrollmentStatus.PENDING, this.teacherPrincipal, dto -> {}));
+        assertQueries(1, () -> this.enrollmentService.viewGrades(this.studentPrincipal));
+        assertQueries(1, () -> this.enrollmentService.findStudentsActiveSchedules(this.studentPrincipal));
+        assertQueries(2, () -> this.enrollmentService.streamAllEnrollmentsByCourse(this.courses.get(0).getId(), this.teacherPrincipal, dto -> {}));
+        assertQueries(1, () -> this.enrollmentService.findEnrollmentsByStatus(EnrollmentStatus.PENDING));
+    }
+
+    @Test
+    void fittingCoursesAreCheckedInMemoryAndReadOnePageAtATime() {
+        final Course mondayClash = this.saveCourse(Weekday.MONDAY, LocalDate.now().plusDays(5));
+        final Course started = this.saveCourse(Weekday.FRIDAY, LocalDate.now());
+        final Course friday = this.saveCourse(Weekday.FRIDAY, LocalDate.now().plusDays(5));
+        this.conflictGraph.rebuild();
+        // saved without an event, as if on another node
+        final Course createdElsewhere = this.saveCourse(Weekday.FRIDAY, LocalDate.now().plusDays(5));
+
+        final List<UUID> fitting = new ArrayList<>();
+        String cursor = null;
+        do {
+            final String pageCursor = cursor;
+            final PageResponseDto<CourseResponseDto> page = this.courseService.findFittingCourses(this.studentPrincipal, pageCursor, KeysetPage.MAX_SIZE);
+            if (pageCursor == null) {
+                assertQueries(3, () -> this.courseService.findFittingCourses(this.studentPrincipal, pageCursor, KeysetPage.MAX_SIZE));
+            }
+            page.getItems().forEach(course -> fitting.add(course.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertTrue(fitting.containsAll(List.of(this.courses.get(3).getId(), friday.getId(), createdElsewhere.getId())));
+        assertTrue(this.courses.subList(0, 3).stream().map(Course::getId).noneMatch(fitting::contains));
+        assertFalse(fitting.contains(mondayClash.getId()));
+        assertFalse(fitting.contains(started.getId()));
+        assertEquals(fitting.stream().sorted(KeysetPage.ORDER).toList(), fitting);
+    }
+
+    @Test
+    void enrollmentServiceCreateEnrollmentIsBounded() {
+        final Course course = this.saveCourse(Weekday.FRIDAY, LocalDate.now().plusDays(5));
+        assertQueries(4, () -> this.enrollmentService.createEnrollment(course.getId(), this.studentPrincipal));
+    }
+
+    @Test
+    void cartSubmissionReadsOnceAndInsertsInOneBatch() {
+        final List<UUID> courseIds = List.of(
+                this.saveCourse(Weekday.FRIDAY, LocalDate.now().plusDays(5)).getId(),
+                this.saveCourse(Weekday.WEDNESDAY, LocalDate.now().plusDays(5)).getId(),
+                this.courses.get(3).getId());
+        final CartResponseDto[] response = new CartResponseDto[1];
+
+        assertQueries(3, () -> response[0] = this.enrollmentCartService.submit(new CartDto(courseIds), this.studentPrincipal));
+
+        assertTrue(response[0].isSubmitted());
+        assertEquals(3, response[0].getEnrollments().size());
+        assertEquals(6, this.enrollmentRepository.findAllByUserId(this.student.getId()).size());
+    }
+
+    @Test
+    void rejectedCartCreatesNoEnrollments() {
+        final List<UUID> courseIds = List.of(
+                this.saveCourse(Weekday.FRIDAY, LocalDate.now().plusDays(5)).getId(),
+                this.saveCourse(Weekday.FRIDAY, LocalDate.now().plusDays(5)).getId(),
+                this.courses.get(0).getId());
+
+        final CartResponseDto response = this.enrollmentCartService.submit(new CartDto(courseIds), this.studentPrincipal);
+
+        assertFalse(response.isSubmitted());
+        assertEquals(List.of(courseIds.get(1), courseIds.get(2)),
+                response.getFailures().stream().map(CartFailureDto::getCourseId).toList());
+        assertEquals(3, this.enrollmentRepository.findAllByUserId(this.student.getId()).size());
+    }
+
+    @Test
+    void eligibilityOfManyCoursesIsCheckedWithTwoQueries() {
+        final List<UUID> courseIds = new ArrayList<>(this.courses.stream().map(Course::getId).toList());
+        courseIds.add(this.saveCourse(Weekday.MONDAY, LocalDate.now().plusDays(5)).getId());
+        courseIds.add(this.saveCourse(Weekday.FRIDAY, LocalDate.now()).getId());
+        for (int i = 0; i < 20; i++) {
+            courseIds.add(this.saveCourse(Weekday.FRIDAY, LocalDate.now().plusDays(5)).getId());
+        }
+        final List<EligibilityDto> eligibilities = new ArrayList<>();
+
+        assertQueries(2, () -> eligibilities.addAll(this.enrollmentEligibilityService.check(new EligibilityCheckDto(courseIds), this.studentPrincipal)));
+
+        assertEquals(courseIds, eligibilities.stream().map(EligibilityDto::getCourseId).toList());
+        assertEquals(Arrays.asList(EligibilityReason.ALREADY_ENROLLED, EligibilityReason.ALREADY_ENROLLED,
+                        EligibilityReason.ALREADY_ENROLLED, null, EligibilityReason.SCHEDULE_OVERLAP, EligibilityReason.ENROLLMENT_PERIOD_PASSED),
+                eligibilities.subList(0, 6).stream().map(EligibilityDto::getReason).toList());
+        assertEquals(this.courses.get(0).getId(), eligibilities.get(4).getConflictingCourseId());
+        assertTrue(eligibilities.subList(6, courseIds.size()).stream().allMatch(EligibilityDto::isEligible));
+    }
+
+    @Test
+    void enrollmentProcessingServiceIsBounded() {
+        final Enrollment pending = this.enrollmentRepository.findAllByUserIdAndStatus(this.student.getId(), EnrollmentStatus.PENDING).get(0);
+        assertQueries(6, () -> this.enrollmentProcessingService.updateEnrollmentStatus(
+                pending.getId(), new UpdateEnrollmentStatusDto(EnrollmentStatus.APPROVED), this.teacherPrincipal));
+
+        final Enrollment active = this.enrollmentRepository.findAllByUserIdAndStatus(this.student.getId(), EnrollmentStatus.ACTIVE).get(0);
+        assertQueries(2, () -> this.enrollmentProcessingService.gradeEnrollment(
+                active.getId(), new GradeEnrollmentDto(9), this.teacherPrincipal));
+    }
+
+    @Test
+    void bulkGradingReadsTheBatchWithOneQuery() {
+        final List<GradeEntryDto> grades = this.enrollmentRepository.findAllByCourseId(this.courses.get(0).getId()).stream()
+                .filter(enrollment -> enrollment.getStatus() == EnrollmentStatus.ACTIVE)
+                .map(enrollment -> new GradeEntryDto(enrollment.getId(), 8))
+                .toList();
+        final BulkGradeResponseDto[] response = new BulkGradeResponseDto[1];
+
+        // the grades themselves go through one JDBC batch, which Hibernate does not count
+        assertQueries(1, () -> response[0] = this.enrollmentProcessingService.gradeEnrollments(grades, this.teacherPrincipal));
+
+        assertEquals(6, response[0].getGraded());
+        assertTrue(this.enrollmentRepository.findAllByCourseId(this.courses.get(0).getId()).stream()
+                .filter(enrollment -> enrollment.getStatus() == EnrollmentStatus.ACTIVE)
+                .allMatch(enrollment -> enrollment.getGrade() == 8));
+        assertEquals(0, this.enrollmentProcessingService.gradeEnrollments(grades, this.teacherPrincipal).getGraded());
+    }
+
+    private void assertQueries(final long maxStatements, final Runnable action) {
+        this.statistics.clear();
+        action.run();
+        final long executed = this.statistics.getPrepareStatementCount();
+        assertTrue(executed <= maxStatements,
+                String.format("Expected at most %d statements but %d were executed", maxStatements, executed));
+    }
+
+    private String json(final CatalogJson json) {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try {
+            json.writeTo(outputStream);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return outputStream.toString(StandardCharsets.UTF_8);
+    }
+
+    private JwtPrincipal principalOf(final User user) {
+        return this.jwtProvider.parsePrincipal(this.jwtProvider.generateJwt(user));
+    }
+
+    private User saveUser(final String name, final String domain, final Role role) {
+        final int suffix = SEQUENCE.incrementAndGet();
+        return this.userRepository.save(User.builder()
+                .firstName(name)
+                .lastName(name)
+                .gender(Gender.FEMALE)
+                .dateOfBirth(LocalDate.now().minusYears(25))
+                .username(name + suffix)
+                .password(this.passwordEncoder.encode("password123"))
+                .role(role)
+                .email(name + "." + name + suffix + domain)
+                .phoneNumber("07" + String.format("%08d", suffix))
+                .build());
+    }
+
+    private Course saveCourse(final Weekday weekday, final LocalDate startDate) {
+        return this.saveCourse(weekday, startDate, this.teacher);
+    }
+
+    private Course saveCourse(final Weekday weekday, final LocalDate startDate, final User owner) {
+        final Course course = Course.builder()
+                .courseName("Course " + SEQUENCE.incrementAndGet())
+                .description("description")
+                .capacity(50)
+                .credits(5)
+                .startDate(startDate)
+                .endDate(startDate.plusDays(60))
+                .build();
+        final Set<Schedule> schedules = new HashSet<>();
+        schedules.add(Schedule.builder()
+                .courseType(CourseType.COURSE)
+                .weekday(weekday)
+                .startTime(LocalTime.of(8, 0))
+                .endTime(LocalTime.of(10, 0))
+                .build());
+        course.addSchedules(schedules);
+        return this.transactionTemplate.execute(status -> {
+            course.setUser(this.userRepository.getReferenceById(owner.getId()));
+            return this.courseRepository.save(course);
+        });
+    }
+
+    private void saveEnrollment(final Course course, final User user, final EnrollmentStatus status) {
+        this.transactionTemplate.executeWithoutResult(transactionStatus ->
+                this.enrollmentRepository.save(Enrollment.builder()
+                        .course(this.courseRepository.getReferenceById(course.getId()))
+                        .user(this.userRepository.getReferenceById(user.getId()))
+                        .status(status)
+                        .build()));
+    }
+}
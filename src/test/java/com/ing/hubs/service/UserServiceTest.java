@@ -1,6 +1,7 @@
 package com.ing.hubs.service;
 
 import com.ing.hubs.configuration.Constant;
+import com.ing.hubs.dto.page.PageResponseDto;
 import com.ing.hubs.dto.user.UserDto;
 import com.ing.hubs.dto.user.UserPatchDto;
 import com.ing.hubs.dto.user.UserResponseDto;
@@ -9,6 +10,7 @@ import com.ing.hubs.exception.EntityNotFoundException;
 import com.ing.hubs.exception.user.InvalidEmailException;
 import com.ing.hubs.exception.CouldNotDeleteEntityException;
 import com.ing.hubs.exception.user.InvalidDateOfBirthException;
+import com.ing.hubs.mapper.UserMapper;
 import com.ing.hubs.model.entity.course.Course;
 import com.ing.hubs.model.entity.enrollment.Enrollment;
 import com.ing.hubs.model.entity.enrollment.EnrollmentStatus;
@@ -16,6 +18,11 @@ import com.ing.hubs.model.entity.user.Gender;
 import com.ing.hubs.model.entity.user.Role;
 import com.ing.hubs.model.entity.user.User;
 import com.ing.hubs.repository.UserRepository;
+import com.ing.hubs.security.JwtPrincipal;
+import com.ing.hubs.service.catalog.CourseCatalogChangedEvent;
+import com.ing.hubs.service.conflict.CourseScheduleChangedEvent;
+import com.ing.hubs.service.stream.CursorReader;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -24,19 +31,22 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
 import org.springframework.boot.test.system.CapturedOutput;
 import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.stream.IntStream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -47,14 +57,23 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
     @Spy
-    private ModelMapper modelMapper;
+    private UserMapper userMapper = new UserMapper();
     @Mock
     private PasswordEncoder passwordEncoder;
     @Mock
     private SecurityService securityService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager = mock(EntityManager.class);
+    @Spy
+    private CursorReader cursorReader = new CursorReader(entityManager);
+    @Mock
+    private ScheduleService scheduleService;
     @InjectMocks
     private UserService userService;
 
+    private final JwtPrincipal principal = new JwtPrincipal(UUID.randomUUID(), "username", Role.STUDENT);
+
 
     @Nested
     class CreateUserTests {
@@ -111,8 +130,8 @@ class UserServiceTest {
         void shouldMapUserDtoToUserAndUserToResponseDto() {
             final UserResponseDto responseDto = userService.createUser(userDto);
 
-            verify(modelMapper, times(1)).map(any(User.class), eq(UserResponseDto.class));
-            verify(modelMapper, times(1)).map(any(UserDto.class), eq(User.class));
+            verify(userMapper, times(1)).toResponse(any(User.class));
+            verify(userMapper, times(1)).toEntity(any(UserDto.class));
             assertEquals(UserResponseDto.class, userService.createUser(this.userDto).getClass());
         }
 
@@ -187,7 +206,7 @@ class UserServiceTest {
 
     @Nested
     class TeacherDeletionTests {
-        private final String jwtToken = "validToken";
+        private final JwtPrincipal principal = new JwtPrincipal(UUID.randomUUID(), "validUser", Role.TEACHER);
         private User user = User
                 .builder()
                 .id(UUID.randomUUID())
@@ -212,10 +231,10 @@ class UserServiceTest {
 
             user.addCourse(course);
 
-            when(securityService.extractUserIdFromToken(jwtToken)).thenReturn(user.getId());
-            when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+            when(securityService.extractUserId(principal)).thenReturn(user.getId());
+            when(userRepository.findWithCourseEnrollmentsById(user.getId())).thenReturn(Optional.of(user));
 
-            CouldNotDeleteEntityException exception = assertThrows(CouldNotDeleteEntityException.class, () -> userService.deleteById(jwtToken));
+            CouldNotDeleteEntityException exception = assertThrows(CouldNotDeleteEntityException.class, () -> userService.deleteById(principal));
             assertThat(exception.getMessage(), containsString("Students are enrolled in teachers courses"));
         }
 
@@ -232,10 +251,10 @@ class UserServiceTest {
 
             user.addCourse(course);
 
-            when(securityService.extractUserIdFromToken(jwtToken)).thenReturn(user.getId());
-            when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+            when(securityService.extractUserId(principal)).thenReturn(user.getId());
+            when(userRepository.findWithCourseEnrollmentsById(user.getId())).thenReturn(Optional.of(user));
 
-            CouldNotDeleteEntityException exception = assertThrows(CouldNotDeleteEntityException.class, () -> userService.deleteById(jwtToken));
+            CouldNotDeleteEntityException exception = assertThrows(CouldNotDeleteEntityException.class, () -> userService.deleteById(principal));
             assertThat(exception.getMessage(), containsString("Students are enrolled in teachers courses"));
         }
     }
@@ -299,57 +318,82 @@ class UserServiceTest {
     }
 
     @Test
-    void shouldReturnAllUsersWhenArgumentIsNull() {
-        when(userRepository.findAll()).thenReturn(List.of(new User(), new User()));
+    void shouldReturnFirstPageOfUsersWhenArgumentIsNull() {
+        when(userRepository.findPageAfter(eq(new UUID(0, 0)), any())).thenReturn(List.of(new User(), new User()));
 
-        final List<UserResponseDto> result = userService.findAllUsers(null);
+        final PageResponseDto<UserResponseDto> result = userService.findAllUsers(null, null, null);
 
-        verify(userRepository, times(1)).findAll();
-        assertEquals(2, result.size());
+        verify(userRepository, never()).findAll();
+        assertEquals(2, result.getItems().size());
+        assertNull(result.getNextCursor());
     }
 
     @Test
-    void shouldFilterUsersWhenArgumentIsNotNull() {
+    void shouldFilterUsersByRoleInTheQuery() {
         final User user1 = User.builder()
+                .id(UUID.randomUUID())
                 .role(Role.TEACHER)
                 .build();
         final User user2 = User.builder()
-                .role(Role.STUDENT)
+                .id(UUID.randomUUID())
+                .role(Role.TEACHER)
                 .build();
 
-        final UserResponseDto responseDto1 = new UserResponseDto();
-        final UserResponseDto responseDto2 = new UserResponseDto();
+        when(userRepository.findPageByRoleAfter(eq(Role.TEACHER), eq(new UUID(0, 0)), any())).thenReturn(List.of(user1, user2));
+
+        final PageResponseDto<UserResponseDto> result = userService.findAllUsers(Role.TEACHER, null, 1);
 
-        responseDto1.setRole(Role.TEACHER);
-        responseDto2.setRole(Role.STUDENT);
+        verify(userRepository, never()).findPageAfter(any(), any());
+        assertEquals(1, result.getItems().size());
+        assertEquals(Role.TEACHER, result.getItems().get(0).getRole());
+        assertNotNull(result.getNextCursor());
+    }
 
-        when(userRepository.findAll()).thenReturn(List.of(user1, user2));
+    @Test
+    void shouldExportUsersOfARoleAndClearThePersistenceContextAfterEachFetch() {
+        final int count = 2 * Constant.STREAM_FETCH_SIZE + 1;
+        when(userRepository.streamAllByRole(Role.STUDENT)).thenReturn(IntStream.range(0, count)
+                .mapToObj(i -> User.builder().id(UUID.randomUUID()).role(Role.STUDENT).build()));
 
-        final List<UserResponseDto> result = userService.findAllUsers(Role.TEACHER);
+        final List<UserResponseDto> result = new ArrayList<>();
+        userService.exportUsers(Role.STUDENT, result::add);
 
-        assertEquals(1, result.size());
+        verify(userRepository, never()).streamAll();
+        verify(entityManager, times(2)).clear();
+        assertEquals(count, result.size());
     }
 
     @Test
     void shouldDeleteUserWhenUserIsInDb() {
         final UUID id = UUID.randomUUID();
 
-        when(securityService.extractUserIdFromToken(anyString())).thenReturn(id);
-        when(userRepository.findById(id)).thenReturn(Optional.of(new User()));
+        final User teacher = new User();
+        final Course course = Course.builder().id(UUID.randomUUID()).courseName("Java").build();
+        final Course otherCourse = Course.builder().id(UUID.randomUUID()).courseName("Kotlin").build();
+        teacher.addCourse(course);
+        teacher.addCourse(otherCourse);
+
+        when(securityService.extractUserId(any())).thenReturn(id);
+        when(userRepository.findWithCourseEnrollmentsById(id)).thenReturn(Optional.of(teacher));
 
-        userService.deleteById(anyString());
+        userService.deleteById(principal);
 
         verify(userRepository, times(1)).deleteById(id);
+        for (Course removed : List.of(course, otherCourse)) {
+            verify(scheduleService).evictCourseSlots(removed.getId());
+            verify(eventPublisher).publishEvent(CourseScheduleChangedEvent.removed(removed.getId()));
+            verify(eventPublisher).publishEvent(new CourseCatalogChangedEvent(removed.getId()));
+        }
     }
 
     @Test
     void shouldExtractIdFromJwtWhenUpdatingUser() {
-        when(securityService.extractUserIdFromToken(anyString())).thenReturn(UUID.randomUUID());
+        when(securityService.extractUserId(any())).thenReturn(UUID.randomUUID());
         when(userRepository.findById(any(UUID.class))).thenReturn(Optional.of(new User()));
 
-        userService.updateUser(anyString(), new UserPatchDto());
+        userService.updateUser(principal, new UserPatchDto());
 
-        verify(securityService, times(1)).extractUserIdFromToken(anyString());
+        verify(securityService, times(1)).extractUserId(any());
     }
 
     @Test
@@ -358,11 +402,11 @@ class UserServiceTest {
         patchDto.setPhoneNumber("existingPhoneNumber");
         final UUID id = UUID.randomUUID();
 
-        when(securityService.extractUserIdFromToken(anyString())).thenReturn(id);
+        when(securityService.extractUserId(any())).thenReturn(id);
         when(userRepository.findById(any(UUID.class))).thenReturn(Optional.of(new User()));
         when(userRepository.existsByPhoneNumber("existingPhoneNumber")).thenReturn(true);
 
-        DuplicateDataException exception =  assertThrows(DuplicateDataException.class, () -> userService.updateUser(anyString(), patchDto));
+        DuplicateDataException exception =  assertThrows(DuplicateDataException.class, () -> userService.updateUser(principal, patchDto));
         verify(userRepository, never()).save(any());
         assertThat(exception.getMessage(),containsString("The phone number you entered already exists"));
     }
@@ -372,10 +416,10 @@ class UserServiceTest {
         final UserPatchDto patchDto = new UserPatchDto();
         patchDto.setPassword("password");
 
-        when(securityService.extractUserIdFromToken(anyString())).thenReturn(UUID.randomUUID());
+        when(securityService.extractUserId(any())).thenReturn(UUID.randomUUID());
         when(userRepository.findById(any(UUID.class))).thenReturn(Optional.of(new User()));
 
-        userService.updateUser(anyString(), patchDto);
+        userService.updateUser(principal, patchDto);
 
         verify(passwordEncoder, times(1)).encode(anyString());
     }
@@ -0,0 +1,187 @@
+package com.ing.hubs.service.catalog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ing.hubs.configuration.JacksonConfiguration;
+import com.ing.hubs.dto.course.CourseResponseDto;
+import com.ing.hubs.dto.page.PageResponseDto;
+import com.ing.hubs.fixture.MutableClock;
+import com.ing.hubs.service.CourseService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CourseCatalogServiceTest {
+    private static final ObjectMapper OBJECT_MAPPER = new JacksonConfiguration().objectMapper();
+    private static final Instant START = Instant.parse("2024-03-10T08:00:00Z");
+    private static final Duration TTL = Duration.ofSeconds(5);
+
+    @Mock
+    private CourseService courseService;
+
+    private MutableClock clock;
+    private CourseCatalogService courseCatalogService;
+    private final UUID courseId = UUID.randomUUID();
+
+    @BeforeEach
+    void setup() {
+        this.clock = new MutableClock(START);
+        this.courseCatalogService = new CourseCatalogService(this.courseService, OBJECT_MAPPER, this.clock, TTL);
+    }
+
+    @Test
+    void shouldServeRepeatedReadsFromMemoryWithTheSameTag() throws IOException {
+        final CourseResponseDto course = course(this.courseId);
+        when(this.courseService.findById(this.courseId)).thenReturn(course);
+
+        final CatalogEntry<CatalogJson> first = this.courseCatalogService.findCourse(this.courseId);
+        final CatalogEntry<CatalogJson> second = this.courseCatalogService.findCourse(this.courseId);
+
+        verify(this.courseService, times(1)).findById(this.courseId);
+        assertArrayEquals(OBJECT_MAPPER.writeValueAsBytes(course), bytes(second.value()));
+        assertEquals(first.etag(), second.etag());
+        assertTrue(first.etag().startsWith("\"") && first.etag().endsWith("\""));
+    }
+
+    @Test
+    void shouldReloadAndRetagOnlyTheChangedCourse() {
+        final UUID otherId = UUID.randomUUID();
+        final CourseResponseDto changed = course(this.courseId);
+        changed.setDescription("changed");
+        when(this.courseService.findById(this.courseId)).thenReturn(course(this.courseId)).thenReturn(changed);
+        when(this.courseService.findById(otherId)).thenReturn(course(otherId));
+
+        final String before = this.courseCatalogService.findCourse(this.courseId).etag();
+        final String other = this.courseCatalogService.findCourse(otherId).etag();
+        this.courseCatalogService.onCourseCatalogChanged(new CourseCatalogChangedEvent(this.courseId));
+
+        assertNotEquals(before, this.courseCatalogService.findCourse(this.courseId).etag());
+        assertEquals(other, this.courseCatalogService.findCourse(otherId).etag());
+        verify(this.courseService, times(2)).findById(this.courseId);
+        verify(this.courseService, times(1)).findById(otherId);
+    }
+
+    @Test
+    void shouldReuseTheFragmentsOfUnchangedCoursesWhenRebuildingAPage() throws IOException {
+        final UUID otherId = UUID.randomUUID();
+        final CourseResponseDto course = course(this.courseId);
+        final CourseResponseDto other = course(otherId);
+        final PageResponseDto<CourseResponseDto> page = new PageResponseDto<>(List.of(course, other), "cursor");
+        when(this.courseService.findAllCourses(null, null, 2)).thenReturn(page);
+
+        this.courseCatalogService.findPage(null, null, 2);
+        other.setDescription("changed after it was cached");
+        this.courseCatalogService.onCourseCatalogChanged(new CourseCatalogChangedEvent(this.courseId));
+        course.setDescription("changed");
+
+        final CatalogJson rebuilt = this.courseCatalogService.findPage(null, null, 2).value();
+
+        other.setDescription("description");
+        assertArrayEquals(OBJECT_MAPPER.writeValueAsBytes(page), bytes(rebuilt));
+        verify(this.courseService, never()).findById(any());
+    }
+
+    @Test
+    void shouldDropEveryPageOnAnyChange() {
+        when(this.courseService.findAllCourses(null, null, 10))
+                .thenReturn(new PageResponseDto<>(List.of(), null))
+                .thenReturn(new PageResponseDto<>(List.of(course(this.courseId)), null));
+
+        final String before = this.courseCatalogService.findPage(null, null, 10).etag();
+        assertEquals(before, this.courseCatalogService.findPage(null, null, 10).etag());
+        this.courseCatalogService.onCourseCatalogChanged(new CourseCatalogChangedEvent(UUID.randomUUID()));
+
+        assertNotEquals(before, this.courseCatalogService.findPage(null, null, 10).etag());
+        verify(this.courseService, times(2)).findAllCourses(null, null, 10);
+    }
+
+    @Test
+    void shouldNotKeepAnEntryLoadedWhileTheCourseChanged() {
+        when(this.courseService.findById(this.courseId)).thenAnswer(invocation -> {
+            this.courseCatalogService.onCourseCatalogChanged(new CourseCatalogChangedEvent(this.courseId));
+            return new CourseResponseDto();
+        });
+
+        this.courseCatalogService.findCourse(this.courseId);
+        this.courseCatalogService.findCourse(this.courseId);
+
+        verify(this.courseService, times(2)).findById(this.courseId);
+    }
+
+    @Test
+    void shouldReloadEntriesOnceTheyExpire() throws IOException {
+        final CourseResponseDto changedElsewhere = course(this.courseId);
+        changedElsewhere.setDescription("changed on another node");
+        when(this.courseService.findById(this.courseId)).thenReturn(course(this.courseId)).thenReturn(changedElsewhere);
+        when(this.courseService.findAllCourses(null, null, 1))
+                .thenReturn(new PageResponseDto<>(List.of(course(this.courseId)), null))
+                .thenReturn(new PageResponseDto<>(List.of(changedElsewhere), null));
+
+        final String course = this.courseCatalogService.findCourse(this.courseId).etag();
+        final String page = this.courseCatalogService.findPage(null, null, 1).etag();
+        this.clock.advance(TTL.minusMillis(1));
+        assertEquals(course, this.courseCatalogService.findCourse(this.courseId).etag());
+        assertEquals(page, this.courseCatalogService.findPage(null, null, 1).etag());
+
+        this.clock.advance(Duration.ofMillis(1));
+        final CatalogEntry<CatalogJson> reloaded = this.courseCatalogService.findCourse(this.courseId);
+        final CatalogEntry<CatalogJson> reloadedPage = this.courseCatalogService.findPage(null, null, 1);
+
+        assertNotEquals(course, reloaded.etag());
+        assertNotEquals(page, reloadedPage.etag());
+        assertArrayEquals(OBJECT_MAPPER.writeValueAsBytes(changedElsewhere), bytes(reloaded.value()));
+        assertArrayEquals(OBJECT_MAPPER.writeValueAsBytes(new PageResponseDto<>(List.of(changedElsewhere), null)), bytes(reloadedPage.value()));
+        verify(this.courseService, times(2)).findById(this.courseId);
+        verify(this.courseService, times(2)).findAllCourses(null, null, 1);
+    }
+
+    @Test
+    void shouldTagTheSameContentAlikeOnEveryNode() {
+        final CourseCatalogService otherNode = new CourseCatalogService(this.courseService, OBJECT_MAPPER,
+                new MutableClock(START.plus(Duration.ofDays(3))), TTL);
+        when(this.courseService.findById(this.courseId)).thenReturn(course(this.courseId));
+        when(this.courseService.findAllCourses(null, null, 1)).thenReturn(new PageResponseDto<>(List.of(course(this.courseId)), "cursor"));
+
+        assertEquals(this.courseCatalogService.findCourse(this.courseId).etag(), otherNode.findCourse(this.courseId).etag());
+        assertEquals(this.courseCatalogService.findPage(null, null, 1).etag(), otherNode.findPage(null, null, 1).etag());
+    }
+
+    private static CourseResponseDto course(final UUID id) {
+        return new CourseResponseDto(id, "Course " + id, "description", 100, 10, 5,
+                LocalDate.of(2024, 10, 1), LocalDate.of(2025, 1, 31), Set.of());
+    }
+
+    private static byte[] bytes(final CatalogJson json) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        json.writeTo(outputStream);
+        assertEquals(json.length(), outputStream.size());
+        return outputStream.toByteArray();
+    }
+
+    @Test
+    void shouldStopCachingNewPagesPastTheLimit() {
+        when(this.courseService.findAllCourses(any(), any(), any())).thenReturn(new PageResponseDto<>(List.of(), null));
+        for (int i = 0; i < CourseCatalogService.MAX_CACHED_PAGES; i++) {
+            this.courseCatalogService.findPage(null, null, 1 + i);
+        }
+
+        this.courseCatalogService.findPage(UUID.randomUUID(), null, 1);
+        this.courseCatalogService.findPage(null, null, 1);
+
+        verify(this.courseService, times(CourseCatalogService.MAX_CACHED_PAGES + 1)).findAllCourses(any(), any(), any());
+    }
+}
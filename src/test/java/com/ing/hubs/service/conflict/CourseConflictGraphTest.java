@@ -0,0 +1,149 @@
+package com.ing.hubs.service.conflict;
+
+import com.ing.hubs.model.entity.course.Course;
+import com.ing.hubs.model.entity.course.schedule.CourseType;
+import com.ing.hubs.model.entity.course.schedule.Schedule;
+import com.ing.hubs.model.entity.course.schedule.Weekday;
+import com.ing.hubs.repository.CourseRepository;
+import com.ing.hubs.service.pagination.KeysetPage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CourseConflictGraphTest {
+    @Mock
+    private CourseRepository courseRepository;
+    @InjectMocks
+    private CourseConflictGraph conflictGraph;
+
+    private Course mondayMorning;
+    private Course mondayNoon;
+    private Course mondayAfternoon;
+    private Course tuesday;
+
+    @BeforeEach
+    void setup() {
+        this.mondayMorning = this.course(this.schedule(Weekday.MONDAY, LocalTime.of(10, 0), LocalTime.of(12, 0)));
+        this.mondayNoon = this.course(this.schedule(Weekday.MONDAY, LocalTime.of(11, 0), LocalTime.of(13, 0)));
+        this.mondayAfternoon = this.course(this.schedule(Weekday.MONDAY, LocalTime.of(12, 0), LocalTime.of(14, 0)));
+        this.tuesday = this.course(this.schedule(Weekday.TUESDAY, LocalTime.of(10, 0), LocalTime.of(12, 0)));
+
+        when(courseRepository.findAll()).thenReturn(List.of(this.mondayMorning, this.mondayNoon, this.mondayAfternoon, this.tuesday));
+        this.conflictGraph.rebuild();
+    }
+
+    @Test
+    void shouldLinkOverlappingCoursesBothWays() {
+        assertEquals(Set.of(this.mondayNoon.getId()), this.conflictGraph.conflictsOf(this.mondayMorning));
+        assertEquals(Set.of(this.mondayMorning.getId(), this.mondayAfternoon.getId()), this.conflictGraph.conflictsOf(this.mondayNoon));
+        assertEquals(Set.of(), this.conflictGraph.conflictsOf(this.tuesday));
+    }
+
+    @Test
+    void shouldNotLinkBackToBackCourses() {
+        assertFalse(this.conflictGraph.conflictsOf(this.mondayMorning).contains(this.mondayAfternoon.getId()));
+        assertFalse(this.conflictGraph.conflictsWithAny(this.mondayAfternoon, List.of(this.mondayMorning, this.tuesday)));
+        assertTrue(this.conflictGraph.conflictsWithAny(this.mondayAfternoon, List.of(this.tuesday, this.mondayNoon)));
+        assertFalse(this.conflictGraph.conflicts(this.mondayMorning, this.mondayAfternoon));
+    }
+
+    @Test
+    void shouldFollowCreatedAndDeletedCourses() {
+        final Course offTheGrid = this.course(this.schedule(Weekday.MONDAY, LocalTime.of(9, 15), LocalTime.of(10, 5)));
+        this.conflictGraph.onCourseScheduleChanged(CourseScheduleChangedEvent.of(offTheGrid));
+        this.conflictGraph.onCourseScheduleChanged(CourseScheduleChangedEvent.removed(this.mondayNoon.getId()));
+
+        assertEquals(Set.of(offTheGrid.getId()), this.conflictGraph.conflictsOf(this.mondayMorning));
+        assertEquals(Set.of(), this.conflictGraph.conflictsOf(this.mondayAfternoon));
+
+        // takes over the index of the deleted course, without inheriting its conflicts
+        final Course tuesdayToo = this.course(this.schedule(Weekday.TUESDAY, LocalTime.of(11, 30), LocalTime.of(12, 30)));
+        this.conflictGraph.onCourseScheduleChanged(CourseScheduleChangedEvent.of(tuesdayToo));
+
+        assertEquals(Set.of(this.tuesday.getId()), this.conflictGraph.conflictsOf(tuesdayToo));
+        assertEquals(Set.of(tuesdayToo.getId()), this.conflictGraph.conflictsOf(this.tuesday));
+        assertEquals(Set.of(offTheGrid.getId()), this.conflictGraph.conflictsOf(this.mondayMorning));
+    }
+
+    @Test
+    void shouldAddUnknownCoursesWhenTheyAreLookedUp() {
+        final Course unknown = this.course(
+                this.schedule(Weekday.TUESDAY, LocalTime.of(8, 0), LocalTime.of(10, 30)),
+                this.schedule(Weekday.MONDAY, LocalTime.of(13, 30), LocalTime.of(16, 0)));
+
+        assertEquals(Set.of(this.tuesday.getId(), this.mondayAfternoon.getId()), this.conflictGraph.conflictsOf(unknown));
+        assertTrue(this.conflictGraph.conflictsOf(this.tuesday).contains(unknown.getId()));
+
+        final Course unknownToo = this.course(this.schedule(Weekday.MONDAY, LocalTime.of(15, 30), LocalTime.of(17, 0)));
+        assertTrue(this.conflictGraph.conflicts(this.tuesday, unknown));
+        assertTrue(this.conflictGraph.conflicts(this.mondayMorning, this.mondayNoon));
+        assertTrue(this.conflictGraph.conflicts(unknownToo, unknown));
+    }
+
+    @Test
+    void shouldCompareUnsavedCoursesDirectly() {
+        final Course unsaved = this.course(this.schedule(Weekday.TUESDAY, LocalTime.of(11, 0), LocalTime.of(11, 30)));
+        unsaved.setId(null);
+
+        assertTrue(this.conflictGraph.conflictsWithAny(unsaved, List.of(this.mondayMorning, this.tuesday)));
+        assertFalse(this.conflictGraph.conflictsWithAny(unsaved, List.of(this.mondayMorning)));
+    }
+
+    @Test
+    void shouldFindCoursesThatFitTheOccupiedOnesAmongThoseNotStarted() {
+        final LocalDate today = LocalDate.now();
+        final Course friday = this.course(this.schedule(Weekday.FRIDAY, LocalTime.of(10, 0), LocalTime.of(12, 0)));
+        final Course createdElsewhere = this.course(this.schedule(Weekday.FRIDAY, LocalTime.of(14, 0), LocalTime.of(16, 0)));
+        this.conflictGraph.onCourseScheduleChanged(CourseScheduleChangedEvent.of(friday));
+        when(courseRepository.findIdsStartingAfter(today))
+                .thenReturn(Stream.of(this.mondayMorning, this.mondayNoon, this.mondayAfternoon, this.tuesday, friday, createdElsewhere)
+                        .map(Course::getId).toList())
+                // friday has started in the meantime
+                .thenReturn(Stream.of(this.mondayMorning, this.mondayNoon, this.mondayAfternoon, this.tuesday, createdElsewhere)
+                        .map(Course::getId).toList());
+        when(courseRepository.findAllByIdIn(List.of(createdElsewhere.getId()))).thenReturn(List.of(createdElsewhere));
+
+        final List<UUID> fitting = this.conflictGraph.findFitting(List.of(this.mondayNoon), Set.of(this.tuesday.getId()), today);
+
+        assertEquals(Stream.of(friday, createdElsewhere).map(Course::getId).sorted(KeysetPage.ORDER).toList(), fitting);
+        assertEquals(Stream.of(this.tuesday, createdElsewhere).map(Course::getId).sorted(KeysetPage.ORDER).toList(),
+                this.conflictGraph.findFitting(List.of(this.mondayMorning, this.mondayAfternoon), Set.of(), today));
+        verify(courseRepository, times(1)).findAllByIdIn(anyCollection());
+    }
+
+    private Course course(final Schedule... schedules) {
+        final Course course = Course.builder()
+                .id(UUID.randomUUID())
+                .startDate(LocalDate.now().plusDays(5))
+                .build();
+        course.addSchedules(new HashSet<>(List.of(schedules)));
+        return course;
+    }
+
+    private Schedule schedule(final Weekday weekday,
+                              final LocalTime startTime,
+                              final LocalTime endTime) {
+        return Schedule.builder()
+                .courseType(CourseType.COURSE)
+                .weekday(weekday)
+                .startTime(startTime)
+                .endTime(endTime)
+                .build();
+    }
+}
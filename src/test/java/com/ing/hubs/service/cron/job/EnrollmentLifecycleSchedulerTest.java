@@ -0,0 +1,121 @@
+package com.ing.hubs.service.cron.job;
+
+import com.ing.hubs.repository.CourseRepository;
+import com.ing.hubs.service.cron.CourseLifecycleEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.*;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ScheduledFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EnrollmentLifecycleSchedulerTest {
+    private static final ZoneId ZONE = ZoneId.of("Europe/Bucharest");
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 10);
+
+    @Mock
+    private EnrollmentStatusJob enrollmentStatusJob;
+    @Mock
+    private CourseRepository courseRepository;
+    @Mock
+    private TaskScheduler taskScheduler;
+    @Mock
+    private ScheduledFuture<Object> scheduledFuture;
+
+    private Instant now;
+    private EnrollmentLifecycleScheduler scheduler;
+
+    @BeforeEach
+    void setup() {
+        this.now = TODAY.atTime(LocalTime.of(15, 0)).atZone(ZONE).toInstant();
+        this.scheduler = new EnrollmentLifecycleScheduler(this.enrollmentStatusJob, this.courseRepository,
+                this.taskScheduler, Clock.fixed(this.now, ZONE));
+        lenient().doReturn(this.scheduledFuture).when(this.taskScheduler).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    void shouldArmCatchUpPassOnRebuild() {
+        when(this.courseRepository.findDistinctStartDatesAfter(TODAY)).thenReturn(List.of(TODAY.plusDays(3)));
+        when(this.courseRepository.findDistinctEndDatesOnOrAfter(TODAY)).thenReturn(List.of(TODAY));
+
+        this.scheduler.rebuild();
+
+        assertEquals(this.now, this.scheduler.nextWakeUp().orElseThrow());
+        assertEquals(3, this.scheduler.pendingBoundaries());
+        verify(this.taskScheduler).schedule(any(Runnable.class), eq(this.now));
+    }
+
+    @Test
+    void shouldRearmForEarliestBoundaryAfterRunning() {
+        when(this.courseRepository.findDistinctStartDatesAfter(TODAY)).thenReturn(List.of(TODAY.plusDays(3)));
+        when(this.courseRepository.findDistinctEndDatesOnOrAfter(TODAY)).thenReturn(List.of(TODAY.plusDays(1)));
+        when(this.enrollmentStatusJob.runLifecycleTransitions()).thenReturn(true);
+        this.scheduler.rebuild();
+
+        this.scheduler.runDueTransitions();
+
+        final Instant completion = TODAY.plusDays(2).atStartOfDay(ZONE).toInstant();
+        verify(this.enrollmentStatusJob).runLifecycleTransitions();
+        assertEquals(completion, this.scheduler.nextWakeUp().orElseThrow());
+        assertEquals(2, this.scheduler.pendingBoundaries());
+    }
+
+    @Test
+    void shouldRescheduleWhenAnEarlierBoundaryArrives() {
+        this.scheduler.onCourseLifecycleEvent(new CourseLifecycleEvent(UUID.randomUUID(), TODAY.plusDays(20), TODAY.plusDays(40)));
+        final Instant later = TODAY.plusDays(20).atStartOfDay(ZONE).toInstant();
+        assertEquals(later, this.scheduler.nextWakeUp().orElseThrow());
+
+        this.scheduler.onCourseLifecycleEvent(new CourseLifecycleEvent(UUID.randomUUID(), TODAY.plusDays(5), TODAY.plusDays(40)));
+
+        final Instant earlier = TODAY.plusDays(5).atStartOfDay(ZONE).toInstant();
+        verify(this.scheduledFuture).cancel(false);
+        assertEquals(earlier, this.scheduler.nextWakeUp().orElseThrow());
+        assertEquals(3, this.scheduler.pendingBoundaries());
+    }
+
+    @Test
+    void shouldNotRescheduleForLaterBoundaries() {
+        this.scheduler.onCourseLifecycleEvent(new CourseLifecycleEvent(UUID.randomUUID(), TODAY.plusDays(5), TODAY.plusDays(40)));
+        this.scheduler.onCourseLifecycleEvent(new CourseLifecycleEvent(UUID.randomUUID(), TODAY.plusDays(20), TODAY.plusDays(40)));
+
+        verify(this.taskScheduler, times(1)).schedule(any(Runnable.class), any(Instant.class));
+        verify(this.scheduledFuture, never()).cancel(anyBoolean());
+    }
+
+    @Test
+    void shouldRetryWhenTransitionsFail() {
+        doThrow(new IllegalStateException("database unavailable")).when(this.enrollmentStatusJob).runLifecycleTransitions();
+        when(this.courseRepository.findDistinctStartDatesAfter(TODAY)).thenReturn(List.of());
+        when(this.courseRepository.findDistinctEndDatesOnOrAfter(TODAY)).thenReturn(List.of());
+        this.scheduler.rebuild();
+
+        this.scheduler.runDueTransitions();
+
+        assertEquals(this.now.plus(EnrollmentLifecycleScheduler.RETRY_DELAY), this.scheduler.nextWakeUp().orElseThrow());
+    }
+
+    @Test
+    void shouldCheckBackWhenAnotherNodeHoldsTheLease() {
+        when(this.enrollmentStatusJob.runLifecycleTransitions()).thenReturn(false);
+        when(this.courseRepository.findDistinctStartDatesAfter(TODAY)).thenReturn(List.of(TODAY.plusDays(3)));
+        when(this.courseRepository.findDistinctEndDatesOnOrAfter(TODAY)).thenReturn(List.of());
+        this.scheduler.rebuild();
+
+        this.scheduler.runDueTransitions();
+
+        assertEquals(this.now.plus(EnrollmentLifecycleScheduler.RETRY_DELAY), this.scheduler.nextWakeUp().orElseThrow());
+        assertEquals(2, this.scheduler.pendingBoundaries());
+    }
+}
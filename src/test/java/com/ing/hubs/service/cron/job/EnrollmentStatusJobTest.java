@@ -3,36 +3,53 @@ package com.ing.hubs.service.cron.job;
 import com.ing.hubs.model.entity.course.Course;
 import com.ing.hubs.model.entity.enrollment.Enrollment;
 import com.ing.hubs.model.entity.enrollment.EnrollmentStatus;
+import com.ing.hubs.model.entity.job.JobRun;
+import com.ing.hubs.service.cron.lease.JobLeaseService;
+import com.ing.hubs.service.cron.lease.LeaseGrant;
 import com.ing.hubs.service.enrollment.EnrollmentProcessingService;
 import com.ing.hubs.service.enrollment.EnrollmentService;
+import com.ing.hubs.service.enrollment.EnrollmentTransitionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.system.CapturedOutput;
 import org.springframework.boot.test.system.OutputCaptureExtension;
 
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.ToIntFunction;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.allOf;
 import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 @ExtendWith(OutputCaptureExtension.class)
 class EnrollmentStatusJobTest {
+    // late evening in UTC is already the next day in Bucharest, which is the date the job must use
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2024-03-10T23:30:00Z"), ZoneId.of("Europe/Bucharest"));
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 11);
+
     @Mock
     private EnrollmentService enrollmentService;
     @Mock
     private EnrollmentProcessingService processingService;
-    @InjectMocks
+    @Mock
+    private EnrollmentTransitionService transitionService;
+    @Mock
+    private JobLeaseService jobLeaseService;
     private EnrollmentStatusJob enrollmentStatusJob;
     private UUID enrollment1Id;
     private UUID enrollment2Id;
@@ -42,6 +59,8 @@ class EnrollmentStatusJobTest {
 
     @BeforeEach
     void setup(){
+        this.enrollmentStatusJob = new EnrollmentStatusJob(this.enrollmentService, this.processingService,
+                this.transitionService, this.jobLeaseService, CLOCK);
          this.enrollment1Id = UUID.randomUUID();
          this.enrollment2Id = UUID.randomUUID();
         final Course course1 = Course.builder()
@@ -68,35 +87,39 @@ class EnrollmentStatusJobTest {
 
         course2.setEnrollments(Set.of(enrollment2));
 
-        doCallRealMethod().when(this.processingService).changeEnrollmentStatus(any(Enrollment.class), any());
+        lenient().doCallRealMethod().when(this.processingService).changeEnrollmentStatus(any(Enrollment.class), any());
     }
 
     @Test
-    void shouldSetEnrollmentStatusToCompletedOnceCourseHasEndedAndEnrollmentIsGraded(final CapturedOutput capturedOutput){
-        when(this.enrollmentService.findEnrollmentsByStatus(any(EnrollmentStatus.class))).thenReturn(List.of(enrollment1));
-
-        try {
-            this.enrollmentStatusJob.disableCompletedEnrollments();
-        } catch (NullPointerException ignored){}
-
-        assertThat(capturedOutput.getOut(), allOf(
-                containsString(enrollment1Id.toString()),
-                containsString(EnrollmentStatus.COMPLETED.toString())
-        ));
+    void shouldCompleteGradedEnrollmentsOfEndedCoursesInBulk(){
+        final LeaseGrant lease = this.grantLease(EnrollmentStatusJob.COMPLETION_JOB);
+        when(this.transitionService.completeGradedEnrollments(eq(TODAY), any(Runnable.class))).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return List.of(enrollment1Id);
+        });
+
+        assertTrue(this.enrollmentStatusJob.disableCompletedEnrollments());
+
+        verify(this.transitionService, times(1)).completeGradedEnrollments(eq(TODAY), any(Runnable.class));
+        verify(this.jobLeaseService, times(1)).fence(lease);
+        verify(this.enrollmentService, never()).findEnrollmentsByStatus(any());
+        verify(this.processingService, never()).changeEnrollmentStatus(any(Enrollment.class), any());
     }
 
     @Test
-    void shouldSetEnrollmentStatusToActiveOnceTheCourseStarted(final CapturedOutput capturedOutput) throws NullPointerException{
-        when(this.enrollmentService.findEnrollmentsByStatus(any(EnrollmentStatus.class))).thenReturn(List.of(enrollment2));
-
-        try {
-            this.enrollmentStatusJob.activateEnrollments();
-        } catch (NullPointerException ignored){}
-
-        assertThat(capturedOutput.getOut(), allOf(
-                containsString(enrollment2Id.toString()),
-                containsString(EnrollmentStatus.ACTIVE.toString())
-        ));
+    void shouldActivateApprovedEnrollmentsOfStartedCoursesInBulk(){
+        final LeaseGrant lease = this.grantLease(EnrollmentStatusJob.ACTIVATION_JOB);
+        when(this.transitionService.activateApprovedEnrollments(eq(TODAY), any(Runnable.class))).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return List.of(enrollment2Id);
+        });
+
+        assertTrue(this.enrollmentStatusJob.activateEnrollments());
+
+        verify(this.transitionService, times(1)).activateApprovedEnrollments(eq(TODAY), any(Runnable.class));
+        verify(this.jobLeaseService, times(1)).fence(lease);
+        verify(this.enrollmentService, never()).findEnrollmentsByStatus(any());
+        verify(this.processingService, never()).changeEnrollmentStatus(any(Enrollment.class), any());
     }
 
     @Test
@@ -112,4 +135,22 @@ class EnrollmentStatusJobTest {
                 containsString(EnrollmentStatus.CANCELED.toString())
         ));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldSkipTransitionsWhenAnotherNodeHoldsTheLease(){
+        when(this.jobLeaseService.runExclusively(any(), any())).thenReturn(Optional.empty());
+
+        assertFalse(this.enrollmentStatusJob.runLifecycleTransitions());
+
+        verifyNoInteractions(this.transitionService);
+    }
+
+    private LeaseGrant grantLease(final String jobName) {
+        final LeaseGrant lease = new LeaseGrant(jobName, "node-1", 7L);
+        when(this.jobLeaseService.runExclusively(eq(jobName), any())).thenAnswer(invocation -> {
+            final int rowsTouched = invocation.<ToIntFunction<LeaseGrant>>getArgument(1).applyAsInt(lease);
+            return Optional.of(JobRun.builder().jobName(jobName).rowsTouched(rowsTouched).build());
+        });
+        return lease;
+    }
+}
@@ -0,0 +1,169 @@
+package com.ing.hubs.service.cron.job;
+
+import com.ing.hubs.fixture.MutableClock;
+import com.ing.hubs.model.entity.enrollment.SeatHold;
+import com.ing.hubs.model.entity.job.JobRun;
+import com.ing.hubs.repository.SeatHoldRepository;
+import com.ing.hubs.service.cron.SeatHoldCreatedEvent;
+import com.ing.hubs.service.cron.lease.JobLeaseService;
+import com.ing.hubs.service.cron.lease.LeaseGrant;
+import com.ing.hubs.service.enrollment.SeatHoldService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.*;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.ToIntFunction;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SeatHoldExpirySchedulerTest {
+    private static final Instant START = Instant.parse("2024-03-10T15:00:00Z");
+
+    @Mock
+    private SeatHoldService seatHoldService;
+    @Mock
+    private SeatHoldRepository seatHoldRepository;
+    @Mock
+    private TaskScheduler taskScheduler;
+    @Mock
+    private JobLeaseService jobLeaseService;
+    @Mock
+    private ScheduledFuture<Object> scheduledFuture;
+
+    private MutableClock clock;
+    private SeatHoldExpiryScheduler scheduler;
+
+    @BeforeEach
+    void setup() {
+        this.clock = new MutableClock(START);
+        this.scheduler = new SeatHoldExpiryScheduler(this.seatHoldService, this.seatHoldRepository, this.taskScheduler, this.jobLeaseService, this.clock);
+        lenient().doReturn(this.scheduledFuture).when(this.taskScheduler).scheduleAtFixedRate(any(Runnable.class), any(Duration.class));
+        lenient().doReturn(this.scheduledFuture).when(this.taskScheduler).scheduleWithFixedDelay(any(Runnable.class), any(Instant.class), any(Duration.class));
+    }
+
+    @Test
+    void shouldRebuildFromTheDatabaseAndExpireOverdueHoldsOnTheFirstTick() {
+        final SeatHold overdue = this.hold(START.minusSeconds(30));
+        final SeatHold waiting = this.hold(START.plus(Duration.ofHours(48)));
+        when(this.seatHoldRepository.findAll()).thenReturn(List.of(overdue, waiting));
+
+        this.scheduler.rebuild();
+        this.scheduler.expireDue();
+
+        verify(this.taskScheduler).scheduleAtFixedRate(any(Runnable.class), eq(SeatHoldExpiryScheduler.TICK));
+        verify(this.taskScheduler).scheduleWithFixedDelay(any(Runnable.class),
+                eq(START.plus(SeatHoldExpiryScheduler.SWEEP_INTERVAL)), eq(SeatHoldExpiryScheduler.SWEEP_INTERVAL));
+        verify(this.seatHoldService).expire(overdue.getEnrollmentId(), overdue.getCourseId());
+        verifyNoMoreInteractions(this.seatHoldService);
+        assertEquals(1, this.scheduler.waitingHolds());
+    }
+
+    @Test
+    void shouldExpireCreatedHoldsOnceTheirTimeComes() {
+        final SeatHoldCreatedEvent event = SeatHoldCreatedEvent.of(this.hold(START.plus(Duration.ofMinutes(90))));
+        this.scheduler.onSeatHoldCreated(event);
+
+        this.clock.set(START.plus(Duration.ofMinutes(89)));
+        this.scheduler.expireDue();
+        verifyNoInteractions(this.seatHoldService);
+
+        this.clock.set(START.plus(Duration.ofMinutes(90)));
+        this.scheduler.expireDue();
+        verify(this.seatHoldService).expire(event.enrollmentId(), event.courseId());
+        assertEquals(0, this.scheduler.waitingHolds());
+    }
+
+    @Test
+    void shouldRetryAFailedExpiry() {
+        final SeatHoldCreatedEvent event = SeatHoldCreatedEvent.of(this.hold(START.plusSeconds(5)));
+        this.scheduler.onSeatHoldCreated(event);
+        when(this.seatHoldService.expire(event.enrollmentId(), event.courseId()))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenReturn(true);
+
+        this.clock.set(START.plusSeconds(5));
+        this.scheduler.expireDue();
+        assertEquals(1, this.scheduler.waitingHolds());
+
+        this.clock.set(START.plusSeconds(5).plus(SeatHoldExpiryScheduler.RETRY_DELAY));
+        this.scheduler.expireDue();
+        verify(this.seatHoldService, times(2)).expire(event.enrollmentId(), event.courseId());
+        assertEquals(0, this.scheduler.waitingHolds());
+    }
+
+    @Test
+    void shouldSweepHoldsExpiredOnAnyNodeUnderTheLease() {
+        final SeatHold expired = this.hold(START.minusSeconds(30));
+        final SeatHold dropped = this.hold(START.minusSeconds(20));
+        final LeaseGrant lease = this.grantLease();
+        when(this.seatHoldRepository.findExpired(START, PageRequest.of(0, SeatHoldExpiryScheduler.SWEEP_BATCH_SIZE)))
+                .thenReturn(List.of(expired, dropped));
+        when(this.seatHoldService.expire(expired.getEnrollmentId(), expired.getCourseId())).thenReturn(true);
+
+        this.scheduler.sweepExpired();
+
+        verify(this.seatHoldService).expire(dropped.getEnrollmentId(), dropped.getCourseId());
+        verify(this.jobLeaseService).runExclusively(eq(lease.jobName()), any());
+        assertEquals(0, this.scheduler.waitingHolds());
+    }
+
+    @Test
+    void shouldSweepInBatchesUntilNoExpiredHoldIsLeft() {
+        final List<SeatHold> fullBatch = IntStream.range(0, SeatHoldExpiryScheduler.SWEEP_BATCH_SIZE)
+                .mapToObj(i -> this.hold(START.minusSeconds(60)))
+                .toList();
+        final SeatHold last = this.hold(START.minusSeconds(30));
+        this.grantLease();
+        when(this.seatHoldRepository.findExpired(eq(START), any(Pageable.class)))
+                .thenReturn(fullBatch)
+                .thenReturn(List.of(last));
+        when(this.seatHoldService.expire(any(UUID.class), any(UUID.class))).thenReturn(true);
+
+        this.scheduler.sweepExpired();
+
+        verify(this.seatHoldRepository, times(2)).findExpired(eq(START), any(Pageable.class));
+        verify(this.seatHoldService, times(SeatHoldExpiryScheduler.SWEEP_BATCH_SIZE + 1)).expire(any(UUID.class), any(UUID.class));
+    }
+
+    @Test
+    void shouldNotSweepWhileAnotherNodeHoldsTheLease() {
+        when(this.jobLeaseService.runExclusively(eq(SeatHoldExpiryScheduler.SWEEP_JOB), any())).thenReturn(Optional.empty());
+
+        this.scheduler.sweepExpired();
+
+        verifyNoInteractions(this.seatHoldRepository, this.seatHoldService);
+    }
+
+    private LeaseGrant grantLease() {
+        final LeaseGrant lease = new LeaseGrant(SeatHoldExpiryScheduler.SWEEP_JOB, "node-1", 7L);
+        when(this.jobLeaseService.runExclusively(eq(SeatHoldExpiryScheduler.SWEEP_JOB), any())).thenAnswer(invocation -> {
+            final int rowsTouched = invocation.<ToIntFunction<LeaseGrant>>getArgument(1).applyAsInt(lease);
+            return Optional.of(JobRun.builder().jobName(lease.jobName()).rowsTouched(rowsTouched).build());
+        });
+        return lease;
+    }
+
+    private SeatHold hold(final Instant expiresAt) {
+        return SeatHold.builder()
+                .id(UUID.randomUUID())
+                .enrollmentId(UUID.randomUUID())
+                .courseId(UUID.randomUUID())
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
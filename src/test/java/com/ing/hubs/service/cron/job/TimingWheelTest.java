@@ -0,0 +1,69 @@
+package com.ing.hubs.service.cron.job;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+    private static final long TICK = 1_000;
+
+    @Test
+    void shouldExpireItemsOnTheirTickAndNeverEarly() {
+        final TimingWheel<String> wheel = new TimingWheel<>(TICK, 8, 0);
+        final List<String> expired = new ArrayList<>();
+
+        assertTrue(wheel.add("soon", 1_500));
+        assertTrue(wheel.add("later", 3_000));
+        assertFalse(wheel.add("overdue", 0));
+
+        wheel.advance(1_999, expired::add);
+        assertEquals(List.of(), expired);
+        wheel.advance(2_000, expired::add);
+        assertEquals(List.of("soon"), expired);
+        wheel.advance(3_000, expired::add);
+        assertEquals(List.of("soon", "later"), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void shouldCascadeItemsBeyondTheWheelDownToTheFinestOne() {
+        // 8 ticks per wheel, so these sit two and three wheels up
+        final TimingWheel<Long> wheel = new TimingWheel<>(TICK, 8, 0);
+        final List<Long> expired = new ArrayList<>();
+        wheel.add(100_000L, 100_000);
+        wheel.add(9_000L, 9_000);
+        wheel.add(600_000L, 600_000);
+
+        for (long now = 0; now <= 700_000; now += TICK) {
+            final long at = now;
+            wheel.advance(now, item -> {
+                assertTrue(item <= at, "expired early");
+                assertTrue(item > at - TICK, "expired late");
+                expired.add(item);
+            });
+        }
+
+        assertEquals(List.of(9_000L, 100_000L, 600_000L), expired);
+    }
+
+    @Test
+    void shouldCatchUpAfterALongPause() {
+        final Random random = new Random(11);
+        final TimingWheel<Long> wheel = new TimingWheel<>(TICK, 16, 5_000);
+        final List<Long> dues = random.longs(500, 6_000, 3_600_000).boxed().toList();
+        dues.forEach(due -> assertTrue(wheel.add(due, due)));
+        final List<Long> expired = new ArrayList<>();
+
+        wheel.advance(1_800_000, expired::add);
+        assertTrue(expired.stream().allMatch(due -> due <= 1_800_000));
+        assertEquals(dues.stream().filter(due -> due <= 1_800_000).count(), expired.size());
+        wheel.advance(3_600_000, expired::add);
+
+        assertEquals(dues.stream().sorted().toList(), expired.stream().sorted().toList());
+        assertEquals(0, wheel.size());
+    }
+}
@@ -0,0 +1,226 @@
+package com.ing.hubs.service.cron.lease;
+
+import com.ing.hubs.exception.job.LeaseLostException;
+import com.ing.hubs.fixture.Fixtures;
+import com.ing.hubs.fixture.MutableClock;
+import com.ing.hubs.metrics.EnrollmentMetrics;
+import com.ing.hubs.model.entity.course.Course;
+import com.ing.hubs.model.entity.course.schedule.CourseType;
+import com.ing.hubs.model.entity.course.schedule.Schedule;
+import com.ing.hubs.model.entity.course.schedule.Weekday;
+import com.ing.hubs.model.entity.enrollment.Enrollment;
+import com.ing.hubs.model.entity.enrollment.EnrollmentStatus;
+import com.ing.hubs.model.entity.job.JobRun;
+import com.ing.hubs.model.entity.user.Role;
+import com.ing.hubs.model.entity.user.User;
+import com.ing.hubs.repository.*;
+import com.ing.hubs.service.enrollment.EnrollmentTransitionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class JobLeaseServiceTest {
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+    private static final Duration LEASE_DURATION = Duration.ofMinutes(5);
+
+    @Autowired
+    private JobLeaseRepository jobLeaseRepository;
+    @Autowired
+    private JobRunRepository jobRunRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private MutableClock clock;
+    private SimpleMeterRegistry meterRegistry;
+    private String jobName;
+
+    @BeforeEach
+    void setup() {
+        this.clock = new MutableClock(Instant.parse("2024-03-10T10:00:00Z"));
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.jobName = "test-job-" + SEQUENCE.incrementAndGet();
+    }
+
+    @Test
+    void shouldGrantTheLeaseToASingleNodeAtATime() throws Exception {
+        final List<JobLeaseService> nodes = this.nodes(8);
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(nodes.size());
+        final List<Future<Optional<LeaseGrant>>> attempts = new ArrayList<>();
+
+        for (JobLeaseService node : nodes) {
+            attempts.add(executor.submit(() -> {
+                start.await();
+                return node.tryAcquire(this.jobName);
+            }));
+        }
+        start.countDown();
+
+        final List<LeaseGrant> grants = new ArrayList<>();
+        for (Future<Optional<LeaseGrant>> attempt : attempts) {
+            attempt.get(1, TimeUnit.MINUTES).ifPresent(grants::add);
+        }
+        executor.shutdown();
+
+        assertEquals(1, grants.size());
+        assertEquals(grants.get(0).holder(), this.jobLeaseRepository.findById(this.jobName).orElseThrow().getHolder());
+    }
+
+    @Test
+    void shouldTakeOverAnExpiredLeaseAndFenceTheOldHolder() {
+        final List<JobLeaseService> nodes = this.nodes(2);
+        final LeaseGrant first = nodes.get(0).tryAcquire(this.jobName).orElseThrow();
+        assertTrue(nodes.get(1).tryAcquire(this.jobName).isEmpty());
+
+        this.clock.advance(LEASE_DURATION.plusSeconds(1));
+        final LeaseGrant second = nodes.get(1).tryAcquire(this.jobName).orElseThrow();
+
+        assertEquals(first.fencingToken() + 1, second.fencingToken());
+        assertThrows(LeaseLostException.class, () ->
+                this.transactionTemplate.executeWithoutResult(status -> nodes.get(0).fence(first)));
+        assertDoesNotThrow(() ->
+                this.transactionTemplate.executeWithoutResult(status -> nodes.get(1).fence(second)));
+    }
+
+    @Test
+    void shouldKeepTheLeaseWhileTheHolderRenewsIt() {
+        final List<JobLeaseService> nodes = this.nodes(2);
+        final LeaseGrant grant = nodes.get(0).tryAcquire(this.jobName).orElseThrow();
+
+        this.clock.advance(LEASE_DURATION.minusSeconds(1));
+        this.transactionTemplate.executeWithoutResult(status -> nodes.get(0).fence(grant));
+        this.clock.advance(Duration.ofSeconds(2));
+
+        assertTrue(nodes.get(1).tryAcquire(this.jobName).isEmpty());
+    }
+
+    @Test
+    void shouldRecordRunMetricsAndReleaseTheLease() {
+        final List<JobLeaseService> nodes = this.nodes(2);
+
+        final JobRun run = nodes.get(0).runExclusively(this.jobName, lease -> {
+            this.clock.advance(Duration.ofMillis(1500));
+            return 42;
+        }).orElseThrow();
+
+        assertEquals(nodes.get(0).getHolder(), run.getHolder());
+        assertEquals(42, run.getRowsTouched());
+        assertEquals(1500L, run.getDurationMillis());
+        assertTrue(run.getSucceeded());
+        assertEquals(List.of(run.getId()), this.jobRunRepository.findAllByJobNameOrderByStartedAt(this.jobName).stream()
+                .map(JobRun::getId)
+                .toList());
+        assertTrue(nodes.get(1).tryAcquire(this.jobName).isPresent());
+        assertEquals(1, this.meterRegistry.get("job.runs").tag("job", this.jobName).tag("outcome", "success").timer().count());
+        assertEquals(42.0, this.meterRegistry.get("job.rows").tag("job", this.jobName).summary().totalAmount());
+    }
+
+    @Test
+    void shouldRecordFailedRunsAndRethrow() {
+        final JobLeaseService node = this.nodes(1).get(0);
+
+        assertThrows(IllegalStateException.class, () -> node.runExclusively(this.jobName, lease -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        final List<JobRun> runs = this.jobRunRepository.findAllByJobNameOrderByStartedAt(this.jobName);
+        assertEquals(1, runs.size());
+        assertFalse(runs.get(0).getSucceeded());
+        assertTrue(node.tryAcquire(this.jobName).isPresent());
+    }
+
+    @Test
+    void shouldTransitionEachEnrollmentOnceAcrossConcurrentNodes() throws Exception {
+        final LocalDate today = LocalDate.now();
+        final Set<UUID> approved = this.seedApprovedEnrollments(today.minusDays(1), 25);
+        final EnrollmentTransitionService transitionService =
+                new EnrollmentTransitionService(this.enrollmentRepository, this.transactionTemplate,
+                        new EnrollmentMetrics(this.meterRegistry), 4);
+        final List<JobLeaseService> nodes = this.nodes(4);
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(nodes.size());
+        final List<Future<Optional<JobRun>>> runs = new ArrayList<>();
+
+        for (JobLeaseService node : nodes) {
+            runs.add(executor.submit(() -> {
+                start.await();
+                return node.runExclusively(this.jobName, lease ->
+                        transitionService.activateApprovedEnrollments(today, () -> node.fence(lease)).stream()
+                                .filter(approved::contains)
+                                .toList()
+                                .size());
+            }));
+        }
+        start.countDown();
+
+        int rowsTouched = 0;
+        for (Future<Optional<JobRun>> run : runs) {
+            rowsTouched += run.get(1, TimeUnit.MINUTES).map(JobRun::getRowsTouched).orElse(0);
+        }
+        executor.shutdown();
+
+        assertEquals(approved.size(), rowsTouched);
+        approved.forEach(id -> assertEquals(EnrollmentStatus.ACTIVE,
+                this.enrollmentRepository.findById(id).orElseThrow().getStatus()));
+    }
+
+    private List<JobLeaseService> nodes(final int count) {
+        final List<JobLeaseService> nodes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            nodes.add(new JobLeaseService(this.jobLeaseRepository, this.jobRunRepository, this.transactionTemplate,
+                    this.clock, this.meterRegistry, "node-" + i, LEASE_DURATION));
+        }
+        return nodes;
+    }
+
+    private Set<UUID> seedApprovedEnrollments(final LocalDate startDate, final int count) {
+        final User teacher = Fixtures.saveUser(this.userRepository, Role.TEACHER, "@poodle.com");
+        final Course course = Course.builder()
+                .courseName("Lease " + SEQUENCE.incrementAndGet())
+                .description("description")
+                .capacity(50)
+                .credits(5)
+                .startDate(startDate)
+                .endDate(startDate.plusDays(60))
+                .build();
+        course.addSchedules(Set.of(Schedule.builder()
+                .courseType(CourseType.COURSE)
+                .weekday(Weekday.SATURDAY)
+                .startTime(LocalTime.of(8, 0))
+                .endTime(LocalTime.of(10, 0))
+                .build()));
+
+        return this.transactionTemplate.execute(status -> {
+            course.setUser(this.userRepository.getReferenceById(teacher.getId()));
+            final Course saved = this.courseRepository.save(course);
+            final Set<UUID> ids = new HashSet<>();
+            for (int i = 0; i < count; i++) {
+                ids.add(this.enrollmentRepository.save(Enrollment.builder()
+                        .course(saved)
+                        .user(Fixtures.saveUser(this.userRepository, Role.STUDENT, "@stud.poodle.com"))
+                        .status(EnrollmentStatus.APPROVED)
+                        .build()).getId());
+            }
+            return ids;
+        });
+    }
+}
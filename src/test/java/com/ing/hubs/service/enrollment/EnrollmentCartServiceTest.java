@@ -0,0 +1,164 @@
+package com.ing.hubs.service.enrollment;
+
+import com.ing.hubs.dto.enrollment.CartDto;
+import com.ing.hubs.dto.enrollment.CartFailureDto;
+import com.ing.hubs.dto.enrollment.CartResponseDto;
+import com.ing.hubs.exception.course.CourseCapacityReachedException;
+import com.ing.hubs.exception.enrollment.EnrollmentProcessingException;
+import com.ing.hubs.exception.enrollment.PassedEnrollmentPeriodException;
+import com.ing.hubs.exception.enrollment.StudentAlreadyEnrolledException;
+import com.ing.hubs.exception.security.UnauthorizedAccessException;
+import com.ing.hubs.fixture.Fixtures;
+import com.ing.hubs.mapper.CourseMapper;
+import com.ing.hubs.mapper.EnrollmentMapper;
+import com.ing.hubs.mapper.ScheduleMapper;
+import com.ing.hubs.mapper.UserMapper;
+import com.ing.hubs.metrics.EnrollmentMetrics;
+import com.ing.hubs.model.entity.course.Course;
+import com.ing.hubs.model.entity.course.schedule.Weekday;
+import com.ing.hubs.model.entity.enrollment.Enrollment;
+import com.ing.hubs.model.entity.enrollment.EnrollmentStatus;
+import com.ing.hubs.model.entity.user.Role;
+import com.ing.hubs.model.entity.user.User;
+import com.ing.hubs.repository.CourseRepository;
+import com.ing.hubs.repository.EnrollmentRepository;
+import com.ing.hubs.security.JwtPrincipal;
+import com.ing.hubs.service.CourseService;
+import com.ing.hubs.service.ScheduleService;
+import com.ing.hubs.service.SecurityService;
+import com.ing.hubs.service.UserService;
+import com.ing.hubs.service.conflict.CourseConflictGraph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EnrollmentCartServiceTest {
+    @Mock
+    private SecurityService securityService;
+    @Mock
+    private UserService userService;
+    @Mock
+    private CourseService courseService;
+    @Spy
+    private ScheduleService scheduleService;
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+    @Spy
+    private EnrollmentMapper enrollmentMapper = new EnrollmentMapper(new UserMapper(), new CourseMapper(new ScheduleMapper()));
+    @Spy
+    private EnrollmentValidationService validationService;
+    @Mock
+    private EnrollmentMetrics enrollmentMetrics;
+    @Spy
+    private CourseConflictGraph conflictGraph = new CourseConflictGraph(mock(CourseRepository.class));
+    @Mock
+    private SeatHoldService seatHoldService;
+    @InjectMocks
+    private EnrollmentCartService enrollmentCartService;
+
+    private final JwtPrincipal principal = new JwtPrincipal(UUID.randomUUID(), "username", Role.STUDENT);
+
+    private User student;
+
+    @BeforeEach
+    void setup() {
+        this.student = User.builder().id(UUID.randomUUID()).role(Role.STUDENT).enrollments(new HashSet<>()).build();
+        lenient().when(securityService.extractUserId(any())).thenReturn(this.student.getId());
+        lenient().when(userService.findStudentWithTimetable(this.student.getId())).thenReturn(this.student);
+    }
+
+    @Test
+    void shouldCreateEveryEnrollmentOfAValidCartInOneBatch() {
+        final Course monday = Fixtures.course(Weekday.MONDAY, 10);
+        final Course tuesday = Fixtures.course(Weekday.TUESDAY, 10);
+        when(courseService.findCoursesByIds(List.of(monday.getId(), tuesday.getId()))).thenReturn(List.of(tuesday, monday));
+        when(enrollmentRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            final List<Enrollment> enrollments = invocation.getArgument(0);
+            enrollments.forEach(enrollment -> enrollment.setId(UUID.randomUUID()));
+            return enrollments;
+        });
+
+        final CartResponseDto response = this.enrollmentCartService.submit(
+                new CartDto(List.of(monday.getId(), tuesday.getId(), monday.getId())), principal);
+
+        assertTrue(response.isSubmitted());
+        assertTrue(response.getFailures().isEmpty());
+        assertEquals(List.of(monday.getId(), tuesday.getId()),
+                response.getEnrollments().stream().map(enrollment -> enrollment.getCourse().getId()).toList());
+        assertEquals(2, this.student.getEnrollments().size());
+        verify(enrollmentRepository, times(1)).saveAll(anyList());
+        verify(enrollmentMetrics, times(2)).recordCreated(EnrollmentStatus.PENDING);
+    }
+
+    @Test
+    void shouldRejectTheWholeCartAndReportEveryFailingCourse() {
+        final Course enrolled = Fixtures.course(Weekday.MONDAY, 10);
+        this.student.getEnrollments().add(Enrollment.builder()
+                .id(UUID.randomUUID())
+                .user(this.student)
+                .course(enrolled)
+                .status(EnrollmentStatus.ACTIVE)
+                .build());
+        final Course valid = Fixtures.course(Weekday.TUESDAY, 10);
+        final Course overlapsCart = Fixtures.course(Weekday.TUESDAY, 10);
+        final Course overlapsTimetable = Fixtures.course(Weekday.MONDAY, 10);
+        final Course full = Fixtures.course(Weekday.FRIDAY, 0);
+        final Course started = Fixtures.course(Weekday.FRIDAY, 10);
+        started.setStartDate(LocalDate.now());
+        final UUID missing = UUID.randomUUID();
+        final List<UUID> courseIds = List.of(valid.getId(), overlapsCart.getId(), overlapsTimetable.getId(),
+                full.getId(), started.getId(), enrolled.getId(), missing);
+        when(courseService.findCoursesByIds(courseIds)).thenReturn(List.of(valid, overlapsCart, overlapsTimetable, full, started, enrolled));
+
+        final CartResponseDto response = this.enrollmentCartService.submit(new CartDto(courseIds), principal);
+
+        assertFalse(response.isSubmitted());
+        assertTrue(response.getEnrollments().isEmpty());
+        assertEquals(courseIds.subList(1, courseIds.size()),
+                response.getFailures().stream().map(CartFailureDto::getCourseId).toList());
+        assertEquals(List.of(
+                        String.format("Schedules overlap with course \"%s\"!", valid.getCourseName()),
+                        "Schedules overlap!",
+                        new CourseCapacityReachedException().getMessage(),
+                        new PassedEnrollmentPeriodException().getMessage(),
+                        new StudentAlreadyEnrolledException().getMessage(),
+                        "Course not found!"),
+                response.getFailures().stream().map(CartFailureDto::getMessage).toList());
+        verify(enrollmentRepository, never()).saveAll(anyList());
+        assertEquals(1, this.student.getEnrollments().size());
+    }
+
+    @Test
+    void shouldThrowUnauthorizedAccessExceptionWhenRoleIsNotStudent() {
+        this.student.setRole(Role.TEACHER);
+
+        assertThrows(UnauthorizedAccessException.class, () -> this.enrollmentCartService.submit(
+                new CartDto(List.of(UUID.randomUUID())), principal));
+        verify(courseService, never()).findCoursesByIds(anyCollection());
+    }
+
+    @Test
+    void shouldLimitTheCartSize() {
+        final List<UUID> courseIds = IntStream.rangeClosed(0, EnrollmentCartService.MAX_CART_SIZE)
+                .mapToObj(i -> UUID.randomUUID())
+                .toList();
+
+        assertThrows(EnrollmentProcessingException.class, () -> this.enrollmentCartService.submit(new CartDto(courseIds), principal));
+        verify(courseService, never()).findCoursesByIds(anyCollection());
+    }
+}
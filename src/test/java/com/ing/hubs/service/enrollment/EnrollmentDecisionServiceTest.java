@@ -0,0 +1,261 @@
+package com.ing.hubs.service.enrollment;
+
+import com.ing.hubs.dto.enrollment.BulkDecisionDto;
+import com.ing.hubs.dto.enrollment.BulkDecisionResponseDto;
+import com.ing.hubs.dto.enrollment.DecisionResultDto;
+import com.ing.hubs.exception.course.CourseCapacityReachedException;
+import com.ing.hubs.exception.enrollment.EnrollmentProcessingException;
+import com.ing.hubs.exception.security.UnauthorizedAccessException;
+import com.ing.hubs.metrics.EnrollmentMetrics;
+import com.ing.hubs.model.entity.course.Course;
+import com.ing.hubs.model.entity.course.schedule.CourseType;
+import com.ing.hubs.model.entity.course.schedule.Schedule;
+import com.ing.hubs.model.entity.course.schedule.Weekday;
+import com.ing.hubs.model.entity.enrollment.Enrollment;
+import com.ing.hubs.model.entity.enrollment.EnrollmentStatus;
+import com.ing.hubs.model.entity.user.Role;
+import com.ing.hubs.model.entity.user.User;
+import com.ing.hubs.model.id.UuidV7;
+import com.ing.hubs.repository.CourseRepository;
+import com.ing.hubs.repository.EnrollmentRepository;
+import com.ing.hubs.security.JwtPrincipal;
+import com.ing.hubs.service.CourseService;
+import com.ing.hubs.service.ScheduleService;
+import com.ing.hubs.service.SecurityService;
+import com.ing.hubs.service.conflict.CourseConflictGraph;
+import com.ing.hubs.service.cron.CourseLifecycleEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EnrollmentDecisionServiceTest {
+    @Mock
+    private SecurityService securityService;
+    @Mock
+    private CourseService courseService;
+    @Spy
+    private ScheduleService scheduleService;
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+    @Spy
+    private EnrollmentValidationService validationService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private EnrollmentMetrics enrollmentMetrics;
+    @Spy
+    private CourseConflictGraph conflictGraph = new CourseConflictGraph(mock(CourseRepository.class));
+    @Mock
+    private SeatHoldService seatHoldService;
+    @InjectMocks
+    private EnrollmentDecisionService enrollmentDecisionService;
+
+    private final JwtPrincipal principal = new JwtPrincipal(UUID.randomUUID(), "username", Role.TEACHER);
+
+    private User teacher;
+
+    @BeforeEach
+    void setup() {
+        this.teacher = User.builder().id(UUID.randomUUID()).role(Role.TEACHER).build();
+        lenient().when(securityService.extractUserId(any())).thenReturn(this.teacher.getId());
+    }
+
+    @Test
+    void shouldApproveInEnrollmentOrderWhileSeatsLast() {
+        final Course course = this.course(1, Weekday.MONDAY);
+        final Enrollment first = this.enrollment(this.student(), course, EnrollmentStatus.PENDING);
+        final Enrollment second = this.enrollment(this.student(), course, EnrollmentStatus.PENDING);
+
+        when(enrollmentRepository.findAllByIdIn(anyCollection())).thenReturn(List.of(second, first));
+        when(enrollmentRepository.findAllByUserIdInAndStatusIn(anyCollection(), anyCollection())).thenReturn(List.of(first, second));
+        when(courseService.reserveSeats(course, 1)).thenReturn(true);
+        when(enrollmentRepository.updateStatusByIds(List.of(first.getId()), EnrollmentStatus.PENDING, EnrollmentStatus.APPROVED)).thenReturn(1);
+
+        final BulkDecisionResponseDto response = this.enrollmentDecisionService.decide(
+                new BulkDecisionDto(null, List.of(second.getId(), first.getId()), EnrollmentStatus.APPROVED), principal);
+
+        assertEquals(1, response.getApplied());
+        assertEquals(List.of(first.getId(), second.getId()), response.getResults().stream().map(DecisionResultDto::getEnrollmentId).toList());
+        assertEquals(new CourseCapacityReachedException().getMessage(), response.getResults().get(1).getMessage());
+        verify(enrollmentRepository, times(1)).updateStatusByIds(anyCollection(), any(), any());
+        verify(enrollmentMetrics).recordTransitions(EnrollmentStatus.PENDING, EnrollmentStatus.APPROVED, 1);
+    }
+
+    @Test
+    void shouldCancelOverlappingPendingEnrollmentsOfApprovedStudentsInOnePass() {
+        final User student = this.student();
+        final Course approvedCourse = this.course(10, Weekday.MONDAY);
+        final Course overlappingCourse = this.course(10, Weekday.MONDAY);
+        final Course otherDayCourse = this.course(10, Weekday.FRIDAY);
+        final Enrollment approved = this.enrollment(student, approvedCourse, EnrollmentStatus.PENDING);
+        final Enrollment overlapping = this.enrollment(student, overlappingCourse, EnrollmentStatus.PENDING);
+        final Enrollment otherDay = this.enrollment(student, otherDayCourse, EnrollmentStatus.PENDING);
+
+        when(enrollmentRepository.findAllByIdIn(anyCollection())).thenReturn(List.of(approved, overlapping));
+        when(enrollmentRepository.findAllByUserIdInAndStatusIn(Set.of(student.getId()), List.of(EnrollmentStatus.PENDING)))
+                .thenReturn(List.of(approved, overlapping, otherDay));
+        when(courseService.reserveSeats(approvedCourse, 1)).thenReturn(true);
+        when(enrollmentRepository.updateStatusByIds(anyCollection(), any(), any())).thenReturn(1);
+
+        final BulkDecisionResponseDto response = this.enrollmentDecisionService.decide(
+                new BulkDecisionDto(null, List.of(approved.getId(), overlapping.getId()), EnrollmentStatus.APPROVED), principal);
+
+        assertEquals(List.of(overlapping.getId()), response.getCanceled());
+        assertEquals(EnrollmentStatus.CANCELED, response.getResults().get(1).getStatus());
+        assertFalse(response.getResults().get(1).isApplied());
+        verify(enrollmentRepository).updateStatusByIds(List.of(approved.getId()), EnrollmentStatus.PENDING, EnrollmentStatus.APPROVED);
+        verify(enrollmentRepository).updateStatusByIds(List.of(overlapping.getId()), EnrollmentStatus.PENDING, EnrollmentStatus.CANCELED);
+        verify(enrollmentRepository, times(1)).findAllByUserIdInAndStatusIn(anyCollection(), anyCollection());
+        verify(eventPublisher).publishEvent(CourseLifecycleEvent.of(approvedCourse));
+    }
+
+    @Test
+    void shouldApproveHeldEnrollmentsIntoTheirSeatsAndReleaseTheSeatsOfCanceledOnes() {
+        final User student = this.student();
+        final Course full = this.course(0, Weekday.MONDAY);
+        final Course overlapping = this.course(10, Weekday.MONDAY);
+        final Enrollment held = this.enrollment(student, full, EnrollmentStatus.PENDING);
+        final Enrollment canceled = this.enrollment(student, overlapping, EnrollmentStatus.PENDING);
+
+        when(enrollmentRepository.findAllByIdIn(anyCollection())).thenReturn(List.of(held));
+        when(enrollmentRepository.findAllByUserIdInAndStatusIn(anyCollection(), anyCollection())).thenReturn(List.of(held, canceled));
+        when(seatHoldService.lockHeld(List.of(held.getId()))).thenReturn(Set.of(held.getId()));
+        when(enrollmentRepository.updateStatusByIds(anyCollection(), any(), any())).thenReturn(1);
+
+        final BulkDecisionResponseDto response = this.enrollmentDecisionService.decide(
+                new BulkDecisionDto(null, List.of(held.getId()), EnrollmentStatus.APPROVED), principal);
+
+        assertEquals(1, response.getApplied());
+        assertEquals(List.of(canceled.getId()), response.getCanceled());
+        verify(courseService, never()).reserveSeats(any(), anyInt());
+        verify(seatHoldService).convertAll(List.of(held));
+        verify(seatHoldService).releaseAll(List.of(canceled));
+    }
+
+    @Test
+    void shouldDenyPendingEnrollmentsOfACourseWithoutTouchingSeats() {
+        final Course course = this.course(0, Weekday.MONDAY);
+        final Enrollment first = this.enrollment(this.student(), course, EnrollmentStatus.PENDING);
+        final Enrollment second = this.enrollment(this.student(), course, EnrollmentStatus.PENDING);
+
+        when(courseService.findCourseById(course.getId())).thenReturn(course);
+        when(enrollmentRepository.findAllByCourseIdAndStatus(course.getId(), EnrollmentStatus.PENDING)).thenReturn(List.of(first, second));
+        when(enrollmentRepository.findAllByIdIn(anyCollection())).thenReturn(List.of(first, second));
+        when(enrollmentRepository.updateStatusByIds(List.of(first.getId(), second.getId()), EnrollmentStatus.PENDING, EnrollmentStatus.DENIED)).thenReturn(2);
+
+        final BulkDecisionResponseDto response = this.enrollmentDecisionService.decide(
+                new BulkDecisionDto(course.getId(), null, EnrollmentStatus.DENIED), principal);
+
+        assertEquals(2, response.getApplied());
+        verify(courseService, never()).reserveSeats(any(), anyInt());
+        verify(enrollmentRepository, never()).findAllByUserIdInAndStatusIn(anyCollection(), anyCollection());
+    }
+
+    @Test
+    void shouldRejectRowsOfOtherTeachersAndInvalidTransitions() {
+        final Course foreignCourse = this.course(10, Weekday.MONDAY);
+        foreignCourse.setUser(User.builder().id(UUID.randomUUID()).build());
+        final Enrollment foreign = this.enrollment(this.student(), foreignCourse, EnrollmentStatus.PENDING);
+        final Enrollment active = this.enrollment(this.student(), this.course(10, Weekday.MONDAY), EnrollmentStatus.ACTIVE);
+        final UUID missing = UuidV7.randomUuid();
+
+        when(enrollmentRepository.findAllByIdIn(anyCollection())).thenReturn(List.of(foreign, active));
+
+        final BulkDecisionResponseDto response = this.enrollmentDecisionService.decide(
+                new BulkDecisionDto(null, List.of(foreign.getId(), active.getId(), missing), EnrollmentStatus.DENIED), principal);
+
+        assertEquals(3, response.getRejected());
+        assertEquals(List.of(new UnauthorizedAccessException().getMessage(), "Enrollment already processed", "Enrollment not found!"),
+                response.getResults().stream().map(DecisionResultDto::getMessage).toList());
+        verify(enrollmentRepository, never()).updateStatusByIds(anyCollection(), any(), any());
+    }
+
+    @Test
+    void shouldRejectCoursesOfOtherTeachers() {
+        final Course course = this.course(10, Weekday.MONDAY);
+        course.setUser(User.builder().id(UUID.randomUUID()).build());
+        when(courseService.findCourseById(course.getId())).thenReturn(course);
+
+        assertThrows(UnauthorizedAccessException.class, () -> this.enrollmentDecisionService.decide(
+                new BulkDecisionDto(course.getId(), null, EnrollmentStatus.APPROVED), principal));
+        verify(enrollmentRepository, never()).findAllByCourseIdAndStatus(any(), any());
+    }
+
+    @Test
+    void shouldRequireEitherACourseOrEnrollmentIds() {
+        assertThrows(EnrollmentProcessingException.class, () -> this.enrollmentDecisionService.decide(
+                new BulkDecisionDto(null, null, EnrollmentStatus.APPROVED), principal));
+        assertThrows(EnrollmentProcessingException.class, () -> this.enrollmentDecisionService.decide(
+                new BulkDecisionDto(UUID.randomUUID(), List.of(UUID.randomUUID()), EnrollmentStatus.APPROVED), principal));
+        assertThrows(EnrollmentProcessingException.class, () -> this.enrollmentDecisionService.decide(
+                new BulkDecisionDto(null, List.of(UUID.randomUUID()), EnrollmentStatus.CANCELED), principal));
+    }
+
+    @Test
+    void shouldRollBackWhenEnrollmentsChangedConcurrently() {
+        final Course course = this.course(0, Weekday.MONDAY);
+        final Enrollment enrollment = this.enrollment(this.student(), course, EnrollmentStatus.PENDING);
+
+        when(enrollmentRepository.findAllByIdIn(anyCollection())).thenReturn(List.of(enrollment));
+        when(enrollmentRepository.updateStatusByIds(anyCollection(), any(), any())).thenReturn(0);
+
+        assertThrows(EnrollmentProcessingException.class, () -> this.enrollmentDecisionService.decide(
+                new BulkDecisionDto(null, List.of(enrollment.getId()), EnrollmentStatus.DENIED), principal));
+        verify(enrollmentMetrics, never()).recordTransitions(any(), any(), anyInt());
+    }
+
+    private User student() {
+        return User.builder().id(UUID.randomUUID()).role(Role.STUDENT).build();
+    }
+
+    private Course course(final int freeSeats,
+                          final Weekday weekday) {
+        final Course course = Course.builder()
+                .id(UUID.randomUUID())
+                .user(this.teacher)
+                .capacity(10 + freeSeats)
+                .seatsTaken(10)
+                .startDate(LocalDate.now().minusDays(1))
+                .endDate(LocalDate.now().plusDays(60))
+                .build();
+        final Set<Schedule> schedules = new HashSet<>();
+        schedules.add(Schedule.builder()
+                .courseType(CourseType.COURSE)
+                .weekday(weekday)
+                .startTime(LocalTime.of(10, 0))
+                .endTime(LocalTime.of(12, 0))
+                .build());
+        course.addSchedules(schedules);
+        return course;
+    }
+
+    private Enrollment enrollment(final User student,
+                                  final Course course,
+                                  final EnrollmentStatus status) {
+        return Enrollment.builder()
+                .id(UuidV7.randomUuid())
+                .user(student)
+                .course(course)
+                .status(status)
+                .build();
+    }
+}
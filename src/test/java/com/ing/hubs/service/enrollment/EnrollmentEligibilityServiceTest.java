@@ -0,0 +1,120 @@
+package com.ing.hubs.service.enrollment;
+
+import com.ing.hubs.dto.enrollment.EligibilityCheckDto;
+import com.ing.hubs.dto.enrollment.EligibilityDto;
+import com.ing.hubs.dto.enrollment.EligibilityReason;
+import com.ing.hubs.exception.enrollment.EnrollmentProcessingException;
+import com.ing.hubs.exception.security.UnauthorizedAccessException;
+import com.ing.hubs.fixture.Fixtures;
+import com.ing.hubs.model.entity.course.Course;
+import com.ing.hubs.model.entity.course.schedule.Weekday;
+import com.ing.hubs.model.entity.enrollment.Enrollment;
+import com.ing.hubs.model.entity.enrollment.EnrollmentStatus;
+import com.ing.hubs.model.entity.user.Role;
+import com.ing.hubs.model.entity.user.User;
+import com.ing.hubs.repository.CourseRepository;
+import com.ing.hubs.security.JwtPrincipal;
+import com.ing.hubs.service.CourseService;
+import com.ing.hubs.service.ScheduleService;
+import com.ing.hubs.service.SecurityService;
+import com.ing.hubs.service.UserService;
+import com.ing.hubs.service.conflict.CourseConflictGraph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EnrollmentEligibilityServiceTest {
+    @Mock
+    private SecurityService securityService;
+    @Mock
+    private UserService userService;
+    @Mock
+    private CourseService courseService;
+    @Spy
+    private ScheduleService scheduleService;
+    @Spy
+    private EnrollmentValidationService validationService;
+    @Spy
+    private CourseConflictGraph conflictGraph = new CourseConflictGraph(mock(CourseRepository.class));
+    @InjectMocks
+    private EnrollmentEligibilityService enrollmentEligibilityService;
+
+    private final JwtPrincipal principal = new JwtPrincipal(UUID.randomUUID(), "username", Role.STUDENT);
+
+    private User student;
+
+    @BeforeEach
+    void setup() {
+        this.student = User.builder().id(UUID.randomUUID()).role(Role.STUDENT).enrollments(new HashSet<>()).build();
+        lenient().when(securityService.extractUserId(any())).thenReturn(this.student.getId());
+        lenient().when(userService.findStudentWithTimetable(this.student.getId())).thenReturn(this.student);
+    }
+
+    @Test
+    void shouldReportTheFirstFailingCheckOfEveryCourse() {
+        final Course enrolled = Fixtures.course(Weekday.MONDAY, 10);
+        this.enroll(enrolled, EnrollmentStatus.ACTIVE);
+        final Course pending = Fixtures.course(Weekday.WEDNESDAY, 10);
+        this.enroll(pending, EnrollmentStatus.PENDING);
+        final Course eligible = Fixtures.course(Weekday.TUESDAY, 10);
+        final Course overlapsTimetable = Fixtures.course(Weekday.MONDAY, 10);
+        final Course overlapsPending = Fixtures.course(Weekday.WEDNESDAY, 10);
+        final Course full = Fixtures.course(Weekday.FRIDAY, 0);
+        final Course started = Fixtures.course(Weekday.FRIDAY, 0);
+        started.setStartDate(LocalDate.now());
+        final UUID missing = UUID.randomUUID();
+        final List<UUID> courseIds = List.of(eligible.getId(), overlapsTimetable.getId(), overlapsPending.getId(),
+                full.getId(), started.getId(), pending.getId(), missing, eligible.getId());
+        when(courseService.findCoursesByIds(anyCollection()))
+                .thenReturn(List.of(eligible, overlapsTimetable, overlapsPending, full, started, pending));
+
+        final List<EligibilityDto> eligibilities = this.enrollmentEligibilityService.check(new EligibilityCheckDto(courseIds), principal);
+
+        assertEquals(courseIds.subList(0, 7), eligibilities.stream().map(EligibilityDto::getCourseId).toList());
+        assertEquals(Arrays.asList(null, EligibilityReason.SCHEDULE_OVERLAP, null, EligibilityReason.CAPACITY_REACHED,
+                        EligibilityReason.ENROLLMENT_PERIOD_PASSED, EligibilityReason.ALREADY_ENROLLED, EligibilityReason.COURSE_NOT_FOUND),
+                eligibilities.stream().map(EligibilityDto::getReason).toList());
+        assertEquals(List.of(true, false, true, false, false, false, false),
+                eligibilities.stream().map(EligibilityDto::isEligible).toList());
+        assertEquals(enrolled.getId(), eligibilities.get(1).getConflictingCourseId());
+        assertEquals(String.format("Schedules overlap with course \"%s\"!", enrolled.getCourseName()), eligibilities.get(1).getMessage());
+        verify(courseService, times(1)).findCoursesByIds(anyCollection());
+    }
+
+    @Test
+    void shouldRejectTooManyCoursesAndNonStudents() {
+        final EligibilityCheckDto tooMany = new EligibilityCheckDto(IntStream
+                .rangeClosed(0, EnrollmentEligibilityService.MAX_CHECKED_COURSES).mapToObj(i -> UUID.randomUUID()).toList());
+
+        assertThrows(EnrollmentProcessingException.class, () -> this.enrollmentEligibilityService.check(tooMany, principal));
+
+        this.student.setRole(Role.TEACHER);
+        final EligibilityCheckDto one = new EligibilityCheckDto(List.of(UUID.randomUUID()));
+        assertThrows(UnauthorizedAccessException.class, () -> this.enrollmentEligibilityService.check(one, principal));
+        verify(courseService, never()).findCoursesByIds(anyCollection());
+    }
+
+    private void enroll(final Course course,
+                        final EnrollmentStatus status) {
+        this.student.getEnrollments().add(Enrollment.builder()
+                .id(UUID.randomUUID())
+                .user(this.student)
+                .course(course)
+                .status(status)
+                .build());
+    }
+}
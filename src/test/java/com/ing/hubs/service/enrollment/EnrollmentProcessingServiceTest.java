@@ -1,11 +1,19 @@
 package com.ing.hubs.service.enrollment;
 
 import com.ing.hubs.exception.enrollment.EnrollmentProcessingException;
+import com.ing.hubs.dto.enrollment.BulkGradeResponseDto;
 import com.ing.hubs.dto.enrollment.EnrollmentResponseDto;
+import com.ing.hubs.dto.enrollment.GradeEntryDto;
+import com.ing.hubs.dto.enrollment.GradeResultDto;
 import com.ing.hubs.dto.enrollment.GradeEnrollmentDto;
 import com.ing.hubs.dto.enrollment.UpdateEnrollmentStatusDto;
 import com.ing.hubs.exception.course.CourseCapacityReachedException;
 import com.ing.hubs.exception.security.UnauthorizedAccessException;
+import com.ing.hubs.mapper.CourseMapper;
+import com.ing.hubs.mapper.EnrollmentMapper;
+import com.ing.hubs.mapper.ScheduleMapper;
+import com.ing.hubs.mapper.UserMapper;
+import com.ing.hubs.metrics.EnrollmentMetrics;
 import com.ing.hubs.model.entity.course.Course;
 import com.ing.hubs.model.entity.course.schedule.CourseType;
 import com.ing.hubs.model.entity.course.schedule.Schedule;
@@ -14,11 +22,17 @@ import com.ing.hubs.model.entity.enrollment.Enrollment;
 import com.ing.hubs.model.entity.enrollment.EnrollmentStatus;
 import com.ing.hubs.model.entity.user.Role;
 import com.ing.hubs.model.entity.user.User;
+import com.ing.hubs.repository.CourseRepository;
 import com.ing.hubs.repository.EnrollmentRepository;
+import com.ing.hubs.repository.projection.EnrollmentGradeRow;
 import com.ing.hubs.service.CourseService;
 import com.ing.hubs.service.ScheduleService;
 import com.ing.hubs.service.SecurityService;
+import com.ing.hubs.service.UserService;
+import com.ing.hubs.service.conflict.CourseConflictGraph;
+import com.ing.hubs.service.cron.CourseLifecycleEvent;
 import lombok.extern.slf4j.Slf4j;
+import com.ing.hubs.security.JwtPrincipal;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -26,14 +40,17 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.boot.test.system.CapturedOutput;
 import org.springframework.boot.test.system.OutputCaptureExtension;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 
 import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
@@ -42,6 +59,8 @@ import static org.hamcrest.Matchers.allOf;
 import static org.hamcrest.Matchers.containsString;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -52,20 +71,34 @@ class EnrollmentProcessingServiceTest {
     @Mock
     private SecurityService securityService;
     @Mock
+    private UserService userService;
+    @Mock
     private EnrollmentService enrollmentService;
     @Mock
     private CourseService courseService;
     @Spy
     private ScheduleService scheduleService;
     @Spy
-    private ModelMapper modelMapper;
+    private EnrollmentMapper enrollmentMapper = new EnrollmentMapper(new UserMapper(), new CourseMapper(new ScheduleMapper()));
     @Mock
     private EnrollmentRepository enrollmentRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @Spy
     private EnrollmentValidationService validationService;
+    @Mock
+    private EnrollmentMetrics enrollmentMetrics;
+    @Mock
+    private EnrollmentGradeWriter enrollmentGradeWriter;
+    @Spy
+    private CourseConflictGraph conflictGraph = new CourseConflictGraph(mock(CourseRepository.class));
+    @Mock
+    private SeatHoldService seatHoldService;
     @InjectMocks
     private EnrollmentProcessingService enrollmentProcessingService;
 
+    private final JwtPrincipal principal = new JwtPrincipal(UUID.randomUUID(), "username", Role.TEACHER);
+
     private User teacher;
     private User student;
     private UUID teacherId;
@@ -83,7 +116,12 @@ class EnrollmentProcessingServiceTest {
         this.enrollmentId = UUID.randomUUID();
         this.teacher = User.builder().id(this.teacherId).build();
         this.student = User.builder().id(this.studentId).build();
-        this.course = Course.builder().id(this.courseId).user(this.teacher).build();
+        this.course = Course.builder()
+                .id(this.courseId)
+                .user(this.teacher)
+                .startDate(LocalDate.now().minusDays(60))
+                .endDate(LocalDate.now().minusDays(1))
+                .build();
         this.enrollment = Enrollment.builder().id(this.enrollmentId).course(this.course).user(this.student).build();
     }
 
@@ -100,64 +138,99 @@ class EnrollmentProcessingServiceTest {
                 .course(this.course)
                 .build();
 
-        when(securityService.extractRoleFromToken(anyString())).thenReturn(Role.STUDENT);
-        when(securityService.extractUserIdFromToken(anyString())).thenReturn(this.teacherId);
+        when(securityService.extractRole(any())).thenReturn(Role.STUDENT);
+        when(securityService.extractUserId(any())).thenReturn(this.teacherId);
         when(enrollmentService.findEnrollmentById(any(UUID.class))).thenReturn(invalidEnrollment).thenReturn(validEnrollment);
         when(courseService.findCourseById(any(UUID.class))).thenReturn(course);
 
         assertThrows(EnrollmentProcessingException.class, () ->
-                this.enrollmentProcessingService.updateEnrollmentStatus(UUID.randomUUID(), new UpdateEnrollmentStatusDto(EnrollmentStatus.CANCELED), "token"));
+                this.enrollmentProcessingService.updateEnrollmentStatus(UUID.randomUUID(), new UpdateEnrollmentStatusDto(EnrollmentStatus.CANCELED), principal));
         assertDoesNotThrow(() ->
-                this.enrollmentProcessingService.updateEnrollmentStatus(UUID.randomUUID(), new UpdateEnrollmentStatusDto(EnrollmentStatus.CANCELED), "token"));
+                this.enrollmentProcessingService.updateEnrollmentStatus(UUID.randomUUID(), new UpdateEnrollmentStatusDto(EnrollmentStatus.CANCELED), principal));
     }
 
     @Test
     void shouldThrowUnauthorizedAccessExWhenNewStatusIsNotCancelled(){
         this.enrollment.setCourse(this.course);
 
-        when(securityService.extractRoleFromToken(anyString())).thenReturn(Role.STUDENT);
-        when(securityService.extractUserIdFromToken(anyString())).thenReturn(UUID.randomUUID());
+        when(securityService.extractRole(any())).thenReturn(Role.STUDENT);
+        when(securityService.extractUserId(any())).thenReturn(UUID.randomUUID());
         when(enrollmentService.findEnrollmentById(any(UUID.class))).thenReturn(this.enrollment);
         when(courseService.findCourseById(any(UUID.class))).thenReturn(this.course);
 
         assertThrows(UnauthorizedAccessException.class, () ->
-                this.enrollmentProcessingService.updateEnrollmentStatus(UUID.randomUUID(), new UpdateEnrollmentStatusDto(EnrollmentStatus.APPROVED), "token"));
+                this.enrollmentProcessingService.updateEnrollmentStatus(UUID.randomUUID(), new UpdateEnrollmentStatusDto(EnrollmentStatus.APPROVED), principal));
         assertDoesNotThrow(() ->
-                this.enrollmentProcessingService.updateEnrollmentStatus(UUID.randomUUID(), new UpdateEnrollmentStatusDto(EnrollmentStatus.CANCELED), "token"));
+                this.enrollmentProcessingService.updateEnrollmentStatus(UUID.randomUUID(), new UpdateEnrollmentStatusDto(EnrollmentStatus.CANCELED), principal));
     }
 
     @Test
     void shouldChangeEnrollmentStatusToCanceledWhenCancellationIsValid(){
-        when(securityService.extractRoleFromToken(anyString())).thenReturn(Role.STUDENT);
-        when(securityService.extractUserIdFromToken(anyString())).thenReturn(this.teacherId);
+        when(securityService.extractRole(any())).thenReturn(Role.STUDENT);
+        when(securityService.extractUserId(any())).thenReturn(this.teacherId);
         when(enrollmentService.findEnrollmentById(any(UUID.class))).thenReturn(this.enrollment);
         when(courseService.findCourseById(any(UUID.class))).thenReturn(this.course);
 
-        EnrollmentResponseDto processedEnrollment = this.enrollmentProcessingService.updateEnrollmentStatus(UUID.randomUUID(), new UpdateEnrollmentStatusDto(EnrollmentStatus.CANCELED), "token");
-        verify(courseService, times(1)).saveCourse(any(Course.class));
+        EnrollmentResponseDto processedEnrollment = this.enrollmentProcessingService.updateEnrollmentStatus(UUID.randomUUID(), new UpdateEnrollmentStatusDto(EnrollmentStatus.CANCELED), principal);
+        verify(seatHoldService, times(1)).release(this.enrollment);
+        verify(courseService, never()).saveCourse(any(Course.class));
+        verify(courseService, never()).reserveSeat(any(Course.class));
         assertEquals(processedEnrollment.getStatus(), EnrollmentStatus.CANCELED);
     }
 
     @Test
     void shouldThrowUnauthorizedAccessExWhenTeacherDidNotCreateTheCourse(){
-        when(securityService.extractRoleFromToken(anyString())).thenReturn(Role.TEACHER);
-        when(securityService.extractUserIdFromToken(anyString())).thenReturn(UUID.randomUUID());
+        when(securityService.extractRole(any())).thenReturn(Role.TEACHER);
+        when(securityService.extractUserId(any())).thenReturn(UUID.randomUUID());
         when(enrollmentService.findEnrollmentById(any(UUID.class))).thenReturn(this.enrollment);
         when(courseService.findCourseById(any(UUID.class))).thenReturn(this.course);
 
-        assertThrows(UnauthorizedAccessException.class, () -> this.enrollmentProcessingService.updateEnrollmentStatus(UUID.randomUUID(), new UpdateEnrollmentStatusDto(EnrollmentStatus.APPROVED), "token"));
+        assertThrows(UnauthorizedAccessException.class, () -> this.enrollmentProcessingService.updateEnrollmentStatus(UUID.randomUUID(), new UpdateEnrollmentStatusDto(EnrollmentStatus.APPROVED), principal));
     }
 
     @Test
     void shouldThrowCourseCapacityReachedExWhenCourseCapacityIsZero(){
         this.course.setCapacity(0);
 
-        when(securityService.extractRoleFromToken(anyString())).thenReturn(Role.TEACHER);
-        when(securityService.extractUserIdFromToken(anyString())).thenReturn(this.teacherId);
+        when(securityService.extractRole(any())).thenReturn(Role.TEACHER);
+        when(securityService.extractUserId(any())).thenReturn(this.teacherId);
+        when(enrollmentService.findEnrollmentById(any(UUID.class))).thenReturn(this.enrollment);
+        when(courseService.findCourseById(any(UUID.class))).thenReturn(this.course);
+
+        assertThrows(CourseCapacityReachedException.class, () -> this.enrollmentProcessingService.updateEnrollmentStatus(UUID.randomUUID(), new UpdateEnrollmentStatusDto(EnrollmentStatus.APPROVED), principal));
+    }
+
+    @Test
+    void shouldThrowCourseCapacityReachedExWhenSeatCannotBeReserved(){
+        this.course.setCapacity(10);
+        this.enrollment.setStatus(EnrollmentStatus.PENDING);
+
+        when(securityService.extractRole(any())).thenReturn(Role.TEACHER);
+        when(securityService.extractUserId(any())).thenReturn(this.teacherId);
+        when(enrollmentService.findEnrollmentById(any(UUID.class))).thenReturn(this.enrollment);
+        when(courseService.findCourseById(any(UUID.class))).thenReturn(this.course);
+        when(courseService.reserveSeat(this.course)).thenReturn(false);
+
+        assertThrows(CourseCapacityReachedException.class, () -> this.enrollmentProcessingService.updateEnrollmentStatus(UUID.randomUUID(), new UpdateEnrollmentStatusDto(EnrollmentStatus.APPROVED), principal));
+        assertEquals(EnrollmentStatus.PENDING, this.enrollment.getStatus());
+        verify(enrollmentRepository, never()).save(any(Enrollment.class));
+    }
+
+    @Test
+    void shouldApproveIntoTheHeldSeatOfAFullCourse(){
+        this.course.setCapacity(10);
+        this.course.setSeatsTaken(10);
+        this.enrollment.setStatus(EnrollmentStatus.PENDING);
+
+        when(securityService.extractRole(any())).thenReturn(Role.TEACHER);
+        when(securityService.extractUserId(any())).thenReturn(this.teacherId);
         when(enrollmentService.findEnrollmentById(any(UUID.class))).thenReturn(this.enrollment);
         when(courseService.findCourseById(any(UUID.class))).thenReturn(this.course);
+        when(seatHoldService.convert(this.enrollment)).thenReturn(true);
 
-        assertThrows(CourseCapacityReachedException.class, () -> this.enrollmentProcessingService.updateEnrollmentStatus(UUID.randomUUID(), new UpdateEnrollmentStatusDto(EnrollmentStatus.APPROVED), "token"));
+        assertEquals(EnrollmentStatus.APPROVED, this.enrollmentProcessingService.updateEnrollmentStatus(UUID.randomUUID(), new UpdateEnrollmentStatusDto(EnrollmentStatus.APPROVED), principal).getStatus());
+        verify(courseService, never()).reserveSeat(any(Course.class));
+        verify(seatHoldService, never()).release(this.enrollment);
     }
 
     @Test
@@ -165,12 +238,12 @@ class EnrollmentProcessingServiceTest {
         this.course.setCapacity(10);
         this.enrollment.setStatus(EnrollmentStatus.APPROVED);
 
-        when(securityService.extractRoleFromToken(anyString())).thenReturn(Role.TEACHER);
-        when(securityService.extractUserIdFromToken(anyString())).thenReturn(this.teacherId);
+        when(securityService.extractRole(any())).thenReturn(Role.TEACHER);
+        when(securityService.extractUserId(any())).thenReturn(this.teacherId);
         when(enrollmentService.findEnrollmentById(any(UUID.class))).thenReturn(this.enrollment);
         when(courseService.findCourseById(any(UUID.class))).thenReturn(this.course);
 
-        assertThrows(EnrollmentProcessingException.class, () -> this.enrollmentProcessingService.updateEnrollmentStatus(UUID.randomUUID(), new UpdateEnrollmentStatusDto(EnrollmentStatus.APPROVED), "token"));
+        assertThrows(EnrollmentProcessingException.class, () -> this.enrollmentProcessingService.updateEnrollmentStatus(UUID.randomUUID(), new UpdateEnrollmentStatusDto(EnrollmentStatus.APPROVED), principal));
     }
 
     @Test
@@ -178,12 +251,43 @@ class EnrollmentProcessingServiceTest {
         this.course.setCapacity(10);
         this.enrollment.setStatus(EnrollmentStatus.PENDING);
 
-        when(securityService.extractRoleFromToken(anyString())).thenReturn(Role.TEACHER);
-        when(securityService.extractUserIdFromToken(anyString())).thenReturn(this.teacherId);
+        when(securityService.extractRole(any())).thenReturn(Role.TEACHER);
+        when(securityService.extractUserId(any())).thenReturn(this.teacherId);
+        when(enrollmentService.findEnrollmentById(any(UUID.class))).thenReturn(this.enrollment);
+        when(courseService.findCourseById(any(UUID.class))).thenReturn(this.course);
+
+        assertEquals(EnrollmentStatus.DENIED, this.enrollmentProcessingService.updateEnrollmentStatus(UUID.randomUUID(), new UpdateEnrollmentStatusDto(EnrollmentStatus.DENIED), principal).getStatus());
+        verify(enrollmentMetrics, times(1)).recordTransition(EnrollmentStatus.PENDING, EnrollmentStatus.DENIED);
+    }
+
+    @Test
+    void shouldDenyEnrollmentOfFullCourseWithoutSeatHold(){
+        this.course.setCapacity(10);
+        this.course.setSeatsTaken(10);
+        this.enrollment.setStatus(EnrollmentStatus.PENDING);
+
+        when(securityService.extractRole(any())).thenReturn(Role.TEACHER);
+        when(securityService.extractUserId(any())).thenReturn(this.teacherId);
+        when(enrollmentService.findEnrollmentById(any(UUID.class))).thenReturn(this.enrollment);
+        when(courseService.findCourseById(any(UUID.class))).thenReturn(this.course);
+
+        assertEquals(EnrollmentStatus.DENIED, this.enrollmentProcessingService.updateEnrollmentStatus(UUID.randomUUID(), new UpdateEnrollmentStatusDto(EnrollmentStatus.DENIED), principal).getStatus());
+        verify(validationService, never()).validateCapacity(any(Course.class));
+        verify(seatHoldService, times(1)).release(this.enrollment);
+    }
+
+    @Test
+    void shouldNotTouchSeatHoldsWhenStatusTransitionIsInvalid(){
+        this.course.setCapacity(10);
+        this.enrollment.setStatus(EnrollmentStatus.APPROVED);
+
+        when(securityService.extractRole(any())).thenReturn(Role.TEACHER);
+        when(securityService.extractUserId(any())).thenReturn(this.teacherId);
         when(enrollmentService.findEnrollmentById(any(UUID.class))).thenReturn(this.enrollment);
         when(courseService.findCourseById(any(UUID.class))).thenReturn(this.course);
 
-        assertEquals(EnrollmentStatus.DENIED, this.enrollmentProcessingService.updateEnrollmentStatus(UUID.randomUUID(), new UpdateEnrollmentStatusDto(EnrollmentStatus.DENIED), "token").getStatus());
+        assertThrows(EnrollmentProcessingException.class, () -> this.enrollmentProcessingService.updateEnrollmentStatus(UUID.randomUUID(), new UpdateEnrollmentStatusDto(EnrollmentStatus.DENIED), principal));
+        verifyNoInteractions(seatHoldService);
     }
 
     @Test
@@ -217,6 +321,7 @@ class EnrollmentProcessingServiceTest {
                 .id(UUID.randomUUID())
                 .user(teacher)
                 .capacity(10)
+                .startDate(LocalDate.now().plusDays(5))
                 .schedules(Set.of(schedule1))
                 .build();
         final Course course2 = Course.builder()
@@ -250,49 +355,132 @@ class EnrollmentProcessingServiceTest {
 
         student.setEnrollments(Set.of(enrollment1, enrollment2));
 
-        when(securityService.extractRoleFromToken(anyString())).thenReturn(Role.TEACHER);
-        when(securityService.extractUserIdFromToken(anyString())).thenReturn(this.teacherId);
+        when(securityService.extractRole(any())).thenReturn(Role.TEACHER);
+        when(securityService.extractUserId(any())).thenReturn(this.teacherId);
         when(enrollmentService.findEnrollmentById(enrollment1Id)).thenReturn(enrollment1);
         when(courseService.findCourseById(any(UUID.class))).thenReturn(course1);
-        when(enrollmentService.findAllEnrollmentsByUser(any(UUID.class))).thenReturn(List.of(enrollment1, enrollment2));
+        when(enrollmentService.findEnrollmentsByUserAndStatus(this.studentId, EnrollmentStatus.PENDING)).thenReturn(List.of(enrollment2));
+        when(courseService.reserveSeat(course1)).thenReturn(true);
 
-        assertEquals(EnrollmentStatus.APPROVED, this.enrollmentProcessingService.updateEnrollmentStatus(enrollment1Id, new UpdateEnrollmentStatusDto(EnrollmentStatus.APPROVED), "token").getStatus());
+        assertEquals(EnrollmentStatus.APPROVED, this.enrollmentProcessingService.updateEnrollmentStatus(enrollment1Id, new UpdateEnrollmentStatusDto(EnrollmentStatus.APPROVED), principal).getStatus());
         assertThat(capturedOutput.getOut(), allOf(
                 containsString(enrollment2Id.toString()),
                 containsString(EnrollmentStatus.CANCELED.toString())
         ));
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
     void shouldThrowEnrollmentNotActiveExceptionWhenGradingNonActiveEnrollment(){
         this.enrollment.setStatus(EnrollmentStatus.PENDING);
 
-        when(securityService.extractUserIdFromToken(anyString())).thenReturn(this.teacherId);
+        when(securityService.extractUserId(any())).thenReturn(this.teacherId);
         when(enrollmentService.findEnrollmentById(any(UUID.class))).thenReturn(enrollment);
 
-        assertThrows(EnrollmentProcessingException.class, () -> this.enrollmentProcessingService.gradeEnrollment(enrollment.getId(), new GradeEnrollmentDto(8), "token"));
+        assertThrows(EnrollmentProcessingException.class, () -> this.enrollmentProcessingService.gradeEnrollment(enrollment.getId(), new GradeEnrollmentDto(8), principal));
     }
 
     @Test
     void shouldThrowEnrollmentGradingExceptionWhenGradeIsInvalid(){
         this.enrollment.setStatus(EnrollmentStatus.ACTIVE);
 
-        when(securityService.extractUserIdFromToken(anyString())).thenReturn(this.teacherId);
+        when(securityService.extractUserId(any())).thenReturn(this.teacherId);
         when(enrollmentService.findEnrollmentById(any(UUID.class))).thenReturn(enrollment);
 
-        assertThrows(EnrollmentProcessingException.class, () -> this.enrollmentProcessingService.gradeEnrollment(enrollment.getId(), new GradeEnrollmentDto(12), "token"));
+        assertThrows(EnrollmentProcessingException.class, () -> this.enrollmentProcessingService.gradeEnrollment(enrollment.getId(), new GradeEnrollmentDto(12), principal));
     }
 
     @Test
     void shouldGradeEnrollmentWhenDataIsValid(final CapturedOutput capturedOutput){
         this.enrollment.setStatus(EnrollmentStatus.ACTIVE);
 
-        when(securityService.extractUserIdFromToken(anyString())).thenReturn(this.teacherId);
+        when(securityService.extractUserId(any())).thenReturn(this.teacherId);
         when(enrollmentService.findEnrollmentById(any(UUID.class))).thenReturn(enrollment);
         when(enrollmentRepository.save(any(Enrollment.class))).thenReturn(enrollment);
 
-        this.enrollmentProcessingService.gradeEnrollment(enrollment.getId(), new GradeEnrollmentDto(8), "token");
+        this.enrollmentProcessingService.gradeEnrollment(enrollment.getId(), new GradeEnrollmentDto(8), principal);
         assertThat(capturedOutput.getOut(), containsString(enrollment.getId().toString()));
         verify(enrollmentRepository, times(1)).save(any(Enrollment.class));
+        verify(eventPublisher).publishEvent(CourseLifecycleEvent.of(this.course));
+    }
+
+    @Test
+    void shouldGradeValidRowsAndReportRejectedRowsInRequestOrder(){
+        final EnrollmentGradeRow active = this.gradeRow(EnrollmentStatus.ACTIVE, null, this.teacherId);
+        final EnrollmentGradeRow otherActive = this.gradeRow(EnrollmentStatus.ACTIVE, null, this.teacherId);
+        final EnrollmentGradeRow pending = this.gradeRow(EnrollmentStatus.PENDING, null, this.teacherId);
+        final EnrollmentGradeRow graded = this.gradeRow(EnrollmentStatus.ACTIVE, 7, this.teacherId);
+        final EnrollmentGradeRow foreign = this.gradeRow(EnrollmentStatus.ACTIVE, null, UUID.randomUUID());
+        // a JSON body can hold a null row, which List.of does not take
+        final List<GradeEntryDto> grades = Arrays.asList(
+                new GradeEntryDto(active.id(), 9),
+                new GradeEntryDto(pending.id(), 8),
+                new GradeEntryDto(graded.id(), 8),
+                new GradeEntryDto(foreign.id(), 8),
+                new GradeEntryDto(UUID.randomUUID(), 8),
+                new GradeEntryDto(otherActive.id(), 11),
+                new GradeEntryDto(active.id(), 10),
+                new GradeEntryDto(null, 10),
+                null);
+
+        when(securityService.extractUserId(any())).thenReturn(this.teacherId);
+        when(enrollmentRepository.findGradeRowsByIdIn(anyCollection())).thenReturn(List.of(active, otherActive, pending, graded, foreign));
+        when(enrollmentGradeWriter.writeGrades(List.of(new GradeEntryDto(active.id(), 9)))).thenReturn(new boolean[]{true});
+
+        final BulkGradeResponseDto response = this.enrollmentProcessingService.gradeEnrollments(grades, principal);
+
+        assertEquals(1, response.getGraded());
+        assertEquals(8, response.getRejected());
+        assertEquals(List.of(true, false, false, false, false, false, false, false, false),
+                response.getResults().stream().map(GradeResultDto::isGraded).toList());
+        assertEquals(List.of("Enrollment is not active!", "Enrollment already graded!",
+                        "This user is not authorized to access the requested resource!", "Enrollment not found!",
+                        "Grade must be between 1 and 10!", "Enrollment appears more than once!",
+                        "Enrollment id and grade are required!", "Enrollment id and grade are required!"),
+                response.getResults().stream().skip(1).map(GradeResultDto::getMessage).toList());
+        verify(enrollmentRepository, times(1)).findGradeRowsByIdIn(anyCollection());
+        verify(enrollmentRepository, never()).save(any(Enrollment.class));
+        verify(eventPublisher, times(1)).publishEvent(any(CourseLifecycleEvent.class));
+    }
+
+    @Test
+    void shouldRejectRowsThatWereGradedConcurrently(){
+        final EnrollmentGradeRow active = this.gradeRow(EnrollmentStatus.ACTIVE, null, this.teacherId);
+
+        when(securityService.extractUserId(any())).thenReturn(this.teacherId);
+        when(enrollmentRepository.findGradeRowsByIdIn(anyCollection())).thenReturn(List.of(active));
+        when(enrollmentGradeWriter.writeGrades(anyList())).thenReturn(new boolean[]{false});
+
+        final BulkGradeResponseDto response = this.enrollmentProcessingService.gradeEnrollments(List.of(new GradeEntryDto(active.id(), 9)), principal);
+
+        assertEquals(0, response.getGraded());
+        assertEquals("Enrollment already graded!", response.getResults().get(0).getMessage());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void shouldNotWriteAnythingWhenNoRowIsValid(){
+        when(securityService.extractUserId(any())).thenReturn(this.teacherId);
+
+        final BulkGradeResponseDto response = this.enrollmentProcessingService.gradeEnrollments(List.of(new GradeEntryDto(null, 9)), principal);
+
+        assertEquals(1, response.getRejected());
+        verify(enrollmentRepository, never()).findGradeRowsByIdIn(anyCollection());
+        verify(enrollmentGradeWriter, never()).writeGrades(anyList());
+    }
+
+    @Test
+    void shouldRejectBatchesAboveTheLimit(){
+        final List<GradeEntryDto> grades = Collections.nCopies(EnrollmentProcessingService.MAX_BULK_GRADES + 1, new GradeEntryDto(this.enrollmentId, 9));
+
+        assertThrows(EnrollmentProcessingException.class, () -> this.enrollmentProcessingService.gradeEnrollments(grades, principal));
+        verify(enrollmentRepository, never()).findGradeRowsByIdIn(anyCollection());
+    }
+
+    private EnrollmentGradeRow gradeRow(final EnrollmentStatus status,
+                                        final Integer grade,
+                                        final UUID teacherId){
+        return new EnrollmentGradeRow(UUID.randomUUID(), status, grade, teacherId, this.courseId,
+                this.course.getStartDate(), this.course.getEndDate());
     }
-}
\ No newline at end of file
+}
@@ -8,6 +8,11 @@ import com.ing.hubs.exception.user.InvalidIdentifierException;
 import com.ing.hubs.exception.enrollment.StudentAlreadyEnrolledException;
 import com.ing.hubs.exception.course.InvalidScheduleException;
 import com.ing.hubs.exception.security.UnauthorizedAccessException;
+import com.ing.hubs.mapper.CourseMapper;
+import com.ing.hubs.mapper.EnrollmentMapper;
+import com.ing.hubs.mapper.ScheduleMapper;
+import com.ing.hubs.mapper.UserMapper;
+import com.ing.hubs.metrics.EnrollmentMetrics;
 import com.ing.hubs.model.entity.course.Course;
 import com.ing.hubs.model.entity.course.schedule.Schedule;
 import com.ing.hubs.model.entity.enrollment.Enrollment;
@@ -19,6 +24,9 @@ import com.ing.hubs.service.CourseService;
 import com.ing.hubs.service.ScheduleService;
 import com.ing.hubs.service.SecurityService;
 import com.ing.hubs.service.UserService;
+import com.ing.hubs.service.stream.CursorReader;
+import com.ing.hubs.security.JwtPrincipal;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
@@ -30,15 +38,17 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
 
 import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -50,16 +60,28 @@ class EnrollmentServiceTest {
     @Mock
     private EnrollmentRepository enrollmentRepository;
     @Spy
-    private ModelMapper modelMapper;
+    private EnrollmentMapper enrollmentMapper = new EnrollmentMapper(new UserMapper(), new CourseMapper(new ScheduleMapper()));
+    @Spy
+    private ScheduleMapper scheduleMapper = new ScheduleMapper();
     @Mock
     private SecurityService securityService;
     @Mock
     private ScheduleService scheduleService;
     @Spy
     private EnrollmentValidationService validationService;
+    @Mock
+    private EnrollmentMetrics enrollmentMetrics;
+    @Spy
+    private CourseMapper courseMapper = new CourseMapper(new ScheduleMapper());
+    @Spy
+    private CursorReader cursorReader = new CursorReader(mock(EntityManager.class));
+    @Mock
+    private SeatHoldService seatHoldService;
     @InjectMocks
     private EnrollmentService enrollmentService;
 
+    private final JwtPrincipal principal = new JwtPrincipal(UUID.randomUUID(), "username", Role.STUDENT);
+
     @Test
     void shouldThrowUnauthorizedAccessExceptionWhenRoleIsNotStudent(){
         final UUID id = UUID.randomUUID();
@@ -67,12 +89,11 @@ class EnrollmentServiceTest {
                         .role(Role.TEACHER)
                         .build();
 
-        when(userService.findUserById(any(UUID.class))).thenReturn(user);
-        when(securityService.extractUserIdFromToken(anyString())).thenReturn(id);
+        when(userService.findStudentWithTimetable(any(UUID.class))).thenReturn(user);
+        when(securityService.extractUserId(any())).thenReturn(id);
 
-        assertThrows(UnauthorizedAccessException.class, () -> this.enrollmentService.createEnrollment(UUID.randomUUID(), anyString()));
-        verify(userService, never()).saveUser(user);
-        verify(courseService, never()).saveCourse(any(Course.class));
+        assertThrows(UnauthorizedAccessException.class, () -> this.enrollmentService.createEnrollment(UUID.randomUUID(), principal));
+        verify(enrollmentRepository, never()).save(any(Enrollment.class));
     }
 
     @Nested
@@ -83,14 +104,13 @@ class EnrollmentServiceTest {
             this.user = User.builder()
                     .role(Role.STUDENT)
                     .build();
-            when(userService.findUserById(any(UUID.class))).thenReturn(user);
-            when(securityService.extractUserIdFromToken(anyString())).thenReturn(UUID.randomUUID());
+            when(userService.findStudentWithTimetable(any(UUID.class))).thenReturn(user);
+            when(securityService.extractUserId(any())).thenReturn(UUID.randomUUID());
         }
 
         @AfterEach
         void checkIfSaved(){
-            verify(userService, never()).saveUser(user);
-            verify(courseService, never()).saveCourse(any(Course.class));
+            verify(enrollmentRepository, never()).save(any(Enrollment.class));
         }
 
         @Test
@@ -102,7 +122,7 @@ class EnrollmentServiceTest {
 
             when(courseService.findCourseById(any(UUID.class))).thenReturn(course);
 
-            assertThrows(CourseCapacityReachedException.class, () -> enrollmentService.createEnrollment(UUID.randomUUID(), anyString()));
+            assertThrows(CourseCapacityReachedException.class, () -> enrollmentService.createEnrollment(UUID.randomUUID(), principal));
         }
 
         @Test
@@ -118,7 +138,7 @@ class EnrollmentServiceTest {
 
             when(courseService.findCourseById(any(UUID.class))).thenReturn(course);
 
-            assertThrows(StudentAlreadyEnrolledException.class, () -> enrollmentService.createEnrollment(UUID.randomUUID(), anyString()));
+            assertThrows(StudentAlreadyEnrolledException.class, () -> enrollmentService.createEnrollment(UUID.randomUUID(), principal));
         }
 
         @Test
@@ -131,12 +151,12 @@ class EnrollmentServiceTest {
             doThrow(InvalidScheduleException.class).when(scheduleService).validateScheduleOverlap(course, user);
             when(courseService.findCourseById(any(UUID.class))).thenReturn(course);
 
-            assertThrows(InvalidScheduleException.class, () -> enrollmentService.createEnrollment(UUID.randomUUID(), anyString()));
+            assertThrows(InvalidScheduleException.class, () -> enrollmentService.createEnrollment(UUID.randomUUID(), principal));
         }
     }
 
     @Test
-    void shouldSaveUserAndCourseAfterCreatingEnrollment(){
+    void shouldSaveEnrollmentAfterCreatingEnrollment(){
         final UUID enrollmentId = UUID.randomUUID();
         final User user = User.builder()
                 .role(Role.STUDENT)
@@ -146,15 +166,16 @@ class EnrollmentServiceTest {
                 .capacity(10)
                 .build();
 
-        when(userService.findUserById(any(UUID.class))).thenReturn(user);
-        when(securityService.extractUserIdFromToken(anyString())).thenReturn(UUID.randomUUID());
+        when(userService.findStudentWithTimetable(any(UUID.class))).thenReturn(user);
+        when(securityService.extractUserId(any())).thenReturn(UUID.randomUUID());
         when(courseService.findCourseById(any(UUID.class))).thenReturn(course);
-        when(enrollmentRepository.findEnrollmentByUserAndCourse(any(User.class), any(Course.class))).thenReturn(Optional.ofNullable(Enrollment.builder().id(enrollmentId).build()));
+        when(enrollmentRepository.save(any(Enrollment.class))).thenReturn(Enrollment.builder().id(enrollmentId).build());
 
-        final EnrollmentResponseDto responseDto = enrollmentService.createEnrollment(UUID.randomUUID(), anyString());
+        final EnrollmentResponseDto responseDto = enrollmentService.createEnrollment(UUID.randomUUID(), principal);
 
-        verify(userService, times(1)).saveUser(user);
-        verify(courseService, times(1)).saveCourse(any(Course.class));
+        verify(enrollmentRepository, times(1)).save(any(Enrollment.class));
+        verify(enrollmentMetrics, times(1)).recordCreated(EnrollmentStatus.PENDING);
+        verify(userService, never()).saveUser(user);
         assertEquals(responseDto.getId(), enrollmentId);
     }
 
@@ -183,45 +204,89 @@ class EnrollmentServiceTest {
                     enrollment5,
                     enrollment6);
 
-            when(enrollmentRepository.findAll()).thenReturn(enrollments);
-            lenient().when(securityService.extractUserIdFromToken(anyString())).thenReturn(this.user.getId());
+            lenient().when(securityService.extractUserId(any())).thenReturn(this.user.getId());
             lenient().when(userService.findUserById(any(UUID.class))).thenReturn(this.user);
         }
 
+        private List<Enrollment> withStatus(final EnrollmentStatus status){
+            return this.enrollments.stream().filter(e -> e.getStatus().equals(status)).toList();
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {"PENDING", "APPROVED", "DENIED", "ACTIVE", "COMPLETED", "CANCELED"})
+        void shouldReturnEnrollmentsBasedOnStatus(final String filter){
+            final EnrollmentStatus status = EnrollmentStatus.valueOf(filter);
+            when(enrollmentRepository.findAllByStatus(status)).thenReturn(withStatus(status));
+
+            assertEquals(withStatus(status), enrollmentService.findEnrollmentsByStatus(status));
+            verify(enrollmentRepository, never()).findAll();
+        }
+
         @Test
-        void shouldReturnEnrollmentsBasedOnStatus(){
+        void shouldReturnAllEnrollmentsWhenStatusIsNull(){
+            when(enrollmentRepository.findAll()).thenReturn(enrollments);
+
             assertEquals(enrollments, enrollmentService.findEnrollmentsByStatus(null));
-            assertEquals(enrollments.stream().filter(e -> e.getStatus().equals(EnrollmentStatus.PENDING)).toList(), enrollmentService.findEnrollmentsByStatus(EnrollmentStatus.PENDING));
-            assertEquals(enrollments.stream().filter(e -> e.getStatus().equals(EnrollmentStatus.APPROVED)).toList(), enrollmentService.findEnrollmentsByStatus(EnrollmentStatus.APPROVED));
-            assertEquals(enrollments.stream().filter(e -> e.getStatus().equals(EnrollmentStatus.DENIED)).toList(), enrollmentService.findEnrollmentsByStatus(EnrollmentStatus.DENIED));
-            assertEquals(enrollments.stream().filter(e -> e.getStatus().equals(EnrollmentStatus.ACTIVE)).toList(), enrollmentService.findEnrollmentsByStatus(EnrollmentStatus.ACTIVE));
-            assertEquals(enrollments.stream().filter(e -> e.getStatus().equals(EnrollmentStatus.COMPLETED)).toList(), enrollmentService.findEnrollmentsByStatus(EnrollmentStatus.COMPLETED));
-            assertEquals(enrollments.stream().filter(e -> e.getStatus().equals(EnrollmentStatus.CANCELED)).toList(), enrollmentService.findEnrollmentsByStatus(EnrollmentStatus.CANCELED));
         }
 
         @Test
         void shouldReturnAllEnrollmentsWhenFilterIsNull(){
             user.setRole(Role.TEACHER);
             course.setUser(this.user);
+            when(enrollmentRepository.streamAllByTeacherId(this.user.getId())).thenReturn(enrollments.stream());
 
-            final List<EnrollmentResponseDto> result = enrollmentService.findAll(null, anyString());
+            final List<EnrollmentResponseDto> result = new ArrayList<>();
+            enrollmentService.streamAll(null, principal, result::add);
 
-            verify(enrollmentRepository, times(1)).findAll();
+            verify(enrollmentRepository, times(1)).streamAllByTeacherId(this.user.getId());
+            verify(enrollmentRepository, never()).findAll();
             assertEquals(6, result.size());
         }
 
         @ParameterizedTest
         @ValueSource(strings = {"PENDING", "APPROVED", "DENIED", "ACTIVE", "COMPLETED", "CANCELED"})
         void shouldReturnAllEnrollmentsWhenFilterIsPending(final String filter){
+            final EnrollmentStatus status = EnrollmentStatus.valueOf(filter);
             this.enrollments.forEach(enrollment -> enrollment.setUser(this.user));
             user.setRole(Role.STUDENT);
             course.setUser(this.user);
+            when(enrollmentRepository.streamAllByUserIdAndStatus(this.user.getId(), status)).thenReturn(withStatus(status).stream());
 
-            final List<EnrollmentResponseDto> result = enrollmentService.findAll(EnrollmentStatus.valueOf(filter), anyString());
+            final List<EnrollmentResponseDto> result = new ArrayList<>();
+            enrollmentService.streamAll(status, principal, result::add);
 
-            verify(enrollmentRepository, times(1)).findAll();
+            verify(enrollmentRepository, times(1)).streamAllByUserIdAndStatus(this.user.getId(), status);
+            verify(enrollmentRepository, never()).findAll();
             assertEquals(1, result.size());
         }
+
+        @Test
+        void shouldFilterTeachersEnrollmentsByStatusInRepository(){
+            user.setRole(Role.TEACHER);
+            course.setUser(this.user);
+            when(enrollmentRepository.streamAllByTeacherIdAndStatus(this.user.getId(), EnrollmentStatus.PENDING))
+                    .thenReturn(withStatus(EnrollmentStatus.PENDING).stream());
+
+            final List<EnrollmentResponseDto> result = new ArrayList<>();
+            enrollmentService.streamAll(EnrollmentStatus.PENDING, principal, result::add);
+
+            assertEquals(1, result.size());
+        }
+
+        @Test
+        void shouldMapEachCourseOnceWhileStreaming(){
+            user.setRole(Role.TEACHER);
+            course.setUser(this.user);
+            when(courseService.findCoursesTaughtBy(this.user.getId())).thenReturn(List.of(course));
+            when(enrollmentRepository.streamAllByTeacherId(this.user.getId())).thenReturn(enrollments.stream());
+
+            final List<EnrollmentResponseDto> result = new ArrayList<>();
+            enrollmentService.streamAll(null, principal, result::add);
+
+            verify(courseMapper, times(1)).toResponse(course);
+            assertEquals(6, result.size());
+            assertTrue(result.stream().allMatch(dto -> dto.getCourse() != null));
+        }
     }
 
     @Test
@@ -230,10 +295,10 @@ class EnrollmentServiceTest {
                 .id(UUID.randomUUID())
                 .build();
 
-        when(securityService.extractUserIdFromToken(anyString())).thenReturn(UUID.randomUUID());
-        when(securityService.extractRoleFromToken(anyString())).thenReturn(Role.STUDENT);
+        when(securityService.extractUserId(any())).thenReturn(UUID.randomUUID());
+        when(securityService.extractRole(any())).thenReturn(Role.STUDENT);
 
-        assertThrows(UnauthorizedAccessException.class, () -> enrollmentService.findAllEnrollmentsByCourse(UUID.randomUUID(), anyString()));
+        assertThrows(UnauthorizedAccessException.class, () -> enrollmentService.streamAllEnrollmentsByCourse(UUID.randomUUID(), principal, dto -> {}));
     }
 
     @Test
@@ -245,11 +310,11 @@ class EnrollmentServiceTest {
                 .user(user)
                 .build();
 
-        when(securityService.extractUserIdFromToken(anyString())).thenReturn(UUID.randomUUID());
-        when(securityService.extractRoleFromToken(anyString())).thenReturn(Role.TEACHER);
+        when(securityService.extractUserId(any())).thenReturn(UUID.randomUUID());
+        when(securityService.extractRole(any())).thenReturn(Role.TEACHER);
         when(courseService.findCourseById(any(UUID.class))).thenReturn(course);
 
-        assertThrows(UnauthorizedAccessException.class, () -> enrollmentService.findAllEnrollmentsByCourse(UUID.randomUUID(), anyString()));
+        assertThrows(UnauthorizedAccessException.class, () -> enrollmentService.streamAllEnrollmentsByCourse(UUID.randomUUID(), principal, dto -> {}));
     }
 
     @Test
@@ -267,12 +332,16 @@ class EnrollmentServiceTest {
         final Enrollment enrollment1 = Enrollment.builder().course(course).grade(8).user(new User()).build();
         final Enrollment enrollment2 = Enrollment.builder().course(course).grade(9).user(new User()).build();
 
-        when(securityService.extractUserIdFromToken(anyString())).thenReturn(userId);
-        when(securityService.extractRoleFromToken(anyString())).thenReturn(Role.TEACHER);
+        when(securityService.extractUserId(any())).thenReturn(userId);
+        when(securityService.extractRole(any())).thenReturn(Role.TEACHER);
         when(courseService.findCourseById(any(UUID.class))).thenReturn(course);
-        when(enrollmentRepository.findAll()).thenReturn(List.of(enrollment1, enrollment2));
+        when(enrollmentRepository.streamAllByCourseId(courseId)).thenReturn(Stream.of(enrollment1, enrollment2));
+
+        final List<EnrollmentResponseDto> result = new ArrayList<>();
+        enrollmentService.streamAllEnrollmentsByCourse(courseId, principal, result::add);
 
-        assertEquals(2, enrollmentService.findAllEnrollmentsByCourse(courseId, anyString()).size());
+        assertEquals(2, result.size());
+        verify(enrollmentRepository, never()).findAllByCourseId(courseId);
     }
 
     @Test
@@ -307,28 +376,27 @@ class EnrollmentServiceTest {
             expectedGrades.put("course1", 8);
             expectedGrades.put("course2", 9);
 
-            when(enrollmentRepository.findAll()).thenReturn(enrollments);
-            when(securityService.extractUserIdFromToken(anyString())).thenReturn(user.getId());
-            when(securityService.extractRoleFromToken(anyString())).thenReturn(Role.STUDENT);
-            when(enrollmentService.findAllEnrollmentsByUser(anyString())).thenReturn(enrollments);
+            when(enrollmentRepository.findAllByUserIdAndStatusIn(eq(studentId), anyCollection()))
+                    .thenReturn(enrollments.stream().filter(e -> e.getStatus() != EnrollmentStatus.PENDING).toList());
+            when(securityService.extractUserId(any())).thenReturn(user.getId());
+            when(securityService.extractRole(any())).thenReturn(Role.STUDENT);
 
-            assertEquals(expectedGrades, enrollmentService.viewGrades(anyString()));
+            assertEquals(expectedGrades, enrollmentService.viewGrades(principal));
         }
 
         @Test
         void shouldThrowUnauthorizedAccessExWhenTeacherTriesToViewGrades(){
-            when(securityService.extractRoleFromToken(anyString())).thenReturn(Role.TEACHER);
+            when(securityService.extractRole(any())).thenReturn(Role.TEACHER);
 
-            assertThrows(UnauthorizedAccessException.class, () -> enrollmentService.viewGrades("token"));
+            assertThrows(UnauthorizedAccessException.class, () -> enrollmentService.viewGrades(principal));
         }
 
         @Test
         void shouldReturnAllEnrollmentsOfAStudent() {
-            when(enrollmentRepository.findAll()).thenReturn(enrollments);
-            when(securityService.extractUserIdFromToken(anyString())).thenReturn(user.getId());
-            when(enrollmentService.findAllEnrollmentsByUser(anyString())).thenReturn(enrollments);
+            when(enrollmentRepository.findAllByUserId(studentId)).thenReturn(enrollments);
+            when(securityService.extractUserId(any())).thenReturn(user.getId());
 
-            assertEquals(enrollments, enrollmentService.findAllEnrollmentsByUser(anyString()));
+            assertEquals(enrollments, enrollmentService.findAllEnrollmentsByUser(principal));
             assertEquals(enrollments, enrollmentService.findAllEnrollmentsByUser(studentId));
         }
     }
@@ -360,10 +428,10 @@ class EnrollmentServiceTest {
 
         final List<Enrollment> enrollments = List.of(enrollment1, enrollment2, enrollment3);
 
-        when(enrollmentRepository.findAll()).thenReturn(enrollments);
-        when(securityService.extractUserIdFromToken(anyString())).thenReturn(userId);
+        when(enrollmentRepository.findAllByUserIdAndStatus(userId, EnrollmentStatus.ACTIVE)).thenReturn(enrollments);
+        when(securityService.extractUserId(any())).thenReturn(userId);
 
-        final List<StudentsScheduleResponseDto> schedules = enrollmentService.findStudentsActiveSchedules("token");
+        final List<StudentsScheduleResponseDto> schedules = enrollmentService.findStudentsActiveSchedules(principal);
         final List<String> expectedCourseNames = List.of(course1.getCourseName(), course2.getCourseName(), course3.getCourseName());
 
         IntStream.range(0, schedules.size())
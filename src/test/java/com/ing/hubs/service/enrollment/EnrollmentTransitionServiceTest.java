@@ -0,0 +1,154 @@
+package com.ing.hubs.service.enrollment;
+
+import com.ing.hubs.fixture.Fixtures;
+import com.ing.hubs.metrics.EnrollmentMetrics;
+import com.ing.hubs.model.entity.course.Course;
+import com.ing.hubs.model.entity.course.schedule.CourseType;
+import com.ing.hubs.model.entity.course.schedule.Schedule;
+import com.ing.hubs.model.entity.course.schedule.Weekday;
+import com.ing.hubs.model.entity.enrollment.Enrollment;
+import com.ing.hubs.model.entity.enrollment.EnrollmentStatus;
+import com.ing.hubs.model.entity.user.Role;
+import com.ing.hubs.model.entity.user.User;
+import com.ing.hubs.repository.CourseRepository;
+import com.ing.hubs.repository.EnrollmentRepository;
+import com.ing.hubs.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EnrollmentTransitionServiceTest {
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+    private static final int CHUNK_SIZE = 3;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private EnrollmentTransitionService transitionService;
+    private User teacher;
+
+    @BeforeEach
+    void setup() {
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.transitionService = new EnrollmentTransitionService(this.enrollmentRepository, this.transactionTemplate,
+                new EnrollmentMetrics(this.meterRegistry), CHUNK_SIZE);
+        this.teacher = Fixtures.saveUser(this.userRepository, Role.TEACHER, "@poodle.com");
+    }
+
+    @Test
+    void shouldCompleteOnlyGradedEnrollmentsOfEndedCoursesInChunks() {
+        final LocalDate today = LocalDate.now();
+        final Course ended = this.saveCourse(today.minusDays(60), today.minusDays(1));
+        final Course running = this.saveCourse(today.minusDays(30), today.plusDays(30));
+
+        final Set<UUID> expected = new HashSet<>();
+        for (int i = 0; i < 7; i++) {
+            expected.add(this.saveEnrollment(ended, EnrollmentStatus.ACTIVE, 8));
+        }
+        final UUID ungraded = this.saveEnrollment(ended, EnrollmentStatus.ACTIVE, null);
+        final UUID stillRunning = this.saveEnrollment(running, EnrollmentStatus.ACTIVE, 9);
+
+        final Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        final List<UUID> completed = this.transitionService.completeGradedEnrollments(today);
+
+        assertEquals(expected, new HashSet<>(completed));
+        assertEquals(expected.size(), completed.size());
+        assertTrue(statistics.getPrepareStatementCount() <= 2L * (expected.size() / CHUNK_SIZE + 2),
+                String.format("Expected a bounded number of statements but %d were executed", statistics.getPrepareStatementCount()));
+        expected.forEach(id -> assertEquals(EnrollmentStatus.COMPLETED, this.statusOf(id)));
+        assertEquals(expected.size(), this.meterRegistry.get("enrollment.status.transitions")
+                .tag("from", "ACTIVE")
+                .tag("to", "COMPLETED")
+                .counter()
+                .count());
+        assertEquals(EnrollmentStatus.ACTIVE, this.statusOf(ungraded));
+        assertEquals(EnrollmentStatus.ACTIVE, this.statusOf(stillRunning));
+
+        assertTrue(this.transitionService.completeGradedEnrollments(today).isEmpty());
+    }
+
+    @Test
+    void shouldActivateApprovedEnrollmentsOfCoursesStartingTodayOrEarlier() {
+        final LocalDate today = LocalDate.now();
+        final Course startingToday = this.saveCourse(today, today.plusDays(30));
+        final Course started = this.saveCourse(today.minusDays(3), today.plusDays(30));
+        final Course upcoming = this.saveCourse(today.plusDays(1), today.plusDays(30));
+
+        final Set<UUID> expected = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            expected.add(this.saveEnrollment(startingToday, EnrollmentStatus.APPROVED, null));
+            expected.add(this.saveEnrollment(started, EnrollmentStatus.APPROVED, null));
+        }
+        final UUID pending = this.saveEnrollment(started, EnrollmentStatus.PENDING, null);
+        final UUID notStarted = this.saveEnrollment(upcoming, EnrollmentStatus.APPROVED, null);
+
+        final List<UUID> activated = this.transitionService.activateApprovedEnrollments(today);
+
+        assertEquals(expected, new HashSet<>(activated));
+        expected.forEach(id -> assertEquals(EnrollmentStatus.ACTIVE, this.statusOf(id)));
+        assertEquals(EnrollmentStatus.PENDING, this.statusOf(pending));
+        assertEquals(EnrollmentStatus.APPROVED, this.statusOf(notStarted));
+    }
+
+    private EnrollmentStatus statusOf(final UUID enrollmentId) {
+        return this.enrollmentRepository.findById(enrollmentId).orElseThrow().getStatus();
+    }
+
+    private Course saveCourse(final LocalDate startDate, final LocalDate endDate) {
+        final Course course = Course.builder()
+                .courseName("Transition " + SEQUENCE.incrementAndGet())
+                .description("description")
+                .capacity(50)
+                .credits(5)
+                .startDate(startDate)
+                .endDate(endDate)
+                .build();
+        course.addSchedules(new HashSet<>(Set.of(Schedule.builder()
+                .courseType(CourseType.COURSE)
+                .weekday(Weekday.MONDAY)
+                .startTime(LocalTime.of(8, 0))
+                .endTime(LocalTime.of(10, 0))
+                .build())));
+        return this.transactionTemplate.execute(status -> {
+            course.setUser(this.userRepository.getReferenceById(this.teacher.getId()));
+            return this.courseRepository.save(course);
+        });
+    }
+
+    private UUID saveEnrollment(final Course course, final EnrollmentStatus status, final Integer grade) {
+        final User student = Fixtures.saveUser(this.userRepository, Role.STUDENT, "@stud.poodle.com");
+        return this.transactionTemplate.execute(transactionStatus ->
+                this.enrollmentRepository.save(Enrollment.builder()
+                        .course(this.courseRepository.getReferenceById(course.getId()))
+                        .user(this.userRepository.getReferenceById(student.getId()))
+                        .status(status)
+                        .grade(grade)
+                        .build()).getId());
+    }
+}
@@ -50,6 +50,21 @@ class EnrollmentValidationServiceTest {
         assertDoesNotThrow(() -> enrollmentValidationService.validateCapacity(validCourse));
     }
 
+    @Test
+    void shouldThrowCourseCapacityReachedExceptionWhenAllSeatsAreTaken() {
+        final Course fullCourse = Course.builder()
+                .capacity(20)
+                .seatsTaken(20)
+                .build();
+        final Course courseWithOneSeatLeft = Course.builder()
+                .capacity(20)
+                .seatsTaken(19)
+                .build();
+
+        assertThrows(CourseCapacityReachedException.class, () -> enrollmentValidationService.validateCapacity(fullCourse));
+        assertDoesNotThrow(() -> enrollmentValidationService.validateCapacity(courseWithOneSeatLeft));
+    }
+
     @Test
     void shouldThrowEnrollmentNotActiveExceptionWhenEnrollmentNotActive() {
         final Enrollment invalidEnrollment = Enrollment.builder()
@@ -0,0 +1,38 @@
+package com.ing.hubs.service.enrollment;
+
+import com.ing.hubs.dto.enrollment.GradeEntryDto;
+import com.ing.hubs.exception.enrollment.InvalidGradeFileException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradeCsvTest {
+    private final UUID first = UUID.randomUUID();
+    private final UUID second = UUID.randomUUID();
+
+    @Test
+    void shouldReadRowsAndSkipHeaderAndBlankLines(){
+        final String csv = "enrollmentId, grade\r\n" + first + ",9\n\n " + second + " , 10 \n";
+
+        assertEquals(List.of(new GradeEntryDto(first, 9), new GradeEntryDto(second, 10)), GradeCsv.parse(csv));
+    }
+
+    @Test
+    void shouldReadAFileWithoutHeader(){
+        assertEquals(List.of(new GradeEntryDto(first, 7)), GradeCsv.parse(first + ",7"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"not-a-uuid,9", "%s,nine", "%s", "%s,9,extra"})
+    void shouldRejectTheFileWhenALineCannotBeRead(final String line){
+        final String csv = "enrollmentId,grade\n" + second + ",8\n" + String.format(line, first);
+
+        final InvalidGradeFileException ex = assertThrows(InvalidGradeFileException.class, () -> GradeCsv.parse(csv));
+        assertTrue(ex.getMessage().startsWith("Line 3:"));
+    }
+}
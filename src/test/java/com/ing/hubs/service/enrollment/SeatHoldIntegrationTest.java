@@ -0,0 +1,163 @@
+package com.ing.hubs.service.enrollment;
+
+import com.ing.hubs.dto.enrollment.UpdateEnrollmentStatusDto;
+import com.ing.hubs.exception.course.CourseCapacityReachedException;
+import com.ing.hubs.fixture.Fixtures;
+import com.ing.hubs.model.entity.course.Course;
+import com.ing.hubs.model.entity.course.schedule.CourseType;
+import com.ing.hubs.model.entity.course.schedule.Schedule;
+import com.ing.hubs.model.entity.course.schedule.Weekday;
+import com.ing.hubs.model.entity.enrollment.EnrollmentStatus;
+import com.ing.hubs.model.entity.enrollment.SeatHold;
+import com.ing.hubs.model.entity.user.Role;
+import com.ing.hubs.model.entity.user.User;
+import com.ing.hubs.repository.CourseRepository;
+import com.ing.hubs.repository.SeatHoldRepository;
+import com.ing.hubs.repository.UserRepository;
+import com.ing.hubs.security.JwtPrincipal;
+import com.ing.hubs.security.JwtProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// a database of its own, as this context recreates the schema next to the one of the other tests
+@SpringBootTest(properties = {
+        "enrollment.seatHold.duration=PT1H",
+        "spring.datasource.url=jdbc:h2:mem:seathold;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000"
+})
+@ActiveProfiles("test")
+class SeatHoldIntegrationTest {
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private SeatHoldRepository seatHoldRepository;
+    @Autowired
+    private JwtProvider jwtProvider;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EnrollmentService enrollmentService;
+    @Autowired
+    private EnrollmentProcessingService enrollmentProcessingService;
+    @Autowired
+    private SeatHoldService seatHoldService;
+
+    private JwtPrincipal teacherPrincipal;
+    private Course course;
+
+    @BeforeEach
+    void setup() {
+        final User teacher = Fixtures.saveUser(this.userRepository, Role.TEACHER, "@poodle.com");
+        this.teacherPrincipal = this.principalOf(teacher);
+        this.course = this.saveCourse(teacher, 2);
+    }
+
+    @Test
+    void shouldHoldASeatOnEnrollmentAndKeepItOnApproval() {
+        final UUID enrollmentId = this.enroll();
+
+        assertEquals(1, this.seatsTaken());
+        assertTrue(this.holdOf(enrollmentId).isPresent());
+
+        this.enrollmentProcessingService.updateEnrollmentStatus(
+                enrollmentId, new UpdateEnrollmentStatusDto(EnrollmentStatus.APPROVED), this.teacherPrincipal);
+
+        assertEquals(1, this.seatsTaken());
+        assertTrue(this.holdOf(enrollmentId).isEmpty());
+    }
+
+    @Test
+    void shouldGiveTheSeatBackOnDenialAndCancellation() {
+        final UUID denied = this.enroll();
+        final User student = Fixtures.saveUser(this.userRepository, Role.STUDENT, "@stud.poodle.com");
+        final UUID canceled = this.enrollmentService.createEnrollment(this.course.getId(), this.principalOf(student)).getId();
+        assertEquals(2, this.seatsTaken());
+
+        this.enrollmentProcessingService.updateEnrollmentStatus(
+                denied, new UpdateEnrollmentStatusDto(EnrollmentStatus.DENIED), this.teacherPrincipal);
+        this.enrollmentProcessingService.updateEnrollmentStatus(
+                canceled, new UpdateEnrollmentStatusDto(EnrollmentStatus.CANCELED), this.principalOf(student));
+
+        assertEquals(0, this.seatsTaken());
+        assertTrue(this.holdOf(denied).isEmpty());
+        assertTrue(this.holdOf(canceled).isEmpty());
+    }
+
+    @Test
+    void shouldNotLetMoreStudentsEnrollThanThereAreSeatsUntilAHoldExpires() {
+        final UUID first = this.enroll();
+        this.enroll();
+
+        assertThrows(CourseCapacityReachedException.class, this::enroll);
+        assertFalse(this.seatHoldService.expire(first, this.course.getId()));
+
+        this.transactionTemplate.executeWithoutResult(status -> {
+            final SeatHold hold = this.holdOf(first).orElseThrow();
+            hold.setExpiresAt(Instant.now().minusSeconds(1));
+        });
+        assertTrue(this.seatHoldService.expire(first, this.course.getId()));
+        assertFalse(this.seatHoldService.expire(first, this.course.getId()));
+
+        assertEquals(1, this.seatsTaken());
+        this.enroll();
+        assertEquals(2, this.seatsTaken());
+    }
+
+    private UUID enroll() {
+        final User student = Fixtures.saveUser(this.userRepository, Role.STUDENT, "@stud.poodle.com");
+        return this.enrollmentService.createEnrollment(this.course.getId(), this.principalOf(student)).getId();
+    }
+
+    private Optional<SeatHold> holdOf(final UUID enrollmentId) {
+        return this.seatHoldRepository.findAll().stream()
+                .filter(hold -> hold.getEnrollmentId().equals(enrollmentId))
+                .findFirst();
+    }
+
+    private int seatsTaken() {
+        return this.courseRepository.findById(this.course.getId()).orElseThrow().getSeatsTaken();
+    }
+
+    private JwtPrincipal principalOf(final User user) {
+        return this.jwtProvider.parsePrincipal(this.jwtProvider.generateJwt(user));
+    }
+
+    private Course saveCourse(final User teacher,
+                              final int capacity) {
+        final Course course = Course.builder()
+                .courseName("Hold " + SEQUENCE.incrementAndGet())
+                .description("description")
+                .capacity(capacity)
+                .credits(5)
+                .startDate(LocalDate.now().plusDays(5))
+                .endDate(LocalDate.now().plusDays(60))
+                .build();
+        course.addSchedules(Set.of(Schedule.builder()
+                .courseType(CourseType.COURSE)
+                .weekday(Weekday.MONDAY)
+                .startTime(LocalTime.of(8, 0))
+                .endTime(LocalTime.of(10, 0))
+                .build()));
+        return this.transactionTemplate.execute(status -> {
+            course.setUser(this.userRepository.getReferenceById(teacher.getId()));
+            return this.courseRepository.save(course);
+        });
+    }
+}
@@ -0,0 +1,139 @@
+package com.ing.hubs.service.enrollment;
+
+import com.ing.hubs.exception.course.CourseCapacityReachedException;
+import com.ing.hubs.model.entity.course.Course;
+import com.ing.hubs.model.entity.enrollment.Enrollment;
+import com.ing.hubs.model.entity.enrollment.SeatHold;
+import com.ing.hubs.repository.SeatHoldRepository;
+import com.ing.hubs.service.CourseService;
+import com.ing.hubs.service.cron.SeatHoldCreatedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SeatHoldServiceTest {
+    private static final Instant NOW = Instant.parse("2024-03-10T15:00:00Z");
+    private static final Duration DURATION = Duration.ofHours(48);
+
+    @Mock
+    private SeatHoldRepository seatHoldRepository;
+    @Mock
+    private CourseService courseService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SeatHoldService seatHoldService;
+
+    @BeforeEach
+    void setup() {
+        this.seatHoldService = new SeatHoldService(this.seatHoldRepository, this.courseService, this.eventPublisher,
+                Clock.fixed(NOW, ZoneOffset.UTC), DURATION);
+    }
+
+    @Test
+    void shouldTakeTheSeatsAndPublishEveryHold() {
+        final Course course = this.course();
+        final Course otherCourse = this.course();
+        final List<Enrollment> enrollments = List.of(this.enrollment(course), this.enrollment(course), this.enrollment(otherCourse));
+        when(courseService.reserveSeats(any(Course.class), anyInt())).thenReturn(true);
+        when(seatHoldRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        this.seatHoldService.hold(enrollments);
+
+        verify(courseService).reserveSeats(course, 2);
+        verify(courseService).reserveSeats(otherCourse, 1);
+        enrollments.forEach(enrollment -> verify(eventPublisher).publishEvent(
+                new SeatHoldCreatedEvent(enrollment.getId(), enrollment.getCourse().getId(), NOW.plus(DURATION))));
+    }
+
+    @Test
+    void shouldNotHoldAnythingWhenACourseIsFull() {
+        final Course course = this.course();
+        when(courseService.reserveSeats(course, 1)).thenReturn(false);
+
+        assertThrows(CourseCapacityReachedException.class, () -> this.seatHoldService.hold(List.of(this.enrollment(course))));
+        verify(seatHoldRepository, never()).saveAll(anyList());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void shouldGiveTheSeatBackOnlyWhenReleasingOrExpiringAHold() {
+        final Enrollment held = this.enrollment(this.course());
+        final Enrollment notHeld = this.enrollment(this.course());
+        when(seatHoldRepository.deleteByEnrollmentId(held.getId())).thenReturn(1);
+        when(seatHoldRepository.deleteByEnrollmentId(notHeld.getId())).thenReturn(0);
+        when(seatHoldRepository.deleteExpiredByEnrollmentId(held.getId(), NOW)).thenReturn(1);
+
+        assertTrue(this.seatHoldService.release(held));
+        assertFalse(this.seatHoldService.release(notHeld));
+        assertTrue(this.seatHoldService.convert(held));
+        assertTrue(this.seatHoldService.expire(held.getId(), held.getCourse().getId()));
+
+        verify(courseService, times(1)).releaseSeats(held.getCourse(), 1);
+        verify(courseService, times(1)).releaseSeats(held.getCourse().getId(), 1);
+        verify(courseService, never()).releaseSeats(eq(notHeld.getCourse()), anyInt());
+    }
+
+    @Test
+    void shouldReleaseTheHeldSeatsOfManyEnrollmentsPerCourse() {
+        final Course course = this.course();
+        final Enrollment first = this.enrollment(course);
+        final Enrollment second = this.enrollment(course);
+        final Enrollment notHeld = this.enrollment(course);
+        when(seatHoldRepository.lockAllByEnrollmentIdIn(List.of(first.getId(), second.getId(), notHeld.getId())))
+                .thenReturn(List.of(this.hold(first), this.hold(second)));
+
+        this.seatHoldService.releaseAll(List.of(first, second, notHeld));
+
+        verify(seatHoldRepository).deleteAllByEnrollmentIdIn(Set.of(first.getId(), second.getId()));
+        verify(courseService).releaseSeats(course, 2);
+    }
+
+    @Test
+    void shouldDoNothingWhenHoldsAreOff() {
+        final SeatHoldService disabled = new SeatHoldService(this.seatHoldRepository, this.courseService, this.eventPublisher,
+                Clock.fixed(NOW, ZoneOffset.UTC), Duration.ZERO);
+        final Enrollment enrollment = this.enrollment(this.course());
+
+        disabled.hold(List.of(enrollment));
+        assertFalse(disabled.release(enrollment));
+        assertFalse(disabled.convert(enrollment));
+        assertEquals(Set.of(), disabled.lockHeld(List.of(enrollment.getId())));
+
+        verifyNoInteractions(seatHoldRepository, courseService, eventPublisher);
+    }
+
+    private SeatHold hold(final Enrollment enrollment) {
+        return SeatHold.builder()
+                .id(UUID.randomUUID())
+                .enrollmentId(enrollment.getId())
+                .courseId(enrollment.getCourse().getId())
+                .expiresAt(NOW.plus(DURATION))
+                .build();
+    }
+
+    private Course course() {
+        return Course.builder().id(UUID.randomUUID()).capacity(10).seatsTaken(0).build();
+    }
+
+    private Enrollment enrollment(final Course course) {
+        return Enrollment.builder().id(UUID.randomUUID()).course(course).build();
+    }
+}
@@ -0,0 +1,162 @@
+package com.ing.hubs.service.enrollment;
+
+import com.ing.hubs.dto.enrollment.UpdateEnrollmentStatusDto;
+import com.ing.hubs.exception.course.CourseCapacityReachedException;
+import com.ing.hubs.model.entity.course.Course;
+import com.ing.hubs.model.entity.course.schedule.CourseType;
+import com.ing.hubs.model.entity.course.schedule.Schedule;
+import com.ing.hubs.model.entity.course.schedule.Weekday;
+import com.ing.hubs.model.entity.enrollment.Enrollment;
+import com.ing.hubs.model.entity.enrollment.EnrollmentStatus;
+import com.ing.hubs.model.entity.user.Gender;
+import com.ing.hubs.model.entity.user.Role;
+import com.ing.hubs.model.entity.user.User;
+import com.ing.hubs.repository.CourseRepository;
+import com.ing.hubs.repository.EnrollmentRepository;
+import com.ing.hubs.repository.UserRepository;
+import com.ing.hubs.security.JwtPrincipal;
+import com.ing.hubs.security.JwtProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+@SpringBootTest
+@ActiveProfiles("test")
+class SeatReservationStressTest {
+    private static final int CAPACITY = 250;
+    private static final int APPROVALS = 2000;
+    private static final int THREADS = 16;
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+    @Autowired
+    private JwtProvider jwtProvider;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EnrollmentProcessingService enrollmentProcessingService;
+
+    @Test
+    void shouldNeverOverbookUnderConcurrentApprovals() throws Exception {
+        final String prefix = UUID.randomUUID().toString().substring(0, 8);
+        final User teacher = this.userRepository.save(this.user(prefix + "-teacher", "@poodle.com", Role.TEACHER, 0));
+        final JwtPrincipal teacherPrincipal = this.jwtProvider.parsePrincipal(this.jwtProvider.generateJwt(teacher));
+        final Course course = this.saveCourse(prefix, teacher);
+        final List<UUID> enrollmentIds = this.seedPendingEnrollments(prefix, course);
+
+        final AtomicInteger approved = new AtomicInteger();
+        final AtomicInteger rejected = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<?>> futures = new ArrayList<>();
+
+        for (UUID enrollmentId : enrollmentIds) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    this.enrollmentProcessingService.updateEnrollmentStatus(
+                            enrollmentId, new UpdateEnrollmentStatusDto(EnrollmentStatus.APPROVED), teacherPrincipal);
+                    approved.incrementAndGet();
+                } catch (CourseCapacityReachedException ex) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        final long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        final long elapsedNanos = System.nanoTime() - startedAt;
+        executor.shutdown();
+
+        log.info(String.format("%d concurrent approvals on %d threads took %d ms (%.0f approvals/s)",
+                APPROVALS, THREADS, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), APPROVALS / (elapsedNanos / 1e9)));
+
+        final Course reloaded = this.courseRepository.findById(course.getId()).orElseThrow();
+        assertEquals(CAPACITY, approved.get());
+        assertEquals(APPROVALS - CAPACITY, rejected.get());
+        assertEquals(CAPACITY, reloaded.getSeatsTaken());
+        assertEquals(CAPACITY, reloaded.getCapacity());
+        assertEquals(CAPACITY, this.enrollmentRepository.findAllByCourseId(course.getId()).stream()
+                .filter(enrollment -> enrollment.getStatus().equals(EnrollmentStatus.APPROVED))
+                .count());
+    }
+
+    private Course saveCourse(final String prefix,
+                              final User teacher) {
+        final Course course = Course.builder()
+                .courseName("Stress " + prefix)
+                .description("description")
+                .capacity(CAPACITY)
+                .credits(5)
+                .startDate(LocalDate.now().plusDays(5))
+                .endDate(LocalDate.now().plusDays(60))
+                .build();
+        course.addSchedules(Set.of(Schedule.builder()
+                .courseType(CourseType.COURSE)
+                .weekday(Weekday.MONDAY)
+                .startTime(LocalTime.of(8, 0))
+                .endTime(LocalTime.of(10, 0))
+                .build()));
+        return this.transactionTemplate.execute(status -> {
+            course.setUser(this.userRepository.getReferenceById(teacher.getId()));
+            return this.courseRepository.save(course);
+        });
+    }
+
+    private List<UUID> seedPendingEnrollments(final String prefix,
+                                              final Course course) {
+        return this.transactionTemplate.execute(status -> {
+            final Course courseReference = this.courseRepository.getReferenceById(course.getId());
+            final List<UUID> ids = new ArrayList<>(APPROVALS);
+            for (int i = 0; i < APPROVALS; i++) {
+                final User student = this.userRepository.save(this.user(prefix + "-student" + i, "@stud.poodle.com", Role.STUDENT, i + 1));
+                ids.add(this.enrollmentRepository.save(Enrollment.builder()
+                        .course(courseReference)
+                        .user(student)
+                        .status(EnrollmentStatus.PENDING)
+                        .build()).getId());
+            }
+            return ids;
+        });
+    }
+
+    private User user(final String username,
+                      final String domain,
+                      final Role role,
+                      final int index) {
+        return User.builder()
+                .firstName("Stress")
+                .lastName("Test")
+                .gender(Gender.MALE)
+                .dateOfBirth(LocalDate.now().minusYears(20))
+                .username(username)
+                .password("not-used")
+                .role(role)
+                .email(username + domain)
+                .phoneNumber("09" + String.format("%08d", index))
+                .build();
+    }
+}
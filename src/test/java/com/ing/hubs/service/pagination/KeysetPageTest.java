@@ -0,0 +1,52 @@
+package com.ing.hubs.service.pagination;
+
+import com.ing.hubs.dto.page.PageResponseDto;
+import com.ing.hubs.exception.InvalidPageRequestException;
+import com.ing.hubs.model.id.UuidV7;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetPageTest {
+
+    @Test
+    void shouldStartBeforeEveryIdWithTheDefaultSize() {
+        final KeysetPage page = KeysetPage.of(null, null);
+
+        assertEquals(new UUID(0, 0), page.after());
+        assertEquals(KeysetPage.DEFAULT_SIZE, page.size());
+        assertEquals(KeysetPage.DEFAULT_SIZE + 1, page.pageable().getPageSize());
+    }
+
+    @Test
+    void shouldResumeAfterTheLastIdOfThePreviousPage() {
+        final List<UUID> ids = List.of(UuidV7.randomUuid(), UuidV7.randomUuid(), UuidV7.randomUuid());
+
+        final PageResponseDto<UUID> first = KeysetPage.of(null, 2).toResponse(ids, Function.identity(), Function.identity());
+
+        assertEquals(ids.subList(0, 2), first.getItems());
+        assertEquals(ids.get(1), KeysetPage.of(first.getNextCursor(), 2).after());
+    }
+
+    @Test
+    void shouldNotReturnCursorOnTheLastPage() {
+        final List<UUID> ids = List.of(UuidV7.randomUuid(), UuidV7.randomUuid());
+
+        final PageResponseDto<UUID> page = KeysetPage.of(null, 2).toResponse(ids, Function.identity(), Function.identity());
+
+        assertEquals(ids, page.getItems());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void shouldRejectOutOfRangeSizesAndMalformedCursors() {
+        assertThrows(InvalidPageRequestException.class, () -> KeysetPage.of(null, 0));
+        assertThrows(InvalidPageRequestException.class, () -> KeysetPage.of(null, KeysetPage.MAX_SIZE + 1));
+        assertThrows(InvalidPageRequestException.class, () -> KeysetPage.of("%%%", null));
+        assertThrows(InvalidPageRequestException.class, () -> KeysetPage.of("AAAA", null));
+    }
+}
@@ -0,0 +1,143 @@
+package com.ing.hubs.service.timetable;
+
+import com.ing.hubs.dto.course.CourseResponseDto;
+import com.ing.hubs.dto.course.TimetablePlanDto;
+import com.ing.hubs.dto.course.TimetablePlanResponseDto;
+import com.ing.hubs.exception.EntityNotFoundException;
+import com.ing.hubs.exception.course.InvalidScheduleException;
+import com.ing.hubs.exception.course.InvalidTimetablePlanException;
+import com.ing.hubs.fixture.Fixtures;
+import com.ing.hubs.mapper.CourseMapper;
+import com.ing.hubs.mapper.ScheduleMapper;
+import com.ing.hubs.model.entity.course.Course;
+import com.ing.hubs.model.entity.course.schedule.Weekday;
+import com.ing.hubs.model.entity.enrollment.Enrollment;
+import com.ing.hubs.model.entity.enrollment.EnrollmentStatus;
+import com.ing.hubs.model.entity.user.Role;
+import com.ing.hubs.model.entity.user.User;
+import com.ing.hubs.repository.CourseRepository;
+import com.ing.hubs.security.JwtPrincipal;
+import com.ing.hubs.service.CourseService;
+import com.ing.hubs.service.SecurityService;
+import com.ing.hubs.service.UserService;
+import com.ing.hubs.service.conflict.CourseConflictGraph;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TimetableOptimizerServiceTest {
+    @Mock
+    private SecurityService securityService;
+    @Mock
+    private UserService userService;
+    @Mock
+    private CourseService courseService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TimetableOptimizerService timetableOptimizerService;
+
+    private final JwtPrincipal principal = new JwtPrincipal(UUID.randomUUID(), "username", Role.STUDENT);
+
+    private User student;
+
+    @BeforeEach
+    void setup() {
+        this.timetableOptimizerService = new TimetableOptimizerService(this.securityService, this.userService,
+                this.courseService, new CourseMapper(new ScheduleMapper()),
+                new CourseConflictGraph(mock(CourseRepository.class)), new TransactionTemplate(this.transactionManager),
+                Duration.ofSeconds(5));
+        this.student = User.builder().id(UUID.randomUUID()).role(Role.STUDENT).enrollments(new HashSet<>()).build();
+        lenient().when(securityService.extractUserId(any())).thenReturn(this.student.getId());
+        lenient().when(userService.findStudentWithTimetable(this.student.getId())).thenReturn(this.student);
+    }
+
+    @AfterEach
+    void teardown() {
+        this.timetableOptimizerService.shutdown();
+    }
+
+    @Test
+    void shouldPickTheConflictFreeCoursesWithTheMostCredits() {
+        final Course enrolled = Fixtures.course(Weekday.FRIDAY, 10, 12, 3, 10);
+        this.student.getEnrollments().add(Enrollment.builder()
+                .id(UUID.randomUUID())
+                .user(this.student)
+                .course(enrolled)
+                .status(EnrollmentStatus.APPROVED)
+                .build());
+        final Course mondayLong = Fixtures.course(Weekday.MONDAY, 9, 13, 6, 10);
+        final Course mondayMorning = Fixtures.course(Weekday.MONDAY, 9, 11, 4, 10);
+        final Course mondayNoon = Fixtures.course(Weekday.MONDAY, 11, 13, 4, 10);
+        final Course friday = Fixtures.course(Weekday.FRIDAY, 11, 13, 10, 10);
+        final Course tuesday = Fixtures.course(Weekday.TUESDAY, 9, 11, 1, 10);
+        final List<Course> courses = List.of(mondayLong, mondayMorning, mondayNoon, friday, tuesday);
+        when(courseService.findCoursesByIds(anyCollection())).thenReturn(courses);
+
+        final TimetablePlanResponseDto plan = this.timetableOptimizerService.plan(
+                new TimetablePlanDto(courses.stream().map(Course::getId).toList(), null), principal);
+
+        assertTrue(plan.isOptimal());
+        assertEquals(9, plan.getCredits());
+        assertEquals(Set.of(mondayMorning.getId(), mondayNoon.getId(), tuesday.getId()),
+                plan.getCourses().stream().map(CourseResponseDto::getId).collect(Collectors.toSet()));
+        // everything is read in one short transaction, the search runs after it
+        verify(transactionManager, times(1)).getTransaction(any());
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    void shouldKeepRequiredCoursesEvenWhenTheyCostCredits() {
+        final Course mondayLong = Fixtures.course(Weekday.MONDAY, 9, 13, 6, 10);
+        final Course mondayMorning = Fixtures.course(Weekday.MONDAY, 9, 11, 4, 10);
+        final Course mondayNoon = Fixtures.course(Weekday.MONDAY, 11, 13, 4, 10);
+        when(courseService.findCoursesByIds(anyCollection())).thenReturn(List.of(mondayLong, mondayMorning, mondayNoon));
+
+        final TimetablePlanResponseDto plan = this.timetableOptimizerService.plan(
+                new TimetablePlanDto(List.of(mondayLong.getId(), mondayMorning.getId()), List.of(mondayNoon.getId())), principal);
+
+        assertEquals(8, plan.getCredits());
+        assertEquals(List.of(mondayMorning.getId(), mondayNoon.getId()).stream().sorted().toList(),
+                plan.getCourses().stream().map(CourseResponseDto::getId).sorted().toList());
+    }
+
+    @Test
+    void shouldRejectRequiredCoursesThatCannotBeTakenTogether() {
+        final Course mondayLong = Fixtures.course(Weekday.MONDAY, 9, 13, 6, 10);
+        final Course mondayMorning = Fixtures.course(Weekday.MONDAY, 9, 11, 4, 10);
+        when(courseService.findCoursesByIds(anyCollection())).thenReturn(List.of(mondayLong, mondayMorning));
+
+        final TimetablePlanDto dto = new TimetablePlanDto(List.of(mondayLong.getId()), List.of(mondayMorning.getId(), mondayLong.getId()));
+
+        assertThrows(InvalidScheduleException.class, () -> this.timetableOptimizerService.plan(dto, principal));
+    }
+
+    @Test
+    void shouldRejectUnknownAndTooManyCourses() {
+        final Course monday = Fixtures.course(Weekday.MONDAY, 9, 11, 4, 10);
+        when(courseService.findCoursesByIds(anyCollection())).thenReturn(List.of(monday));
+        final TimetablePlanDto unknown = new TimetablePlanDto(List.of(monday.getId(), UUID.randomUUID()), null);
+        final TimetablePlanDto tooMany = new TimetablePlanDto(
+                IntStream.rangeClosed(0, TimetableSearch.MAX_COURSES).mapToObj(i -> UUID.randomUUID()).toList(), null);
+
+        assertThrows(EntityNotFoundException.class, () -> this.timetableOptimizerService.plan(unknown, principal));
+        assertThrows(InvalidTimetablePlanException.class, () -> this.timetableOptimizerService.plan(tooMany, principal));
+        verify(courseService, times(1)).findCoursesByIds(anyCollection());
+    }
+}
@@ -0,0 +1,132 @@
+package com.ing.hubs.service.timetable;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimetableSearchTest {
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void teardown() {
+        this.pool.shutdownNow();
+    }
+
+    @Test
+    void shouldFindTheSameOptimumAsTryingEverySet() {
+        final Random random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            final int courses = 12 + random.nextInt(5);
+            final int[] credits = random.ints(courses, 1, 9).toArray();
+            final long[] conflicts = this.randomConflicts(random, courses, 0.3);
+
+            final TimetableSearch.Result result = new TimetableSearch(credits, conflicts, this.deadline(5))
+                    .run(this.pool, 0);
+
+            assertTrue(result.complete());
+            assertConflictFree(result.chosen(), conflicts);
+            assertEquals(this.bruteForce(credits, conflicts), result.credits());
+        }
+    }
+
+    @Test
+    void shouldAlwaysKeepTheRequiredCourses() {
+        final int[] credits = {6, 5, 1};
+        final long[] conflicts = {0b010, 0b101, 0b010};
+
+        final TimetableSearch.Result result = new TimetableSearch(credits, conflicts, this.deadline(5))
+                .run(this.pool, 0b010);
+
+        assertEquals(0b010, result.chosen());
+        assertEquals(5, result.credits());
+        assertTrue(result.complete());
+    }
+
+    @Test
+    void shouldReturnTheBestSetSoFarOnceTheBudgetRunsOut() {
+        // greedily the 5 credits course is taken, while the two 4 credits ones it overlaps are better together
+        final int[] credits = {5, 4, 4};
+        final long[] conflicts = {0b110, 0b001, 0b001};
+
+        final TimetableSearch.Result expired = new TimetableSearch(credits, conflicts, System.nanoTime() - 1)
+                .run(this.pool, 0);
+        final TimetableSearch.Result complete = new TimetableSearch(credits, conflicts, this.deadline(5))
+                .run(this.pool, 0);
+
+        assertEquals(new TimetableSearch.Result(0b001, 5, false), expired);
+        assertEquals(new TimetableSearch.Result(0b110, 8, true), complete);
+    }
+
+    @Test
+    void shouldHandleAFullMaskOfCourses() {
+        final Random random = new Random(7);
+        final int[] credits = random.ints(TimetableSearch.MAX_COURSES, 1, 9).toArray();
+        final long[] conflicts = this.randomConflicts(random, TimetableSearch.MAX_COURSES, 0.2);
+
+        final TimetableSearch.Result result = new TimetableSearch(credits, conflicts, this.deadline(1))
+                .run(this.pool, 1L << 63);
+
+        assertTrue(result.chosen() < 0);
+        assertConflictFree(result.chosen(), conflicts);
+        int sum = 0;
+        for (long rest = result.chosen(); rest != 0; rest &= rest - 1) {
+            sum += credits[Long.numberOfTrailingZeros(rest)];
+        }
+        assertEquals(sum, result.credits());
+    }
+
+    @Test
+    void shouldRejectMoreCoursesThanAMaskHolds() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new TimetableSearch(new int[65], new long[65], this.deadline(1)));
+    }
+
+    private long deadline(final int seconds) {
+        return System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+    }
+
+    private long[] randomConflicts(final Random random,
+                                   final int courses,
+                                   final double density) {
+        final long[] conflicts = new long[courses];
+        for (int i = 0; i < courses; i++) {
+            for (int j = i + 1; j < courses; j++) {
+                if (random.nextDouble() < density) {
+                    conflicts[i] |= 1L << j;
+                    conflicts[j] |= 1L << i;
+                }
+            }
+        }
+        return conflicts;
+    }
+
+    private int bruteForce(final int[] credits,
+                           final long[] conflicts) {
+        int best = 0;
+        for (long set = 0; set < 1L << credits.length; set++) {
+            int sum = 0;
+            boolean free = true;
+            for (long rest = set; rest != 0 && free; rest &= rest - 1) {
+                final int course = Long.numberOfTrailingZeros(rest);
+                free = (conflicts[course] & set) == 0;
+                sum += credits[course];
+            }
+            if (free) {
+                best = Math.max(best, sum);
+            }
+        }
+        return best;
+    }
+
+    private static void assertConflictFree(final long chosen,
+                                           final long[] conflicts) {
+        for (long rest = chosen; rest != 0; rest &= rest - 1) {
+            assertEquals(0, conflicts[Long.numberOfTrailingZeros(rest)] & chosen);
+        }
+    }
+}